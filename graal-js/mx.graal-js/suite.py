@@ -563,7 +563,7 @@ suite = {
 
     "JS_INTEROP_MICRO_BENCHMARKS" : {
       "subDir" : "src",
-      "description" : "Graal.js JMH Interop Suite",
+      "description" : "Graal.js JMH Suite",
       "dependencies" : ["com.oracle.truffle.js.jmh"],
       "exclude" : [
         "mx:JUNIT"
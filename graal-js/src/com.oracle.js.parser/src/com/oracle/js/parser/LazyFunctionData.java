@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.js.parser;
+
+import java.util.Iterator;
+
+import org.graalvm.collections.EconomicSet;
+
+import com.oracle.js.parser.ir.AccessNode;
+import com.oracle.js.parser.ir.FunctionNode;
+import com.oracle.js.parser.ir.IdentNode;
+import com.oracle.js.parser.ir.LexicalContext;
+import com.oracle.js.parser.ir.LexicalContextNode;
+import com.oracle.js.parser.ir.LexicalContextScope;
+import com.oracle.js.parser.ir.visitor.NodeVisitor;
+
+/**
+ * Pre-parse data of a function whose body has only been scanned, see
+ * {@link FunctionNode#isLazilyParsed()}. Contains everything needed to parse the function on
+ * demand, as well as the names the function may refer to but does not declare itself, so that
+ * scope analysis of the enclosing functions can be done without the body.
+ */
+public final class LazyFunctionData implements RecompilableScriptFunctionData {
+    private static final String[] EMPTY_NAMES = new String[0];
+
+    private final int functionNodeId;
+    private final int functionFlags;
+    private final Object startParserState;
+    private final Object endParserState;
+    private final boolean isModule;
+    private final String[] freeNames;
+
+    LazyFunctionData(int functionNodeId, int functionFlags, Object startParserState, Object endParserState, boolean isModule, String[] freeNames) {
+        this.functionNodeId = functionNodeId;
+        this.functionFlags = functionFlags;
+        this.startParserState = startParserState;
+        this.endParserState = endParserState;
+        this.isModule = isModule;
+        this.freeNames = freeNames;
+    }
+
+    /**
+     * Nested functions are not known before the body is parsed, so they are never skipped.
+     */
+    @Override
+    public RecompilableScriptFunctionData getScriptFunctionData(int functionId) {
+        return functionId == functionNodeId ? this : null;
+    }
+
+    @Override
+    public int getFunctionNodeId() {
+        return functionNodeId;
+    }
+
+    @Override
+    public int getFunctionFlags() {
+        return functionFlags;
+    }
+
+    @Override
+    public Object getEndParserState() {
+        return endParserState;
+    }
+
+    Object getStartParserState() {
+        return startParserState;
+    }
+
+    boolean isModule() {
+        return isModule;
+    }
+
+    /**
+     * Names of identifiers the function (including its nested functions) may use without declaring
+     * them. This is a superset: names found by the body scan are only filtered against the
+     * parameters, since the declarations of the body are not known.
+     */
+    public String[] getFreeNames() {
+        return freeNames;
+    }
+
+    /**
+     * Collects the names used but not declared in the parameters of the given function, and adds
+     * the names found by the body scan that are not parameter names.
+     */
+    static String[] collectFreeNames(FunctionNode function, EconomicSet<String> bodyNames) {
+        EconomicSet<String> freeNames = EconomicSet.create();
+        function.accept(new NodeVisitor<LexicalContext>(new LexicalContext()) {
+            @Override
+            public boolean enterIdentNode(IdentNode identNode) {
+                if (!identNode.isPropertyName()) {
+                    addIfFree(identNode.getName());
+                }
+                return true;
+            }
+
+            @Override
+            public boolean enterAccessNode(AccessNode accessNode) {
+                if (accessNode.isPrivate()) {
+                    addIfFree(accessNode.getPrivateName());
+                }
+                return true;
+            }
+
+            @Override
+            public boolean enterFunctionNode(FunctionNode functionNode) {
+                if (functionNode != function && functionNode.isLazilyParsed()) {
+                    for (String name : functionNode.getLazyFunctionData().getFreeNames()) {
+                        addIfFree(name);
+                    }
+                    return false;
+                }
+                return true;
+            }
+
+            private void addIfFree(String name) {
+                if (freeNames.contains(name)) {
+                    return;
+                }
+                for (Iterator<LexicalContextNode> iterator = lc.getAllNodes(); iterator.hasNext();) {
+                    LexicalContextNode node = iterator.next();
+                    if (node instanceof LexicalContextScope && ((LexicalContextScope) node).getScope().hasSymbol(name)) {
+                        return;
+                    }
+                }
+                freeNames.add(name);
+            }
+        });
+        if (bodyNames != null) {
+            EconomicSet<String> parameterNames = EconomicSet.create();
+            for (IdentNode parameter : function.getParameters()) {
+                parameterNames.add(parameter.getName());
+            }
+            for (String name : bodyNames) {
+                if (!parameterNames.contains(name)) {
+                    freeNames.add(name);
+                }
+            }
+        }
+        if (freeNames.isEmpty()) {
+            return EMPTY_NAMES;
+        }
+        String[] names = new String[freeNames.size()];
+        int i = 0;
+        for (String name : freeNames) {
+            names[i++] = name;
+        }
+        return names;
+    }
+}
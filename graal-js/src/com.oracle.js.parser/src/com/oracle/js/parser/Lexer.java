@@ -180,7 +180,7 @@ public class Lexer extends Scanner {
      */
     public Lexer(final Source source, final int start, final int len, final TokenStream stream, final boolean scripting, final int ecmaScriptVersion, final boolean shebang, final boolean isModule,
                     final boolean pauseOnFunctionBody, final boolean allowBigInt) {
-        super(source.getContent().toString().toCharArray(), 1, start, len);
+        super(source.getContentChars(), 1, start, len);
         this.source = source;
         this.stream = stream;
         this.scripting = scripting;
@@ -65,6 +65,7 @@ import static com.oracle.js.parser.TokenType.ESCSTRING;
 import static com.oracle.js.parser.TokenType.EXPORT;
 import static com.oracle.js.parser.TokenType.EXTENDS;
 import static com.oracle.js.parser.TokenType.FINALLY;
+import static com.oracle.js.parser.TokenType.FOR;
 import static com.oracle.js.parser.TokenType.FROM;
 import static com.oracle.js.parser.TokenType.FUNCTION;
 import static com.oracle.js.parser.TokenType.GET;
@@ -78,7 +79,9 @@ import static com.oracle.js.parser.TokenType.LBRACKET;
 import static com.oracle.js.parser.TokenType.LET;
 import static com.oracle.js.parser.TokenType.LPAREN;
 import static com.oracle.js.parser.TokenType.MUL;
+import static com.oracle.js.parser.TokenType.NEW;
 import static com.oracle.js.parser.TokenType.OF;
+import static com.oracle.js.parser.TokenType.OPTIONAL_CHAIN;
 import static com.oracle.js.parser.TokenType.PERIOD;
 import static com.oracle.js.parser.TokenType.RBRACE;
 import static com.oracle.js.parser.TokenType.RBRACKET;
@@ -99,6 +102,7 @@ import static com.oracle.js.parser.TokenType.TERNARY;
 import static com.oracle.js.parser.TokenType.VAR;
 import static com.oracle.js.parser.TokenType.VOID;
 import static com.oracle.js.parser.TokenType.WHILE;
+import static com.oracle.js.parser.TokenType.WITH;
 import static com.oracle.js.parser.TokenType.YIELD;
 import static com.oracle.js.parser.TokenType.YIELD_STAR;
 
@@ -111,6 +115,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
+import org.graalvm.collections.EconomicSet;
 import org.graalvm.collections.Pair;
 
 import com.oracle.js.parser.ir.AccessNode;
@@ -371,6 +376,10 @@ public class Parser extends AbstractParser {
      * @param len source length
      */
     private void prepareLexer(final int startPos, final int len) {
+        if (env.lazyParsing) {
+            // lazily parsed functions will be reparsed from the same source
+            source.retainContentChars();
+        }
         stream = new TokenStream();
         lexer = new Lexer(source, startPos, len, stream, scripting, env.ecmaScriptVersion, shebang, isModule, reparsedFunction != null, allowBigInt);
         lexer.line = lexer.pendingLine = lineOffset + 1;
@@ -483,6 +492,85 @@ public class Parser extends AbstractParser {
         return parse(PROGRAM_NAME, 0, source.getLength(), 0, null, argumentNames);
     }
 
+    /**
+     * Parse the body of a lazily parsed function (see {@link FunctionNode#isLazilyParsed()}).
+     * Nested functions are pre-parsed and stay lazily parsed.
+     *
+     * @param lazyFunction the pre-parsed function
+     * @return the fully parsed function node
+     */
+    public FunctionNode reparse(final FunctionNode lazyFunction) {
+        final LazyFunctionData data = lazyFunction.getLazyFunctionData();
+        final ParserState startParserState = (ParserState) data.getStartParserState();
+        // Stop after the closing RBRACE, the function may be followed by the rest of a template.
+        final int limit = ((ParserState) data.getEndParserState()).position + 1;
+        final boolean oldModule = isModule;
+        final boolean oldStrictMode = isStrictMode;
+        try {
+            setReparsedFunction(data);
+            isModule = data.isModule();
+            isStrictMode = lazyFunction.isStrict();
+            stream = new TokenStream();
+            lexer = startParserState.createLexer(source, limit, stream, scripting, env.ecmaScriptVersion, shebang, isModule, allowBigInt);
+            line = startParserState.line;
+            linePosition = startParserState.linePosition;
+            scanFirstToken();
+
+            // Parse the function as if it was the only element of a script.
+            final long scriptToken = Token.toDesc(FUNCTION, startParserState.position, limit - startParserState.position);
+            final Scope topScope = Scope.createGlobal();
+            final ParserContextFunctionNode script = createParserContextFunctionNode(null, scriptToken, FunctionNode.IS_SCRIPT, line, Collections.<IdentNode> emptyList(), 0, topScope);
+            lc.push(script);
+            final ParserContextBlockNode body = newBlock(topScope);
+            functionDeclarations = new ArrayList<>();
+            final FunctionNode function;
+            try {
+                if (lazyFunction.isAsync()) {
+                    function = (FunctionNode) asyncFunctionExpression(lazyFunction.isStatement(), true);
+                } else {
+                    function = (FunctionNode) functionExpression(lazyFunction.isStatement(), true);
+                }
+            } finally {
+                functionDeclarations = null;
+                restoreBlock(body);
+                lc.pop(script);
+            }
+            assert function.getId() == lazyFunction.getId() && !function.isLazilyParsed();
+
+            // Keep the name and flags determined by the context of the original parse, the flags
+            // depending on the body are only known now.
+            final FunctionNode result = new FunctionNode(
+                            source,
+                            function.getLineNumber(),
+                            function.getToken(),
+                            function.getFinish(),
+                            function.getFirstToken(),
+                            function.getLastToken(),
+                            lazyFunction.getIdent(),
+                            lazyFunction.getName(),
+                            function.getLength(),
+                            function.getNumOfParams(),
+                            function.getParameters(),
+                            lazyFunction.getFlags() | (function.getFlags() & ~FunctionNode.IS_DECLARED),
+                            function.getBody(),
+                            function.getEndParserState(),
+                            lazyFunction.getModule(),
+                            lazyFunction.getInternalName());
+            if (lazyFunction.isParenthesized()) {
+                result.makeParenthesized(lazyFunction.getStart(), lazyFunction.getFinish());
+            }
+            return result;
+        } catch (final Exception e) {
+            handleParseException(e);
+
+            return null;
+        } finally {
+            isStrictMode = oldStrictMode;
+            isModule = oldModule;
+            setReparsedFunction(null);
+        }
+    }
+
     /**
      * Parse and return the list of function parameter list. A comma separated list of function
      * parameter identifiers is expected to be parsed. Errors will be thrown and the error manager
@@ -4831,6 +4919,7 @@ public class Parser extends AbstractParser {
      */
     private Expression functionExpression(final boolean isStatement, final boolean topLevel, final boolean async, final long functionToken, final boolean expressionStatement) {
         final int functionLine = line;
+        final int functionLinePosition = linePosition;
         // FUNCTION is tested in caller.
         assert type == FUNCTION;
         next();
@@ -4872,6 +4961,13 @@ public class Parser extends AbstractParser {
             // name is null, generate anonymous name
             functionNode.setInternalName(getDefaultFunctionName());
         }
+        final ParserState startParserState;
+        if (canParseLazily(functionNode)) {
+            functionNode.setLazilyParsed(true);
+            startParserState = new ParserState(Token.descPosition(functionToken), functionLine, functionLinePosition);
+        } else {
+            startParserState = null;
+        }
         lc.push(functionNode);
 
         Block functionBody;
@@ -4915,12 +5011,15 @@ public class Parser extends AbstractParser {
 
         verifyParameterList(functionNode);
 
-        final FunctionNode function = createFunctionNode(
+        FunctionNode function = createFunctionNode(
                         functionNode,
                         functionToken,
                         name,
                         functionLine,
                         functionBody);
+        if (functionNode.isLazilyParsed()) {
+            function = createLazilyParsedFunctionNode(functionNode, function, startParserState);
+        }
 
         if (isStatement) {
             if (isAnonymous) {
@@ -4944,6 +5043,26 @@ public class Parser extends AbstractParser {
         return function;
     }
 
+    /**
+     * Only plain function declarations and expressions are parsed lazily. Functions in class
+     * bodies may refer to private names of the class, which are not known when reparsing. In
+     * scripting mode, the body scan cannot tell here strings from operators.
+     */
+    private boolean canParseLazily(final ParserContextFunctionNode functionNode) {
+        return env.lazyParsing && !env.syntaxExtensions && !scripting && lc.getCurrentClass() == null &&
+                        (reparsedFunction == null || functionNode.getId() != reparsedFunction.getFunctionNodeId());
+    }
+
+    /**
+     * Attaches the data needed to parse the body of a pre-parsed function on demand. The body of
+     * the function has only been scanned, see {@link #preParseFunctionBody}.
+     */
+    private FunctionNode createLazilyParsedFunctionNode(final ParserContextFunctionNode functionNode, final FunctionNode function, final ParserState startParserState) {
+        final LazyFunctionData data = new LazyFunctionData(function.getId(), function.getFlags(), startParserState, functionNode.getEndParserState(), isModule,
+                        LazyFunctionData.collectFreeNames(function, functionNode.getLazyBodyNames()));
+        return function.setLazilyParsed(data);
+    }
+
     private static Block wrapParameterBlock(ParserContextBlockNode parameterBlock, Block functionBody) {
         assert parameterBlock.getFlag(Block.IS_PARAMETER_BLOCK) != 0 && functionBody.isFunctionBody();
         if (parameterBlock.getStatements().isEmpty()) {
@@ -5209,7 +5328,8 @@ public class Parser extends AbstractParser {
         ParserContextBlockNode body = newBlock(functionNode.createBodyScope());
         try {
             final int functionId = functionNode.getId();
-            parseBody = reparsedFunction == null || functionId <= reparsedFunction.getFunctionNodeId();
+            // When reparsing, skip the bodies of nested functions known to the reparsed function.
+            parseBody = reparsedFunction == null || functionId <= reparsedFunction.getFunctionNodeId() || reparsedFunction.getScriptFunctionData(functionId) == null;
             // Nashorn extension: expression closures
             if ((env.syntaxExtensions || functionNode.isArrow()) && type != LBRACE) {
                 // Example:
@@ -5237,7 +5357,10 @@ public class Parser extends AbstractParser {
                 bodyFinish = finish;
             } else {
                 expectDontAdvance(LBRACE);
-                if (parseBody || !skipFunctionBody(functionNode)) {
+                if (functionNode.isLazilyParsed()) {
+                    endParserState = preParseFunctionBody(functionNode);
+                }
+                if (endParserState == null && (parseBody || !skipFunctionBody(functionNode))) {
                     next();
                     // Gather the function elements.
                     final List<Statement> prevFunctionDecls = functionDeclarations;
@@ -5351,7 +5474,7 @@ public class Parser extends AbstractParser {
         }
 
         stream.reset();
-        lexer = parserState.createLexer(source, lexer, stream, scripting, env.ecmaScriptVersion, shebang, isModule, allowBigInt);
+        lexer = parserState.createLexer(source, lexer.limit, stream, scripting, env.ecmaScriptVersion, shebang, isModule, allowBigInt);
         line = parserState.line;
         linePosition = parserState.linePosition;
         // Doesn't really matter, but it's safe to treat it as if there were a semicolon before
@@ -5362,6 +5485,169 @@ public class Parser extends AbstractParser {
         return true;
     }
 
+    /**
+     * Scans the body of a lazily parsed function up to its closing RBRACE without building any
+     * nodes. Only brackets are matched; the names the body may refer to are recorded, as well as
+     * uses of eval and new.target, which affect the enclosing functions. Bodies with a directive
+     * prologue, or that the scan cannot handle, are parsed in full instead.
+     *
+     * The scan does not detect syntax errors, so it is only used when reparsing a function, for
+     * the bodies of its nested functions. These have already been checked by the initial parse,
+     * which parses lazily parsed bodies in full to report early errors at load time, and only
+     * drops their nodes afterwards, see {@link FunctionNode#setLazilyParsed}.
+     *
+     * @return the state before the closing RBRACE, or {@code null} if the body has to be parsed
+     */
+    private ParserState preParseFunctionBody(final ParserContextFunctionNode functionNode) {
+        assert type == LBRACE;
+        final ParserState bodyStartState = new ParserState(Token.descPosition(token), line, linePosition);
+        final boolean previousPauseOnRightBrace = lexer.pauseOnRightBrace;
+        try {
+            // Stop at each RBRACE, it could be the end of a template literal substitution.
+            lexer.pauseOnRightBrace = true;
+            final TokenType first = lookahead();
+            if (first == STRING || first == ESCSTRING) {
+                // "use strict" changes how the body is parsed.
+                functionNode.setLazilyParsed(false);
+                return null;
+            }
+            if (reparsedFunction == null) {
+                // Initial parse: check the body for early errors.
+                return null;
+            }
+            return scanFunctionBody(functionNode);
+        } catch (final ParserException e) {
+            // Let the full parse report the error.
+            stream.reset();
+            lexer = bodyStartState.createLexer(source, lexer.limit, stream, scripting, env.ecmaScriptVersion, shebang, isModule, allowBigInt);
+            line = bodyStartState.line;
+            linePosition = bodyStartState.linePosition;
+            type = RPAREN;
+            scanFirstToken();
+            assert type == LBRACE;
+            functionNode.setLazilyParsed(false);
+            return null;
+        } finally {
+            lexer.pauseOnRightBrace = previousPauseOnRightBrace;
+        }
+    }
+
+    private ParserState scanFunctionBody(final ParserContextFunctionNode functionNode) {
+        final EconomicSet<String> names = EconomicSet.create();
+        // Open brackets; IF stands for the parenthesis of a statement, TEMPLATE_HEAD for a
+        // template literal substitution.
+        final ArrayList<TokenType> brackets = new ArrayList<>();
+        brackets.add(LBRACE);
+        TokenType previous = LBRACE;
+        boolean afterStatementParen = false;
+        while (true) {
+            next();
+            stream.commit(k);
+            final TokenType current = type;
+            final boolean afterMemberAccess = previous == PERIOD || previous == OPTIONAL_CHAIN;
+            switch (current) {
+                case LBRACE:
+                case LBRACKET:
+                case TEMPLATE_HEAD:
+                    brackets.add(current);
+                    break;
+                case LPAREN:
+                    brackets.add(previous == IF || previous == WHILE || previous == FOR || previous == WITH ? IF : LPAREN);
+                    break;
+                case RPAREN:
+                    final TokenType paren = popBracket(brackets, LPAREN, IF);
+                    afterStatementParen = paren == IF;
+                    break;
+                case RBRACKET:
+                    popBracket(brackets, LBRACKET, LBRACKET);
+                    break;
+                case RBRACE:
+                    if (popBracket(brackets, LBRACE, TEMPLATE_HEAD) == TEMPLATE_HEAD) {
+                        lexer.scanTemplateSpan();
+                        next();
+                        if (type == TEMPLATE_MIDDLE) {
+                            brackets.add(TEMPLATE_HEAD);
+                        }
+                    } else if (brackets.isEmpty()) {
+                        functionNode.setLazyBodyNames(names);
+                        return new ParserState(Token.descPosition(token), line, linePosition);
+                    }
+                    break;
+                case DIV:
+                case ASSIGN_DIV:
+                    if (canStartRegex(functionNode, previous, afterStatementParen)) {
+                        if (!lexer.scanLiteral(token, type, lineInfoReceiver)) {
+                            throw error(AbstractParser.message(MESSAGE_EXPECTED_OPERAND, type.getNameOrType()), token);
+                        }
+                        next();
+                    }
+                    break;
+                case IDENT:
+                    if (!afterMemberAccess) {
+                        final String name = (String) lexer.getValueOf(token, isStrictMode);
+                        names.add(name);
+                        if (EVAL_NAME.equals(name) && lookahead() == LPAREN) {
+                            markEval();
+                        }
+                    }
+                    break;
+                case PERIOD:
+                    if (previous == NEW && lookahead() == IDENT && "target".equals(lexer.getValueOf(getToken(k + 1), isStrictMode))) {
+                        markNewTarget();
+                    }
+                    break;
+                case EOF:
+                case ERROR:
+                    throw error(AbstractParser.message(MESSAGE_EXPECTED_STMT, type.getNameOrType()), token);
+                default:
+                    if (!afterMemberAccess && (current.isContextualKeyword() || current.isFutureStrict())) {
+                        names.add(current.getName());
+                    }
+                    break;
+            }
+            previous = type;
+            if (current != RPAREN) {
+                afterStatementParen = false;
+            }
+        }
+    }
+
+    private TokenType popBracket(final ArrayList<TokenType> brackets, final TokenType open, final TokenType alternative) {
+        final TokenType top = brackets.isEmpty() ? null : brackets.remove(brackets.size() - 1);
+        if (top != open && top != alternative) {
+            throw error(AbstractParser.message(MESSAGE_EXPECTED_OPERAND, type.getNameOrType()), token);
+        }
+        return top;
+    }
+
+    /**
+     * Whether a slash after the given token starts a regular expression literal, i.e. whether an
+     * operand is expected.
+     */
+    private static boolean canStartRegex(final ParserContextFunctionNode functionNode, final TokenType previous, final boolean afterStatementParen) {
+        switch (previous) {
+            case RPAREN:
+                return afterStatementParen;
+            case RBRACKET:
+            case THIS:
+            case SUPER:
+            case INCPREFIX:
+            case DECPREFIX:
+            case TEMPLATE:
+            case TEMPLATE_TAIL:
+                return false;
+            case YIELD:
+                return functionNode.isGenerator();
+            case AWAIT:
+                return functionNode.isAsync();
+            case TEMPLATE_HEAD:
+            case TEMPLATE_MIDDLE:
+                return true;
+            default:
+                return previous.getKind() != TokenKind.LITERAL && !previous.isContextualKeyword() && !previous.isFutureStrict();
+        }
+    }
+
     /**
      * Encapsulates part of the state of the parser, enough to reconstruct the state of both parser
      * and lexer for resuming parsing after skipping a function body.
@@ -5377,9 +5663,9 @@ public class Parser extends AbstractParser {
             this.linePosition = linePosition;
         }
 
-        Lexer createLexer(final Source source, final Lexer lexer, final TokenStream stream,
+        Lexer createLexer(final Source source, final int limit, final TokenStream stream,
                         final boolean scripting, final int ecmaScriptVersion, final boolean shebang, final boolean isModule, final boolean allowBigInt) {
-            final Lexer newLexer = new Lexer(source, position, lexer.limit - position, stream, scripting, ecmaScriptVersion, shebang, isModule, true, allowBigInt);
+            final Lexer newLexer = new Lexer(source, position, limit - position, stream, scripting, ecmaScriptVersion, shebang, isModule, true, allowBigInt);
             newLexer.restoreState(new Lexer.State(position, Integer.MAX_VALUE, line, -1, linePosition, SEMICOLON));
             return newLexer;
         }
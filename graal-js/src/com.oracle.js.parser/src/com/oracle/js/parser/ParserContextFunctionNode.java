@@ -44,6 +44,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.graalvm.collections.EconomicSet;
+
 import com.oracle.js.parser.ir.Block;
 import com.oracle.js.parser.ir.Expression;
 import com.oracle.js.parser.ir.ExpressionStatement;
@@ -100,6 +102,11 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
     private Module module;
     private String internalName;
 
+    /** Whether the body of this function is only pre-parsed, see {@link LazyFunctionData}. */
+    private boolean lazilyParsed;
+    /** Identifier names found while scanning the body of a lazily parsed function. */
+    private EconomicSet<String> lazyBodyNames;
+
     /**
      * @param token The token for the function
      * @param ident External function name
@@ -486,6 +493,23 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
         this.internalName = internalName;
     }
 
+    public boolean isLazilyParsed() {
+        return lazilyParsed;
+    }
+
+    public void setLazilyParsed(boolean lazilyParsed) {
+        this.lazilyParsed = lazilyParsed;
+    }
+
+    public EconomicSet<String> getLazyBodyNames() {
+        return lazyBodyNames;
+    }
+
+    public void setLazyBodyNames(EconomicSet<String> lazyBodyNames) {
+        assert lazilyParsed;
+        this.lazyBodyNames = lazyBodyNames;
+    }
+
     private static int calculateLength(final List<IdentNode> parameters) {
         int length = 0;
         if (parameters != null) {
@@ -81,6 +81,9 @@ public final class Source {
     /** source URL set via //@ sourceURL or //# sourceURL directive */
     private String explicitURL;
 
+    /** Source content as a char array, optionally retained for lexers resuming mid-source. */
+    private volatile char[] contentChars;
+
     // Do *not* make this public, ever! Trusts the URL and content.
     private Source(final String name, final String base, final Data data) {
         this.name = name;
@@ -411,6 +414,27 @@ public final class Source {
         return data();
     }
 
+    /**
+     * Get the content of this source as a char array. The returned array must not be modified.
+     */
+    char[] getContentChars() {
+        char[] chars = contentChars;
+        if (chars == null) {
+            chars = data().toString().toCharArray();
+        }
+        return chars;
+    }
+
+    /**
+     * Retain the char array of the content, so that lexers resuming in the middle of the source
+     * (e.g. to reparse a lazily parsed function) do not have to copy the whole source again.
+     */
+    void retainContentChars() {
+        if (contentChars == null) {
+            contentChars = data().toString().toCharArray();
+        }
+    }
+
     /**
      * Get the length in chars for this source
      *
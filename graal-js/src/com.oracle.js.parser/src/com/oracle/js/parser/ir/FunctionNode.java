@@ -46,6 +46,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
+import com.oracle.js.parser.LazyFunctionData;
 import com.oracle.js.parser.Source;
 import com.oracle.js.parser.Token;
 import com.oracle.js.parser.ir.visitor.NodeVisitor;
@@ -102,6 +103,9 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
 
     private boolean usesAncestorScope;
 
+    /** Pre-parse data if the body of this function has not been parsed yet. */
+    private LazyFunctionData lazyFunctionData;
+
     /** Is anonymous function flag. */
     public static final int IS_ANONYMOUS = 1 << 0;
 
@@ -316,6 +320,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         this.numOfParams = functionNode.numOfParams;
         this.module = functionNode.module;
         this.internalName = functionNode.internalName;
+        this.lazyFunctionData = functionNode.lazyFunctionData;
     }
 
     @Override
@@ -464,6 +469,13 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         return getFlag(HAS_EVAL);
     }
 
+    /**
+     * Check if a nested function contains a call to {@code eval}.
+     */
+    public boolean hasNestedEval() {
+        return getFlag(HAS_NESTED_EVAL);
+    }
+
     /**
      * Get the first token for this function
      *
@@ -756,6 +768,29 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         this.usesAncestorScope = usesAncestorScope;
     }
 
+    /**
+     * Returns true if only the signature of this function has been parsed so far and the body is
+     * still to be parsed on demand, see {@link #getLazyFunctionData()}.
+     */
+    public boolean isLazilyParsed() {
+        return lazyFunctionData != null;
+    }
+
+    public LazyFunctionData getLazyFunctionData() {
+        return lazyFunctionData;
+    }
+
+    /**
+     * Returns a copy of this function node with an empty body, to be parsed on demand using the
+     * given pre-parse data.
+     */
+    public FunctionNode setLazilyParsed(final LazyFunctionData data) {
+        Block emptyBody = new Block(body.getToken(), body.getFinish(), Block.IS_BODY, Scope.createFunctionBody(null, flags), Collections.<Statement> emptyList());
+        FunctionNode lazyFunction = new FunctionNode(this, lastToken, endParserState, flags, name, emptyBody, parameters, source);
+        lazyFunction.lazyFunctionData = data;
+        return lazyFunction;
+    }
+
     public boolean isNormal() {
         return !getFlag(IS_SCRIPT | IS_MODULE | IS_GETTER | IS_SETTER | IS_METHOD | IS_ARROW | IS_GENERATOR | IS_ASYNC);
     }
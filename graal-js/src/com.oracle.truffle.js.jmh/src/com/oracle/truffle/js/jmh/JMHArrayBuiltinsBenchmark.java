@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code Array.prototype} builtins on int, double and object arrays.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHArrayBuiltinsBenchmark {
+    @State(Scope.Thread)
+    public static class ArrayBuiltinsState extends JMHJsFixture {
+        @Param({"100", "10000"}) public int length;
+
+        @Override
+        protected void bindParameters(Value bindings) {
+            bindings.putMember("LENGTH", length);
+        }
+
+        @Override
+        protected String getSource() {
+            return "" +
+                            "const ints = [];\n" +
+                            "const doubles = [];\n" +
+                            "const objects = [];\n" +
+                            "for (let i = 0; i < LENGTH; i++) {\n" +
+                            "  ints.push((i * 7919) % LENGTH);\n" +
+                            "  doubles.push(i / 3);\n" +
+                            "  objects.push({value: i});\n" +
+                            "}\n" +
+                            "function mapFilterReduce() {\n" +
+                            "  return ints.map(x => x * 2).filter(x => (x & 3) === 0).reduce((a, b) => a + b, 0);\n" +
+                            "}\n" +
+                            "function forEachObjects() {\n" +
+                            "  let sum = 0;\n" +
+                            "  objects.forEach(o => { sum += o.value; });\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "function sortInts() {\n" +
+                            "  return ints.slice().sort((a, b) => a - b)[0];\n" +
+                            "}\n" +
+                            "function sortDefault() {\n" +
+                            "  return doubles.slice().sort()[0];\n" +
+                            "}\n" +
+                            "function indexOfIncludes() {\n" +
+                            "  return ints.indexOf(LENGTH - 1) + (doubles.includes(-1) ? 1 : 0);\n" +
+                            "}\n" +
+                            "function pushPopShift() {\n" +
+                            "  const a = [];\n" +
+                            "  for (let i = 0; i < LENGTH; i++) {\n" +
+                            "    a.push(i);\n" +
+                            "  }\n" +
+                            "  let sum = 0;\n" +
+                            "  while (a.length > 1) {\n" +
+                            "    sum += a.pop() - a.shift();\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "function spreadConcat() {\n" +
+                            "  return [...ints, ...doubles].concat(ints).length;\n" +
+                            "}\n";
+        }
+    }
+
+    @Benchmark
+    public Value mapFilterReduce(ArrayBuiltinsState state) {
+        return state.run("mapFilterReduce");
+    }
+
+    @Benchmark
+    public Value forEachObjects(ArrayBuiltinsState state) {
+        return state.run("forEachObjects");
+    }
+
+    @Benchmark
+    public Value sortInts(ArrayBuiltinsState state) {
+        return state.run("sortInts");
+    }
+
+    @Benchmark
+    public Value sortDefault(ArrayBuiltinsState state) {
+        return state.run("sortDefault");
+    }
+
+    @Benchmark
+    public Value indexOfIncludes(ArrayBuiltinsState state) {
+        return state.run("indexOfIncludes");
+    }
+
+    @Benchmark
+    public Value pushPopShift(ArrayBuiltinsState state) {
+        return state.run("pushPopShift");
+    }
+
+    @Benchmark
+    public Value spreadConcat(ArrayBuiltinsState state) {
+        return state.run("spreadConcat");
+    }
+}
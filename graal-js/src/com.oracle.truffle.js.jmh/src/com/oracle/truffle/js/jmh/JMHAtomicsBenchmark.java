@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code Atomics.add} on a {@code SharedArrayBuffer}, on the lock-free path and on the path that
+ * takes the buffer lock. Both counters are bytes of the same 17-byte buffer: the one at index 12
+ * lies in a complete 32-bit word and is updated with a hardware atomic, while the word containing
+ * index 16 extends past the end of the buffer, so that byte is updated under the lock.
+ *
+ * The main thread and {@code agents} additional test262 agents update the counter concurrently.
+ * With no agents, the updates are uncontended.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHAtomicsBenchmark {
+    @State(Scope.Thread)
+    public static class AtomicsState extends JMHJsFixture {
+        @Param({"0", "3"}) public int agents;
+
+        @Override
+        protected Context createContext() {
+            return Context.newBuilder("js").allowExperimentalOptions(true).option("js.test262-mode", "true").options(getEngineOptions()).build();
+        }
+
+        @Override
+        protected void bindParameters(Value bindings) {
+            bindings.putMember("AGENTS", agents);
+        }
+
+        @Override
+        protected void beforeClose() {
+            Value stop = getContext().getBindings("js").getMember("stop");
+            if (stop != null && stop.canExecute()) {
+                stop.execute();
+            }
+        }
+
+        @Override
+        protected String getSource() {
+            return "" +
+                            "const ITERATIONS = 10000;\n" +
+                            "const GENERATION = 0, DONE = 1, INDEX = 2;\n" +
+                            "const LOCK_FREE_INDEX = 12, LOCKING_INDEX = 16;\n" +
+                            "const sab = new SharedArrayBuffer(17);\n" +
+                            "const control = new Int32Array(sab, 0, 3);\n" +
+                            "const bytes = new Uint8Array(sab);\n" +
+                            "for (let i = 0; i < AGENTS; i++) {\n" +
+                            "  $262.agent.start(`\n" +
+                            "    $262.agent.receiveBroadcast(function(sab) {\n" +
+                            "      const control = new Int32Array(sab, 0, 3);\n" +
+                            "      const bytes = new Uint8Array(sab);\n" +
+                            "      let generation = 0;\n" +
+                            "      while (true) {\n" +
+                            "        Atomics.wait(control, ${GENERATION}, generation);\n" +
+                            "        generation = Atomics.load(control, ${GENERATION});\n" +
+                            "        if (generation < 0) {\n" +
+                            "          break;\n" +
+                            "        }\n" +
+                            "        const index = Atomics.load(control, ${INDEX});\n" +
+                            "        for (let j = 0; j < ${ITERATIONS}; j++) {\n" +
+                            "          Atomics.add(bytes, index, 1);\n" +
+                            "        }\n" +
+                            "        Atomics.add(control, ${DONE}, 1);\n" +
+                            "        Atomics.notify(control, ${DONE});\n" +
+                            "      }\n" +
+                            "      $262.agent.leaving();\n" +
+                            "    });\n" +
+                            "  `);\n" +
+                            "}\n" +
+                            "if (AGENTS > 0) {\n" +
+                            "  $262.agent.broadcast(sab);\n" +
+                            "}\n" +
+                            "function update(index) {\n" +
+                            "  Atomics.store(control, DONE, 0);\n" +
+                            "  Atomics.store(control, INDEX, index);\n" +
+                            "  Atomics.add(control, GENERATION, 1);\n" +
+                            "  Atomics.notify(control, GENERATION);\n" +
+                            "  for (let j = 0; j < ITERATIONS; j++) {\n" +
+                            "    Atomics.add(bytes, index, 1);\n" +
+                            "  }\n" +
+                            "  let done;\n" +
+                            "  while ((done = Atomics.load(control, DONE)) < AGENTS) {\n" +
+                            "    Atomics.wait(control, DONE, done);\n" +
+                            "  }\n" +
+                            "  return bytes[index];\n" +
+                            "}\n" +
+                            "function lockFree() {\n" +
+                            "  return update(LOCK_FREE_INDEX);\n" +
+                            "}\n" +
+                            "function locking() {\n" +
+                            "  return update(LOCKING_INDEX);\n" +
+                            "}\n" +
+                            "function stop() {\n" +
+                            "  Atomics.store(control, GENERATION, -1);\n" +
+                            "  Atomics.notify(control, GENERATION);\n" +
+                            "}\n";
+        }
+    }
+
+    @Benchmark
+    public Value lockFree(AtomicsState state) {
+        return state.run("lockFree");
+    }
+
+    @Benchmark
+    public Value locking(AtomicsState state) {
+        return state.run("locking");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code Map} and {@code Set} insertion, lookup, iteration and deletion.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHCollectionsBenchmark {
+    @State(Scope.Thread)
+    public static class CollectionsState extends JMHJsFixture {
+        @Param({"16", "10000"}) public int size;
+
+        @Override
+        protected void bindParameters(Value bindings) {
+            bindings.putMember("SIZE", size);
+        }
+
+        @Override
+        protected String getSource() {
+            return "" +
+                            "const keys = [];\n" +
+                            "for (let i = 0; i < SIZE; i++) {\n" +
+                            "  keys.push('key' + i);\n" +
+                            "}\n" +
+                            "const filledMap = new Map();\n" +
+                            "const filledSet = new Set();\n" +
+                            "for (let i = 0; i < SIZE; i++) {\n" +
+                            "  filledMap.set(keys[i], i);\n" +
+                            "  filledSet.add(i);\n" +
+                            "}\n" +
+                            "function mapSetDelete() {\n" +
+                            "  const m = new Map();\n" +
+                            "  for (let i = 0; i < SIZE; i++) {\n" +
+                            "    m.set(keys[i], i);\n" +
+                            "  }\n" +
+                            "  for (let i = 0; i < SIZE; i += 2) {\n" +
+                            "    m.delete(keys[i]);\n" +
+                            "  }\n" +
+                            "  return m.size;\n" +
+                            "}\n" +
+                            "function mapGet() {\n" +
+                            "  let sum = 0;\n" +
+                            "  for (let i = 0; i < SIZE; i++) {\n" +
+                            "    sum += filledMap.get(keys[i]);\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "function mapIterate() {\n" +
+                            "  let sum = 0;\n" +
+                            "  for (const [k, v] of filledMap) {\n" +
+                            "    sum += v;\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "function setAddHas() {\n" +
+                            "  const s = new Set();\n" +
+                            "  for (let i = 0; i < SIZE; i++) {\n" +
+                            "    s.add(i * 7);\n" +
+                            "  }\n" +
+                            "  let n = 0;\n" +
+                            "  for (let i = 0; i < SIZE; i++) {\n" +
+                            "    if (filledSet.has(i * 3)) {\n" +
+                            "      n++;\n" +
+                            "    }\n" +
+                            "  }\n" +
+                            "  return s.size + n;\n" +
+                            "}\n";
+        }
+    }
+
+    @Benchmark
+    public Value mapSetDelete(CollectionsState state) {
+        return state.run("mapSetDelete");
+    }
+
+    @Benchmark
+    public Value mapGet(CollectionsState state) {
+        return state.run("mapGet");
+    }
+
+    @Benchmark
+    public Value mapIterate(CollectionsState state) {
+        return state.run("mapIterate");
+    }
+
+    @Benchmark
+    public Value setAddHas(CollectionsState state) {
+        return state.run("setAddHas");
+    }
+}
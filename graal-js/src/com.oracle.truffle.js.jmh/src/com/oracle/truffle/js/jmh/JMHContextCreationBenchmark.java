@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to create a context, run a trivial script, and close it again, with and without an engine
+ * shared between the contexts. The {@code lazyIntrinsics} parameter compares creating rarely used
+ * built-ins on first access against creating all of them up front; {@code touchIntrinsics} runs a
+ * script that uses most of them, which is the worst case for the lazy variant.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHContextCreationBenchmark {
+    @State(Scope.Thread)
+    public static class ContextCreationState {
+        @Param({"true", "false"}) String lazyIntrinsics;
+
+        Engine engine;
+        Source source;
+        Source touchSource;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            engine = Engine.create();
+            source = Source.create("js", "var o = {a: 1, b: [1, 2, 3]}; JSON.stringify(o);");
+            touchSource = Source.create("js", "[Date, Map, Set, WeakMap, WeakSet, Proxy, Reflect, Promise, Intl.DateTimeFormat, DataView, " +
+                            "Int8Array, Float64Array, SharedArrayBuffer, Atomics].length;");
+        }
+
+        Context.Builder newContextBuilder() {
+            return Context.newBuilder("js").allowExperimentalOptions(true).option("js.lazy-intrinsics", lazyIntrinsics);
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            engine.close();
+        }
+    }
+
+    @Benchmark
+    public String createContext(ContextCreationState state) {
+        try (Context context = state.newContextBuilder().build()) {
+            return context.eval(state.source).asString();
+        }
+    }
+
+    @Benchmark
+    public String createContextSharedEngine(ContextCreationState state) {
+        try (Context context = state.newContextBuilder().engine(state.engine).build()) {
+            return context.eval(state.source).asString();
+        }
+    }
+
+    @Benchmark
+    public int touchIntrinsicsSharedEngine(ContextCreationState state) {
+        try (Context context = state.newContextBuilder().engine(state.engine).build()) {
+            return context.eval(state.touchSource).asInt();
+        }
+    }
+}
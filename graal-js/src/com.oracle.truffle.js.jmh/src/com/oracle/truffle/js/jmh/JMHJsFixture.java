@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Shared fixture of the JavaScript benchmarks. Subclasses provide a script that defines one
+ * global function per benchmark, and expose their JMH parameters to the script as global
+ * bindings.
+ *
+ * In {@code warm} mode, the script is evaluated once per trial and the benchmark functions are
+ * called repeatedly in the same context, i.e., the peak performance is measured. In {@code cold}
+ * mode, every invocation gets a fresh context (and engine), so the measured time includes parsing
+ * the script and running the function for the first time.
+ *
+ * Additional engine options can be passed with the {@code js.jmh.options} system property, e.g.
+ * {@code -Djs.jmh.options=js.ecmascript-version=2022,engine.Compilation=false}.
+ */
+public abstract class JMHJsFixture {
+    public static final String WARM = "warm";
+    public static final String COLD = "cold";
+
+    private static final String OPTIONS_PROPERTY = "js.jmh.options";
+
+    @Param({WARM, COLD}) public String mode;
+
+    private Source source;
+    private Context context;
+    private final Map<String, Value> functions = new HashMap<>();
+
+    /**
+     * The script defining the benchmark functions.
+     */
+    protected abstract String getSource();
+
+    /**
+     * Makes the JMH parameters of this state available to the script.
+     */
+    protected void bindParameters(@SuppressWarnings("unused") Value bindings) {
+    }
+
+    protected Context createContext() {
+        return Context.newBuilder("js").allowExperimentalOptions(true).options(getEngineOptions()).build();
+    }
+
+    protected static Map<String, String> getEngineOptions() {
+        Map<String, String> options = new HashMap<>();
+        String value = System.getProperty(OPTIONS_PROPERTY, "");
+        for (String option : value.split(",")) {
+            int eq = option.indexOf('=');
+            if (eq > 0) {
+                options.put(option.substring(0, eq).trim(), option.substring(eq + 1).trim());
+            }
+        }
+        return options;
+    }
+
+    public boolean isWarm() {
+        return WARM.equals(mode);
+    }
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        source = Source.create("js", getSource());
+        if (isWarm()) {
+            context = createContext();
+            prepare();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (isWarm()) {
+            closeContext();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        if (!isWarm()) {
+            context = createContext();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        if (!isWarm()) {
+            closeContext();
+        }
+    }
+
+    private void prepare() {
+        Value bindings = context.getBindings("js");
+        bindParameters(bindings);
+        context.eval(source);
+    }
+
+    /**
+     * Called before the context is closed, e.g., to stop threads started by the script.
+     */
+    protected void beforeClose() {
+    }
+
+    private void closeContext() {
+        beforeClose();
+        functions.clear();
+        context.close();
+        context = null;
+    }
+
+    /**
+     * Calls the global function {@code name} defined by the script. In cold mode, the script is
+     * evaluated first.
+     */
+    public Value run(String name) {
+        Value function = functions.get(name);
+        if (function == null) {
+            if (!isWarm()) {
+                prepare();
+            }
+            function = context.getBindings("js").getMember(name);
+            if (function == null || !function.canExecute()) {
+                throw new IllegalStateException("Benchmark function not found: " + name);
+            }
+            if (isWarm()) {
+                functions.put(name, function);
+            }
+        }
+        return function.execute();
+    }
+
+    protected Context getContext() {
+        return context;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Index access on ropes, flattening, and repeated slicing of a long string. The {@code chars}
+ * parameter selects strings with Latin-1 chars only, or with a wide char at the end, which is the
+ * worst case for flattening into a Latin-1 buffer. Run once with and once without
+ * {@code JSConfig.LazyStringLatin1Flattening} to compare both flattening strategies.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHLazyStringBenchmark {
+    @State(Scope.Thread)
+    public static class LazyStringState extends JMHJsFixture {
+        @Param({"latin1", "wide"}) public String chars;
+        @Param({"4096"}) public int parts;
+
+        @Override
+        protected void bindParameters(Value bindings) {
+            bindings.putMember("LAST", "latin1".equals(chars) ? "ÿ" : "一");
+            bindings.putMember("PARTS", parts);
+        }
+
+        @Override
+        protected String getSource() {
+            return "" +
+                            "function build() {\n" +
+                            "  let s = '';\n" +
+                            "  for (let i = 0; i < PARTS; i++) {\n" +
+                            "    s += 'part' + i + ',';\n" +
+                            "  }\n" +
+                            "  return s + LAST;\n" +
+                            "}\n" +
+                            "function flatten() {\n" +
+                            "  const s = build();\n" +
+                            "  return s.indexOf(LAST);\n" +
+                            "}\n" +
+                            "function charCodeAtLoop() {\n" +
+                            "  const s = build();\n" +
+                            "  let sum = 0;\n" +
+                            "  for (let i = 0; i < s.length; i++) {\n" +
+                            "    sum += s.charCodeAt(i);\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "const flat = build().split('').join('');\n" +
+                            "function sliceLoop() {\n" +
+                            "  let s = flat;\n" +
+                            "  let sum = 0;\n" +
+                            "  while (s.length > 64) {\n" +
+                            "    sum += s.charCodeAt(0);\n" +
+                            "    s = s.slice(16);\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n";
+        }
+    }
+
+    @Benchmark
+    public Value flatten(LazyStringState state) {
+        return state.run("flatten");
+    }
+
+    @Benchmark
+    public Value charCodeAtLoop(LazyStringState state) {
+        return state.run("charCodeAtLoop");
+    }
+
+    @Benchmark
+    public Value sliceLoop(LazyStringState state) {
+        return state.run("sliceLoop");
+    }
+}
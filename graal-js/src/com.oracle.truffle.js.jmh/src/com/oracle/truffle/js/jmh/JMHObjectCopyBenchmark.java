@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copying the properties of objects that share a shape: object spread, object rest and
+ * {@code Object.assign}.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHObjectCopyBenchmark {
+    @State(Scope.Thread)
+    public static class ObjectCopyState extends JMHJsFixture {
+        @Param({"4", "16"}) public int properties;
+
+        @Override
+        protected void bindParameters(Value bindings) {
+            bindings.putMember("PROPERTIES", properties);
+        }
+
+        @Override
+        protected String getSource() {
+            return "" +
+                            "const objects = [];\n" +
+                            "for (let i = 0; i < 1024; i++) {\n" +
+                            "  const o = {};\n" +
+                            "  for (let p = 0; p < PROPERTIES; p++) {\n" +
+                            "    o['p' + p] = i + p;\n" +
+                            "  }\n" +
+                            "  objects.push(o);\n" +
+                            "}\n" +
+                            "function spread() {\n" +
+                            "  let sum = 0;\n" +
+                            "  for (let i = 0; i < objects.length; i++) {\n" +
+                            "    const copy = {...objects[i]};\n" +
+                            "    sum += copy.p0;\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "function spreadIntoLiteral() {\n" +
+                            "  let sum = 0;\n" +
+                            "  for (let i = 0; i < objects.length; i++) {\n" +
+                            "    const copy = {id: i, ...objects[i]};\n" +
+                            "    sum += copy.id;\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "function rest() {\n" +
+                            "  let sum = 0;\n" +
+                            "  for (let i = 0; i < objects.length; i++) {\n" +
+                            "    const {p0, ...others} = objects[i];\n" +
+                            "    sum += p0 + others.p1;\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "function assign() {\n" +
+                            "  let sum = 0;\n" +
+                            "  for (let i = 0; i < objects.length; i++) {\n" +
+                            "    const copy = Object.assign({}, objects[i]);\n" +
+                            "    sum += copy.p0;\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n";
+        }
+    }
+
+    @Benchmark
+    public Value spread(ObjectCopyState state) {
+        return state.run("spread");
+    }
+
+    @Benchmark
+    public Value spreadIntoLiteral(ObjectCopyState state) {
+        return state.run("spreadIntoLiteral");
+    }
+
+    @Benchmark
+    public Value rest(ObjectCopyState state) {
+        return state.run("rest");
+    }
+
+    @Benchmark
+    public Value assign(ObjectCopyState state) {
+        return state.run("assign");
+    }
+}
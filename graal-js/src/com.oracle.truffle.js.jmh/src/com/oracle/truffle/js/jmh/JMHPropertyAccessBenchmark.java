@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Property reads and writes at call sites with increasing polymorphism (number of receiver
+ * shapes), from monomorphic to megamorphic.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHPropertyAccessBenchmark {
+    @State(Scope.Thread)
+    public static class PropertyAccessState extends JMHJsFixture {
+        @Param({"1", "4", "8", "16"}) public int shapes;
+
+        @Override
+        protected void bindParameters(Value bindings) {
+            bindings.putMember("SHAPES", shapes);
+        }
+
+        @Override
+        protected String getSource() {
+            return "" +
+                            "const objects = [];\n" +
+                            "for (let i = 0; i < 1024; i++) {\n" +
+                            "  const o = {};\n" +
+                            "  o['p' + (i % SHAPES)] = i;\n" +
+                            "  o.x = i;\n" +
+                            "  o.y = -i;\n" +
+                            "  objects.push(o);\n" +
+                            "}\n" +
+                            "function readProperty() {\n" +
+                            "  let sum = 0;\n" +
+                            "  for (let i = 0; i < objects.length; i++) {\n" +
+                            "    sum += objects[i].x;\n" +
+                            "  }\n" +
+                            "  return sum;\n" +
+                            "}\n" +
+                            "function writeProperty() {\n" +
+                            "  for (let i = 0; i < objects.length; i++) {\n" +
+                            "    objects[i].y = i;\n" +
+                            "  }\n" +
+                            "  return objects.length;\n" +
+                            "}\n" +
+                            "function hasProperty() {\n" +
+                            "  let count = 0;\n" +
+                            "  for (let i = 0; i < objects.length; i++) {\n" +
+                            "    if ('p0' in objects[i]) {\n" +
+                            "      count++;\n" +
+                            "    }\n" +
+                            "  }\n" +
+                            "  return count;\n" +
+                            "}\n";
+        }
+    }
+
+    @Benchmark
+    public Value readProperty(PropertyAccessState state) {
+        return state.run("readProperty");
+    }
+
+    @Benchmark
+    public Value writeProperty(PropertyAccessState state) {
+        return state.run("writeProperty");
+    }
+
+    @Benchmark
+    public Value hasProperty(PropertyAccessState state) {
+        return state.run("hasProperty");
+    }
+}
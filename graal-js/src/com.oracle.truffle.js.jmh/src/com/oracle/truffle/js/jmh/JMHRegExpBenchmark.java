@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Regular expression matching, global replacement and construction of regular expressions from
+ * strings.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHRegExpBenchmark {
+    @State(Scope.Thread)
+    public static class RegExpState extends JMHJsFixture {
+        @Override
+        protected String getSource() {
+            return "" +
+                            "const lines = [];\n" +
+                            "for (let i = 0; i < 256; i++) {\n" +
+                            "  lines.push('2020-' + (1 + i % 12) + '-' + (1 + i % 28) + ' user' + i + '@example.com GET /index' + i + '.html 200');\n" +
+                            "}\n" +
+                            "const text = lines.join('\\n');\n" +
+                            "function test() {\n" +
+                            "  const re = /^\\d{4}-\\d{1,2}-\\d{1,2} \\S+@\\S+ GET/;\n" +
+                            "  let n = 0;\n" +
+                            "  for (let i = 0; i < lines.length; i++) {\n" +
+                            "    if (re.test(lines[i])) {\n" +
+                            "      n++;\n" +
+                            "    }\n" +
+                            "  }\n" +
+                            "  return n;\n" +
+                            "}\n" +
+                            "function execGroups() {\n" +
+                            "  const re = /(\\w+)@(\\w+)\\.com/g;\n" +
+                            "  let n = 0;\n" +
+                            "  let m;\n" +
+                            "  while ((m = re.exec(text)) !== null) {\n" +
+                            "    n += m[1].length + m[2].length;\n" +
+                            "  }\n" +
+                            "  return n;\n" +
+                            "}\n" +
+                            "function replaceAll() {\n" +
+                            "  return text.replace(/user(\\d+)/g, 'u$1').length;\n" +
+                            "}\n" +
+                            "function split() {\n" +
+                            "  return text.split(/\\s+/).length;\n" +
+                            "}\n" +
+                            "function dynamicRegExp() {\n" +
+                            "  let n = 0;\n" +
+                            "  for (let i = 0; i < 16; i++) {\n" +
+                            "    n += new RegExp('index' + i + '\\\\.html').test(text) ? 1 : 0;\n" +
+                            "  }\n" +
+                            "  return n;\n" +
+                            "}\n";
+        }
+    }
+
+    @Benchmark
+    public Value test(RegExpState state) {
+        return state.run("test");
+    }
+
+    @Benchmark
+    public Value execGroups(RegExpState state) {
+        return state.run("execGroups");
+    }
+
+    @Benchmark
+    public Value replaceAll(RegExpState state) {
+        return state.run("replaceAll");
+    }
+
+    @Benchmark
+    public Value split(RegExpState state) {
+        return state.run("split");
+    }
+
+    @Benchmark
+    public Value dynamicRegExp(RegExpState state) {
+        return state.run("dynamicRegExp");
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * String building by repeated concatenation (lazy strings), followed by operations that need the
+ * flattened string.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHStringConcatBenchmark {
+    @State(Scope.Thread)
+    public static class StringConcatState extends JMHJsFixture {
+        @Param({"16", "4096"}) public int parts;
+
+        @Override
+        protected void bindParameters(Value bindings) {
+            bindings.putMember("PARTS", parts);
+        }
+
+        @Override
+        protected String getSource() {
+            return "" +
+                            "function concat() {\n" +
+                            "  let s = '';\n" +
+                            "  for (let i = 0; i < PARTS; i++) {\n" +
+                            "    s += 'part' + i + ',';\n" +
+                            "  }\n" +
+                            "  return s.length;\n" +
+                            "}\n" +
+                            "function concatAndFlatten() {\n" +
+                            "  let s = '';\n" +
+                            "  for (let i = 0; i < PARTS; i++) {\n" +
+                            "    s += 'part' + i + ',';\n" +
+                            "  }\n" +
+                            "  return s.charCodeAt(s.length >> 1) + s.indexOf('part' + (PARTS - 1));\n" +
+                            "}\n" +
+                            "function templateLiteral() {\n" +
+                            "  let n = 0;\n" +
+                            "  for (let i = 0; i < PARTS; i++) {\n" +
+                            "    n += `${i}:${i * 2}:${'x'}`.length;\n" +
+                            "  }\n" +
+                            "  return n;\n" +
+                            "}\n" +
+                            "function arrayJoin() {\n" +
+                            "  const a = [];\n" +
+                            "  for (let i = 0; i < PARTS; i++) {\n" +
+                            "    a.push('part' + i);\n" +
+                            "  }\n" +
+                            "  return a.join(',').length;\n" +
+                            "}\n";
+        }
+    }
+
+    @Benchmark
+    public Value concat(StringConcatState state) {
+        return state.run("concat");
+    }
+
+    @Benchmark
+    public Value concatAndFlatten(StringConcatState state) {
+        return state.run("concatAndFlatten");
+    }
+
+    @Benchmark
+    public Value templateLiteral(StringConcatState state) {
+        return state.run("templateLiteral");
+    }
+
+    @Benchmark
+    public Value arrayJoin(StringConcatState state) {
+        return state.run("arrayJoin");
+    }
+}
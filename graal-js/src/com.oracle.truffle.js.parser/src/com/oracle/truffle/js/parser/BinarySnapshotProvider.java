@@ -40,7 +40,11 @@
  */
 package com.oracle.truffle.js.parser;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.codec.BinaryDecoder;
@@ -51,6 +55,8 @@ import com.oracle.truffle.js.runtime.JSContext;
 
 public class BinarySnapshotProvider implements SnapshotProvider {
     public static final int MAGIC = 0x314e4942;
+    /** Size of the header: magic, decoder checksum, source length and source hash. */
+    public static final int HEADER_SIZE = 4 * Integer.BYTES;
     private final ByteBuffer buffer;
 
     public BinarySnapshotProvider(ByteBuffer buffer) {
@@ -70,10 +76,34 @@ public class BinarySnapshotProvider implements SnapshotProvider {
         return true;
     }
 
+    /**
+     * Checks whether the snapshot header matches the given source code and the current node
+     * decoder, i.e. whether the snapshot would be accepted by {@link #apply}. Only the header (the
+     * first {@link #HEADER_SIZE} bytes) of the snapshot needs to be provided.
+     */
+    public static boolean isSnapshotOf(ByteBuffer buffer, CharSequence code) {
+        if (buffer.remaining() < HEADER_SIZE) {
+            return false;
+        }
+        BinaryDecoder decoder = new BinaryDecoder(buffer);
+        return decoder.getInt32() == MAGIC && decoder.getInt32() == JSNodeDecoder.getChecksum() && decoder.getInt32() == code.length() && decoder.getInt32() == code.hashCode();
+    }
+
     public BinarySnapshotProvider(byte[] bytes) {
         this(ByteBuffer.wrap(bytes));
     }
 
+    /**
+     * Creates a snapshot provider backed by a read-only memory mapping of the given file, so that
+     * the snapshot does not have to be read into the heap. Function bodies are decoded from the
+     * mapping when the respective function is called for the first time.
+     */
+    public static BinarySnapshotProvider map(Path snapshotFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            return new BinarySnapshotProvider(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
     @Override
     public Object apply(NodeFactory nodeFactory, JSContext context, Source source) {
         BinaryDecoder decoder = new BinaryDecoder(buffer);
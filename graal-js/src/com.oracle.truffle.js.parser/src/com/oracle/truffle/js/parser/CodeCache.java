@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.parser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+import org.graalvm.home.HomeFinder;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.nodes.NodeFactory;
+import com.oracle.truffle.js.nodes.ScriptNode;
+import com.oracle.truffle.js.nodes.function.FunctionRootNode;
+import com.oracle.truffle.js.runtime.JSContext;
+
+/**
+ * Persistent cache of translated scripts, stored as binary snapshots in the directory given by the
+ * {@code js.code-cache-dir} option. Snapshots are keyed by a digest of the source code, the engine
+ * version and the context options that affect translation, and are only used if their header
+ * matches both the source and the current node decoder (see
+ * {@link BinarySnapshotProvider#isSnapshotOf}), so that stale entries are ignored and overwritten.
+ */
+public final class CodeCache {
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String ENGINE_VERSION = String.valueOf(HomeFinder.getInstance().getVersion());
+
+    private static volatile CodeCacheWriter writer;
+    private static volatile boolean writerLoaded;
+
+    private final Env env;
+    private final TruffleFile directory;
+
+    private CodeCache(Env env, TruffleFile directory) {
+        this.env = env;
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the code cache configured for the given context, or {@code null} if none is.
+     */
+    @TruffleBoundary
+    public static CodeCache get(JSContext context) {
+        String directoryName = context.getContextOptions().getCodeCacheDir();
+        if (directoryName.isEmpty()) {
+            return null;
+        }
+        Env env = context.getRealm().getEnv();
+        try {
+            return new CodeCache(env, env.getPublicTruffleFile(directoryName));
+        } catch (SecurityException | UnsupportedOperationException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCacheable(Source source) {
+        return source.hasCharacters() && !source.isInternal() && !source.isInteractive();
+    }
+
+    /**
+     * Decodes the cached snapshot of the given source, or returns {@code null} if there is no
+     * valid snapshot in the cache.
+     */
+    @TruffleBoundary
+    public ScriptNode load(JSContext context, Source source, boolean strict) {
+        if (!isCacheable(source)) {
+            return null;
+        }
+        BinarySnapshotProvider snapshot = readSnapshot(context, source, strict);
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            return ScriptNode.fromFunctionRoot(context, (FunctionRootNode) snapshot.apply(NodeFactory.getInstance(context), context, source));
+        } catch (IllegalArgumentException e) {
+            // corrupt or incompatible snapshot, translate the source instead
+            return null;
+        }
+    }
+
+    private BinarySnapshotProvider readSnapshot(JSContext context, Source source, boolean strict) {
+        try {
+            TruffleFile file = directory.resolve(getSnapshotName(context, source, strict));
+            if (!file.isRegularFile()) {
+                return null;
+            }
+            ByteBuffer buffer;
+            try (SeekableByteChannel channel = file.newByteChannel(Collections.singleton(StandardOpenOption.READ))) {
+                if (channel instanceof FileChannel) {
+                    buffer = ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                } else {
+                    buffer = null;
+                }
+            }
+            if (buffer == null) {
+                buffer = ByteBuffer.wrap(file.readAllBytes());
+            }
+            if (!BinarySnapshotProvider.isSnapshotOf(buffer, source.getCharacters())) {
+                return null;
+            }
+            return new BinarySnapshotProvider(buffer);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Translates the given source, recording the translation, and stores its snapshot in the cache.
+     * Returns {@code null} if the source cannot be recorded, in which case the caller translates
+     * it as usual. Failures to write the snapshot are ignored since the cache is only an
+     * optimization. The snapshot is written to a temporary file first and then moved into place,
+     * so that concurrent readers never observe a partially written snapshot.
+     */
+    @TruffleBoundary
+    public ScriptNode translateAndStore(JSContext context, Source source, boolean strict) {
+        CodeCacheWriter snapshotWriter = getWriter();
+        if (snapshotWriter == null || !isCacheable(source) || context.getContextOptions().isLazyTranslation()) {
+            return null;
+        }
+        ScriptNode script = null;
+        TruffleFile tempFile = null;
+        try {
+            String snapshotName = getSnapshotName(context, source, strict);
+            directory.createDirectories();
+            tempFile = env.createTempFile(directory, snapshotName, ".tmp");
+            try (OutputStream out = tempFile.newOutputStream()) {
+                script = snapshotWriter.translate(context, source, strict, out);
+            }
+            tempFile.move(directory.resolve(snapshotName), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            tempFile = null;
+        } catch (IOException | RuntimeException e) {
+            // not cached; if the source was not translated (e.g. due to a syntax error), the caller
+            // translates it again and reports the error
+        } finally {
+            if (tempFile != null) {
+                try {
+                    tempFile.delete();
+                } catch (IOException | SecurityException e) {
+                    // left behind, does not match any snapshot name
+                }
+            }
+        }
+        return script;
+    }
+
+    private static String getSnapshotName(JSContext context, Source source, boolean strict) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(source.getCharacters().toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) (strict ? 1 : 0));
+        digest.update(ENGINE_VERSION.getBytes(StandardCharsets.UTF_8));
+        // covers the parser options and all other options that are relevant for code sharing
+        int optionsHash = context.getContextOptions().hashCode();
+        digest.update(new byte[]{(byte) (optionsHash >>> 24), (byte) (optionsHash >>> 16), (byte) (optionsHash >>> 8), (byte) optionsHash});
+        StringBuilder name = new StringBuilder();
+        for (byte b : digest.digest()) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return name.append(SNAPSHOT_SUFFIX).toString();
+    }
+
+    private static CodeCacheWriter getWriter() {
+        if (!writerLoaded) {
+            synchronized (CodeCache.class) {
+                if (!writerLoaded) {
+                    Iterator<CodeCacheWriter> writers = ServiceLoader.load(CodeCacheWriter.class, CodeCache.class.getClassLoader()).iterator();
+                    writer = writers.hasNext() ? writers.next() : null;
+                    writerLoaded = true;
+                }
+            }
+        }
+        return writer;
+    }
+}
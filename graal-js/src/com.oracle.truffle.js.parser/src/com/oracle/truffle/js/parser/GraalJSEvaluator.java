@@ -260,8 +260,25 @@ public final class GraalJSEvaluator implements JSParser {
         if (MODULE_MIME_TYPE.equals(mimeType) || (mimeType == null && source.getName().endsWith(MODULE_SOURCE_NAME_SUFFIX))) {
             return fakeScriptForModule(context, source);
         }
+        boolean strict = context.getParserOptions().isStrict();
+        CodeCache codeCache = null;
+        if (prolog.isEmpty() && epilog.isEmpty() && argumentNames == null) {
+            codeCache = CodeCache.get(context);
+            if (codeCache != null) {
+                ScriptNode cached = codeCache.load(context, source, strict);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
         try {
-            return JavaScriptTranslator.translateScript(NodeFactory.getInstance(context), context, source, context.getParserOptions().isStrict(), prolog, epilog, argumentNames);
+            if (codeCache != null) {
+                ScriptNode recorded = codeCache.translateAndStore(context, source, strict);
+                if (recorded != null) {
+                    return recorded;
+                }
+            }
+            return JavaScriptTranslator.translateScript(NodeFactory.getInstance(context), context, source, strict, prolog, epilog, argumentNames);
         } catch (com.oracle.js.parser.ParserException e) {
             throw Errors.createSyntaxError(e.getMessage());
         }
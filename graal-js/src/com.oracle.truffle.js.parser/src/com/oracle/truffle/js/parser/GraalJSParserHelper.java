@@ -106,7 +106,8 @@ public final class GraalJSParserHelper {
         }
         com.oracle.js.parser.Source source = com.oracle.js.parser.Source.sourceFor(truffleSource.getName(), code, eval);
 
-        ScriptEnvironment env = makeScriptEnvironment(parserOptions);
+        boolean lazyParsing = context.getContextOptions().isLazyParsing() && !eval && argumentNames == null && prologue.isEmpty() && epilogue.isEmpty();
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions, lazyParsing);
         ErrorManager errors;
         if (eval) {
             errors = new ErrorManager.ThrowErrorManager();
@@ -134,6 +135,21 @@ public final class GraalJSParserHelper {
         return parsed;
     }
 
+    /**
+     * Parses the body of a function that has only been pre-parsed so far.
+     *
+     * @see FunctionNode#isLazilyParsed()
+     */
+    public static FunctionNode reparseFunction(JSContext context, FunctionNode lazyFunction, JSParserOptions parserOptions) {
+        CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions, true);
+        ErrorManager errors = new ErrorManager.ThrowErrorManager();
+        errors.setLimit(0);
+
+        Parser parser = createParser(context, env, lazyFunction.getSource(), errors, parserOptions);
+        return parser.reparse(lazyFunction);
+    }
+
     public static Expression parseExpression(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions) {
         CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
         CharSequence code = truffleSource.getCharacters();
@@ -177,6 +193,10 @@ public final class GraalJSParserHelper {
     }
 
     private static ScriptEnvironment makeScriptEnvironment(JSParserOptions parserOptions) {
+        return makeScriptEnvironment(parserOptions, false);
+    }
+
+    private static ScriptEnvironment makeScriptEnvironment(JSParserOptions parserOptions, boolean lazyParsing) {
         ScriptEnvironment.Builder builder = ScriptEnvironment.builder();
         builder.strict(parserOptions.isStrict());
         builder.ecmaScriptVersion(parserOptions.getEcmaScriptVersion());
@@ -188,6 +208,7 @@ public final class GraalJSParserHelper {
         builder.allowBigInt(parserOptions.isAllowBigInt());
         builder.annexB(parserOptions.isAnnexB());
         builder.classFields(parserOptions.isClassFields());
+        builder.lazyParsing(lazyParsing);
         if (parserOptions.isFunctionStatementError()) {
             builder.functionStatementBehavior(FunctionStatementBehavior.ERROR);
         } else {
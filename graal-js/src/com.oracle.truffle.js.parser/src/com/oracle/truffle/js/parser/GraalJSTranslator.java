@@ -339,6 +339,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         boolean functionMode = !isGlobal || (isStrict && isIndirectEval);
 
         boolean lazyTranslation = context.getContextOptions().isLazyTranslation() && functionMode && !functionNode.isProgram() && !inDirectEval;
+        assert lazyTranslation || !functionNode.isLazilyParsed();
 
         String functionName = getFunctionName(functionNode);
         JSFunctionData functionData;
@@ -355,8 +356,17 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
             LexicalContext savedLC = lc.copy();
             Environment parentEnv = environment;
             functionData.setLazyInit(fd -> {
-                GraalJSTranslator translator = newTranslator(parentEnv, savedLC);
-                translator.translateFunctionOnDemand(functionNode, fd, isStrict, isArrowFunction, isGeneratorFunction, isAsyncFunction, isDerivedConstructor, isGlobal,
+                FunctionNode parsedFunctionNode = functionNode;
+                LexicalContext functionLC = savedLC;
+                if (functionNode.isLazilyParsed()) {
+                    parsedFunctionNode = GraalJSParserHelper.reparseFunction(context, functionNode, context.getParserOptions());
+                    functionLC = savedLC.copy();
+                    functionLC.pop(functionNode);
+                    functionNeedsParentFramePass(parsedFunctionNode, context, functionLC.copy());
+                    functionLC.push(parsedFunctionNode);
+                }
+                GraalJSTranslator translator = newTranslator(parentEnv, functionLC);
+                translator.translateFunctionOnDemand(parsedFunctionNode, fd, isStrict, isArrowFunction, isGeneratorFunction, isAsyncFunction, isDerivedConstructor, isGlobal,
                                 needsNewTarget, needsParentFrame, functionName, hasSyntheticArguments);
             });
             functionRoot = null;
@@ -935,11 +945,18 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
     }
 
     private static void functionNeedsParentFramePass(FunctionNode rootFunctionNode, JSContext context) {
+        functionNeedsParentFramePass(rootFunctionNode, context, new LexicalContext());
+    }
+
+    /**
+     * @param parentLC lexical context of the enclosing functions, if the root function is nested
+     */
+    private static void functionNeedsParentFramePass(FunctionNode rootFunctionNode, JSContext context, LexicalContext parentLC) {
         if (!context.getContextOptions().isLazyTranslation()) {
             return; // nothing to do
         }
 
-        com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext> visitor = new com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext>(new LexicalContext()) {
+        com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext> visitor = new com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext>(parentLC) {
             @Override
             public boolean enterIdentNode(IdentNode identNode) {
                 if (!identNode.isPropertyName()) {
@@ -1051,6 +1068,16 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 if (functionNode.hasEval()) {
                     markUsesAncestorScopeUntil(null, false);
                 }
+                if (functionNode.isLazilyParsed()) {
+                    // body not parsed yet: resolve the free names recorded by the pre-parser
+                    if (functionNode.hasNestedEval()) {
+                        markUsesAncestorScopeUntil(null, false);
+                    }
+                    for (String varName : functionNode.getLazyFunctionData().getFreeNames()) {
+                        findSymbol(varName);
+                    }
+                    return false;
+                }
                 // TODO if function does not have nested functions we can skip it
                 return true;
             }
@@ -103,6 +103,21 @@ public final class DoubleConversion {
         return buffer.format(DtoaMode.SHORTEST, 0);
     }
 
+    /**
+     * Appends the shortest string representation of a double number to a {@link StringBuilder}.
+     *
+     * @param value number to convert
+     * @param sb the target builder
+     */
+    public static void toShortest(final double value, final StringBuilder sb) {
+        assert Double.isFinite(value) : value;
+
+        final DtoaBuffer buffer = new DtoaBuffer(FastDtoa.kFastDtoaMaximalLength);
+        dtoaShortest(value, buffer);
+
+        buffer.format(DtoaMode.SHORTEST, 0, sb);
+    }
+
     private static void dtoaShortest(final double value, final DtoaBuffer buffer) {
         final double absValue = Math.abs(value);
 
@@ -152,6 +152,19 @@ public class DtoaBuffer {
      */
     public String format(final DtoaMode mode, final int digitsAfterPoint) {
         final StringBuilder buffer = new StringBuilder();
+        format(mode, digitsAfterPoint, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Appends the formatted buffer content to the given {@link StringBuilder}, using the specified
+     * conversion mode and padding.
+     *
+     * @param mode conversion mode
+     * @param digitsAfterPoint number of digits after point
+     * @param buffer the target builder
+     */
+    public void format(final DtoaMode mode, final int digitsAfterPoint, final StringBuilder buffer) {
         if (isNegative) {
             buffer.append('-');
         }
@@ -176,8 +189,6 @@ public class DtoaBuffer {
                 }
                 break;
         }
-
-        return buffer.toString();
     }
 
     private void toFixedFormat(final StringBuilder buffer, final int digitsAfterPoint) {
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.scriptengine.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.Invocable;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.scriptengine.GraalJSPooledScriptEngine;
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
+
+public class TestPooledEngine {
+
+    private static final int POOL_SIZE = 4;
+    private static final int THREADS = 16;
+
+    @Test
+    public void compiledScriptConcurrently() throws Exception {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, POOL_SIZE)) {
+            CompiledScript script = engine.compile("(function() { var sum = 0; for (var i = 0; i < n; i++) { sum += i; } return sum + offset; })()");
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<Object>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS * 10; t++) {
+                    final int n = t;
+                    results.add(executor.submit(() -> {
+                        Bindings bindings = engine.createBindings();
+                        bindings.put("n", n);
+                        bindings.put("offset", 1000);
+                        return script.eval(bindings);
+                    }));
+                }
+                for (int t = 0; t < results.size(); t++) {
+                    assertEquals(t * (t - 1) / 2 + 1000, ((Number) results.get(t).get()).intValue());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void bindingsResetBetweenLeases() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 1)) {
+            Bindings first = engine.createBindings();
+            first.put("x", "first");
+            assertEquals("first", engine.eval("leaked = x; x", first));
+            assertEquals("undefined", engine.eval("typeof leaked"));
+            assertEquals("undefined", engine.eval("typeof x"));
+            Bindings second = engine.createBindings();
+            second.put("x", "second");
+            assertEquals("second", engine.eval("x", second));
+        }
+    }
+
+    @Test
+    public void topLevelDeclarationsNotLeaked() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 1)) {
+            assertEquals(1, ((Number) engine.eval("var v = 1; v")).intValue());
+            assertEquals("undefined", engine.eval("typeof v"));
+            assertEquals(2, ((Number) engine.eval("function f() { return 2; } f()")).intValue());
+            assertEquals("undefined", engine.eval("typeof f"));
+            assertEquals(3, ((Number) engine.eval("let l = 3; l")).intValue());
+            assertEquals("undefined", engine.eval("typeof l"));
+            assertEquals(4, ((Number) engine.eval("const c = 4; c")).intValue());
+            assertEquals("undefined", engine.eval("typeof c"));
+        }
+    }
+
+    @Test
+    public void compiledScriptWithLexicalDeclarationsRepeatable() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 1)) {
+            CompiledScript script = engine.compile("let l = value; const c = l * 2; c");
+            Bindings engineBindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+            for (int i = 0; i < 3; i++) {
+                engineBindings.put("value", i);
+                assertEquals(i * 2, ((Number) script.eval()).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void contextReusedAfterDeclarations() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 1)) {
+            // changes to built-in objects are not undone, which shows that the context is reused
+            String script = "var v = 1; let l = 2; function f() {} Array.evaluations = (Array.evaluations || 0) + 1;";
+            for (int i = 1; i <= 3; i++) {
+                assertEquals(i, ((Number) engine.eval(script)).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void unresettableContextNotReused() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 1)) {
+            engine.eval("Object.defineProperty(globalThis, 'fixed', {value: 1});");
+            // the global is stored into the engine scope bindings, but the context is not reused
+            assertEquals("undefined", engine.eval("typeof fixed", engine.createBindings()));
+            engine.eval("delete globalThis.JSON;");
+            assertEquals("object", engine.eval("typeof JSON"));
+        }
+    }
+
+    @Test
+    public void resultsCopiedToHostValues() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 1)) {
+            Object result = engine.eval("var o = {a: 1, b: [1, 'x'], f: function() {}}; o.self = o; o");
+            // the object stays usable after the context was leased by another evaluation
+            engine.eval("var o = {a: 2}; o");
+            Map<?, ?> map = (Map<?, ?>) result;
+            assertEquals(1, ((Number) map.get("a")).intValue());
+            assertEquals(Arrays.asList(1, "x"), map.get("b"));
+            assertFalse(map.containsKey("f"));
+            assertTrue(map.get("self") == map);
+        }
+    }
+
+    @Test(expected = ScriptException.class)
+    public void functionResultNotSupported() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 1)) {
+            engine.eval("(function() {})");
+        }
+    }
+
+    @Test
+    public void globalsWrittenToEngineBindings() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 1)) {
+            Bindings engineBindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+            engine.eval("x = 5; obj = {a: 'b'}; helper = function() {};");
+            assertEquals(5, ((Number) engineBindings.get("x")).intValue());
+            assertEquals("b", ((Map<?, ?>) engineBindings.get("obj")).get("a"));
+            assertFalse(engineBindings.containsKey("helper"));
+            assertEquals(6, ((Number) engine.eval("x + 1")).intValue());
+
+            engine.eval("x++; delete obj;");
+            assertEquals(6, ((Number) engineBindings.get("x")).intValue());
+            assertFalse(engineBindings.containsKey("obj"));
+
+            Bindings globalBindings = engine.createBindings();
+            globalBindings.put("g", "global");
+            engine.setBindings(globalBindings, ScriptContext.GLOBAL_SCOPE);
+            assertEquals("global", engine.eval("g"));
+            assertFalse(engineBindings.containsKey("g"));
+            engine.eval("g = 'engine'");
+            assertEquals("engine", engineBindings.get("g"));
+            assertEquals("global", globalBindings.get("g"));
+            assertNull(engine.eval("var unused = 1;"));
+        }
+    }
+
+    @Test
+    public void compiledScriptSeesEngineBindings() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 2)) {
+            CompiledScript script = engine.compile("value * 2");
+            Bindings engineBindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+            for (int i = 0; i < 10; i++) {
+                engineBindings.put("value", i);
+                assertEquals(i * 2, ((Number) script.eval()).intValue());
+            }
+        }
+    }
+
+    @Test(expected = ScriptException.class)
+    public void compileSyntaxError() throws ScriptException {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 2)) {
+            engine.compile(":-(");
+        }
+    }
+
+    @Test
+    public void notInvocable() {
+        try (GraalJSPooledScriptEngine engine = GraalJSScriptEngine.createPooled(null, null, 2)) {
+            assertFalse(((Object) engine) instanceof Invocable);
+        }
+    }
+}
@@ -44,14 +44,18 @@ import java.util.AbstractMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.script.Bindings;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.TypeLiteral;
 import org.graalvm.polyglot.Value;
 
+import com.oracle.truffle.js.scriptengine.GraalJSContextPool.PooledBindings;
 import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine.MagicBindingsOptionSetter;
 
 final class GraalJSBindings extends AbstractMap<String, Object> implements Bindings, AutoCloseable {
@@ -67,6 +71,8 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
     private Context.Builder contextBuilder;
     // ScriptContext of the ScriptEngine where these bindings form ENGINE_SCOPE bindings
     private ScriptContext engineScriptContext;
+    // compiled scripts parsed in this context
+    private final Map<CompiledScript, Value> parsedScripts = new WeakHashMap<>();
 
     GraalJSBindings(Context.Builder contextBuilder, ScriptContext scriptContext) {
         this.contextBuilder = contextBuilder;
@@ -184,8 +190,29 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
 
     void importGlobalBindings(ScriptContext scriptContext) {
         Bindings globalBindings = scriptContext.getBindings(ScriptContext.GLOBAL_SCOPE);
-        if (globalBindings != null && !globalBindings.isEmpty() && this != globalBindings) {
-            getContext().getBindings("js").getMember(SCRIPT_CONTEXT_GLOBAL_BINDINGS_IMPORT_FUNCTION_NAME).execute(globalBindings);
+        if (this != globalBindings) {
+            importBindings(getContext(), globalBindings);
+        }
+    }
+
+    /**
+     * Makes the entries of {@code bindings} visible as global variables of {@code context} unless
+     * a global of the same name exists already.
+     */
+    static void importBindings(Context context, Bindings bindings) {
+        if (bindings != null && !bindings.isEmpty()) {
+            Value importFunction = context.getBindings("js").getMember(SCRIPT_CONTEXT_GLOBAL_BINDINGS_IMPORT_FUNCTION_NAME);
+            // the import iterates the bindings, which may be modified by concurrent evaluations
+            Object lock = bindings instanceof PooledBindings ? ((PooledBindings) bindings).getLock() : bindings;
+            synchronized (lock) {
+                importFunction.execute(bindings);
+            }
+        }
+    }
+
+    Value getParsedScript(CompiledScript script, Source source) {
+        synchronized (parsedScripts) {
+            return GraalJSScriptEngine.getParsedScript(parsedScripts, getContext(), script, source);
         }
     }
 
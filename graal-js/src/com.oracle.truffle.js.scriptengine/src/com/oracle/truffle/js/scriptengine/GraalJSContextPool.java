@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.scriptengine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+/**
+ * A bounded pool of polyglot contexts that share the engine of a
+ * {@link GraalJSPooledScriptEngine}. Contexts are created lazily up to the maximum size; a thread
+ * that finds all contexts leased waits until one is released.
+ * <p>
+ * Scripts run with their top-level declarations in a scope of their own, so only properties
+ * assigned to the global object outlive an evaluation. These are deleted when the context is
+ * released. A context that cannot be reset this way, e.g. because a non-configurable global
+ * property was defined or a global lexical declaration was made by an indirect {@code eval}, is
+ * closed instead of being returned to the pool.
+ */
+final class GraalJSContextPool implements AutoCloseable {
+
+    /**
+     * Returns a function that deletes the global properties that did not exist when it was
+     * created. It returns an array of whether all of them could be deleted and the initial ones
+     * are still present, and of an object holding the deleted properties. The helpers are captured
+     * up front so that user code replacing them cannot affect the reset.
+     */
+    private static final String RESET_GLOBALS_FUNCTION = "(function(global) {\n" +
+                    "  var ownKeys = Reflect.ownKeys;\n" +
+                    "  var deleteProperty = Reflect.deleteProperty;\n" +
+                    "  var create = Object.create;\n" +
+                    "  var initialKeys = ownKeys(global);\n" +
+                    "  var initial = create(null);\n" +
+                    "  for (var i = 0; i < initialKeys.length; i++) {\n" +
+                    "    initial[initialKeys[i]] = true;\n" +
+                    "  }\n" +
+                    "  return function() {\n" +
+                    "    var keys = ownKeys(global);\n" +
+                    "    var added = create(null);\n" +
+                    "    var present = 0;\n" +
+                    "    var clean = true;\n" +
+                    "    for (var i = 0; i < keys.length; i++) {\n" +
+                    "      var key = keys[i];\n" +
+                    "      if (initial[key]) {\n" +
+                    "        present++;\n" +
+                    "      } else {\n" +
+                    "        if (typeof key === 'string') {\n" +
+                    "          added[key] = global[key];\n" +
+                    "        }\n" +
+                    "        clean = deleteProperty(global, key) && clean;\n" +
+                    "      }\n" +
+                    "    }\n" +
+                    "    return [clean && present === initialKeys.length, added];\n" +
+                    "  };\n" +
+                    "})(this)";
+
+    private static final String PARSE_SCRIPT_FUNCTION_NAME = "parseScriptEngineScript";
+
+    private static final long CLOSED_CHECK_INTERVAL_MILLIS = 100;
+
+    static final class PooledContext {
+        private final Context context;
+        private final Value resetGlobals;
+        private final Value parseScript;
+        /** Names of the initial global properties. */
+        private final Set<String> initialGlobals = new HashSet<>();
+        /** Number of global variables, including global lexical declarations. */
+        private final int initialTopScopeSize;
+        private final Map<CompiledScript, Value> parsedScripts = new WeakHashMap<>();
+
+        PooledContext(Context context) {
+            this.context = context;
+            this.resetGlobals = GraalJSScriptEngine.evalInternal(context, RESET_GLOBALS_FUNCTION);
+            this.parseScript = context.getBindings("js").getMember(PARSE_SCRIPT_FUNCTION_NAME);
+            Value keys = GraalJSScriptEngine.evalInternal(context, "Object.getOwnPropertyNames(this)");
+            for (long i = 0; i < keys.getArraySize(); i++) {
+                initialGlobals.add(keys.getArrayElement(i).asString());
+            }
+            this.initialTopScopeSize = getTopScopeSize();
+        }
+
+        private int getTopScopeSize() {
+            return context.getBindings("js").getMemberKeys().size();
+        }
+
+        /**
+         * Returns a function running {@code source} with its declarations in a scope of their
+         * own. Compiled scripts are parsed once per context.
+         */
+        Value getScript(Source source, CompiledScript compiled) {
+            if (compiled == null) {
+                return parse(source);
+            }
+            Value parsed = parsedScripts.get(compiled);
+            if (parsed == null) {
+                parsed = parse(source);
+                parsedScripts.put(compiled, parsed);
+            }
+            return parsed;
+        }
+
+        private Value parse(Source source) {
+            return parseScript.execute(source.getCharacters().toString(), source.getName());
+        }
+
+        boolean isInitialGlobal(String name) {
+            return initialGlobals.contains(name);
+        }
+
+        /**
+         * Deletes the global properties created during the lease and passes them to
+         * {@code addedGlobals}. Returns whether the context is back in its initial state. Global
+         * lexical declarations cannot be removed, so they are only detected.
+         */
+        boolean reset(Map<String, Value> addedGlobals) {
+            Value result = resetGlobals.execute();
+            Value added = result.getArrayElement(1);
+            for (String key : added.getMemberKeys()) {
+                addedGlobals.put(key, added.getMember(key));
+            }
+            return result.getArrayElement(0).asBoolean() && getTopScopeSize() == initialTopScopeSize;
+        }
+
+        Context getContext() {
+            return context;
+        }
+    }
+
+    /**
+     * Bindings created by a pooled engine. They may be used by concurrent evaluations, so their
+     * entries are kept in a synchronized map whose lock must be held while iterating them.
+     */
+    static final class PooledBindings extends SimpleBindings {
+        private final Map<String, Object> map;
+
+        PooledBindings() {
+            this(Collections.synchronizedMap(new HashMap<>()));
+        }
+
+        private PooledBindings(Map<String, Object> map) {
+            super(map);
+            this.map = map;
+        }
+
+        Object getLock() {
+            return map;
+        }
+    }
+
+    private final Context.Builder contextConfig;
+    private final int maxSize;
+    private final BlockingQueue<PooledContext> idle;
+    /** All contexts created by this pool, guarded by {@code this}. */
+    private final List<PooledContext> contexts = new ArrayList<>();
+    private volatile boolean closed;
+
+    GraalJSContextPool(Context.Builder contextConfig, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("pool size must be positive: " + maxSize);
+        }
+        this.contextConfig = contextConfig;
+        this.maxSize = maxSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    PooledContext acquire() throws ScriptException {
+        PooledContext pooled = idle.poll();
+        if (pooled != null) {
+            return pooled;
+        }
+        synchronized (this) {
+            checkNotClosed();
+            if (contexts.size() < maxSize) {
+                pooled = new PooledContext(GraalJSScriptEngine.createDefaultContext(contextConfig));
+                contexts.add(pooled);
+                return pooled;
+            }
+        }
+        try {
+            while (true) {
+                pooled = idle.poll(CLOSED_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (pooled != null) {
+                    return pooled;
+                }
+                checkNotClosed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException(e);
+        }
+    }
+
+    /**
+     * Resets the context and returns it to the pool, or closes it if it cannot be reused. The
+     * global properties created during the lease are passed to {@code addedGlobals} while the
+     * context is still usable.
+     */
+    void release(PooledContext pooled, GlobalsConsumer addedGlobals) {
+        boolean reusable = false;
+        try {
+            Map<String, Value> added = new HashMap<>();
+            reusable = pooled.reset(added) && !closed;
+            addedGlobals.accept(pooled, added);
+        } finally {
+            if (reusable) {
+                idle.add(pooled);
+                if (closed) {
+                    // raced with close()
+                    close();
+                }
+            } else {
+                synchronized (this) {
+                    contexts.remove(pooled);
+                }
+                pooled.context.close();
+            }
+        }
+    }
+
+    /**
+     * Receives the global properties created during a lease.
+     */
+    interface GlobalsConsumer {
+        void accept(PooledContext pooled, Map<String, Value> addedGlobals);
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("The script engine has been closed.");
+        }
+    }
+
+    /**
+     * Closes all idle contexts. Leased contexts are closed when they are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledContext pooled;
+        while ((pooled = idle.poll()) != null) {
+            synchronized (this) {
+                contexts.remove(pooled);
+            }
+            pooled.context.close();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.scriptengine;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+import com.oracle.truffle.js.scriptengine.GraalJSContextPool.PooledBindings;
+import com.oracle.truffle.js.scriptengine.GraalJSContextPool.PooledContext;
+
+/**
+ * A Graal.JS script engine that can be used from multiple threads concurrently. Every evaluation
+ * leases one of a bounded pool of polyglot contexts that share the same {@link Engine}, so unlike
+ * {@link GraalJSScriptEngine} it does not provide access to a polyglot context and does not
+ * implement {@link javax.script.Invocable}.
+ * <p>
+ * The {@link ScriptContext#ENGINE_SCOPE engine} and {@link ScriptContext#GLOBAL_SCOPE global}
+ * scope bindings are visible as global variables during an evaluation. Top-level {@code var},
+ * {@code function}, {@code let} and {@code const} declarations of a script are local to the
+ * evaluation. Global variables assigned by the script are stored into the engine scope bindings,
+ * and deleted ones are removed from them, when the evaluation ends.
+ * <p>
+ * Values leaving an evaluation, i.e. its result and the global variables stored into the bindings,
+ * are copied to host values while the context is still leased: arrays to {@link List lists}, other
+ * script objects to {@link Map maps} of their members, and dates to {@link java.time.Instant
+ * instants}. Functions are omitted from copied objects and are not stored into the bindings; a
+ * script whose result is a function fails with a {@link ScriptException}.
+ * <p>
+ * Changes to built-in objects, e.g. to {@code Array.prototype}, are not undone and are visible to
+ * later evaluations in the same context. Compiled scripts are parsed once per pooled context.
+ */
+public final class GraalJSPooledScriptEngine extends AbstractScriptEngine implements Compilable, AutoCloseable {
+
+    private final GraalJSEngineFactory factory;
+    private final GraalJSContextPool contextPool;
+
+    GraalJSPooledScriptEngine(Engine engine, Context.Builder contextConfig, int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("pool size must be positive: " + poolSize);
+        }
+        Engine engineToUse = GraalJSScriptEngine.engineOrDefault(engine);
+        this.factory = new GraalJSEngineFactory(engineToUse);
+        this.contextPool = new GraalJSContextPool(GraalJSScriptEngine.createContextConfig(engineToUse, contextConfig), poolSize);
+        this.context.setBindings(createBindings(), ScriptContext.ENGINE_SCOPE);
+    }
+
+    /**
+     * Closes the idle pooled contexts. Contexts leased by running evaluations are closed when the
+     * evaluations end.
+     */
+    @Override
+    public void close() {
+        contextPool.close();
+    }
+
+    /**
+     * Returns the polyglot engine shared by the pooled contexts.
+     */
+    public Engine getPolyglotEngine() {
+        return factory.getPolyglotEngine();
+    }
+
+    @Override
+    public Bindings createBindings() {
+        return new PooledBindings();
+    }
+
+    @Override
+    public GraalJSEngineFactory getFactory() {
+        return factory;
+    }
+
+    @Override
+    public Object eval(String script, ScriptContext ctxt) throws ScriptException {
+        return eval(GraalJSScriptEngine.createSource(script, ctxt), null, ctxt);
+    }
+
+    @Override
+    public Object eval(Reader reader, ScriptContext ctxt) throws ScriptException {
+        return eval(GraalJSScriptEngine.createSource(GraalJSScriptEngine.read(reader), ctxt), null, ctxt);
+    }
+
+    @Override
+    public CompiledScript compile(String script) throws ScriptException {
+        return compile(GraalJSScriptEngine.createSource(script, getContext()));
+    }
+
+    @Override
+    public CompiledScript compile(Reader reader) throws ScriptException {
+        return compile(GraalJSScriptEngine.createSource(GraalJSScriptEngine.read(reader), getContext()));
+    }
+
+    /**
+     * Parses the source eagerly in a leased context to report syntax errors.
+     */
+    private CompiledScript compile(Source source) throws ScriptException {
+        CompiledScript compiled = new CompiledScript() {
+            @Override
+            public ScriptEngine getEngine() {
+                return GraalJSPooledScriptEngine.this;
+            }
+
+            @Override
+            public Object eval(ScriptContext ctx) throws ScriptException {
+                return GraalJSPooledScriptEngine.this.eval(source, this, ctx);
+            }
+        };
+        PooledContext pooled = contextPool.acquire();
+        try {
+            pooled.getScript(source, compiled);
+        } catch (PolyglotException e) {
+            throw GraalJSScriptEngine.toScriptException(e);
+        } finally {
+            contextPool.release(pooled, (p, added) -> {
+            });
+        }
+        return compiled;
+    }
+
+    /**
+     * Evaluates {@code source}, or executes the already parsed {@code compiled} script if it is not
+     * {@code null}.
+     */
+    private Object eval(Source source, CompiledScript compiled, ScriptContext scriptContext) throws ScriptException {
+        Bindings engineBindings = scriptContext.getBindings(ScriptContext.ENGINE_SCOPE);
+        Bindings globalBindings = scriptContext.getBindings(ScriptContext.GLOBAL_SCOPE);
+        Map<String, Object> imported = new HashMap<>();
+        PooledContext pooled = contextPool.acquire();
+        try {
+            Context polyglotContext = pooled.getContext();
+            GraalJSScriptEngine.updateDelegatingIOStreams(polyglotContext, scriptContext);
+            // engine scope first, so that it shadows the global scope
+            importBindings(pooled, engineBindings, imported);
+            importBindings(pooled, globalBindings, imported);
+            Value result = pooled.getScript(source, compiled).execute();
+            if (result.canExecute()) {
+                throw new ScriptException("A function cannot be returned from a pooled script engine");
+            }
+            return toHostValue(result, new HashMap<>());
+        } catch (PolyglotException e) {
+            throw GraalJSScriptEngine.toScriptException(e);
+        } finally {
+            contextPool.release(pooled, (p, added) -> writeBack(engineBindings, imported, added));
+        }
+    }
+
+    /**
+     * Makes the bindings visible as global variables and records the imported entries. Entries that
+     * are shadowed by built-in globals or by previously imported bindings are not imported.
+     */
+    private static void importBindings(PooledContext pooled, Bindings bindings, Map<String, Object> imported) {
+        if (bindings == null) {
+            return;
+        }
+        Object lock = bindings instanceof PooledBindings ? ((PooledBindings) bindings).getLock() : bindings;
+        synchronized (lock) {
+            for (Map.Entry<String, Object> entry : bindings.entrySet()) {
+                String key = entry.getKey();
+                if (!pooled.isInitialGlobal(key) && !imported.containsKey(key)) {
+                    imported.put(key, entry.getValue());
+                }
+            }
+        }
+        GraalJSBindings.importBindings(pooled.getContext(), bindings);
+    }
+
+    /**
+     * Stores the global variables assigned by the script into the engine scope bindings and removes
+     * the imported ones the script deleted.
+     */
+    private static void writeBack(Bindings engineBindings, Map<String, Object> imported, Map<String, Value> added) {
+        for (Map.Entry<String, Value> entry : added.entrySet()) {
+            Value value = entry.getValue();
+            if (value.canExecute()) {
+                continue;
+            }
+            String key = entry.getKey();
+            Object hostValue = toHostValue(value, new HashMap<>());
+            if (!imported.containsKey(key) || !sameValue(hostValue, imported.get(key))) {
+                engineBindings.put(key, hostValue);
+            }
+        }
+        for (String key : imported.keySet()) {
+            if (!added.containsKey(key)) {
+                engineBindings.remove(key);
+            }
+        }
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        return a == b || (!(a instanceof Map || a instanceof List) && Objects.equals(a, b));
+    }
+
+    /**
+     * Copies a value of a leased context to a host value that stays valid after the context is
+     * released. {@code copies} maps the objects copied so far to their copies.
+     */
+    private static Object toHostValue(Value value, Map<Value, Object> copies) {
+        if (value.isNull()) {
+            return null;
+        } else if (value.isHostObject()) {
+            return value.asHostObject();
+        } else if (value.isProxyObject()) {
+            return value.asProxyObject();
+        } else if (value.isBoolean() || value.isNumber() || value.isString()) {
+            return value.as(Object.class);
+        } else if (value.isInstant()) {
+            return value.asInstant();
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        if (value.hasArrayElements()) {
+            List<Object> list = new ArrayList<>();
+            copies.put(value, list);
+            for (long i = 0; i < value.getArraySize(); i++) {
+                Value element = value.getArrayElement(i);
+                list.add(element.canExecute() ? null : toHostValue(element, copies));
+            }
+            return list;
+        } else if (value.hasMembers()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            copies.put(value, map);
+            for (String key : value.getMemberKeys()) {
+                Value member = value.getMember(key);
+                if (!member.canExecute()) {
+                    map.put(key, toHostValue(member, copies));
+                }
+            }
+            return map;
+        }
+        return value.toString();
+    }
+}
@@ -53,6 +53,7 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import javax.script.AbstractScriptEngine;
@@ -79,6 +80,9 @@ import org.graalvm.polyglot.proxy.Proxy;
 /**
  * A Graal.JS implementation of the script engine. It provides access to the polyglot context using
  * {@link #getPolyglotContext()}.
+ * <p>
+ * A script engine that can be used from several threads at once is created with
+ * {@link #createPooled(Engine, Context.Builder, int)}.
  */
 public final class GraalJSScriptEngine extends AbstractScriptEngine implements Compilable, Invocable, AutoCloseable {
 
@@ -263,10 +267,20 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     GraalJSScriptEngine(GraalJSEngineFactory factory, Engine engine, Context.Builder contextConfig) {
-        Engine engineToUse = engine;
-        if (engineToUse == null) {
-            engineToUse = Engine.newBuilder().allowExperimentalOptions(true).build();
+        Engine engineToUse = engineOrDefault(engine);
+        this.factory = (factory == null) ? new GraalJSEngineFactory(engineToUse) : factory;
+        this.contextConfig = createContextConfig(engineToUse, contextConfig);
+        this.context.setBindings(new GraalJSBindings(this.contextConfig, this.context), ScriptContext.ENGINE_SCOPE);
+    }
+
+    static Engine engineOrDefault(Engine engine) {
+        if (engine == null) {
+            return Engine.newBuilder().allowExperimentalOptions(true).build();
         }
+        return engine;
+    }
+
+    static Context.Builder createContextConfig(Engine engine, Context.Builder contextConfig) {
         Context.Builder contextConfigToUse = contextConfig;
         if (contextConfigToUse == null) {
             // default config
@@ -281,9 +295,7 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
                 updateForScriptEngineAccessibility(contextConfigToUse);
             }
         }
-        this.factory = (factory == null) ? new GraalJSEngineFactory(engineToUse) : factory;
-        this.contextConfig = contextConfigToUse.option(JS_SCRIPT_ENGINE_GLOBAL_SCOPE_IMPORT_OPTION, "true").engine(engineToUse);
-        this.context.setBindings(new GraalJSBindings(this.contextConfig, this.context), ScriptContext.ENGINE_SCOPE);
+        return contextConfigToUse.option(JS_SCRIPT_ENGINE_GLOBAL_SCOPE_IMPORT_OPTION, "true").engine(engine);
     }
 
     private static void updateForNashornCompatibilityMode(Context.Builder builder) {
@@ -396,7 +408,7 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         return eval(createSource(script, ctxt), ctxt);
     }
 
-    private static Source createSource(String script, ScriptContext ctxt) throws ScriptException {
+    static Source createSource(String script, ScriptContext ctxt) throws ScriptException {
         final Object val = ctxt.getAttribute(ScriptEngine.FILENAME);
         if (val == null) {
             return Source.newBuilder(ID, script, "<eval>").buildLiteral();
@@ -409,7 +421,7 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         }
     }
 
-    private static void updateDelegatingIOStreams(Context polyglotContext, ScriptContext scriptContext) {
+    static void updateDelegatingIOStreams(Context polyglotContext, ScriptContext scriptContext) {
         Value polyglotBindings = polyglotContext.getPolyglotBindings();
         ((DelegatingOutputStream) polyglotBindings.getMember(OUT_SYMBOL).asProxyObject()).setWriter(scriptContext.getWriter());
         ((DelegatingOutputStream) polyglotBindings.getMember(ERR_SYMBOL).asProxyObject()).setWriter(scriptContext.getErrorWriter());
@@ -417,6 +429,14 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     private Object eval(Source source, ScriptContext scriptContext) throws ScriptException {
+        return eval(source, null, scriptContext);
+    }
+
+    /**
+     * Evaluates {@code source}, or executes the already parsed {@code compiled} script if it is not
+     * {@code null}.
+     */
+    private Object eval(Source source, CompiledScript compiled, ScriptContext scriptContext) throws ScriptException {
         GraalJSBindings engineBindings = getOrCreateGraalJSBindings(scriptContext);
         Context polyglotContext = engineBindings.getContext();
         updateDelegatingIOStreams(polyglotContext, scriptContext);
@@ -425,7 +445,8 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
                 jrunscriptInitWorkaround(source, polyglotContext);
             }
             engineBindings.importGlobalBindings(scriptContext);
-            return polyglotContext.eval(source).as(Object.class);
+            Value result = compiled == null ? polyglotContext.eval(source) : engineBindings.getParsedScript(compiled, source).execute();
+            return result.as(Object.class);
         } catch (PolyglotException e) {
             throw toScriptException(e);
         } finally {
@@ -433,7 +454,16 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         }
     }
 
-    private static ScriptException toScriptException(PolyglotException ex) {
+    static Value getParsedScript(Map<CompiledScript, Value> parsedScripts, Context polyglotContext, CompiledScript script, Source source) {
+        Value parsed = parsedScripts.get(script);
+        if (parsed == null) {
+            parsed = polyglotContext.parse(source);
+            parsedScripts.put(script, parsed);
+        }
+        return parsed;
+    }
+
+    static ScriptException toScriptException(PolyglotException ex) {
         ScriptException sex;
         if (ex.isHostException()) {
             Throwable hostException = ex.asHostException();
@@ -585,9 +615,12 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         return compile(source);
     }
 
+    /**
+     * Parses the source eagerly to report syntax errors. The parsed script is kept per polyglot
+     * context and executed directly by {@link CompiledScript#eval(ScriptContext)}.
+     */
     private CompiledScript compile(Source source) throws ScriptException {
-        checkSyntax(source);
-        return new CompiledScript() {
+        CompiledScript compiled = new CompiledScript() {
             @Override
             public ScriptEngine getEngine() {
                 return GraalJSScriptEngine.this;
@@ -595,17 +628,15 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
 
             @Override
             public Object eval(ScriptContext ctx) throws ScriptException {
-                return GraalJSScriptEngine.this.eval(source, ctx);
+                return GraalJSScriptEngine.this.eval(source, this, ctx);
             }
         };
-    }
-
-    private void checkSyntax(Source source) throws ScriptException {
         try {
-            getPolyglotContext().parse(source);
+            getOrCreateGraalJSBindings(context).getParsedScript(compiled, source);
         } catch (PolyglotException pex) {
             throw toScriptException(pex);
         }
+        return compiled;
     }
 
     private static class DelegatingInputStream extends InputStream implements Proxy {
@@ -704,6 +735,21 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         return new GraalJSScriptEngine(null, engine, newContextConfig);
     }
 
+    /**
+     * Creates a new GraalJS script engine that can be used from multiple threads concurrently. It
+     * evaluates scripts in up to {@code poolSize} polyglot contexts that share one polyglot engine.
+     *
+     * @param engine the engine shared by the pooled contexts or <code>null</code> if a default
+     *            engine should be used.
+     * @param newContextConfig a base configuration of the pooled contexts or <code>null</code> if
+     *            the default configuration should be used.
+     * @param poolSize the maximum number of pooled contexts
+     * @see GraalJSPooledScriptEngine
+     */
+    public static GraalJSPooledScriptEngine createPooled(Engine engine, Context.Builder newContextConfig, int poolSize) {
+        return new GraalJSPooledScriptEngine(engine, newContextConfig, poolSize);
+    }
+
     private static boolean isInterfaceImplemented(final Class<?> iface, final Value obj) {
         for (final Method method : iface.getMethods()) {
             // ignore methods of java.lang.Object class
@@ -40,24 +40,48 @@
  */
 package com.oracle.truffle.js.snapshot;
 
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
-import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.graalvm.polyglot.Context;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.parser.BinarySnapshotProvider;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSContextOptions;
 import com.oracle.truffle.js.runtime.JSRealm;
 
 public class SnapshotTool {
+    /** Options of the contexts used for recording. */
+    private static final Map<String, String> RECORDING_OPTIONS = createRecordingOptions();
+    /** Whether scripts are recorded in strict mode. */
+    private static final boolean STRICT = false;
+    /** Suffix of the file that records how a binary snapshot was created. */
+    private static final String STAMP_SUFFIX = ".stamp";
+
     private final TimeStats timeStats = new TimeStats();
 
     public SnapshotTool() {
@@ -66,8 +90,11 @@ public class SnapshotTool {
     public static void main(String[] args) throws IOException {
         boolean binary = true;
         boolean wrapped = false;
+        boolean incremental = false;
+        int threads = 1;
         String outDir = null;
         String inDir = null;
+        String manifestFile = null;
         List<String> srcFiles = new ArrayList<>();
         for (String arg : args) {
             if (arg.startsWith("--")) {
@@ -77,6 +104,15 @@ public class SnapshotTool {
                     binary = true;
                 } else if (arg.equals("--wrapped")) {
                     wrapped = true;
+                } else if (arg.equals("--incremental")) {
+                    incremental = true;
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(arg.substring(arg.indexOf('=') + 1));
+                    if (threads < 1) {
+                        throw new IllegalArgumentException("Invalid number of threads: " + threads);
+                    }
+                } else if (arg.startsWith("--manifest=")) {
+                    manifestFile = arg.substring(arg.indexOf('=') + 1);
                 } else if (arg.startsWith("--file=")) {
                     srcFiles.add(arg.substring(arg.indexOf('=') + 1));
                 } else if (arg.startsWith("--outdir=")) {
@@ -89,23 +125,14 @@ public class SnapshotTool {
 
         SnapshotTool snapshotTool = new SnapshotTool();
         if (!srcFiles.isEmpty() && outDir != null) {
-            try (Context polyglotContext = Context.newBuilder(JavaScriptLanguage.ID).allowIO(true).allowExperimentalOptions(true).option(JSContextOptions.CLASS_FIELDS_NAME, "true").option(
-                            JSContextOptions.LAZY_TRANSLATION_NAME, "false").build()) {
-                polyglotContext.initialize(JavaScriptLanguage.ID);
-                polyglotContext.enter();
-                for (String srcFile : srcFiles) {
-                    File sourceFile = inDir == null ? new File(srcFile) : Paths.get(inDir, srcFile).toFile();
-                    File outputFile = Paths.get(outDir, srcFile + (binary ? ".bin" : ".java")).toFile();
-                    if (!sourceFile.isFile()) {
-                        throw new IllegalArgumentException("Not a file: " + sourceFile);
-                    }
-                    snapshotTool.snapshotScriptFileTo(srcFile, sourceFile, outputFile, binary, wrapped);
-                }
-                snapshotTool.timeStats.print();
-                polyglotContext.leave();
+            long startTime = System.nanoTime();
+            snapshotTool.snapshotScriptFiles(srcFiles, inDir, outDir, binary, wrapped, incremental, Math.min(threads, srcFiles.size()));
+            snapshotTool.timeStats.print(System.nanoTime() - startTime);
+            if (manifestFile != null) {
+                snapshotTool.timeStats.writeManifest(new File(manifestFile));
             }
         } else {
-            System.out.println("Usage: [--java|--binary] --outdir=DIR [--indir=DIR] --file=FILE [--file=FILE ...]");
+            System.out.println("Usage: [--java|--binary] [--wrapped] [--incremental] [--threads=N] [--manifest=FILE] --outdir=DIR [--indir=DIR] --file=FILE [--file=FILE ...]");
         }
     }
 
@@ -116,10 +143,101 @@ public class SnapshotTool {
         return dir;
     }
 
-    private void snapshotScriptFileTo(String fileName, File sourceFile, File outputFile, boolean binary, boolean wrapped) throws IOException {
+    private static Map<String, String> createRecordingOptions() {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put(JSContextOptions.CLASS_FIELDS_NAME, "true");
+        options.put(JSContextOptions.LAZY_TRANSLATION_NAME, "false");
+        return Collections.unmodifiableMap(options);
+    }
+
+    private static Context createContext() {
+        Context polyglotContext = Context.newBuilder(JavaScriptLanguage.ID).allowIO(true).allowExperimentalOptions(true).options(RECORDING_OPTIONS).build();
+        polyglotContext.initialize(JavaScriptLanguage.ID);
+        return polyglotContext;
+    }
+
+    /**
+     * Records the given files on a pool of contexts, one per thread. With a single thread, all
+     * files are recorded in order on the current thread.
+     */
+    private void snapshotScriptFiles(List<String> srcFiles, String inDir, String outDir, boolean binary, boolean wrapped, boolean incremental, int threads) throws IOException {
+        BlockingQueue<Context> contextPool = new ArrayBlockingQueue<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                contextPool.add(createContext());
+            }
+            if (threads == 1) {
+                for (String srcFile : srcFiles) {
+                    snapshotScriptFile(contextPool, srcFile, inDir, outDir, binary, wrapped, incremental);
+                }
+            } else {
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                try {
+                    List<Future<?>> futures = new ArrayList<>();
+                    for (String srcFile : srcFiles) {
+                        futures.add(executor.submit(() -> {
+                            snapshotScriptFile(contextPool, srcFile, inDir, outDir, binary, wrapped, incremental);
+                            return null;
+                        }));
+                    }
+                    for (Future<?> future : futures) {
+                        awaitSnapshot(future);
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        } finally {
+            for (Context polyglotContext : contextPool) {
+                polyglotContext.close();
+            }
+        }
+    }
+
+    private static void awaitSnapshot(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private void snapshotScriptFile(BlockingQueue<Context> contextPool, String srcFile, String inDir, String outDir, boolean binary, boolean wrapped, boolean incremental) throws IOException {
+        File sourceFile = inDir == null ? new File(srcFile) : Paths.get(inDir, srcFile).toFile();
+        File outputFile = Paths.get(outDir, srcFile + (binary ? ".bin" : ".java")).toFile();
+        if (!sourceFile.isFile()) {
+            throw new IllegalArgumentException("Not a file: " + sourceFile);
+        }
+        Context polyglotContext;
+        try {
+            polyglotContext = contextPool.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        polyglotContext.enter();
+        try {
+            snapshotScriptFileTo(srcFile, sourceFile, outputFile, binary, wrapped, incremental);
+        } finally {
+            polyglotContext.leave();
+            contextPool.add(polyglotContext);
+        }
+    }
+
+    private void snapshotScriptFileTo(String fileName, File sourceFile, File outputFile, boolean binary, boolean wrapped, boolean incremental) throws IOException {
         JSRealm realm = JavaScriptLanguage.getCurrentJSRealm();
         JSContext context = realm.getContext();
-        Recording.logv("recording snapshot of %s", fileName);
         Source.SourceBuilder builder = Source.newBuilder(JavaScriptLanguage.ID, realm.getEnv().getPublicTruffleFile(sourceFile.getPath())).name(fileName);
         Source source = builder.build();
         String prefix;
@@ -139,43 +257,155 @@ public class SnapshotTool {
             prefix = "";
             suffix = "";
         }
+        File stampFile = new File(outputFile.getPath() + STAMP_SUFFIX);
+        String stamp = createStamp(prefix, suffix);
+        if (incremental && binary && isUpToDate(outputFile, source.getCharacters(), stampFile, stamp)) {
+            Recording.logv("snapshot of %s is up to date", fileName);
+            timeStats.skipped(fileName);
+            return;
+        }
+        Recording.logv("recording snapshot of %s", fileName);
         try (TimerCloseable timer = timeStats.file(fileName)) {
-            final Recording rec = Recording.recordSource(source, context, false, prefix, suffix);
+            final Recording rec = Recording.recordSource(source, context, STRICT, prefix, suffix);
             outputFile.getParentFile().mkdirs();
+            // a snapshot without a matching stamp is never considered up to date
+            Files.deleteIfExists(stampFile.toPath());
             try (FileOutputStream outs = new FileOutputStream(outputFile)) {
                 rec.saveToStream(fileName, outs, binary);
             }
+            if (binary) {
+                Files.write(stampFile.toPath(), stamp.getBytes(StandardCharsets.UTF_8));
+            }
         } catch (RuntimeException e) {
             throw new RuntimeException(fileName, e);
         }
     }
 
+    /**
+     * Describes the parts of a recording that are not covered by the snapshot header: the prefix
+     * and suffix of a wrapped source and the recording options.
+     */
+    private static String createStamp(String prefix, String suffix) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("prefix=").append(prefix.length()).append(':').append(prefix.hashCode()).append('\n');
+        sb.append("suffix=").append(suffix.length()).append(':').append(suffix.hashCode()).append('\n');
+        sb.append("strict=").append(STRICT).append('\n');
+        for (Map.Entry<String, String> option : RECORDING_OPTIONS.entrySet()) {
+            sb.append(option.getKey()).append('=').append(option.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks if the existing binary snapshot has been recorded from the same source code by the
+     * same node decoder version (the checks performed by {@link BinarySnapshotProvider}), and with
+     * the same prefix, suffix and options (recorded in the stamp file next to the snapshot).
+     */
+    private static boolean isUpToDate(File outputFile, CharSequence code, File stampFile, String stamp) throws IOException {
+        if (!outputFile.isFile()) {
+            return false;
+        }
+        try {
+            if (!stamp.equals(new String(Files.readAllBytes(stampFile.toPath()), StandardCharsets.UTF_8))) {
+                return false;
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        byte[] header = new byte[BinarySnapshotProvider.HEADER_SIZE];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(outputFile))) {
+            in.readFully(header);
+        } catch (EOFException e) {
+            return false;
+        }
+        return BinarySnapshotProvider.isSnapshotOf(ByteBuffer.wrap(header), code);
+    }
+
     private interface TimerCloseable extends AutoCloseable {
         @Override
         void close();
     }
 
     private static class TimeStats {
-        private final List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        private final List<FileTime> entries = new ArrayList<>();
 
         public TimerCloseable file(String fileName) {
             long startTime = System.nanoTime();
             return () -> {
                 long endTime = System.nanoTime();
-                entries.add(new AbstractMap.SimpleImmutableEntry<>(fileName, endTime - startTime));
+                add(new FileTime(fileName, endTime - startTime, false));
             };
         }
 
-        public void print() {
+        public void skipped(String fileName) {
+            add(new FileTime(fileName, 0, true));
+        }
+
+        private synchronized void add(FileTime entry) {
+            entries.add(entry);
+        }
+
+        public synchronized void print(long wallTime) {
             if (entries.isEmpty()) {
                 return;
             }
             long total = 0;
-            for (Map.Entry<String, Long> entry : entries) {
-                System.out.printf("%s: %.02f ms\n", entry.getKey(), entry.getValue() / 1e6);
-                total += entry.getValue();
+            int skipped = 0;
+            for (FileTime entry : entries) {
+                if (entry.skipped) {
+                    skipped++;
+                } else {
+                    System.out.printf(Locale.ROOT, "%s: %.02f ms\n", entry.fileName, entry.time / 1e6);
+                    total += entry.time;
+                }
+            }
+            if (skipped != 0) {
+                System.out.printf(Locale.ROOT, "Skipped (up to date): %d\n", skipped);
+            }
+            System.out.printf(Locale.ROOT, "Total: %.02f ms\n", total / 1e6);
+            System.out.printf(Locale.ROOT, "Wall time: %.02f ms\n", wallTime / 1e6);
+        }
+
+        /**
+         * Writes the recorded files and their timings as a JSON array.
+         */
+        public synchronized void writeManifest(File manifestFile) throws IOException {
+            try (PrintStream out = new PrintStream(new FileOutputStream(manifestFile), false, "UTF-8")) {
+                out.println("[");
+                for (int i = 0; i < entries.size(); i++) {
+                    FileTime entry = entries.get(i);
+                    out.printf(Locale.ROOT, "  {\"file\": \"%s\", \"status\": \"%s\", \"ms\": %.02f}%s\n", escapeJSON(entry.fileName), entry.skipped ? "skipped" : "recorded", entry.time / 1e6,
+                                    i < entries.size() - 1 ? "," : "");
+                }
+                out.println("]");
             }
-            System.out.printf("Total: %.02f ms\n", total / 1e6);
+        }
+
+        private static String escapeJSON(String str) {
+            StringBuilder sb = new StringBuilder(str.length());
+            for (int i = 0; i < str.length(); i++) {
+                char ch = str.charAt(i);
+                if (ch == '"' || ch == '\\') {
+                    sb.append('\\').append(ch);
+                } else if (ch < 0x20) {
+                    sb.append(String.format(Locale.ROOT, "\\u%04x", (int) ch));
+                } else {
+                    sb.append(ch);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class FileTime {
+        final String fileName;
+        final long time;
+        final boolean skipped;
+
+        FileTime(String fileName, long time, boolean skipped) {
+            this.fileName = fileName;
+            this.time = time;
+            this.skipped = skipped;
         }
     }
 }
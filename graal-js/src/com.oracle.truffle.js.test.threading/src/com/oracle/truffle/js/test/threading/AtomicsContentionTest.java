@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.threading;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+/**
+ * Several agents update the same words of a SharedArrayBuffer concurrently. Lost updates would
+ * show up as wrong totals.
+ */
+public class AtomicsContentionTest {
+
+    private static final int AGENTS = 8;
+    private static final int ITERATIONS = 20000;
+
+    private static Value runAgents(String agentBody, String sabSetup, String result) {
+        try (Context context = TestUtil.newContextBuilder().option("js.test262-mode", "true").option("js.ecmascript-version", "2020").build()) {
+            String code = "" +
+                            "for (let i = 0; i < " + AGENTS + "; i++) {\n" +
+                            "  $262.agent.start(`\n" +
+                            "    $262.agent.receiveBroadcast(function(sab) {\n" +
+                            "      const ITERATIONS = " + ITERATIONS + ";\n" +
+                            agentBody +
+                            "      $262.agent.report('done');\n" +
+                            "      $262.agent.leaving();\n" +
+                            "    });\n" +
+                            "  `);\n" +
+                            "}\n" +
+                            sabSetup +
+                            "$262.agent.broadcast(sab);\n" +
+                            "let done = 0;\n" +
+                            "while (done < " + AGENTS + ") {\n" +
+                            "  if ($262.agent.getReport() !== null) {\n" +
+                            "    done++;\n" +
+                            "  } else {\n" +
+                            "    $262.agent.sleep(1);\n" +
+                            "  }\n" +
+                            "}\n" +
+                            result;
+            return context.eval("js", code);
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void addInt32() {
+        Value total = runAgents("" +
+                        "      const i32a = new Int32Array(sab);\n" +
+                        "      for (let j = 0; j < ITERATIONS; j++) {\n" +
+                        "        Atomics.add(i32a, 0, 1);\n" +
+                        "        Atomics.sub(i32a, 1, 1);\n" +
+                        "      }\n",
+                        "const sab = new SharedArrayBuffer(16);\n" +
+                                        "const i32a = new Int32Array(sab);\n",
+                        "i32a[0] - i32a[1];");
+        assertEquals(2 * AGENTS * ITERATIONS, total.asInt());
+    }
+
+    @Test(timeout = 60000)
+    public void compareExchangeLoop() {
+        Value total = runAgents("" +
+                        "      const i32a = new Int32Array(sab);\n" +
+                        "      for (let j = 0; j < ITERATIONS; j++) {\n" +
+                        "        let v;\n" +
+                        "        do {\n" +
+                        "          v = Atomics.load(i32a, 2);\n" +
+                        "        } while (Atomics.compareExchange(i32a, 2, v, v + 1) !== v);\n" +
+                        "      }\n",
+                        "const sab = new SharedArrayBuffer(16);\n" +
+                                        "const i32a = new Int32Array(sab);\n",
+                        "i32a[2];");
+        assertEquals(AGENTS * ITERATIONS, total.asInt());
+    }
+
+    @Test(timeout = 60000)
+    public void neighbouringBytes() {
+        // every agent owns one byte of the same two words, plus a shared 16-bit counter
+        Value total = runAgents("" +
+                        "      const u8a = new Uint8Array(sab);\n" +
+                        "      const u16a = new Uint16Array(sab);\n" +
+                        "      const me = Atomics.add(u8a, 15, 1);\n" +
+                        "      for (let j = 0; j < ITERATIONS; j++) {\n" +
+                        "        Atomics.add(u8a, me, 1);\n" +
+                        "        Atomics.add(u16a, 4, 1);\n" +
+                        "      }\n",
+                        "const sab = new SharedArrayBuffer(16);\n" +
+                                        "const u8a = new Uint8Array(sab);\n" +
+                                        "const u16a = new Uint16Array(sab);\n",
+                        "let sum = 0;\n" +
+                                        "for (let i = 0; i < " + AGENTS + "; i++) {\n" +
+                                        "  sum += u8a[i];\n" +
+                                        "}\n" +
+                                        "sum * 65536 + u16a[4];");
+        // each byte wraps around at 256
+        int perByte = ITERATIONS % 256;
+        int counter = (AGENTS * ITERATIONS) % 65536;
+        assertEquals((long) AGENTS * perByte * 65536 + counter, total.asLong());
+    }
+
+    @Test(timeout = 60000)
+    public void addBigInt64() {
+        Value total = runAgents("" +
+                        "      const i64a = new BigInt64Array(sab);\n" +
+                        "      for (let j = 0; j < ITERATIONS; j++) {\n" +
+                        "        Atomics.add(i64a, 1, 3n);\n" +
+                        "      }\n",
+                        "const sab = new SharedArrayBuffer(16);\n" +
+                                        "const i64a = new BigInt64Array(sab);\n",
+                        "String(i64a[1]);");
+        assertEquals(String.valueOf(3L * AGENTS * ITERATIONS), total.asString());
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.threading;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+/**
+ * Atomics.wait and Atomics.notify across agents: batched wake-ups, FIFO order and timeouts.
+ */
+public class AtomicsWaitNotifyTest {
+
+    private static Value run(String code) {
+        try (Context context = TestUtil.newContextBuilder().option("js.test262-mode", "true").option("js.ecmascript-version", "2020").build()) {
+            return context.eval("js", code);
+        }
+    }
+
+    private static String startAgents(int count, String agentBody) {
+        return "" +
+                        "for (let i = 0; i < " + count + "; i++) {\n" +
+                        "  $262.agent.start(`\n" +
+                        "    $262.agent.receiveBroadcast(function(sab) {\n" +
+                        "      const i32a = new Int32Array(sab);\n" +
+                        agentBody +
+                        "      $262.agent.leaving();\n" +
+                        "    });\n" +
+                        "  `);\n" +
+                        "}\n" +
+                        "const sab = new SharedArrayBuffer(32);\n" +
+                        "const i32a = new Int32Array(sab);\n" +
+                        "$262.agent.broadcast(sab);\n";
+    }
+
+    private static String getReport() {
+        return "function getReport() {\n" +
+                        "  let r;\n" +
+                        "  while ((r = $262.agent.getReport()) === null) {\n" +
+                        "    $262.agent.sleep(1);\n" +
+                        "  }\n" +
+                        "  return r;\n" +
+                        "}\n";
+    }
+
+    @Test(timeout = 60000)
+    public void massNotify() {
+        final int agents = 16;
+        // agents wait through a view with a byte offset; the notifier uses the plain view
+        Value result = run(getReport() + startAgents(agents, "" +
+                        "      const view = new Int32Array(sab, 8);\n" +
+                        "      Atomics.add(i32a, 0, 1);\n" +
+                        "      $262.agent.report(Atomics.wait(view, 2, 0));\n") +
+                        "while (Atomics.load(i32a, 0) < " + agents + ") {\n" +
+                        "  $262.agent.sleep(1);\n" +
+                        "}\n" +
+                        "let woken = 0;\n" +
+                        "while (woken < " + agents + ") {\n" +
+                        "  woken += Atomics.notify(i32a, 4);\n" +
+                        "}\n" +
+                        "const reports = [];\n" +
+                        "for (let i = 0; i < " + agents + "; i++) {\n" +
+                        "  reports.push(getReport());\n" +
+                        "}\n" +
+                        "woken + ':' + reports.filter(r => r === 'ok').length;");
+        assertEquals(agents + ":" + agents, result.asString());
+    }
+
+    @Test(timeout = 60000)
+    public void fifoOrder() {
+        final int agents = 4;
+        Value result = run(getReport() + startAgents(agents, "" +
+                        "      const me = Atomics.add(i32a, 0, 1);\n" +
+                        "      while (Atomics.load(i32a, 1) !== me) {\n" +
+                        "        $262.agent.sleep(1);\n" +
+                        "      }\n" +
+                        "      // give the previous agent time to enqueue itself\n" +
+                        "      $262.agent.sleep(100);\n" +
+                        "      Atomics.store(i32a, 1, me + 1);\n" +
+                        "      Atomics.wait(i32a, 2, 0);\n" +
+                        "      $262.agent.report(me);\n") +
+                        "while (Atomics.load(i32a, 1) < " + agents + ") {\n" +
+                        "  $262.agent.sleep(1);\n" +
+                        "}\n" +
+                        "$262.agent.sleep(200);\n" +
+                        "const order = [];\n" +
+                        "for (let i = 0; i < " + agents + "; i++) {\n" +
+                        "  while (Atomics.notify(i32a, 2, 1) === 0) {\n" +
+                        "    $262.agent.sleep(1);\n" +
+                        "  }\n" +
+                        "  order.push(getReport());\n" +
+                        "}\n" +
+                        "order.join();");
+        assertEquals("0,1,2,3", result.asString());
+    }
+
+    @Test(timeout = 60000)
+    public void timeout() {
+        Value result = run("" +
+                        "const i32a = new Int32Array(new SharedArrayBuffer(16));\n" +
+                        "[Atomics.wait(i32a, 0, 1, 10), Atomics.wait(i32a, 0, 0, 50), Atomics.notify(i32a, 0)].join();");
+        assertEquals("not-equal,timed-out,0", result.asString());
+    }
+
+    @Test(timeout = 60000)
+    public void waitAfterInterrupt() throws InterruptedException {
+        AtomicReference<Object> result = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try (Context context = TestUtil.newContextBuilder().option("js.test262-mode", "true").option("js.ecmascript-version", "2020").build()) {
+                context.eval("js", "var i32a = new Int32Array(new SharedArrayBuffer(16));");
+                try {
+                    context.eval("js", "Atomics.wait(i32a, 0, 0);");
+                    result.set("not interrupted");
+                    return;
+                } catch (PolyglotException e) {
+                    if (!e.isCancelled()) {
+                        result.set(e);
+                        return;
+                    }
+                }
+                // the interrupted waiter is gone and later waits block again
+                long start = System.nanoTime();
+                String r = context.eval("js", "Atomics.notify(i32a, 0) + ':' + Atomics.wait(i32a, 0, 0, 200);").asString();
+                result.set(r + ":" + ((System.nanoTime() - start) >= 150_000_000L));
+            }
+        });
+        waiter.start();
+        // wait until the agent is parked in Atomics.wait
+        while (LockSupport.getBlocker(waiter) == null) {
+            Thread.sleep(1);
+        }
+        waiter.interrupt();
+        waiter.join();
+        assertEquals("0:timed-out:true", String.valueOf(result.get()));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * Tests sorting of int and double backed arrays and typed arrays without boxing.
+ */
+
+load('assert.js');
+
+function assertArrayEquals(expected, actual) {
+    assertSame(expected.length, actual.length);
+    for (var i = 0; i < expected.length; i++) {
+        assertSame(expected[i], actual[i]);
+    }
+}
+
+// default order compares string representations
+assertArrayEquals([-1, -10, -2, 0, 1, 10, 100, 2, 9], [10, 9, 1, -1, 2, -2, 100, 0, -10].sort());
+assertArrayEquals([-2147483648, -2147483647, 0, 2147483647], [2147483647, 0, -2147483647, -2147483648].sort());
+assertArrayEquals([1, 10, 2.5, 3], [3, 10, 2.5, 1].sort());
+assertArrayEquals([1, 10, 2, 3], [3.5 - 0.5, 10, 2, 1].sort());
+
+// numeric comparison functions
+assertArrayEquals([-10, -2, -1, 0, 1, 2, 9, 10, 100], [10, 9, 1, -1, 2, -2, 100, 0, -10].sort((a, b) => a - b));
+assertArrayEquals([100, 10, 9, 2, 1, 0, -1, -2, -10], [10, 9, 1, -1, 2, -2, 100, 0, -10].sort(function(x, y) { return y - x; }));
+assertArrayEquals([-Infinity, -1.5, 0.5, 2, Infinity], [2, Infinity, 0.5, -1.5, -Infinity].sort((a, b) => { return a - b; }));
+assertArrayEquals([3, 2, 1], [1, 2, 3].sort((a, b) => a - b + (b - a) * 2));
+
+// -0 and +0 compare equal with a comparison function, stability must be preserved
+var zeros = [0, -0, 0.5, -0].sort((a, b) => a - b);
+assertSame(Infinity, 1 / zeros[0]);
+assertSame(-Infinity, 1 / zeros[1]);
+assertSame(-Infinity, 1 / zeros[2]);
+assertSame(0.5, zeros[3]);
+
+// holes are moved to the end
+var holes = [3, , 1, 2];
+holes.sort((a, b) => a - b);
+assertArrayEquals([1, 2, 3, undefined], holes);
+assertFalse(3 in holes);
+
+// typed arrays
+assertArrayEquals([-128, -1, 0, 1, 127], new Int8Array([1, 127, -1, 0, -128]).sort());
+assertArrayEquals([0, 1, 2147483648, 4294967295], new Uint32Array([4294967295, 1, 2147483648, 0]).sort());
+assertArrayEquals([4294967295, 2147483648, 1, 0], new Uint32Array([4294967295, 1, 2147483648, 0]).sort((a, b) => b - a));
+var floats = new Float64Array([NaN, 1, 0, -0, -Infinity]).sort();
+assertSame(-Infinity, floats[0]);
+assertSame(-Infinity, 1 / floats[1]);
+assertSame(Infinity, 1 / floats[2]);
+assertSame(1, floats[3]);
+assertTrue(isNaN(floats[4]));
+assertArrayEquals([2.5, 1.5, 0.5], new Float32Array([0.5, 2.5, 1.5]).sort((a, b) => b - a));
+
+// comparison functions with side effects are still called
+var calls = 0;
+[3, 1, 2].sort(function(a, b) { calls++; return a - b; });
+assertTrue(calls > 0);
+
+// comparison functions are matched on their syntax tree, not on their source text
+assertArrayEquals([3, 2, 1], [1, 3, 2].sort(function /* descending */ (a,
+        b) {
+    // larger first
+    return (b) - (a);
+}));
+assertArrayEquals([1, 3, 2], [1, 3, 2].sort((a, b) => a.valueOf() - b && 0));
+var comparators = [(a, b) => a - b, (x, y) => x - y, function(a, b) { return a - b }, (p, q) => p - q, (m, n) => m - n, (a, b) => b - a];
+for (var k = 0; k < 3; k++) {
+    comparators.forEach(function(compare, i) {
+        var expected = i === comparators.length - 1 ? [3, 2, 1] : [1, 2, 3];
+        assertArrayEquals(expected, [2, 3, 1].sort(compare));
+        assertArrayEquals(expected, [2.5, 3.5, 1.5].sort(compare).map(Math.floor));
+    });
+}
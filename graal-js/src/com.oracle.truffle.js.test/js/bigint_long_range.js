@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+// Tests BigInt arithmetic around the boundaries of the inline long representation.
+
+load('assert.js');
+
+var MAX = 2n ** 63n - 1n;
+var MIN = -(2n ** 63n);
+
+assertSame('9223372036854775807', String(MAX));
+assertSame('-9223372036854775808', String(MIN));
+
+function add(a, b) { return a + b; }
+function sub(a, b) { return a - b; }
+function mul(a, b) { return a * b; }
+function div(a, b) { return a / b; }
+function rem(a, b) { return a % b; }
+function shl(a, b) { return a << b; }
+function shr(a, b) { return a >> b; }
+function lt(a, b) { return a < b; }
+function neg(a) { return -a; }
+
+// warm up with small values first, then overflow
+for (var i = 0; i < 1000; i++) {
+    assertSame(BigInt(i) + 1n, add(BigInt(i), 1n));
+    assertSame(BigInt(i) - 1n, sub(BigInt(i), 1n));
+    assertSame(BigInt(i) * 3n, mul(BigInt(i), 3n));
+    assertSame(i < 500, lt(BigInt(i), 500n));
+}
+
+assertSame('9223372036854775808', String(add(MAX, 1n)));
+assertSame('-9223372036854775809', String(sub(MIN, 1n)));
+assertSame('85070591730234615847396907784232501249', String(mul(MAX, MAX)));
+assertSame('9223372036854775808', String(mul(MIN, -1n)));
+assertSame('9223372036854775808', String(div(MIN, -1n)));
+assertSame(0n, rem(MIN, -1n));
+assertSame('9223372036854775808', String(neg(MIN)));
+assertSame(MIN, neg(neg(MIN)));
+assertSame('18446744073709551616', String(shl(1n, 64n)));
+assertSame('-9223372036854775808', String(shl(-1n, 63n)));
+assertSame('9223372036854775808', String(shl(1n, 63n)));
+assertSame(-1n, shr(MIN, 100n));
+assertSame(0n, shr(MAX, 63n));
+assertSame(MIN, shr(MIN - 1n, 0n) + 1n);
+
+// results that shrink back into long range compare equal to inline values
+assertSame(MAX, add(MAX, 1n) - 1n);
+assertSame(MIN, sub(MIN, 1n) + 1n);
+assertTrue(add(MAX, 1n) - 1n === MAX);
+assertTrue(new Map([[MAX, 'x']]).has(add(MAX, 1n) - 1n));
+assertTrue(lt(MAX, add(MAX, 1n)));
+assertTrue(lt(sub(MIN, 1n), MIN));
+assertTrue(MAX + 2n > 9223372036854775807);
+assertTrue(MIN - 1n < -9223372036854775808);
+assertTrue(MIN - 1n < 0);
+assertTrue(MAX + 1n > 0);
+
+// typed arrays
+var a64 = new BigInt64Array(2);
+a64[0] = MAX + 1n;
+assertSame(MIN, a64[0]);
+a64[1] = -5n;
+assertSame(-5n, a64[1]);
+var u64 = new BigUint64Array(a64.buffer);
+assertSame(2n ** 64n - 5n, u64[1]);
+assertSame(2n ** 63n, u64[0]);
+assertSame(MIN, BigInt.asIntN(64, 2n ** 63n));
+assertSame(2n ** 64n - 1n, BigInt.asUintN(64, -1n));
+
+// string conversions
+assertSame(123456789012345678n, BigInt('123456789012345678'));
+assertSame(1234567890123456789n, BigInt('1234567890123456789'));
+assertSame(-42n, BigInt(' -42 '));
+assertSame(255n, BigInt('0xff'));
+assertSame(10n, BigInt('010'));
+assertSame(0n, BigInt(''));
+assertThrows(function() { BigInt('1.5'); }, SyntaxError);
+assertThrows(function() { BigInt('-'); }, SyntaxError);
+assertSame('-7fffffffffffffff', (-MAX).toString(16));
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/*
+ * Tests local time computations around DST transitions (served by the realm's date cache).
+ *
+ * @option timezone=America/New_York
+ */
+
+load('assert.js');
+
+var HOUR = 3600 * 1000;
+
+// DST starts on 2020-03-08 at 02:00 EST (07:00Z), ends on 2020-11-01 at 02:00 EDT (06:00Z).
+var dstStart = Date.UTC(2020, 2, 8, 7, 0);
+var dstEnd = Date.UTC(2020, 10, 1, 6, 0);
+
+// alternate between both sides of the transitions
+for (var i = 0; i < 10; i++) {
+    assertSame(1, new Date(dstStart - 1).getHours());
+    assertSame(300, new Date(dstStart - 1).getTimezoneOffset());
+    assertSame(3, new Date(dstStart).getHours());
+    assertSame(240, new Date(dstStart).getTimezoneOffset());
+    assertSame(1, new Date(dstEnd - 1).getHours());
+    assertSame(240, new Date(dstEnd - 1).getTimezoneOffset());
+    assertSame(1, new Date(dstEnd).getHours());
+    assertSame(300, new Date(dstEnd).getTimezoneOffset());
+}
+
+// local -> UTC, including skipped and repeated local times
+assertSame(dstStart, new Date(2020, 2, 8, 3, 0).getTime());
+assertSame(dstStart - HOUR, new Date(2020, 2, 8, 1, 0).getTime());
+assertSame(Date.UTC(2020, 2, 8, 7, 30), new Date(2020, 2, 8, 2, 30).getTime());
+assertSame(Date.UTC(2020, 10, 1, 5, 30), new Date(2020, 10, 1, 1, 30).getTime());
+assertSame(dstEnd + HOUR, new Date(2020, 10, 1, 2, 0).getTime());
+
+// round trip every hour of two years; only the repeated hours differ
+var mismatches = [];
+for (var t = Date.UTC(2019, 0, 1); t < Date.UTC(2021, 0, 1); t += HOUR) {
+    var d = new Date(t);
+    var r = new Date(d.getFullYear(), d.getMonth(), d.getDate(), d.getHours(), d.getMinutes()).getTime();
+    if (r !== t) {
+        assertSame(t - HOUR, r);
+        mismatches.push(new Date(t).toISOString());
+    }
+}
+assertSame('2019-11-03T06:00:00.000Z,2020-11-01T06:00:00.000Z', mismatches.join());
+
+// year/month/day splits across day and year boundaries
+var d = new Date(2020, 11, 31, 23, 59, 59, 999);
+assertSame(2020, d.getFullYear());
+assertSame(11, d.getMonth());
+assertSame(31, d.getDate());
+d = new Date(d.getTime() + 1);
+assertSame(2021, d.getFullYear());
+assertSame(0, d.getMonth());
+assertSame(1, d.getDate());
+assertSame(121, d.getYear());
+d = new Date(Date.UTC(2020, 1, 29, 4, 59));
+assertSame(2020, d.getFullYear());
+assertSame(1, d.getMonth());
+assertSame(28, d.getDate());
+assertSame(29, d.getUTCDate());
+
+// times far outside of the tz database
+assertSame(-271821, new Date(-8.64e15).getUTCFullYear());
+assertSame(275760, new Date(8.64e15).getUTCFullYear());
+assertSame(-1000, new Date(-1000, 0, 1).getFullYear());
+assertSame(1, new Date(-1000, 0, 1).getDate());
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/*
+ * Tests Object.values, Object.entries, Object.assign and object spread/rest on objects sharing a shape.
+ */
+
+load('assert.js');
+
+var sym = Symbol('sym');
+
+function make(i) {
+    var o = {b: i, a: 'x' + i, 2: i * 2, 1: true};
+    o[sym] = i;
+    Object.defineProperty(o, 'hidden', {value: i, enumerable: false});
+    return o;
+}
+
+function check(o, i) {
+    assertSame(JSON.stringify([true, i * 2, i, 'x' + i]), JSON.stringify(Object.values(o)));
+    assertSame(JSON.stringify([['1', true], ['2', i * 2], ['b', i], ['a', 'x' + i]]), JSON.stringify(Object.entries(o)));
+
+    var assigned = Object.assign({}, o);
+    assertSame(JSON.stringify(Object.entries(o)), JSON.stringify(Object.entries(assigned)));
+    assertSame(i, assigned[sym]);
+    assertSame(false, 'hidden' in assigned);
+
+    var spread = {...o};
+    assertSame(JSON.stringify(Object.entries(o)), JSON.stringify(Object.entries(spread)));
+    assertSame(i, spread[sym]);
+    assertSame(false, 'hidden' in spread);
+
+    var {b, [sym]: s, ...rest} = o;
+    assertSame(i, b);
+    assertSame(i, s);
+    assertSame(JSON.stringify([['1', true], ['2', i * 2], ['a', 'x' + i]]), JSON.stringify(Object.entries(rest)));
+    assertSame(undefined, rest[sym]);
+
+    // existing properties of the target are overwritten
+    var merged = {a: 0, get b() { return -1; }, ...o};
+    assertSame(JSON.stringify(['a', 'b', '1', '2'].sort()), JSON.stringify(Object.keys(merged).sort()));
+    assertSame(i, merged.b);
+    assertSame(JSON.stringify({value: i, writable: true, enumerable: true, configurable: true}), JSON.stringify(Object.getOwnPropertyDescriptor(merged, 'b')));
+}
+
+for (var i = 0; i < 100; i++) {
+    check(make(i), i);
+}
+
+// getters are called in property order
+var log = [];
+var withGetter = {a: 1, get b() { log.push('b'); return 2; }, c: 3};
+for (var i = 0; i < 10; i++) {
+    log = [];
+    assertSame(JSON.stringify([1, 2, 3]), JSON.stringify(Object.values(withGetter)));
+    assertSame(JSON.stringify({a: 1, b: 2, c: 3}), JSON.stringify({...withGetter}));
+    assertSame(JSON.stringify({a: 1, b: 2, c: 3}), JSON.stringify(Object.assign({}, withGetter)));
+    assertSame(3, log.length);
+}
+
+// setters on the target modifying the source
+for (var i = 0; i < 10; i++) {
+    var source = {a: 1, b: 2, c: 3};
+    Object.defineProperty(source, 'd', {value: 4, enumerable: false, configurable: true});
+    var target = {
+        set a(v) {
+            delete source.b;
+            source.c = 'changed';
+            Object.defineProperty(source, 'd', {enumerable: true});
+        }
+    };
+    Object.assign(target, source);
+    assertSame(false, 'b' in target);
+    assertSame('changed', target.c);
+    assertSame(4, target.d);
+}
+
+// deleted and re-added properties
+for (var i = 0; i < 10; i++) {
+    var o = {a: 1, b: 2, c: 3};
+    if (i % 2 === 0) {
+        delete o.a;
+        o.a = 'again';
+    }
+    var expected = i % 2 === 0 ? [2, 3, 'again'] : [1, 2, 3];
+    assertSame(JSON.stringify(expected), JSON.stringify(Object.values(o)));
+    assertSame(JSON.stringify(expected), JSON.stringify(Object.values({...o})));
+    assertSame(JSON.stringify(expected), JSON.stringify(Object.values(Object.assign({}, o))));
+}
+
+// non-extensible target
+var frozen = Object.freeze({});
+assertThrows(function() {
+    Object.assign(frozen, {a: 1});
+}, TypeError);
+
+// sources with more properties than are copied with one cache per property
+for (var i = 0; i < 10; i++) {
+    var big = {};
+    for (var p = 0; p < 40; p++) {
+        big['p' + p] = p + i;
+    }
+    var bigCopy = {...big};
+    assertSame(JSON.stringify(Object.entries(big)), JSON.stringify(Object.entries(bigCopy)));
+    var {p0, ...bigRest} = big;
+    assertSame(i, p0);
+    assertSame(39, Object.keys(bigRest).length);
+}
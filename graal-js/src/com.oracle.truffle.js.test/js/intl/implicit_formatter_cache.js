@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/*
+ * Tests the per-realm cache of formatters created by toLocaleString and localeCompare.
+ *
+ * @option intl-402
+ * @option timezone=Asia/Tokyo
+ * @option locale=en-US
+ */
+
+load('../assert.js');
+
+var d = new Date("2020-06-26 13:37 UTC");
+var before = Debug.intlFormatterCacheStats();
+
+for (var i = 0; i < 10; i++) {
+    assertSame("6/26/2020, 10:37:00 PM", d.toLocaleString());
+    assertSame("26/06/2020, 22:37:00", d.toLocaleString("en-GB"));
+    assertSame("6/26/2020", d.toLocaleDateString());
+    assertSame("10:37:00 PM", d.toLocaleTimeString());
+    assertSame("1,234.5", (1234.5).toLocaleString());
+    assertSame("1.234,5", (1234.5).toLocaleString("de-DE"));
+    assertSame(-1, "a".localeCompare("b"));
+    assertSame(1, "ä".localeCompare("z", "sv"));
+}
+
+var stats = Debug.intlFormatterCacheStats();
+// one formatter per distinct (kind, locale), all other calls are hits
+assertSame(8, stats.misses - before.misses);
+assertSame(72, stats.hits - before.hits);
+
+// options are still read on every call and are part of the key, as is the canonicalized locale list
+var gets = 0;
+var options = {get timeZone() { gets++; return "Europe/Vienna"; }};
+assertSame("26/06/2020, 15:37:00", d.toLocaleString("en-GB", options));
+assertSame("26/06/2020, 15:37:00", d.toLocaleString("en-GB", options));
+assertSame(2, gets);
+assertSame("26/06/2020, 22:37:00", d.toLocaleString("en-GB"));
+assertSame("1.234,5", (1234.5).toLocaleString(["de-DE"]));
+assertSame("1.234,5", (1234.5).toLocaleString("de-de"));
+for (var i = 0; i < 2; i++) {
+    assertSame("$1,234.50", (1234.5).toLocaleString("en-US", {style: "currency", currency: "USD"}));
+    assertSame("€1,234.50", (1234.5).toLocaleString("en-us", {style: "currency", currency: "EUR"}));
+    assertSame(0, "a".localeCompare("A", undefined, {sensitivity: "base"}));
+    assertSame(-1, "a".localeCompare("A"));
+}
+var after = Debug.intlFormatterCacheStats();
+// Vienna, USD, EUR and base sensitivity are new entries
+assertSame(4, after.misses - stats.misses);
+assertSame(9, after.hits - stats.hits);
+
+// invalid options are still reported
+assertThrows(function() {
+    (1234.5).toLocaleString("en-US", {style: "currency"});
+}, TypeError);
+assertThrows(function() {
+    d.toLocaleString("en-US", {timeZone: "Nowhere/Invalid"});
+}, RangeError);
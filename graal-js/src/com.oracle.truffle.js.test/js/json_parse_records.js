@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+// Tests JSON.parse of arrays of similar records and of number arrays.
+
+load('assert.js');
+
+var rows = JSON.parse('[' +
+    '{"id": 1, "name": "a", "tags": [1, 2, 3], "nested": {"x": 1, "y": 2}},' +
+    '{"id": 2, "name": "b", "tags": [1.5, 2, -0], "nested": {"x": "1", "y": 2}},' +
+    '{"id": "3", "name": null, "tags": [1, "two", 3], "nested": {"y": 2, "x": 1}},' +
+    '{"id": 4, "n\\u0061me": "d", "tags": [], "nested": {"x": 1, "y": 2, "z": 3}},' +
+    '{"id": 5, "id": 6, "name": "e", "tags": [true, 2], "nested": {"x": 1.5, "y": {}}},' +
+    '{"name": "f", "id": 7, "tags": [[1, 2], [3.5]], "nested": {"x": 1, "y": 2}}' +
+']');
+
+assertSame(6, rows.length);
+assertSame('[{"id":1,"name":"a","tags":[1,2,3],"nested":{"x":1,"y":2}},' +
+    '{"id":2,"name":"b","tags":[1.5,2,0],"nested":{"x":"1","y":2}},' +
+    '{"id":"3","name":null,"tags":[1,"two",3],"nested":{"y":2,"x":1}},' +
+    '{"id":4,"name":"d","tags":[],"nested":{"x":1,"y":2,"z":3}},' +
+    '{"id":6,"name":"e","tags":[true,2],"nested":{"x":1.5,"y":{}}},' +
+    '{"name":"f","id":7,"tags":[[1,2],[3.5]],"nested":{"x":1,"y":2}}]', JSON.stringify(rows));
+assertSame(-Infinity, 1 / rows[1].tags[2]);
+assertSame('x,y', Object.keys(rows[0].nested).join());
+assertSame('y,x', Object.keys(rows[2].nested).join());
+
+// properties of records created from cached shapes are ordinary data properties
+var desc = Object.getOwnPropertyDescriptor(rows[0], 'name');
+assertTrue(desc.writable && desc.enumerable && desc.configurable);
+rows[0].name = 'changed';
+delete rows[0].id;
+assertSame('{"name":"changed","tags":[1,2,3],"nested":{"x":1,"y":2}}', JSON.stringify(rows[0]));
+assertSame(2, rows[1].id);
+
+// number arrays
+var numbers = JSON.parse('[1, 2, 3, 2147483648, -1e3, 0.5]');
+assertSame('1,2,3,2147483648,-1000,0.5', numbers.join());
+numbers.push('x');
+assertSame(7, numbers.length);
+assertSame('1,2,3,4', JSON.parse('[1, 2, 3, 4]').join());
+assertSame('1,2,,x', JSON.parse('[1, 2, null, "x"]').join());
+
+assertThrows(() => JSON.parse('[1 2]'), SyntaxError);
+assertThrows(() => JSON.parse('[1, 2,]'), SyntaxError);
+assertThrows(() => JSON.parse('[{"a": 1}, {"a" 1}]'), SyntaxError);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+// Tests JSON.stringify of same-shaped objects, number arrays and Graal.stringifyJSON.
+
+load('assert.js');
+
+// same-shaped records with keys that need escaping
+for (var round = 0; round < 3; round++) {
+    var records = [];
+    for (var i = 0; i < 20; i++) {
+        records.push({id: i, 'q"uote': 'x', 'new\nline': i * 0.5, 2: true});
+    }
+    var json = JSON.stringify(records);
+    assertSame('{"2":true,"id":3,"q\\"uote":"x","new\\nline":1.5}', JSON.stringify(records[3]));
+    assertSame(20, JSON.parse(json).length);
+    assertSame('{\n  "2": true,\n  "id": 0,\n  "q\\"uote": "x",\n  "new\\nline": 0\n}', JSON.stringify(records[0], null, 2));
+}
+
+// toJSON and replacer functions that change the object while it is serialized
+function Deleter() {
+}
+Deleter.prototype.toJSON = function() {
+    delete holder.c;
+    holder.b = 'changed';
+    return 'deleted';
+};
+var holder;
+for (var i = 0; i < 3; i++) {
+    holder = {a: new Deleter(), b: 1, c: 2};
+    assertSame('{"a":"deleted","b":"changed"}', JSON.stringify(holder));
+}
+for (var i = 0; i < 3; i++) {
+    var obj = {x: 1, y: 2, z: 3};
+    assertSame('{"x":1,"y":20,"z":30}', JSON.stringify(obj, function(key, value) {
+        if (key === 'x') {
+            obj.y = 20;
+            obj.z = 30;
+        }
+        return value;
+    }));
+}
+
+// accessors are not cached
+var count = 0;
+var getterObj = {get a() { return ++count; }, b: 1};
+assertSame('{"a":1,"b":1}', JSON.stringify(getterObj));
+assertSame('{"a":2,"b":1}', JSON.stringify(getterObj));
+
+// int and double arrays, with holes inherited from the prototype
+assertSame('[1,2,-3,2147483647]', JSON.stringify([1, 2, -3, 2147483647]));
+assertSame('[0.5,null,null,0,1e+21]', JSON.stringify([0.5, NaN, Infinity, -0, 1e21]));
+var holes = [1, , 3];
+assertSame('[1,null,3]', JSON.stringify(holes));
+Array.prototype[1] = 42;
+try {
+    assertSame('[1,42,3]', JSON.stringify(holes));
+    assertSame('[1.5,42,3.5]', JSON.stringify([1.5, , 3.5]));
+} finally {
+    delete Array.prototype[1];
+}
+assertSame('[10,20]', JSON.stringify([1, 2], function(key, value) {
+    return typeof value === 'number' ? value * 10 : value;
+}));
+
+// streaming to a callback
+if (typeof Graal === 'object') {
+    var big = [];
+    for (var i = 0; i < 10000; i++) {
+        big.push({index: i, label: 'item' + i, values: [i, i / 2]});
+    }
+    var chunks = [];
+    assertSame(undefined, Graal.stringifyJSON(big, function(chunk) {
+        chunks.push(chunk);
+    }, null, '\t'));
+    assertTrue(chunks.length > 1);
+    assertSame(JSON.stringify(big, null, '\t'), chunks.join(''));
+
+    chunks = [];
+    Graal.stringifyJSON('text', function(chunk) {
+        chunks.push(chunk);
+    });
+    assertSame('"text"', chunks.join(''));
+
+    assertThrows(function() {
+        Graal.stringifyJSON({}, {});
+    }, TypeError);
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/*
+ * Tests that built-ins created on first access behave like ordinary global data properties.
+ *
+ * @option ecmascript-version=2021
+ * @option intl-402
+ */
+
+load('assert.js');
+
+var lazyNames = ['Date', 'Map', 'Set', 'WeakMap', 'WeakSet', 'WeakRef', 'FinalizationRegistry', 'Proxy', 'Promise', 'Reflect',
+                'DataView', 'SharedArrayBuffer', 'Atomics', 'Intl', 'Int8Array', 'Uint8Array', 'Uint8ClampedArray', 'Int16Array',
+                'Uint16Array', 'Int32Array', 'Uint32Array', 'Float32Array', 'Float64Array', 'BigInt64Array', 'BigUint64Array'];
+
+// attributes and identity
+lazyNames.forEach(function(name) {
+    var desc = Object.getOwnPropertyDescriptor(globalThis, name);
+    assertSame('object', typeof desc);
+    assertTrue(desc.writable);
+    assertFalse(desc.enumerable);
+    assertTrue(desc.configurable);
+    assertSame(desc.value, globalThis[name]);
+    assertSame(globalThis[name], globalThis[name]);
+});
+
+// the order of the global properties is unchanged
+var names = Object.getOwnPropertyNames(globalThis);
+assertTrue(names.indexOf('Date') < names.indexOf('Number'));
+assertTrue(names.indexOf('Int8Array') < names.indexOf('DataView'));
+assertTrue(names.indexOf('Map') < names.indexOf('Symbol'));
+
+// intrinsics used before the global binding is read are the same objects
+var p = (async function() {})();
+assertSame(Promise.prototype, Object.getPrototypeOf(p));
+assertSame(Date.prototype, Object.getPrototypeOf(new Date(0)));
+assertSame(Object.getPrototypeOf(Int8Array), Object.getPrototypeOf(Float64Array));
+assertSame(Intl.Collator, new Intl.Collator().constructor);
+assertSame(Reflect.apply, Reflect.apply);
+
+// typed arrays share %TypedArray%.prototype
+assertSame(Object.getPrototypeOf(Int8Array.prototype), Object.getPrototypeOf(Uint32Array.prototype));
+assertSame('Int8Array', Object.prototype.toString.call(new Int8Array(1)).slice(8, -1));
+
+// other realms have their own intrinsics
+var other = loadWithNewGlobal({name: 'other.js', script: 'this'});
+assertTrue(other.Map !== Map);
+assertSame(other.Map.prototype, Object.getPrototypeOf(new other.Map()));
+
+// globals can be overwritten, redefined and deleted before their first access
+var fresh = loadWithNewGlobal({name: 'fresh.js', script: 'Set = 42; delete Proxy; ' +
+                'Object.defineProperty(this, "WeakSet", {enumerable: true}); ' +
+                'Object.defineProperty(this, "DataView", {get: function() { return "getter"; }, configurable: true}); this'});
+assertSame(42, fresh.Set);
+assertFalse('Proxy' in fresh);
+assertTrue(Object.getOwnPropertyDescriptor(fresh, 'WeakSet').enumerable);
+assertSame('function', typeof fresh.WeakSet);
+assertSame('getter', fresh.DataView);
+
+// assignments in strict mode and frozen globals
+var frozen = loadWithNewGlobal({name: 'frozen.js', script: 'Object.freeze(this); this'});
+assertTrue(Object.isFrozen(frozen));
+assertSame('function', typeof frozen.Map);
+assertFalse(Object.getOwnPropertyDescriptor(frozen, 'Map').writable);
+assertThrows(function() {
+    'use strict';
+    frozen.Map = 1;
+}, TypeError);
+
+// declarations in scripts
+var declared = loadWithNewGlobal({name: 'declared.js', script: 'var WeakRef; function Atomics() { return 1; } this'});
+assertSame('function', typeof declared.WeakRef);
+assertSame(1, declared.Atomics());
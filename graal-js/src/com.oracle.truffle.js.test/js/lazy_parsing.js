@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/*
+ * Tests that pre-parsed functions behave the same once their bodies are parsed on first call.
+ *
+ * @option lazy-translation=true
+ * @option lazy-parsing=true
+ */
+
+load('assert.js');
+
+// closures over outer variables, including nested pre-parsed functions
+var counter = (function() {
+    var count = 0;
+    function inner(step) {
+        function deeper() {
+            return count += step;
+        }
+        return deeper();
+    }
+    return {
+        next: function() { return inner(1); },
+        get: function() { return count; }
+    };
+})();
+assertSame(1, counter.next());
+assertSame(2, counter.next());
+assertSame(2, counter.get());
+
+// block-scoped captures
+function makeGetters() {
+    var result = [];
+    for (let i = 0; i < 3; i++) {
+        result.push(function() { return i; });
+    }
+    return result;
+}
+assertSame('0,1,2', makeGetters().map(function(f) { return f(); }).join());
+
+// direct eval sees the enclosing scopes
+function withEval(code) {
+    var local = 'local';
+    return function() {
+        return eval(code);
+    };
+}
+assertSame('local', withEval('local')());
+assertSame('object', withEval('typeof counter')());
+
+// arguments and strict mode
+function sloppyArgs(a) {
+    arguments[0] = 42;
+    return a;
+}
+assertSame(42, sloppyArgs(1));
+function strictArgs(a) {
+    'use strict';
+    arguments[0] = 42;
+    return this === undefined ? a : -1;
+}
+assertSame(1, strictArgs(1));
+
+// generators and async functions
+function* gen(n) {
+    for (var i = 0; i < n; i++) {
+        yield i;
+    }
+}
+assertSame('0,1,2', Array.from(gen(3)).join());
+var asyncResult;
+async function asyncFn(x) {
+    return await x + 1;
+}
+asyncFn(1).then(function(v) { asyncResult = v; });
+
+// syntax errors in function bodies are reported when loading, not on first call
+assertThrows(function() {
+    load({name: 'lazy_parsing_error.js', script: 'function neverCalled() { var x = ; }'});
+}, SyntaxError);
+assertThrows(function() {
+    load({name: 'lazy_parsing_error.js', script: 'function neverCalled() { "use strict"; with ({}) {} }'});
+}, SyntaxError);
+var notRun = true;
+assertThrows(function() {
+    load({name: 'lazy_parsing_error.js', script: 'notRun = false; (function outer() { function inner() { let a; let a; } })'});
+}, SyntaxError);
+assertTrue(notRun);
+
+// regular expressions, template literals and strings containing brackets
+function brackets(s) {
+    var t = `{${ s + `${ {a: '}'}.a }` }}`;
+    if (s) /}/.test(s);
+    return s.replace(/[{}]/g, '') / 2 + t + '{' + "}";
+}
+assertSame('1{{2}}}{}', brackets('{2}'));
+var inTemplate = `${ function() { return `${ '}' }`; }() }`;
+assertSame('}', inTemplate);
+
+// source positions and source text
+function throwing() {
+    throw new Error('line');
+}
+try {
+    throwing();
+    fail('should have thrown');
+} catch (e) {
+    assertTrue(/at throwing \(.*lazy_parsing\.js:106:/.test(e.stack));
+}
+var fn = (function (a, b) { return a + b; });
+assertSame('function (a, b) { return a + b; }', fn.toString());
+assertSame(3, fn(1, 2));
+assertSame(2, fn.length);
+assertSame('fn', (function() { var fn = function() {}; return fn.name; })());
+
+assertSame(undefined, asyncResult);
+Promise.resolve().then(function() {
+    assertSame(2, asyncResult);
+});
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/*
+ * Tests substring, slice, substr and index access on sliced strings and unflattened ropes.
+ */
+
+load('assert.js');
+
+function repeat(s, n) {
+    var result = '';
+    for (var i = 0; i < n; i++) {
+        result += s + i;
+    }
+    return result;
+}
+
+var latin1 = repeat('abcéÿ', 500);
+var wide = repeat('x一y', 500);
+var mixed = latin1 + wide + latin1;
+var flat = latin1.split('').join('') + wide.split('').join('') + latin1.split('').join('');
+
+function checkSlices(lazy, expected) {
+    assertSame(expected.length, lazy.length);
+    var len = expected.length;
+    var positions = [0, 1, 63, 64, 65, len >> 3, len >> 2, len >> 1, len - 65, len - 1];
+    positions.forEach(function(start) {
+        positions.forEach(function(end) {
+            assertSame(expected.slice(start, end), lazy.slice(start, end));
+            assertSame(expected.substring(start, end), lazy.substring(start, end));
+            assertSame(expected.substr(start, end), lazy.substr(start, end));
+        });
+        assertSame(expected.slice(start), lazy.slice(start));
+        assertSame(expected.slice(-start), lazy.slice(-start));
+        assertSame(expected.substring(start), lazy.substring(start));
+        assertSame(expected.substr(-start), lazy.substr(-start));
+        assertSame(expected.charAt(start), lazy.charAt(start));
+        assertSame(expected.charCodeAt(start), lazy.charCodeAt(start));
+        assertSame(expected[start], lazy[start]);
+    });
+    assertSame('', lazy.charAt(len));
+    assertSame(true, isNaN(lazy.charCodeAt(-1)));
+    assertSame(undefined, lazy[len]);
+}
+
+checkSlices(latin1 + wide + latin1, flat);
+checkSlices(mixed, flat);
+
+// slices of slices
+var s = mixed;
+var expected = flat;
+while (s.length > 0) {
+    var step = 1 + (s.length >> 4);
+    s = s.slice(step);
+    expected = expected.slice(step);
+    assertSame(expected.length, s.length);
+    assertSame(expected.charCodeAt(0), s.charCodeAt(0));
+    assertSame(expected.charAt(expected.length >> 1), s.charAt(s.length >> 1));
+}
+assertSame(flat, mixed);
+
+// ropes made of slices
+var head = mixed.slice(100, 2000);
+var tail = mixed.substring(mixed.length - 2000);
+var rope = head + '-' + tail;
+assertSame(flat.slice(100, 2000) + '-' + flat.substring(flat.length - 2000), rope);
+assertSame(head.length + 1 + tail.length, rope.length);
+assertSame('-', rope[head.length]);
+assertSame(tail, rope.slice(head.length + 1));
+
+// appending while reading the last char
+var appended = latin1;
+var appendedExpected = flat.slice(0, latin1.length);
+for (var i = 0; i < 200; i++) {
+    var c = String.fromCharCode(i * 97 % 0x3000);
+    appended += c;
+    appendedExpected = appendedExpected.concat(c);
+    assertSame(appendedExpected.charCodeAt(appendedExpected.length - 1), appended.charCodeAt(appended.length - 1));
+}
+assertSame(appendedExpected, appended);
+
+// sliced strings behave like any other string
+var sliced = latin1.slice(10);
+var map = new Map();
+map.set(sliced, 42);
+assertSame(42, map.get(flat.slice(10, latin1.length)));
+assertSame(true, sliced === flat.slice(10, latin1.length));
+assertSame('string', typeof sliced);
+assertSame(JSON.stringify(flat.slice(10, latin1.length)), JSON.stringify(sliced));
+assertSame(sliced.length, Object.keys(sliced).length);
+
+// repeatedly slicing a flat string
+var rest = flat;
+var offset = 0;
+while (rest.length > 100) {
+    rest = rest.slice(7);
+    offset += 7;
+    assertSame(flat.charCodeAt(offset), rest.charCodeAt(0));
+    assertSame(flat.substr(offset + 50, 40), rest.substring(50, 90));
+}
+
+// reading every char of a rope, which is flattened after a few accesses
+var fresh = latin1 + wide + latin1;
+for (var i = 0; i < fresh.length; i++) {
+    assertSame(flat.charCodeAt(i), fresh.charCodeAt(i));
+}
+var freshLatin1 = latin1 + '|' + latin1;
+for (var i = freshLatin1.length - 1; i >= 0; i--) {
+    assertSame(i === latin1.length ? '|' : latin1[i % (latin1.length + 1)], freshLatin1[i]);
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * Tests that Map and Set iterators observe mutations (including rehashing) during iteration.
+ */
+
+load('assert.js');
+
+// deleting entries ahead of the iterator, enough to trigger compaction
+var map = new Map();
+for (var i = 0; i < 100; i++) {
+    map.set(i, 'v' + i);
+}
+var seen = [];
+for (var [key, value] of map) {
+    seen.push(key);
+    assertSame('v' + key, value);
+    if (key === 10) {
+        for (var j = 11; j < 95; j++) {
+            map.delete(j);
+        }
+    }
+}
+assertSame('0,1,2,3,4,5,6,7,8,9,10,95,96,97,98,99', seen.join());
+assertSame(16, map.size);
+
+// entries added during iteration are visited, also across growth
+var set = new Set([0]);
+var count = 0;
+set.forEach(function(v) {
+    count++;
+    if (v < 1000) {
+        set.add(v + 1);
+    }
+});
+assertSame(1001, count);
+
+// clear during iteration, then add new entries
+var cleared = new Map([[1, 'a'], [2, 'b'], [3, 'c']]);
+var it = cleared.keys();
+assertSame(1, it.next().value);
+cleared.clear();
+cleared.set(4, 'd');
+assertSame(4, it.next().value);
+assertTrue(it.next().done);
+cleared.set(5, 'e');
+assertTrue(it.next().done);
+
+// deleting and re-adding moves the key to the end
+var order = new Map([['a', 1], ['b', 2], ['c', 3]]);
+order.delete('a');
+order.set('a', 4);
+assertSame('b,c,a', Array.from(order.keys()).join());
+
+// key normalization and special values
+var keys = new Map();
+keys.set(-0, 'zero');
+keys.set(NaN, 'nan');
+keys.set(1.5, 'double');
+keys.set(1, 'int');
+assertSame('zero', keys.get(0));
+assertSame('nan', keys.get(0 / 0));
+assertSame('double', keys.get(3 / 2));
+assertSame('int', keys.get(1.0));
+assertSame(4, keys.size);
+assertTrue(keys.delete(NaN));
+assertFalse(keys.has(NaN));
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+// Tests that megamorphic property accesses stay correct when the
+// context-wide (shape, key) cache is invalidated.
+
+load('assert.js');
+
+function getX(o) {
+    return o.x;
+}
+function setX(o, v) {
+    o.x = v;
+}
+function hasX(o) {
+    return 'x' in o;
+}
+
+var proto = {x: 'proto'};
+var objects = [];
+for (var i = 0; i < 32; i++) {
+    var o = Object.create(proto);
+    o['p' + i] = i;
+    if (i % 2 === 0) {
+        o.x = i;
+    }
+    objects.push(o);
+}
+
+function check() {
+    for (var i = 0; i < objects.length; i++) {
+        assertSame(i % 2 === 0 ? i : proto.x, getX(objects[i]));
+        assertTrue(hasX(objects[i]));
+    }
+}
+
+for (var n = 0; n < 100; n++) {
+    check();
+}
+
+// prototype property changes
+proto.x = 'changed';
+check();
+delete proto.x;
+for (var i = 1; i < objects.length; i += 2) {
+    assertSame(undefined, getX(objects[i]));
+    assertFalse(hasX(objects[i]));
+}
+Object.defineProperty(proto, 'x', {get: function() { return 'getter'; }, configurable: true});
+for (var i = 1; i < objects.length; i += 2) {
+    assertSame('getter', getX(objects[i]));
+}
+
+// prototype replaced
+var otherProto = {x: 'other'};
+Object.setPrototypeOf(objects[1], otherProto);
+assertSame('other', getX(objects[1]));
+otherProto.x = 'other2';
+assertSame('other2', getX(objects[1]));
+
+// own properties updated through the cache
+for (var n = 0; n < 10; n++) {
+    for (var i = 0; i < objects.length; i += 2) {
+        setX(objects[i], n);
+        assertSame(n, objects[i].x);
+    }
+}
+// type change of the stored value
+setX(objects[0], 'string');
+assertSame('string', getX(objects[0]));
+setX(objects[0], {});
+assertSame('object', typeof getX(objects[0]));
+
+// non-writable own property
+Object.defineProperty(objects[2], 'x', {value: 'fixed', writable: false});
+setX(objects[2], 42);
+assertSame('fixed', getX(objects[2]));
+
+// inherited setter
+var log = [];
+Object.defineProperty(proto, 'x', {set: function(v) { log.push(v); }, get: function() { return 'g'; }, configurable: true});
+setX(objects[3], 'via-setter');
+assertSame('via-setter', log[0]);
+assertFalse(Object.prototype.hasOwnProperty.call(objects[3], 'x'));
+
+var stats = Debug.megamorphicCacheStats();
+if (stats !== undefined) {
+    assertTrue(stats.hits > 0);
+    assertTrue(stats.misses > 0);
+}
+
+true;
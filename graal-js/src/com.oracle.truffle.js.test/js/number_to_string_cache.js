@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+// Tests number to string conversions that go through the shared number string cache.
+
+load('assert.js');
+
+for (var round = 0; round < 3; round++) {
+    assertSame('0', String(0));
+    assertSame('7', String(7));
+    assertSame('1023', String(1023));
+    assertSame('1024', String(1024));
+    assertSame('-1', String(-1));
+    assertSame('-2147483648', String(-2147483648));
+    assertSame('2147483647', String(2147483647));
+    assertSame('4294967296', String(4294967296));
+    assertSame('x-2147483648', 'x' + -2147483648);
+    assertSame('x-2147483648y', ('x' + -2147483648) + 'y');
+    assertSame('123x', 123 + 'x');
+    assertSame('42', (42).toString());
+
+    assertSame('0.1', String(0.1));
+    assertSame('0.30000000000000004', String(0.1 + 0.2));
+    assertSame('1e+21', String(1e21));
+    assertSame('100000000000000000000', String(1e20));
+    assertSame('1e-7', String(1e-7));
+    assertSame('0.000001', String(1e-6));
+    assertSame('0', String(-0));
+    assertSame('NaN', String(NaN));
+    assertSame('Infinity', String(Infinity));
+    assertSame('-Infinity', String(-Infinity));
+    assertSame('1.7976931348623157e+308', String(Number.MAX_VALUE));
+    assertSame('5e-324', String(Number.MIN_VALUE));
+    assertSame('-1.5', String(-1.5));
+}
+
+// Array.prototype.join appends numbers directly.
+assertSame('1,2,3', [1, 2, 3].join());
+assertSame('-1;0;2147483647;-2147483648', [-1, 0, 2147483647, -2147483648].join(';'));
+assertSame('0.5|1e+21|NaN|-Infinity|0', [0.5, 1e21, NaN, -Infinity, -0].join('|'));
+assertSame('1,a,2.5,,,true', [1, 'a', 2.5, undefined, null, true].join());
+assertSame('1,,3', [1, , 3].join());
+var big = [];
+for (var i = 0; i < 2000; i++) {
+    big.push(i % 2 === 0 ? i : i + 0.25);
+}
+var expected = '';
+for (var i = 0; i < big.length; i++) {
+    expected += (i === 0 ? '' : ',') + String(big[i]);
+}
+assertSame(expected, big.join());
+
+// Integer property keys.
+var o = {};
+for (var i = 0; i < 10; i++) {
+    o[i] = i;
+}
+o[-1] = 'neg';
+o[1.5] = 'frac';
+assertSame('0,1,2,3,4,5,6,7,8,9,-1,1.5', Object.keys(o).join());
+assertSame('neg', o['-1']);
+assertSame('frac', o['1.5']);
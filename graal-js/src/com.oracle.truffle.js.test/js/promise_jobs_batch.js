@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+// Tests the order of promise jobs and the promise job statistics.
+
+load('assert.js');
+
+var log = [];
+var count = 1000;
+for (var i = 0; i < count; i++) {
+    Promise.resolve(i).then(function (v) {
+        log.push(v);
+        return v;
+    }).then(function (v) {
+        log.push(count + v);
+    });
+}
+
+var stats = Debug.promiseJobStats();
+assertSame(count, stats.queueDepth);
+assertTrue(stats.maxQueueDepth >= count);
+
+// jobs enqueued by jobs run after all previously enqueued jobs
+Promise.resolve().then(function () {
+    assertSame(count, log.length);
+    assertSame(count, Debug.promiseJobStats().queueDepth);
+}).then(function () {
+    assertSame(2 * count, log.length);
+    for (var i = 0; i < 2 * count; i++) {
+        assertSame(i, log[i]);
+    }
+    var after = Debug.promiseJobStats();
+    assertSame(0, after.queueDepth);
+    assertTrue(after.drainTimeMillis >= 0);
+});
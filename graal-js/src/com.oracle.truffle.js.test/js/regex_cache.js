@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+// Tests the context-wide compiled regex cache with dynamically constructed patterns.
+
+load('assert.js');
+
+function build(i, flags) {
+    return new RegExp('item' + i + '-(\\d+)', flags);
+}
+
+var before = Debug.regexCacheStats();
+for (var round = 0; round < 3; round++) {
+    for (var i = 0; i < 20; i++) {
+        assertSame('7', ('item' + i + '-7').replace(build(i, 'g'), '$1'));
+        assertSame(null, build(i, 'y').exec('x item' + i + '-7'));
+    }
+}
+var stats = Debug.regexCacheStats();
+// every distinct (pattern, flags) pair is compiled exactly once
+assertSame(40, stats.misses - before.misses);
+assertTrue(stats.hits - before.hits > 0);
+
+// regexes sharing a compiled regex keep separate lastIndex state
+var a = build(1, 'g');
+var b = build(1, 'g');
+assertSame('item1-1', a.exec('item1-1 item1-2')[0]);
+assertSame(7, a.lastIndex);
+assertSame(0, b.lastIndex);
+assertSame('item1-1', b.exec('item1-1 item1-2')[0]);
+
+// syntax errors are not cached
+for (var i = 0; i < 3; i++) {
+    assertThrows(function() {
+        new RegExp('(unclosed', '');
+    }, SyntaxError);
+    assertThrows(function() {
+        new RegExp('ok', 'gg');
+    }, SyntaxError);
+}
+
+// String.prototype.match with a string argument shares the cache
+var m = Debug.regexCacheStats().misses;
+for (var i = 0; i < 10; i++) {
+    assertSame('item3-', 'xx item3-'.match('item3-')[0]);
+}
+assertTrue(Debug.regexCacheStats().misses - m <= 1);
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/*
+ * Tests eviction and admission of the context-wide compiled regex cache.
+ *
+ * @option regex-cache-size=2
+ * @option regex-cache-max-pattern-length=8
+ */
+
+load('assert.js');
+
+function compile(p) {
+    return new RegExp(p).source;
+}
+
+// warm up the constructor's inline cache with other patterns first
+for (var i = 0; i < 5; i++) {
+    compile('w' + i);
+}
+var s1 = Debug.regexCacheStats();
+assertSame(2, s1.size);
+
+compile('a');
+compile('b');
+compile('a'); // hit
+compile('c'); // evicts b
+compile('b'); // miss
+var s2 = Debug.regexCacheStats();
+assertSame(1, s2.hits - s1.hits);
+assertSame(4, s2.misses - s1.misses);
+assertSame(2, s2.size);
+
+// long patterns bypass the cache entirely
+assertSame('0123456789', compile('0123456789'));
+assertSame('0123456789', compile('0123456789'));
+var s3 = Debug.regexCacheStats();
+assertSame(s2.hits, s3.hits);
+assertSame(s2.misses, s3.misses);
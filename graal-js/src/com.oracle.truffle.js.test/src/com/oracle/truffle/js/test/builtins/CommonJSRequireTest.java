@@ -41,11 +41,13 @@
 package com.oracle.truffle.js.test.builtins;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.PolyglotAccess;
 import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.io.FileSystem;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -55,12 +57,28 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessMode;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
 
@@ -68,9 +86,12 @@ import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_REQUIRE_CW
 import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_CORE_MODULES_REPLACEMENTS_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_REQUIRE_GLOBAL_PROPERTIES_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_REQUIRE_NAME;
+import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_RESOLUTION_CACHE_NAME;
+import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_RESOLUTION_MANIFEST_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.ECMASCRIPT_VERSION_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.GLOBAL_PROPERTY_NAME;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class CommonJSRequireTest {
 
@@ -710,4 +731,226 @@ public class CommonJSRequireTest {
             assertEquals(expectedMessage, t.getMessage());
         }
     }
+
+    // ##### Resolution cache
+
+    private static int requireWithOptions(String src, Map<String, String> options) {
+        try (Context cx = testContext(options)) {
+            return cx.eval(ID, src).asInt();
+        }
+    }
+
+    private static Map<String, String> getResolutionCacheOptions(Path cwd) {
+        Map<String, String> options = new HashMap<>();
+        options.put(COMMONJS_REQUIRE_NAME, "true");
+        options.put(COMMONJS_REQUIRE_CWD_NAME, cwd.toAbsolutePath().toString());
+        options.put(COMMONJS_RESOLUTION_CACHE_NAME, "true");
+        return options;
+    }
+
+    @Test
+    public void resolutionCacheDisabled() {
+        Map<String, String> options = getDefaultOptions();
+        options.put(COMMONJS_RESOLUTION_CACHE_NAME, "false");
+        assertEquals(42, requireWithOptions("require('with-package').foo + require('./module').foo - require('./module.js').foo;", options));
+    }
+
+    @Test
+    public void resolutionCacheRepeatedRequire() {
+        Map<String, String> options = getDefaultOptions();
+        options.put(COMMONJS_RESOLUTION_CACHE_NAME, "true");
+        assertEquals(42, requireWithOptions("require('with-package'); require('./module'); require('with-package').foo;", options));
+        assertThrows("require('./module'); require('./unknown-module');", "TypeError: Cannot load CommonJS module: './unknown-module'");
+    }
+
+    @Test
+    public void resolutionManifest() throws IOException {
+        Path manifest = Files.createTempFile("commonjs-resolution", ".manifest");
+        try {
+            Files.delete(manifest);
+            Map<String, String> options = getDefaultOptions();
+            options.put(COMMONJS_RESOLUTION_CACHE_NAME, "true");
+            options.put(COMMONJS_RESOLUTION_MANIFEST_NAME, manifest.toAbsolutePath().toString());
+            assertEquals(42, requireWithOptions("require('with-package').foo;", options));
+            assertTrue(Files.exists(manifest));
+            List<String> lines = Files.readAllLines(manifest);
+            assertTrue(lines.stream().anyMatch(line -> line.contains("\twith-package\t")));
+
+            // warm start
+            assertEquals(42, requireWithOptions("require('with-package').foo;", options));
+
+            // stale entries are detected and resolved again
+            List<String> stale = new ArrayList<>();
+            for (String line : lines) {
+                String[] fields = line.split("\t");
+                if (fields.length >= 4) {
+                    fields[3] += ".missing";
+                    stale.add(String.join("\t", fields));
+                } else {
+                    stale.add(line);
+                }
+            }
+            Files.write(manifest, stale);
+            assertEquals(42, requireWithOptions("require('with-package').foo;", options));
+        } finally {
+            Files.deleteIfExists(manifest);
+        }
+    }
+
+    @Test
+    public void resolutionManifestPackageMainChanged() throws IOException {
+        Path folder = Files.createTempDirectory("commonjs-resolution");
+        Path pkg = Files.createDirectories(folder.resolve("node_modules").resolve("pkg"));
+        Path packageJson = pkg.resolve("package.json");
+        Path manifest = folder.resolve("resolution.manifest");
+        try {
+            Files.write(pkg.resolve("a.js"), Collections.singletonList("exports.foo = 1;"));
+            Files.write(pkg.resolve("b.js"), Collections.singletonList("exports.foo = 2;"));
+            Files.write(packageJson, Collections.singletonList("{\"main\": \"a.js\"}"));
+            Map<String, String> options = getResolutionCacheOptions(folder);
+            options.put(COMMONJS_RESOLUTION_MANIFEST_NAME, manifest.toAbsolutePath().toString());
+            assertEquals(1, requireWithOptions("require('pkg').foo;", options));
+            assertTrue(Files.exists(manifest));
+
+            // upgrade the package: the persisted resolution of 'pkg' must not be used
+            FileTime modified = Files.getLastModifiedTime(packageJson);
+            Files.write(packageJson, Collections.singletonList("{\"main\": \"b.js\"}"));
+            Files.setLastModifiedTime(packageJson, FileTime.fromMillis(modified.toMillis() + 10000));
+            assertEquals(2, requireWithOptions("require('pkg').foo;", options));
+        } finally {
+            deleteRecursively(folder);
+        }
+    }
+
+    @Test
+    public void resolutionCacheNearerPackageInstalled() throws IOException {
+        Path folder = Files.createTempDirectory("commonjs-resolution");
+        Path app = Files.createDirectories(folder.resolve("app"));
+        Path outer = Files.createDirectories(folder.resolve("node_modules"));
+        try (Context cx = testContext(System.out, System.err, getResolutionCacheOptions(app))) {
+            Files.write(outer.resolve("dep.js"), Collections.singletonList("exports.foo = 1;"));
+            assertEquals(1, cx.eval(ID, "require('dep').foo;").asInt());
+            // a nearer copy shadows the cached one, e.g. after the package is no longer hoisted
+            Path inner = Files.createDirectories(app.resolve("node_modules"));
+            Files.write(inner.resolve("dep.js"), Collections.singletonList("exports.foo = 2;"));
+            assertEquals(2, cx.eval(ID, "require('dep').foo;").asInt());
+        } finally {
+            deleteRecursively(folder);
+        }
+    }
+
+    private static void deleteRecursively(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void resolutionCacheModuleCreatedAfterFailedRequire() throws IOException {
+        Path folder = Files.createTempDirectory("commonjs-resolution");
+        Path module = folder.resolve("later.js");
+        try (Context cx = testContext(System.out, System.err, getResolutionCacheOptions(folder))) {
+            assertEquals("not found", cx.eval(ID, "try { require('./later'); 'found'; } catch (e) { 'not found'; }").asString());
+            Files.write(module, Collections.singletonList("exports.foo = 42;"));
+            assertEquals(42, cx.eval(ID, "require('./later').foo;").asInt());
+        } finally {
+            Files.deleteIfExists(module);
+            Files.delete(folder);
+        }
+    }
+
+    @Test
+    public void resolutionCacheNotSharedBetweenFileSystems() throws IOException {
+        Path folder = Files.createTempDirectory("commonjs-resolution");
+        Path module = folder.resolve("visible.js");
+        Files.write(module, Collections.singletonList("exports.foo = 42;"));
+        Map<String, String> options = getResolutionCacheOptions(folder);
+        String tryRequire = "try { require('./visible').foo; } catch (e) { 'not found'; }";
+        try (Engine engine = JSTest.newEngineBuilder().build()) {
+            try (Context visible = newContext(engine, FileSystem.newDefaultFileSystem(), options);
+                            Context hidden = newContext(engine, new HidingFileSystem(module), options)) {
+                assertEquals("not found", hidden.eval(ID, tryRequire).toString());
+                assertEquals(42, visible.eval(ID, tryRequire).asInt());
+                assertEquals("not found", hidden.eval(ID, tryRequire).toString());
+            }
+        } finally {
+            Files.deleteIfExists(module);
+            Files.delete(folder);
+        }
+    }
+
+    private static Context newContext(Engine engine, FileSystem fileSystem, Map<String, String> options) {
+        return JSTest.newContextBuilder().engine(engine).allowIO(true).fileSystem(fileSystem).options(options).build();
+    }
+
+    /**
+     * The default file system, except that one file does not exist.
+     */
+    private static final class HidingFileSystem implements FileSystem {
+        private final FileSystem delegate = FileSystem.newDefaultFileSystem();
+        private final Path hidden;
+
+        HidingFileSystem(Path hidden) {
+            this.hidden = hidden.toAbsolutePath().normalize();
+        }
+
+        private Path check(Path path) throws NoSuchFileException {
+            if (hidden.equals(path.toAbsolutePath().normalize())) {
+                throw new NoSuchFileException(path.toString());
+            }
+            return path;
+        }
+
+        @Override
+        public Path parsePath(URI uri) {
+            return delegate.parsePath(uri);
+        }
+
+        @Override
+        public Path parsePath(String path) {
+            return delegate.parsePath(path);
+        }
+
+        @Override
+        public void checkAccess(Path path, Set<? extends AccessMode> modes, LinkOption... linkOptions) throws IOException {
+            delegate.checkAccess(check(path), modes, linkOptions);
+        }
+
+        @Override
+        public void createDirectory(Path dir, FileAttribute<?>... attrs) throws IOException {
+            delegate.createDirectory(dir, attrs);
+        }
+
+        @Override
+        public void delete(Path path) throws IOException {
+            delegate.delete(check(path));
+        }
+
+        @Override
+        public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException {
+            return delegate.newByteChannel(check(path), options, attrs);
+        }
+
+        @Override
+        public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter) throws IOException {
+            return delegate.newDirectoryStream(dir, p -> !hidden.equals(p.toAbsolutePath().normalize()) && filter.accept(p));
+        }
+
+        @Override
+        public Path toAbsolutePath(Path path) {
+            return delegate.toAbsolutePath(path);
+        }
+
+        @Override
+        public Path toRealPath(Path path, LinkOption... linkOptions) throws IOException {
+            return delegate.toRealPath(check(path), linkOptions);
+        }
+
+        @Override
+        public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException {
+            return delegate.readAttributes(check(path), attributes, options);
+        }
+    }
 }
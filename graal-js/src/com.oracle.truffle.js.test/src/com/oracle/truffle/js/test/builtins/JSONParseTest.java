@@ -44,7 +44,12 @@ import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Value;
 import org.junit.Assert;
@@ -54,6 +59,8 @@ import com.oracle.truffle.js.test.JSTest;
 
 public class JSONParseTest {
 
+    private static final String UNICODE_JSON = "{\"name\": \"caf\u00e9 \u2713 \ud83d\ude00\", \"esc\": \"a\\u0062\\n\", \"list\": [1, -0, 2.5e3, true, null]}";
+
     @Test
     public void testJSONParseNumber() {
         try (Context context = JSTest.newContextBuilder().build()) {
@@ -73,4 +80,68 @@ public class JSONParseTest {
         }
     }
 
+    private static void assertUnicodeJSON(Value result) {
+        assertEquals("caf\u00e9 \u2713 \ud83d\ude00", result.getMember("name").asString());
+        assertEquals("ab\n", result.getMember("esc").asString());
+        Value list = result.getMember("list");
+        assertEquals(5, list.getArraySize());
+        assertEquals(1, list.getArrayElement(0).asInt());
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(list.getArrayElement(1).asDouble()));
+        assertEquals(2500, list.getArrayElement(2).asInt());
+        assertTrue(list.getArrayElement(3).asBoolean());
+        assertTrue(list.getArrayElement(4).isNull());
+    }
+
+    @Test
+    public void testParseJSONByteBuffer() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+            buffer.put((byte) ' ');
+            buffer.put(UNICODE_JSON.getBytes(StandardCharsets.UTF_8));
+            buffer.flip();
+            buffer.get(); // parsing starts at the current position
+            context.getBindings(ID).putMember("input", buffer);
+            assertUnicodeJSON(context.eval(ID, "Graal.parseJSON(input)"));
+            assertEquals(1, buffer.position());
+        }
+    }
+
+    @Test
+    public void testParseJSONInputStream() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            // larger than the read buffer, so that tokens and characters span buffer boundaries
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < 20000; i++) {
+                json.append(i == 0 ? "" : ",").append("{\"k\u00e9y\":").append(i).append(",\"v\":\"\ud83d\ude00").append(i).append("\"}");
+            }
+            json.append("]");
+            context.getBindings(ID).putMember("input", new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)));
+            Value result = context.eval(ID, "Graal.parseJSON(input)");
+            assertEquals(20000, result.getArraySize());
+            Value last = result.getArrayElement(19999);
+            assertEquals(19999, last.getMember("k\u00e9y").asInt());
+            assertEquals("\ud83d\ude0019999", last.getMember("v").asString());
+        }
+    }
+
+    @Test
+    public void testParseJSONArrayBuffer() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.getBindings(ID).putMember("json", UNICODE_JSON);
+            String encode = "var bytes = []; for (var c of unescape(encodeURIComponent(json))) bytes.push(c.charCodeAt(0));";
+            assertUnicodeJSON(context.eval(ID, encode + "Graal.parseJSON(new Uint8Array(bytes).buffer)"));
+            // typed arrays are parsed within their bounds
+            assertUnicodeJSON(context.eval(ID, encode + "var ta = new Uint8Array(bytes.length + 4); ta.set(bytes, 2); Graal.parseJSON(ta.subarray(2, 2 + bytes.length))"));
+        }
+    }
+
+    @Test
+    public void testParseJSONBytesFail() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(ID, "Graal.parseJSON(new Uint8Array([123, 34, 97, 34, 58]))");
+            Assert.fail("failure expected");
+        } catch (PolyglotException ex) {
+            assertTrue(ex.isSyntaxError());
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.js.test.JSTest;
+
+public class JSONStringifyTest {
+
+    private static final String RECORDS = "var records = []; for (var i = 0; i < 5000; i++) { records.push({id: i, name: 'caf\u00e9 ' + i, score: i / 4, tags: [i, i + 0.5]}); }";
+
+    @Test
+    public void testStringifyJSONWriter() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            context.eval(ID, RECORDS);
+            String expected = context.eval(ID, "JSON.stringify(records, null, 2)").asString();
+            StringWriter writer = new StringWriter();
+            context.getBindings(ID).putMember("writer", writer);
+            assertTrue(context.eval(ID, "Graal.stringifyJSON(records, writer, null, 2)").isNull());
+            assertEquals(expected, writer.toString());
+        }
+    }
+
+    @Test
+    public void testStringifyJSONOutputStream() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            context.eval(ID, RECORDS);
+            String expected = context.eval(ID, "JSON.stringify(records, ['id', 'name'])").asString();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            context.getBindings(ID).putMember("out", out);
+            context.eval(ID, "Graal.stringifyJSON(records, out, ['id', 'name'])");
+            assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testStringifyJSONWriterFail() {
+        try (Context context = JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            context.getBindings(ID).putMember("writer", new Writer() {
+                @Override
+                public void write(char[] cbuf, int off, int len) throws IOException {
+                    throw new IOException("disk full");
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+            context.eval(ID, "Graal.stringifyJSON({a: 1}, writer)");
+            Assert.fail("failure expected");
+        } catch (PolyglotException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("disk full"));
+        }
+    }
+}
@@ -43,6 +43,9 @@ package com.oracle.truffle.js.test.builtins;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -141,6 +144,68 @@ public class JavaBuiltinsTest extends JSTest {
         test("Java.from({a:'foo'});", "Cannot convert to JavaScript");
     }
 
+    @Test
+    public void testJavaFromPrimitiveArray() {
+        assertEquals("1,2,3", test("''+Java.from(arg);", null, true, new int[]{1, 2, 3}));
+        assertEquals("1.5,NaN,0,-Infinity", test("''+Java.from(arg);", null, true, new double[]{1.5, Double.NaN, -0.0, Double.NEGATIVE_INFINITY}));
+        assertEquals("-1,127", test("''+Java.from(arg);", null, true, new byte[]{-1, 127}));
+        assertEquals("-300,5", test("''+Java.from(arg);", null, true, new short[]{-300, 5}));
+        assertEquals("0.5,2", test("''+Java.from(arg);", null, true, new float[]{0.5f, 2f}));
+        assertEquals("1,-2", test("''+Java.from(arg);", null, true, new long[]{1, -2}));
+        assertEquals("1,1099511627776", test("''+Java.from(arg);", null, true, new long[]{1, 1L << 40}));
+        assertEquals("0", test("''+Java.from(arg).length;", null, true, new int[0]));
+
+        int[] source = {1, 2, 3};
+        assertEquals("42,2,3,4", test("var t = Java.from(arg); t[0] = 42; t.push(4); ''+t;", null, true, source));
+        assertEquals(1, source[0]);
+    }
+
+    @Test
+    public void testJavaFromBuffer() {
+        ByteBuffer heapBuffer = ByteBuffer.wrap(new byte[]{1, 2, 3, 4});
+        assertEquals("Int8Array:4:-7,2,3,4", test("var t = Java.from(arg); t[0] = -7; t.constructor.name + ':' + t.buffer.byteLength + ':' + t;", null, true, heapBuffer));
+        assertEquals(-7, heapBuffer.get(0));
+
+        // only the bytes between position and limit are exposed
+        ByteBuffer heapBufferRange = ByteBuffer.wrap(new byte[]{1, 2, 3, 4});
+        heapBufferRange.position(1).limit(3);
+        assertEquals("Int8Array:2:0:-7,3", test("var t = Java.from(arg); t[0] = -7; t.constructor.name + ':' + t.buffer.byteLength + ':' + t.byteOffset + ':' + t;", null, true,
+                        heapBufferRange));
+        assertEquals(2, heapBufferRange.get(1));
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(4);
+        directBuffer.put(new byte[]{1, 2, 3, 4}).flip();
+        assertEquals("Int8Array:4:1,2,3,-7", test("var t = Java.from(arg); t[3] = -7; t.constructor.name + ':' + t.buffer.byteLength + ':' + t;", null, true, directBuffer));
+        assertEquals(-7, directBuffer.get(3));
+
+        directBuffer.position(1).limit(3);
+        assertEquals("Int8Array:2:0:-7,3", test("var t = Java.from(arg); t[0] = -7; t.constructor.name + ':' + t.buffer.byteLength + ':' + t.byteOffset + ':' + t;", null, true,
+                        directBuffer));
+        assertEquals(-7, directBuffer.get(1));
+        assertEquals(1, directBuffer.get(0));
+
+        ByteBuffer readOnlyBuffer = ByteBuffer.wrap(new byte[]{1, 2}).asReadOnlyBuffer();
+        assertEquals("Int8Array:1,2", test("var t = Java.from(arg); t.constructor.name + ':' + t;", null, true, readOnlyBuffer));
+
+        assertEquals("1,2,3", test("''+Java.from(arg);", null, true, IntBuffer.wrap(new int[]{1, 2, 3})));
+        assertEquals("0.25,1", test("''+Java.from(arg);", null, true, DoubleBuffer.wrap(new double[]{0.25, 1})));
+    }
+
+    @Test
+    public void testJavaToPrimitiveArray() {
+        String arrays = "var Arrays = Java.type('java.util.Arrays'); ";
+        assertEquals("[1, 2, 3]", test(arrays + "Arrays.toString(Java.to([1, 2, 3], 'int[]'));"));
+        assertEquals("[1.5, 2.0]", test(arrays + "Arrays.toString(Java.to([1.5, 2], 'double[]'));"));
+        assertEquals("[1.0, 2.0]", test(arrays + "Arrays.toString(Java.to([1, 2], 'double[]'));"));
+        assertEquals("[1, 2, 3]", test(arrays + "Arrays.toString(Java.to([1, 2, 3], 'long[]'));"));
+        assertEquals("[-1, 2]", test(arrays + "Arrays.toString(Java.to([-1, 2], 'byte[]'));"));
+        assertEquals("[0.5]", test(arrays + "Arrays.toString(Java.to([0.5], 'float[]'));"));
+        assertEquals("[1.5, -2.0]", test(arrays + "Arrays.toString(Java.to(new Float64Array([1.5, -2]), 'double[]'));"));
+        assertEquals("[-1, 2]", test(arrays + "Arrays.toString(Java.to(new Int8Array([-1, 2]), 'byte[]'));"));
+        assertEquals("[4294967295]", test(arrays + "Arrays.toString(Java.to(new Uint32Array([4294967295]), 'long[]'));"));
+        assertEquals("[2, 3]", test(arrays + "var a = [1, 2, 3]; a.shift(); Arrays.toString(Java.to(a, 'int[]'));"));
+    }
+
     @Test
     public void testJavaTo() {
         String result = test("var t = Java.to({a:'foo'}); ''+t;");
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.tools;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class CodeCacheTest {
+
+    private static final String CODE = "" +
+                    "function fib(n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }" +
+                    "var squares = [1, 2, 3].map(x => x * x);" +
+                    "fib(10) + squares[2];";
+
+    private static Context createContext(Path cacheDir) {
+        return JSTest.newContextBuilder().allowIO(true).option(JSContextOptions.CODE_CACHE_DIR_NAME, cacheDir.toString()).build();
+    }
+
+    private static Context createContext(Path cacheDir, String ecmaScriptVersion) {
+        return JSTest.newContextBuilder().allowIO(true).option(JSContextOptions.CODE_CACHE_DIR_NAME, cacheDir.toString()).option(JSContextOptions.ECMASCRIPT_VERSION_NAME,
+                        ecmaScriptVersion).build();
+    }
+
+    private static List<Path> listSnapshots(Path cacheDir) throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.filter(p -> p.toString().endsWith(".bin")).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testCodeCache() throws IOException {
+        Path cacheDir = Files.createTempDirectory("codeCacheTest");
+        cacheDir.toFile().deleteOnExit();
+        Source source = Source.newBuilder(JavaScriptLanguage.ID, CODE, "codeCacheTest.js").buildLiteral();
+
+        try (Context context = createContext(cacheDir)) {
+            assertEquals(64, context.eval(source).asInt());
+        }
+        List<Path> snapshots = listSnapshots(cacheDir);
+        assertEquals(1, snapshots.size());
+        Path snapshot = snapshots.get(0);
+        // the mapping keeps the file open on some platforms, so it cannot be deleted right away
+        snapshot.toFile().deleteOnExit();
+        FileTime recorded = Files.getLastModifiedTime(snapshot);
+
+        // a new engine loads the snapshot instead of translating (and recording) the source again
+        try (Context context = createContext(cacheDir)) {
+            assertEquals(64, context.eval(source).asInt());
+        }
+        assertEquals(1, listSnapshots(cacheDir).size());
+        assertEquals(recorded, Files.getLastModifiedTime(snapshot));
+
+        // a different source gets its own snapshot
+        try (Context context = createContext(cacheDir)) {
+            assertEquals(42, context.eval(Source.newBuilder(JavaScriptLanguage.ID, "6 * 7", "other.js").buildLiteral()).asInt());
+        }
+        List<Path> allSnapshots = listSnapshots(cacheDir);
+        allSnapshots.forEach(p -> p.toFile().deleteOnExit());
+        assertEquals(2, allSnapshots.size());
+    }
+
+    @Test
+    public void testCodeCacheOptions() throws IOException {
+        Path cacheDir = Files.createTempDirectory("codeCacheOptionsTest");
+        cacheDir.toFile().deleteOnExit();
+        Source source = Source.newBuilder(JavaScriptLanguage.ID, CODE, "codeCacheOptionsTest.js").buildLiteral();
+
+        try (Context context = createContext(cacheDir, "2020")) {
+            assertEquals(64, context.eval(source).asInt());
+        }
+        assertEquals(1, listSnapshots(cacheDir).size());
+
+        // the translation depends on the options, so it is not shared with other option values
+        try (Context context = createContext(cacheDir, "2019")) {
+            assertEquals(64, context.eval(source).asInt());
+        }
+        List<Path> snapshots = listSnapshots(cacheDir);
+        snapshots.forEach(p -> p.toFile().deleteOnExit());
+        assertEquals(2, snapshots.size());
+    }
+}
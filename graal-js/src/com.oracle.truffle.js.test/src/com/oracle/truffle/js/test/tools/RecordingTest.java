@@ -46,12 +46,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.Test;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.ScriptNode;
+import com.oracle.truffle.js.parser.BinarySnapshotProvider;
 import com.oracle.truffle.js.parser.JSParser;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.snapshot.Recording;
@@ -162,4 +165,30 @@ public class RecordingTest extends JSTest {
         Object result = script.run(testHelper.getRealm());
         assertEquals("OK", result);
     }
+
+    @Test
+    public void testMappedSnapshot() throws IOException {
+        JSContext context = testHelper.getJSContext();
+        Source source = Source.newBuilder(JavaScriptLanguage.ID, "" +
+                        "function unused(x) { return x.foo.bar; }" +
+                        "function add(a, b) { return a + b; }" +
+                        "function twice(f, x) { return f(f(x)); }" +
+                        "twice(x => add(x, 20), 2);" +
+                        "",
+                        "mappedSnapshotTest.js").build();
+
+        Recording rec = Recording.recordSource(source, context, false, "", "");
+        Path snapshotFile = Files.createTempFile("mappedSnapshotTest", ".bin");
+        // the mapping keeps the file open on some platforms, so it cannot be deleted right away
+        snapshotFile.toFile().deleteOnExit();
+        try (OutputStream outs = Files.newOutputStream(snapshotFile)) {
+            rec.saveToStream(source.getName(), outs, true);
+        }
+
+        BinarySnapshotProvider snapshot = BinarySnapshotProvider.map(snapshotFile);
+
+        ScriptNode script = ((JSParser) context.getEvaluator()).parseScript(context, source, snapshot);
+        Object result = script.run(testHelper.getRealm());
+        assertEquals(42, result);
+    }
 }
@@ -40,6 +40,7 @@
  */
 package com.oracle.truffle.js.builtins;
 
+import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arrayGetArray;
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arrayGetArrayType;
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arrayGetLength;
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetArrayType;
@@ -51,6 +52,7 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -67,6 +69,7 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.LoopNode;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.SlowPathException;
@@ -105,6 +108,7 @@ import com.oracle.truffle.js.builtins.ArrayPrototypeBuiltinsFactory.JSArraySplic
 import com.oracle.truffle.js.builtins.ArrayPrototypeBuiltinsFactory.JSArrayToLocaleStringNodeGen;
 import com.oracle.truffle.js.builtins.ArrayPrototypeBuiltinsFactory.JSArrayToStringNodeGen;
 import com.oracle.truffle.js.builtins.ArrayPrototypeBuiltinsFactory.JSArrayUnshiftNodeGen;
+import com.oracle.truffle.js.builtins.helper.PrimitiveArraySort;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JSNodeUtil;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
@@ -164,6 +168,7 @@ import com.oracle.truffle.js.runtime.array.SparseArray;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractDoubleArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractIntArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractWritableArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantByteArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantDoubleArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantIntArray;
@@ -1621,6 +1626,8 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
         private final ConditionProfile isTwo = ConditionProfile.createBinaryProfile();
         private final ConditionProfile isSparse = ConditionProfile.createBinaryProfile();
         private final BranchProfile growProfile = BranchProfile.create();
+        private final ConditionProfile isIntElement = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile isDoubleElement = ConditionProfile.createBinaryProfile();
         private final StringBuilderProfile stringBuilderProfile;
 
         public JSArrayJoinNode(JSContext context, JSBuiltin builtin, boolean isTypedArrayImplementation) {
@@ -1691,8 +1698,15 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                     stringBuilderProfile.append(res, joinSeparator);
                 }
                 Object value = read(thisJSObject, i);
-                String str = toStringOrEmpty(thisJSObject, value);
-                stringBuilderProfile.append(res, str);
+                // format numbers directly into the builder
+                if (isIntElement.profile(value instanceof Integer)) {
+                    stringBuilderProfile.append(res, ((Integer) value).intValue());
+                } else if (isDoubleElement.profile(value instanceof Double)) {
+                    stringBuilderProfile.append(res, ((Double) value).doubleValue());
+                } else {
+                    String str = toStringOrEmpty(thisJSObject, value);
+                    stringBuilderProfile.append(res, str);
+                }
 
                 if (appendSep) {
                     i++;
@@ -2592,8 +2606,10 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
         private final BranchProfile hasCompareFnBranch = BranchProfile.create();
         private final BranchProfile noCompareFnBranch = BranchProfile.create();
         private final BranchProfile growProfile = BranchProfile.create();
+        private final ConditionProfile primitiveSortProfile = ConditionProfile.create();
         @Child private InteropLibrary interopNode;
         @Child private ImportValueNode importValueNode;
+        @CompilationFinal private ComparatorOrderCache comparatorOrderCache;
 
         public JSArraySortNode(JSContext context, JSBuiltin builtin, boolean isTypedArrayImplementation) {
             super(context, builtin, isTypedArrayImplementation);
@@ -2612,6 +2628,10 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
 
             ScriptArray scriptArray = arrayGetArrayType(thisObj);
+            if (primitiveSortProfile.profile(sortPrimitiveStore(thisObj, scriptArray, compare, len))) {
+                reportLoopCount(len);
+                return thisObj;
+            }
             Object[] array = arrayToObjectArrayNode.executeObjectArray(thisObj, scriptArray, len);
 
             sortIntl(getComparator(thisObj, compare), array);
@@ -2627,6 +2647,92 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             return thisObj;
         }
 
+        /**
+         * Sorts an int or double backed array directly in its backing store, without boxing the
+         * elements. Only applicable if all elements are present and the comparison function is
+         * either undefined or one of the shapes recognized by {@link PrimitiveArraySort}.
+         */
+        private boolean sortPrimitiveStore(DynamicObject thisObj, ScriptArray scriptArray, Object compare, long len) {
+            boolean isIntArray = scriptArray instanceof AbstractIntArray;
+            if (!(isIntArray || scriptArray instanceof AbstractDoubleArray) || scriptArray.isFrozen()) {
+                return false;
+            }
+            int storeOffset = ((AbstractWritableArray) scriptArray).getDenseStoreOffset(thisObj, len);
+            if (storeOffset < 0) {
+                return false;
+            }
+            int order = getComparatorOrder(compare);
+            if (order == PrimitiveArraySort.GENERIC_ORDER) {
+                return false;
+            }
+            int from = storeOffset;
+            int to = storeOffset + (int) len;
+            if (isIntArray) {
+                return PrimitiveArraySort.sortIntArray((int[]) arrayGetArray(thisObj), from, to, order);
+            } else {
+                return PrimitiveArraySort.sortDoubleArray((double[]) arrayGetArray(thisObj), from, to, order);
+            }
+        }
+
+        /**
+         * Sorts the elements of a typed array in a primitive array, without boxing the elements.
+         */
+        private boolean sortPrimitiveTypedArray(DynamicObject thisObj, Object compare, long len) {
+            TypedArray typedArray = JSArrayBufferView.typedArrayGetArrayType(thisObj);
+            if (!(typedArray instanceof TypedArray.TypedIntArray || typedArray instanceof TypedArray.TypedFloatArray)) {
+                return false;
+            }
+            int order = getComparatorOrder(compare);
+            if (order == PrimitiveArraySort.GENERIC_ORDER) {
+                return false;
+            }
+            if (typedArray instanceof TypedArray.TypedIntArray) {
+                return PrimitiveArraySort.sortTypedIntArray(thisObj, (TypedArray.TypedIntArray<?>) typedArray, (int) len, order);
+            } else {
+                return PrimitiveArraySort.sortTypedFloatArray(thisObj, (TypedArray.TypedFloatArray<?>) typedArray, (int) len, order);
+            }
+        }
+
+        @ExplodeLoop
+        private int getComparatorOrder(Object compare) {
+            if (compare == Undefined.instance) {
+                return PrimitiveArraySort.DEFAULT_ORDER;
+            } else if (!JSFunction.isJSFunction(compare)) {
+                return PrimitiveArraySort.GENERIC_ORDER;
+            }
+            JSFunctionData functionData = JSFunction.getFunctionData((DynamicObject) compare);
+            for (ComparatorOrderCache cache = comparatorOrderCache; cache != null; cache = cache.next) {
+                if (cache == ComparatorOrderCache.GENERIC) {
+                    return PrimitiveArraySort.GENERIC_ORDER;
+                } else if (cache.functionData == functionData) {
+                    return cache.order;
+                }
+            }
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            return insertComparatorOrder(compare, functionData);
+        }
+
+        /**
+         * Classifies a comparison function not seen before. Once more than
+         * {@link JSContext#getFunctionCacheLimit()} functions have been seen, all comparison
+         * functions use the generic sort.
+         */
+        private int insertComparatorOrder(Object compare, JSFunctionData functionData) {
+            CompilerAsserts.neverPartOfCompilation();
+            ComparatorOrderCache head = comparatorOrderCache;
+            int count = 0;
+            for (ComparatorOrderCache cache = head; cache != null; cache = cache.next) {
+                count++;
+            }
+            if (count >= getContext().getFunctionCacheLimit()) {
+                comparatorOrderCache = ComparatorOrderCache.GENERIC;
+                return PrimitiveArraySort.GENERIC_ORDER;
+            }
+            int order = PrimitiveArraySort.getComparatorOrder(compare);
+            comparatorOrderCache = new ComparatorOrderCache(functionData, order, head);
+            return order;
+        }
+
         private void delete(Object obj, Object i) {
             if (deletePropertyNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -2656,6 +2762,11 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                 return thisJSObj;
             }
 
+            if (isTypedArrayImplementation && primitiveSortProfile.profile(sortPrimitiveTypedArray(thisJSObj, comparefn, len))) {
+                reportLoopCount(len);
+                return thisJSObj;
+            }
+
             Iterable<Object> keys = getKeys(thisJSObj);
             Object[] array = jsobjectToArray(thisJSObj, len, keys);
 
@@ -2764,6 +2875,24 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
+        /**
+         * Remembers the sort order recognized for the last comparison function (by function data,
+         * since the order only depends on the code).
+         */
+        private static final class ComparatorOrderCache {
+            static final ComparatorOrderCache GENERIC = new ComparatorOrderCache(null, PrimitiveArraySort.GENERIC_ORDER, null);
+
+            final JSFunctionData functionData;
+            final int order;
+            final ComparatorOrderCache next;
+
+            ComparatorOrderCache(JSFunctionData functionData, int order, ComparatorOrderCache next) {
+                this.functionData = functionData;
+                this.order = order;
+                this.next = next;
+            }
+        }
+
         private class SortComparator implements Comparator<Object> {
             private final Object compFnObj;
             private final DynamicObject arrayBufferObj;
@@ -68,6 +68,7 @@ import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.BigInt;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
+import com.oracle.truffle.js.runtime.JSAgentWaiterList.Waiter;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSException;
@@ -808,17 +809,14 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
 
             JSAgentWaiterListEntry wl = SharedMemorySync.getWaiterList(getContext(), target, i);
 
+            Waiter waiters;
             SharedMemorySync.enterCriticalSection(getContext(), wl);
             try {
-                int[] waiters = SharedMemorySync.removeWaiters(getContext(), wl, c);
-                int n;
-                for (n = 0; n < waiters.length; n++) {
-                    SharedMemorySync.wakeWaiter(getContext(), waiters[n]);
-                }
-                return n;
+                waiters = SharedMemorySync.removeWaiters(getContext(), wl, c);
             } finally {
                 SharedMemorySync.leaveCriticalSection(getContext(), wl);
             }
+            return SharedMemorySync.wakeWaiters(getContext(), waiters);
         }
     }
 
@@ -873,17 +871,13 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
                 if (isNotEqual) {
                     return NOT_EQUAL;
                 }
-                int id = getContext().getJSAgent().getSignifier();
-                SharedMemorySync.addWaiter(getContext(), wl, id);
-                if (t < 0) {
-                    return TIMED_OUT;
-                }
-                boolean awoken = SharedMemorySync.suspendAgent(getContext(), wl, id, t);
+                Waiter waiter = SharedMemorySync.addWaiter(getContext(), wl);
+                boolean awoken = SharedMemorySync.suspendAgent(getContext(), wl, waiter, t);
                 if (awoken) {
-                    assert !wl.contains(id);
+                    assert !wl.contains(waiter);
                     return OK;
                 } else {
-                    SharedMemorySync.removeWaiter(getContext(), wl, id);
+                    SharedMemorySync.removeWaiter(getContext(), wl, waiter);
                     return TIMED_OUT;
                 }
             } finally {
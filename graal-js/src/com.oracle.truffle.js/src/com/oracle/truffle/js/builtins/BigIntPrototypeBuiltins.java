@@ -191,14 +191,12 @@ public final class BigIntPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         public JSBigIntToLocaleStringIntlNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
-            this.initNumberFormatNode = InitializeNumberFormatNode.createInitalizeNumberFormatNode(context);
+            this.initNumberFormatNode = InitializeNumberFormatNode.createCachingInitalizeNumberFormatNode(context);
         }
 
         @TruffleBoundary
         private DynamicObject createNumberFormat(Object locales, Object options) {
-            DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
-            initNumberFormatNode.executeInit(numberFormatObj, locales, options);
-            return numberFormatObj;
+            return initNumberFormatNode.executeInit(JSNumberFormat.create(getContext()), locales, options);
         }
 
         @Specialization
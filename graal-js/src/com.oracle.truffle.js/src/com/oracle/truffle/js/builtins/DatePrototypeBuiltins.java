@@ -98,6 +98,8 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSDate;
 import com.oracle.truffle.js.runtime.builtins.intl.JSDateTimeFormat;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.util.DateCache;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
 
 /**
  * Contains builtins for {@linkplain JSDate}.prototype.
@@ -332,6 +334,10 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             }
         }
 
+        protected final DateCache getDateCache() {
+            return getContext().getRealm().getDateCache();
+        }
+
         protected final double asDateMillis(Object thisDate) {
             if (isDate.profile(JSDate.isJSDate(thisDate))) {
                 return JSDate.getTimeMillisField((DynamicObject) thisDate);
@@ -356,9 +362,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
         }
 
         protected DynamicObject createDateTimeFormat(InitializeDateTimeFormatNode initDateTimeFormatNode, Object locales, Object options) {
-            DynamicObject dateTimeFormatObj = JSDateTimeFormat.create(getContext());
-            initDateTimeFormatNode.executeInit(dateTimeFormatObj, locales, options);
-            return dateTimeFormatObj;
+            return initDateTimeFormatNode.executeInit(JSDateTimeFormat.create(getContext()), locales, options);
         }
     }
 
@@ -412,7 +416,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
 
         public JSDateToStringIntlNode(JSContext context, JSBuiltin builtin, boolean isUTC) {
             super(context, builtin, isUTC);
-            this.initDateTimeFormatNode = InitializeDateTimeFormatNode.createInitalizeDateTimeFormatNode(context, "any", "all");
+            this.initDateTimeFormatNode = InitializeDateTimeFormatNode.createCachingInitalizeDateTimeFormatNode(context, "any", "all", IntlFormatterCache.Kind.DATE_TIME_FORMAT);
         }
 
         @Specialization
@@ -480,7 +484,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
 
         public JSDateToLocaleDateStringIntlNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin, NO_UTC);
-            this.initDateTimeFormatNode = InitializeDateTimeFormatNode.createInitalizeDateTimeFormatNode(context, "date", "date");
+            this.initDateTimeFormatNode = InitializeDateTimeFormatNode.createCachingInitalizeDateTimeFormatNode(context, "date", "date", IntlFormatterCache.Kind.DATE_FORMAT);
         }
 
         @Specialization
@@ -516,7 +520,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
 
         public JSDateToLocaleTimeStringIntlNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin, NO_UTC);
-            this.initDateTimeFormatNode = InitializeDateTimeFormatNode.createInitalizeDateTimeFormatNode(context, "time", "time");
+            this.initDateTimeFormatNode = InitializeDateTimeFormatNode.createCachingInitalizeDateTimeFormatNode(context, "time", "time", IntlFormatterCache.Kind.TIME_FORMAT);
         }
 
         @Specialization
@@ -557,7 +561,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
                 return Double.NaN;
             }
             t = isUTC ? t : JSDate.localTime(t, getContext());
-            return JSDate.yearFromTime((long) t);
+            return getDateCache().yearFromTime((long) t);
         }
     }
 
@@ -574,7 +578,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
                 return Double.NaN;
             }
             t = JSDate.localTime(t, getContext());
-            return JSDate.yearFromTime((long) t) - 1900d;
+            return getDateCache().yearFromTime((long) t) - 1900d;
         }
     }
 
@@ -591,7 +595,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
                 return Double.NaN;
             }
             t = isUTC ? t : JSDate.localTime(t, getContext());
-            return JSDate.monthFromTime(t);
+            return getDateCache().monthFromTime((long) t);
         }
     }
 
@@ -608,7 +612,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
                 return Double.NaN;
             }
             t = isUTC ? t : JSDate.localTime(t, getContext());
-            return JSDate.dateFromTime(t);
+            return getDateCache().dateFromTime((long) t);
         }
     }
 
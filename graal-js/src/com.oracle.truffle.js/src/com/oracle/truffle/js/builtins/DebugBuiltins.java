@@ -72,12 +72,16 @@ import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugCreateSafeIntege
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugDumpCountersNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugDumpFunctionTreeNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugHeapDumpNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugIntlFormatterCacheStatsNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugIsHolesArrayNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugJSStackNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugLoadModuleNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugMegamorphicCacheStatsNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugNeverPartOfCompilationNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugPrintObjectNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugPrintSourceAttributionNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugPromiseJobStatsNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugRegexCacheStatsNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugShapeNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugStringCompareNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugSystemPropertiesNodeGen;
@@ -95,6 +99,7 @@ import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.Evaluator;
+import com.oracle.truffle.js.runtime.JSAgent;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSErrorType;
 import com.oracle.truffle.js.runtime.JSException;
@@ -119,6 +124,9 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.CompiledRegexCache;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
+import com.oracle.truffle.js.runtime.util.MegamorphicPropertyCache;
 
 /**
  * Contains builtins for {@code Debug} object.
@@ -156,7 +164,11 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         systemProperty(1),
         systemProperties(0),
         neverPartOfCompilation(0),
-        dumpHeap(2);
+        dumpHeap(2),
+        promiseJobStats(0),
+        megamorphicCacheStats(0),
+        intlFormatterCacheStats(0),
+        regexCacheStats(0);
 
         private final int length;
 
@@ -226,6 +238,14 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
 
             case dumpHeap:
                 return DebugHeapDumpNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
+            case promiseJobStats:
+                return DebugPromiseJobStatsNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case megamorphicCacheStats:
+                return DebugMegamorphicCacheStatsNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case intlFormatterCacheStats:
+                return DebugIntlFormatterCacheStatsNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case regexCacheStats:
+                return DebugRegexCacheStatsNodeGen.create(context, builtin, args().createArgumentNodes(context));
         }
         return null;
     }
@@ -667,6 +687,84 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         }
     }
 
+    public abstract static class DebugPromiseJobStats extends JSBuiltinNode {
+
+        public DebugPromiseJobStats(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object promiseJobStats() {
+            JSAgent agent = getContext().getRealm().getAgent();
+            DynamicObject result = JSOrdinary.create(getContext());
+            JSObject.set(result, "queueDepth", agent.getPromiseJobsQueueDepth());
+            JSObject.set(result, "maxQueueDepth", agent.getMaxPromiseJobsQueueDepth());
+            JSObject.set(result, "jobs", (double) agent.getPromiseJobsProcessed());
+            JSObject.set(result, "drainTimeMillis", agent.getPromiseJobsDrainTime() / 1e6);
+            return result;
+        }
+    }
+
+    public abstract static class DebugMegamorphicCacheStats extends JSBuiltinNode {
+
+        public DebugMegamorphicCacheStats(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object megamorphicCacheStats() {
+            MegamorphicPropertyCache cache = getContext().getMegamorphicPropertyCache();
+            if (cache == null) {
+                return Undefined.instance;
+            }
+            DynamicObject result = JSOrdinary.create(getContext());
+            JSObject.set(result, "hits", (double) cache.getHits());
+            JSObject.set(result, "misses", (double) cache.getMisses());
+            return result;
+        }
+    }
+
+    public abstract static class DebugIntlFormatterCacheStats extends JSBuiltinNode {
+
+        public DebugIntlFormatterCacheStats(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object intlFormatterCacheStats() {
+            IntlFormatterCache cache = getContext().getRealm().getIntlFormatterCache();
+            DynamicObject result = JSOrdinary.create(getContext());
+            JSObject.set(result, "hits", (double) cache.getHits());
+            JSObject.set(result, "misses", (double) cache.getMisses());
+            JSObject.set(result, "size", cache.size());
+            return result;
+        }
+    }
+
+    public abstract static class DebugRegexCacheStats extends JSBuiltinNode {
+
+        public DebugRegexCacheStats(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object regexCacheStats() {
+            CompiledRegexCache cache = getContext().getCompiledRegexCache();
+            if (cache == null) {
+                return Undefined.instance;
+            }
+            DynamicObject result = JSOrdinary.create(getContext());
+            JSObject.set(result, "hits", (double) cache.getHits());
+            JSObject.set(result, "misses", (double) cache.getMisses());
+            JSObject.set(result, "size", cache.size());
+            return result;
+        }
+    }
+
     public abstract static class DebugSystemProperty extends JSBuiltinNode {
 
         public DebugSystemProperty(JSContext context, JSBuiltin builtin) {
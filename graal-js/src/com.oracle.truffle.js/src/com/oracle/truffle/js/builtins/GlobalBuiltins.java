@@ -122,6 +122,7 @@ import com.oracle.truffle.js.runtime.BigInt;
 import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.Evaluator;
+import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.ExitException;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSConsoleUtil;
@@ -353,7 +354,8 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
             readFully(1),
             exec(1), // $EXEC
             parseToJSON(3),
-            importScriptEngineGlobalBindings(1);
+            importScriptEngineGlobalBindings(1),
+            parseScriptEngineScript(2);
 
             private final int length;
 
@@ -383,6 +385,8 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
                     return GlobalScriptingEXECNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
                 case importScriptEngineGlobalBindings:
                     return JSGlobalImportScriptEngineGlobalBindingsNodeGen.create(context, builtin, args().fixedArgs(1).varArgs().createArgumentNodes(context));
+                case parseScriptEngineScript:
+                    return JSGlobalParseScriptEngineScriptNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
             }
             return null;
         }
@@ -1687,4 +1691,29 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
             }
         }
     }
+
+    /**
+     * Non-standard helper function for pooled GraalJSScriptEngine contexts. Parses a script whose
+     * top-level declarations are local to each run, like those of a function body, and returns a
+     * function that runs it with the global object as {@code this} and returns its completion
+     * value.
+     */
+    abstract static class JSGlobalParseScriptEngineScriptNode extends JSBuiltinNode {
+
+        JSGlobalParseScriptEngineScriptNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        final DynamicObject parse(Object code, Object name) {
+            JSContext context = getContext();
+            JSRealm realm = context.getRealm();
+            Source source = Source.newBuilder(JavaScriptLanguage.ID, JSRuntime.toString(code), JSRuntime.toString(name)).build();
+            // an empty (non-null) argument list selects function-like scoping
+            ScriptNode script = context.getEvaluator().parseScript(context, source, "", "", new String[0]);
+            DynamicObject function = JSFunction.create(realm, script.getFunctionData());
+            return JSFunction.boundFunctionCreate(context, function, realm.getGlobalObject(), JSArguments.EMPTY_ARGUMENTS_ARRAY, realm.getFunctionPrototype(), null, null);
+        }
+    }
 }
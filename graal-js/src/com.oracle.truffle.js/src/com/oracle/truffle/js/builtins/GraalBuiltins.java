@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.builtins.GraalBuiltinsFactory.GraalParseJSONNodeGen;
+import com.oracle.truffle.js.builtins.GraalBuiltinsFactory.GraalStringifyJSONNodeGen;
+import com.oracle.truffle.js.builtins.JSONBuiltins.JSONStringifyNode;
+import com.oracle.truffle.js.builtins.helper.JSONChunkWriter;
+import com.oracle.truffle.js.builtins.helper.JSONData;
+import com.oracle.truffle.js.builtins.helper.JSONStringifyStringNode;
+import com.oracle.truffle.js.builtins.helper.TruffleJSONByteParser;
+import com.oracle.truffle.js.nodes.function.JSBuiltin;
+import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
+import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Functions of the {@code Graal} object.
+ */
+public final class GraalBuiltins extends JSBuiltinsContainer.Lambda {
+
+    public static final JSBuiltinsContainer BUILTINS = new GraalBuiltins();
+
+    protected GraalBuiltins() {
+        super(JSRealm.GRAAL_CLASS_NAME);
+        defineFunction("parseJSON", 1, JSAttributes.getDefaultNotEnumerable(), (context, builtin) -> GraalParseJSONNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context)));
+        defineFunction("stringifyJSON", 2, JSAttributes.getDefaultNotEnumerable(),
+                        (context, builtin) -> GraalStringifyJSONNodeGen.create(context, builtin, args().fixedArgs(4).createArgumentNodes(context)));
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON from an {@code ArrayBuffer}, a typed array, a
+     * {@link ByteBuffer} or an {@link InputStream} without decoding the whole input to a string
+     * first.
+     */
+    public abstract static class GraalParseJSONNode extends JSBuiltinNode {
+        public GraalParseJSONNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object parseJSON(Object input) {
+            TruffleJSONByteParser parser = new TruffleJSONByteParser(getContext());
+            if (JSArrayBuffer.isJSHeapArrayBuffer(input) || JSArrayBuffer.isJSDirectOrSharedArrayBuffer(input)) {
+                DynamicObject arrayBuffer = (DynamicObject) input;
+                return parser.parse(getBytes(arrayBuffer, 0, -1));
+            } else if (JSArrayBufferView.isJSArrayBufferView(input)) {
+                DynamicObject view = (DynamicObject) input;
+                int offset = JSArrayBufferView.getByteOffset(view, getContext());
+                int length = JSArrayBufferView.getByteLength(view, getContext());
+                return parser.parse(getBytes(JSArrayBufferView.getArrayBuffer(view), offset, length));
+            }
+            Env env = getContext().getRealm().getEnv();
+            if (env.isHostObject(input)) {
+                Object hostObject = env.asHostObject(input);
+                if (hostObject instanceof ByteBuffer) {
+                    return parser.parse((ByteBuffer) hostObject);
+                } else if (hostObject instanceof InputStream) {
+                    return parser.parse((InputStream) hostObject);
+                }
+            }
+            throw Errors.createTypeError("ArrayBuffer, typed array, java.nio.ByteBuffer or java.io.InputStream expected");
+        }
+
+        private static ByteBuffer getBytes(DynamicObject arrayBuffer, int offset, int length) {
+            if (JSArrayBuffer.isDetachedBuffer(arrayBuffer)) {
+                throw Errors.createTypeErrorDetachedBuffer();
+            }
+            ByteBuffer bytes;
+            if (JSArrayBuffer.isJSHeapArrayBuffer(arrayBuffer)) {
+                bytes = ByteBuffer.wrap(JSArrayBuffer.getByteArray(arrayBuffer));
+            } else {
+                bytes = JSArrayBuffer.getDirectByteBuffer(arrayBuffer).duplicate();
+                bytes.clear();
+            }
+            if (length >= 0) {
+                bytes.limit(offset + length);
+                bytes.position(offset);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * {@code Graal.stringifyJSON(value, sink, replacer, space)} serializes like
+     * {@code JSON.stringify}, but hands the output over in chunks to a JS function, a
+     * {@link Writer} or an {@link OutputStream} (as UTF-8) instead of returning a single string.
+     */
+    public abstract static class GraalStringifyJSONNode extends JSBuiltinNode {
+        @Child private JSONStringifyStringNode jsonStringifyStringNode;
+
+        public GraalStringifyJSONNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+            this.jsonStringifyStringNode = JSONStringifyStringNode.create(context);
+        }
+
+        @Specialization
+        protected Object stringifyJSON(Object value, Object sink, Object replacer, Object space) {
+            JSONData data = createJSONData(sink, replacer, space);
+            DynamicObject wrapper = JSOrdinary.create(getContext());
+            JSRuntime.createDataProperty(wrapper, "", value);
+            jsonStringifyStringNode.execute(data, "", wrapper);
+            return Undefined.instance;
+        }
+
+        @TruffleBoundary
+        private JSONData createJSONData(Object sink, Object replacer, Object space) {
+            JSONChunkWriter chunkWriter = JSONChunkWriter.create(getContext().getRealm(), sink);
+            DynamicObject replacerFn = null;
+            List<String> replacerList = null;
+            if (JSDynamicObject.isJSDynamicObject(replacer)) {
+                if (JSRuntime.isCallable(replacer)) {
+                    replacerFn = (DynamicObject) replacer;
+                } else if (JSRuntime.isArray(replacer)) {
+                    replacerList = JSONStringifyNode.createReplacerList((DynamicObject) replacer);
+                }
+            }
+            return new JSONData(JSONStringifyNode.getGap(space), replacerFn, replacerList, chunkWriter);
+        }
+    }
+}
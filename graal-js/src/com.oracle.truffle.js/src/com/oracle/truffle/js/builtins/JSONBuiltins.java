@@ -50,7 +50,6 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.object.DynamicObject;
-import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.builtins.JSONBuiltinsFactory.JSONParseNodeGen;
 import com.oracle.truffle.js.builtins.JSONBuiltinsFactory.JSONStringifyNodeGen;
@@ -58,8 +57,6 @@ import com.oracle.truffle.js.builtins.helper.JSONData;
 import com.oracle.truffle.js.builtins.helper.JSONStringifyStringNode;
 import com.oracle.truffle.js.builtins.helper.TruffleJSONParser;
 import com.oracle.truffle.js.nodes.access.CreateDataPropertyNode;
-import com.oracle.truffle.js.nodes.cast.JSToIntegerAsIntNode;
-import com.oracle.truffle.js.nodes.cast.JSToNumberNode;
 import com.oracle.truffle.js.nodes.cast.JSToStringNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
@@ -202,11 +199,8 @@ public final class JSONBuiltins extends JSBuiltinsContainer.SwitchEnum<JSONBuilt
 
         @Child private JSONStringifyStringNode jsonStringifyStringNode;
         @Child private CreateDataPropertyNode createWrapperPropertyNode;
-        @Child private JSToIntegerAsIntNode toIntegerNode;
-        @Child private JSToNumberNode toNumberNode;
         @Child private JSIsArrayNode isArrayNode;
         @Child private IsCallableNode isCallableNode;
-        private final BranchProfile spaceIsStringBranch = BranchProfile.create();
         private final ConditionProfile spaceIsUndefinedProfile = ConditionProfile.createBinaryProfile();
 
         protected Object jsonStr(Object jsonData, String key, DynamicObject holder) {
@@ -242,6 +236,14 @@ public final class JSONBuiltins extends JSBuiltinsContainer.SwitchEnum<JSONBuilt
 
         @Specialization(guards = "isArray(replacerObj)")
         protected Object stringifyReplacerArray(Object value, DynamicObject replacerObj, Object spaceParam) {
+            return stringifyIntl(value, spaceParam, null, createReplacerList(replacerObj));
+        }
+
+        /**
+         * Creates the property list of a replacer array (SerializeJSONProperty step 4.b).
+         */
+        @TruffleBoundary
+        public static List<String> createReplacerList(DynamicObject replacerObj) {
             int len = (int) JSRuntime.toLength(JSObject.get(replacerObj, JSArray.LENGTH));
             List<String> replacerList = new ArrayList<>();
             for (int i = 0; i < len; i++) {
@@ -251,20 +253,13 @@ public final class JSONBuiltins extends JSBuiltinsContainer.SwitchEnum<JSONBuilt
                 if (JSRuntime.isString(v)) {
                     item = JSRuntime.toStringIsString(v);
                 } else if (JSRuntime.isNumber(v) || JSNumber.isJSNumber(v) || JSString.isJSString(v)) {
-                    item = toString(v);
+                    item = JSRuntime.toString(v);
                 }
-                if (item != null) { // If item is not undefined ...
-                    addToReplacer(replacerList, item);
+                if (item != null && !replacerList.contains(item)) { // If item is not undefined ...
+                    replacerList.add(item);
                 }
             }
-            return stringifyIntl(value, spaceParam, null, replacerList);
-        }
-
-        @TruffleBoundary
-        private static void addToReplacer(List<String> replacerList, String item) {
-            if (!replacerList.contains(item)) {
-                replacerList.add(item);
-            }
+            return replacerList;
         }
 
         @SuppressWarnings("unused")
@@ -300,24 +295,24 @@ public final class JSONBuiltins extends JSBuiltinsContainer.SwitchEnum<JSONBuilt
             return jsonStr(new JSONData(gap, replacerFnObj, replacerList), "", wrapper);
         }
 
-        private String getGap(Object spaceParam) {
+        /**
+         * Computes the indentation string from the space argument (SerializeJSONProperty steps
+         * 5-8).
+         */
+        @TruffleBoundary
+        public static String getGap(Object spaceParam) {
             Object space = spaceParam;
             if (JSDynamicObject.isJSDynamicObject(space)) {
                 if (JSNumber.isJSNumber(space)) {
-                    space = toNumber(space);
+                    space = JSRuntime.toNumber(space);
                 } else if (JSString.isJSString(space)) {
-                    space = toString(space);
+                    space = JSRuntime.toString(space);
                 }
             }
             if (JSRuntime.isNumber(space)) {
-                if (toIntegerNode == null) {
-                    CompilerDirectives.transferToInterpreterAndInvalidate();
-                    toIntegerNode = insert(JSToIntegerAsIntNode.create());
-                }
-                int newSpace = Math.max(0, Math.min(10, toIntegerNode.executeInt(space)));
+                int newSpace = (int) Math.max(0, Math.min(10, JSRuntime.toInteger((Number) space)));
                 return makeGap(newSpace);
             } else if (JSRuntime.isString(space)) {
-                spaceIsStringBranch.enter();
                 return makeGap(JSRuntime.toStringIsString(space));
             } else {
                 return "";
@@ -339,13 +334,5 @@ public final class JSONBuiltins extends JSBuiltinsContainer.SwitchEnum<JSONBuilt
             Arrays.fill(ar, ' ');
             return new String(ar);
         }
-
-        protected Number toNumber(Object target) {
-            if (toNumberNode == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                toNumberNode = insert(JSToNumberNode.create());
-            }
-            return toNumberNode.executeNumber(target);
-        }
     }
 }
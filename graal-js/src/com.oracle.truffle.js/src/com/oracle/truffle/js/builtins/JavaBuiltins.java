@@ -76,6 +76,7 @@ import com.oracle.truffle.js.builtins.JavaBuiltinsFactory.JavaSynchronizedNodeGe
 import com.oracle.truffle.js.builtins.JavaBuiltinsFactory.JavaToNodeGen;
 import com.oracle.truffle.js.builtins.JavaBuiltinsFactory.JavaTypeNameNodeGen;
 import com.oracle.truffle.js.builtins.JavaBuiltinsFactory.JavaTypeNodeGen;
+import com.oracle.truffle.js.builtins.helper.PrimitiveArrayConversion;
 import com.oracle.truffle.js.nodes.access.RealmNode;
 import com.oracle.truffle.js.nodes.access.WriteElementNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectArrayNode;
@@ -416,6 +417,11 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
         protected DynamicObject from(Object javaArray) {
             TruffleLanguage.Env env = getContext().getRealm().getEnv();
             if (env.isHostObject(javaArray)) {
+                Object hostObject = env.asHostObject(javaArray);
+                DynamicObject bulkResult = PrimitiveArrayConversion.fromHostObject(getContext(), hostObject);
+                if (bulkResult != null) {
+                    return bulkResult;
+                }
                 try {
                     long size = interop.getArraySize(javaArray);
                     if (size < 0 || size >= Integer.MAX_VALUE) {
@@ -430,7 +436,6 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
                 } catch (UnsupportedMessageException | InvalidArrayIndexException e) {
                     // fall through
                 }
-                Object hostObject = env.asHostObject(javaArray);
                 if (hostObject instanceof List<?>) {
                     List<?> javaList = (List<?>) hostObject;
                     int len = Boundaries.listSize(javaList);
@@ -519,6 +524,12 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
         private Object toArray(Object jsObj, Object arrayType, TruffleLanguage.Env env) {
             assert isJavaArrayClass(arrayType, env);
 
+            if (JSDynamicObject.isJSDynamicObject(jsObj)) {
+                Object primitiveArray = PrimitiveArrayConversion.toPrimitiveArray((DynamicObject) jsObj, (Class<?>) env.asHostObject(arrayType));
+                if (primitiveArray != null) {
+                    return env.asGuestValue(primitiveArray);
+                }
+            }
             Object[] arr = toObjectArrayNode.executeObjectArray(jsObj);
             try {
                 Object result = newArray.instantiate(arrayType, arr.length);
@@ -77,6 +77,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
 import com.oracle.truffle.js.runtime.builtins.intl.JSNumberFormat;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 
 /**
  * Contains builtins for {@linkplain JSNumber}.prototype.
@@ -187,7 +188,7 @@ public final class NumberPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         @Specialization(guards = {"isJSNumber(thisObj)", "isJSNumberInteger(thisObj)", "isRadix10(radix)"})
         protected String toStringIntRadix10(DynamicObject thisObj, Object radix) {
             Integer i = (Integer) getNumberValue(thisObj);
-            return Boundaries.stringValueOf(i.intValue());
+            return NumberStringCache.intToString(i.intValue());
         }
 
         @SuppressWarnings("unused")
@@ -206,7 +207,7 @@ public final class NumberPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         @Specialization(guards = {"isJavaNumber(thisObj)", "isNumberInteger(thisObj)", "isRadix10(radix)"})
         protected String toStringPrimitiveIntRadix10(Object thisObj, Object radix) {
             Integer i = (Integer) thisObj;
-            return Boundaries.stringValueOf(i.intValue());
+            return NumberStringCache.intToString(i.intValue());
         }
 
         @SuppressWarnings("unused")
@@ -280,7 +281,7 @@ public final class NumberPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         private static String toLocaleStringIntl(double d) {
             if (JSRuntime.doubleIsRepresentableAsInt(d)) {
-                return Boundaries.stringValueOf((int) d);
+                return NumberStringCache.intToString((int) d);
             } else {
                 return Boundaries.stringValueOf(d);
             }
@@ -309,14 +310,12 @@ public final class NumberPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         public JSNumberToLocaleStringIntlNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
-            this.initNumberFormatNode = InitializeNumberFormatNode.createInitalizeNumberFormatNode(context);
+            this.initNumberFormatNode = InitializeNumberFormatNode.createCachingInitalizeNumberFormatNode(context);
         }
 
         @TruffleBoundary
         private DynamicObject createNumberFormat(Object locales, Object options) {
-            DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
-            initNumberFormatNode.executeInit(numberFormatObj, locales, options);
-            return numberFormatObj;
+            return initNumberFormatNode.executeInit(JSNumberFormat.create(getContext()), locales, options);
         }
 
         @Specialization(guards = "isJSNumber(thisObj)")
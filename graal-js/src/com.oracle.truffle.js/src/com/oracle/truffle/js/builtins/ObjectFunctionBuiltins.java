@@ -62,6 +62,8 @@ import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.DynamicObjectLibrary;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.builtins.ObjectFunctionBuiltinsFactory.ObjectAssignNodeGen;
@@ -128,11 +130,14 @@ import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSLazyString;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 import com.oracle.truffle.js.runtime.util.Pair;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
@@ -464,7 +469,7 @@ public final class ObjectFunctionBuiltins extends JSBuiltinsContainer.SwitchEnum
                                             interop.isArrayElementWritable(thisObj, i),
                                             interop.isArrayElementRemovable(thisObj, i));
                             DynamicObject propDesc = fromPropertyDescriptorNode.execute(desc, getContext());
-                            putPropDescNode.putWithFlags(result, Boundaries.stringValueOf(i), propDesc, JSAttributes.configurableEnumerableWritable());
+                            putPropDescNode.putWithFlags(result, NumberStringCache.longToString(i), propDesc, JSAttributes.configurableEnumerableWritable());
                         }
                     }
                 }
@@ -983,7 +988,7 @@ public final class ObjectFunctionBuiltins extends JSBuiltinsContainer.SwitchEnum
         }
     }
 
-    @ImportStatic({JSConfig.class})
+    @ImportStatic({JSConfig.class, JSShape.class})
     abstract static class AssignPropertiesNode extends JavaScriptBaseNode {
         protected final JSContext context;
 
@@ -993,6 +998,43 @@ public final class ObjectFunctionBuiltins extends JSBuiltinsContainer.SwitchEnum
 
         abstract void executeVoid(Object to, Object from, WriteElementNode write);
 
+        /**
+         * Ordinary source objects whose enumerable properties are all data properties: as long as
+         * the source keeps its shape, the values are read directly from the property locations.
+         * Setters on the target may modify the source, in which case we fall back to looking up
+         * the remaining keys.
+         */
+        @SuppressWarnings("unused")
+        @Specialization(guards = {"from.getShape() == cachedShape", "isJSOrdinaryObject(from)", "enumerableProperties != null"}, assumptions = {
+                        "cachedShape.getValidAssumption()"}, limit = "PropertyCacheLimit")
+        protected static void copyPropertiesFromCachedShape(Object to, DynamicObject from, WriteElementNode write,
+                        @Cached("from.getShape()") Shape cachedShape,
+                        @Cached("getEnumerableDataProperties(cachedShape)") UnmodifiableArrayList<Property> enumerableProperties,
+                        @Cached("getProperties(cachedShape)") UnmodifiableArrayList<Property> properties,
+                        @Cached("create(context)") ReadElementNode read,
+                        @Cached("create(false)") JSGetOwnPropertyNode getOwnProperty,
+                        @Cached("createBinaryProfile()") ConditionProfile sameShapeProfile) {
+            int size = properties.size();
+            for (int i = 0; i < size; i++) {
+                Property property = properties.get(i);
+                Object nextKey = property.getKey();
+                Object propValue;
+                if (sameShapeProfile.profile(from.getShape() == cachedShape)) {
+                    if (!JSProperty.isEnumerable(property)) {
+                        continue;
+                    }
+                    propValue = property.get(from, true);
+                } else {
+                    PropertyDescriptor desc = getOwnProperty.execute(from, nextKey);
+                    if (desc == null || !desc.getEnumerable()) {
+                        continue;
+                    }
+                    propValue = read.executeWithTargetAndIndex(from, nextKey);
+                }
+                write.executeWithTargetAndIndexAndValue(to, nextKey, propValue);
+            }
+        }
+
         @Specialization(guards = {"isJSObject(from)"})
         protected static void copyPropertiesFromJSObject(Object to, DynamicObject from, WriteElementNode write,
                         @Cached("create(context)") ReadElementNode read,
@@ -556,6 +556,15 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization
+        protected String lazyStringCharAt(JSLazyString thisStr, int pos) {
+            if (indexOutOfBounds.profile(pos < 0 || pos >= thisStr.length())) {
+                return "";
+            } else {
+                return String.valueOf(thisStr.charAt(pos));
+            }
+        }
+
+        @Specialization(replaces = "lazyStringCharAt")
         protected String charAt(Object thisObj, Object index) {
             requireObjectCoercible(thisObj);
             return stringCharAt(toString(thisObj), toIntegerAsInt(index));
@@ -605,13 +614,11 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization
-        protected Object charCodeAtLazyString(JSLazyString thisStr, int index,
-                        @Cached("createBinaryProfile()") ConditionProfile flatten) {
+        protected Object charCodeAtLazyString(JSLazyString thisStr, int index) {
             if (indexOutOfBounds.profile(0 > index || index >= thisStr.length())) {
                 return Double.NaN;
             } else {
-                String s = thisStr.toString(flatten);
-                return Integer.valueOf(s.charAt(index));
+                return Integer.valueOf(thisStr.charAt(index));
             }
         }
 
@@ -681,7 +688,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization
-        protected String substring(String thisStr, int start, int end) {
+        protected CharSequence substring(String thisStr, int start, int end) {
             int len = thisStr.length();
             int finalStart = within(start, 0, len);
             int finalEnd = within(end, 0, len);
@@ -689,23 +696,36 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization(guards = "isUndefined(end)")
-        protected String substringStart(String thisStr, int start, @SuppressWarnings("unused") Object end) {
+        protected CharSequence substringStart(String thisStr, int start, @SuppressWarnings("unused") Object end) {
             int len = thisStr.length();
             int finalStart = within(start, 0, len);
             int finalEnd = len;
             return substringIntl(thisStr, finalStart, finalEnd);
         }
 
-        private String substringIntl(String thisStr, int start, int end) {
+        private CharSequence substringIntl(String thisStr, int start, int end) {
             if (startLowerEnd.profile(start <= end)) {
-                return Boundaries.substring(thisStr, start, end);
+                return JSLazyString.substring(thisStr, start, end);
             } else {
-                return Boundaries.substring(thisStr, end, start);
+                return JSLazyString.substring(thisStr, end, start);
             }
         }
 
-        @Specialization(replaces = {"substring", "substringStart"})
-        protected String substringGeneric(Object thisObj, Object start, Object end,
+        @Specialization
+        protected CharSequence substringLazyString(JSLazyString thisStr, int start, Object end,
+                        @Cached("createBinaryProfile()") ConditionProfile endUndefined) {
+            int len = thisStr.length();
+            int finalStart = within(start, 0, len);
+            int finalEnd = endUndefined.profile(end == Undefined.instance) ? len : within(toIntegerAsInt(end), 0, len);
+            if (startLowerEnd.profile(finalStart <= finalEnd)) {
+                return JSLazyString.substring(thisStr, finalStart, finalEnd);
+            } else {
+                return JSLazyString.substring(thisStr, finalEnd, finalStart);
+            }
+        }
+
+        @Specialization(replaces = {"substring", "substringStart", "substringLazyString"})
+        protected CharSequence substringGeneric(Object thisObj, Object start, Object end,
                         @Cached("create()") JSToNumberNode toNumberNode,
                         @Cached("create()") JSToNumberNode toNumber2Node,
                         @Cached("createBinaryProfile()") ConditionProfile startUndefined,
@@ -740,7 +760,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
             @Override
             @Specialization
-            protected String substringGeneric(Object thisObj, Object start, Object end,
+            protected CharSequence substringGeneric(Object thisObj, Object start, Object end,
                             @Cached("create()") JSToNumberNode toNumberNode,
                             @Cached("create()") JSToNumberNode toNumber2Node,
                             @Cached("createBinaryProfile()") ConditionProfile startUndefined,
@@ -2062,17 +2082,33 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization
-        protected String substrInt(String thisStr, int start, int length) {
+        protected CharSequence substrInt(String thisStr, int start, int length) {
             return substrIntl(thisStr, start, length);
         }
 
         @Specialization(guards = "isUndefined(length)")
-        protected String substrLenUndef(String thisStr, int start, @SuppressWarnings("unused") Object length) {
+        protected CharSequence substrLenUndef(String thisStr, int start, @SuppressWarnings("unused") Object length) {
             return substrIntl(thisStr, start, thisStr.length());
         }
 
-        @Specialization(replaces = {"substrInt", "substrLenUndef"})
-        protected String substrGeneric(Object thisObj, Object start, Object length) {
+        @Specialization
+        protected CharSequence substrLazyString(JSLazyString thisStr, int start, Object length) {
+            int startInt = start;
+            if (startInt < 0) {
+                startNegativeBranch.enter();
+                startInt = Math.max(startInt + thisStr.length(), 0);
+            }
+            int len = (length == Undefined.instance) ? thisStr.length() : toIntegerAsInt(length);
+            int finalLen = within(len, 0, Math.max(0, thisStr.length() - startInt));
+            if (finalLen <= 0) {
+                finalLenEmptyBranch.enter();
+                return "";
+            }
+            return JSLazyString.substring(thisStr, startInt, startInt + finalLen);
+        }
+
+        @Specialization(replaces = {"substrInt", "substrLenUndef", "substrLazyString"})
+        protected CharSequence substrGeneric(Object thisObj, Object start, Object length) {
             requireObjectCoercible(thisObj);
             String thisStr = toString(thisObj);
             int startInt = toIntegerAsInt(start);
@@ -2080,7 +2116,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             return substrIntl(thisStr, startInt, len);
         }
 
-        private String substrIntl(String thisStr, int start, int length) {
+        private CharSequence substrIntl(String thisStr, int start, int length) {
             int startInt = start;
             if (startInt < 0) {
                 startNegativeBranch.enter();
@@ -2091,7 +2127,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
                 finalLenEmptyBranch.enter();
                 return "";
             }
-            return Boundaries.substring(thisStr, startInt, startInt + finalLen);
+            return JSLazyString.substring(thisStr, startInt, startInt + finalLen);
         }
     }
 
@@ -2369,14 +2405,12 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         public JSStringLocaleCompareIntlNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
-            this.initCollatorNode = InitializeCollatorNode.createInitalizeCollatorNode(context);
+            this.initCollatorNode = InitializeCollatorNode.createCachingInitalizeCollatorNode(context);
         }
 
         @TruffleBoundary
         private DynamicObject createCollator(Object locales, Object options) {
-            DynamicObject collatorObj = JSCollator.create(getContext());
-            initCollatorNode.executeInit(collatorObj, locales, options);
-            return collatorObj;
+            return initCollatorNode.executeInit(JSCollator.create(getContext()), locales, options);
         }
 
         @Specialization
@@ -2404,36 +2438,48 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization
-        protected String sliceStringIntInt(String str, int start, int end) {
+        protected CharSequence sliceStringIntInt(String str, int start, int end) {
             int len = str.length();
             int istart = JSRuntime.getOffset(start, len, offsetProfile1);
             int iend = JSRuntime.getOffset(end, len, offsetProfile2);
             if (canReturnEmpty.profile(iend > istart)) {
-                return Boundaries.substring(str, istart, iend);
+                return JSLazyString.substring(str, istart, iend);
+            } else {
+                return "";
+            }
+        }
+
+        @Specialization
+        protected CharSequence sliceLazyString(JSLazyString str, int start, Object end) {
+            int len = str.length();
+            int istart = JSRuntime.getOffset(start, len, offsetProfile1);
+            int iend = end == Undefined.instance ? len : JSRuntime.getOffset(toIntegerAsInt(end), len, offsetProfile2);
+            if (canReturnEmpty.profile(iend > istart)) {
+                return JSLazyString.substring(str, istart, iend);
             } else {
                 return "";
             }
         }
 
         @Specialization(replaces = {"sliceStringIntInt"})
-        protected String sliceObjectIntInt(Object thisObj, int start, int end) {
+        protected CharSequence sliceObjectIntInt(Object thisObj, int start, int end) {
             requireObjectCoercible(thisObj);
             return sliceStringIntInt(toString(thisObj), start, end);
         }
 
         @Specialization(guards = "isUndefined(end)")
-        protected String sliceStringIntUndefined(String str, int start, @SuppressWarnings("unused") Object end) {
+        protected CharSequence sliceStringIntUndefined(String str, int start, @SuppressWarnings("unused") Object end) {
             int len = str.length();
             int istart = JSRuntime.getOffset(start, len, offsetProfile1);
             if (canReturnEmpty.profile(len > istart)) {
-                return Boundaries.substring(str, istart, len);
+                return JSLazyString.substring(str, istart, len);
             } else {
                 return "";
             }
         }
 
-        @Specialization(replaces = {"sliceStringIntInt", "sliceObjectIntInt", "sliceStringIntUndefined"})
-        protected String sliceGeneric(Object thisObj, Object start, Object end,
+        @Specialization(replaces = {"sliceStringIntInt", "sliceObjectIntInt", "sliceStringIntUndefined", "sliceLazyString"})
+        protected CharSequence sliceGeneric(Object thisObj, Object start, Object end,
                         @Cached("createBinaryProfile()") ConditionProfile isUndefined) {
             requireObjectCoercible(thisObj);
             String s = toString(thisObj);
@@ -2442,7 +2488,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             long istart = JSRuntime.getOffset(toIntegerAsInt(start), len, offsetProfile1);
             long iend = isUndefined.profile(end == Undefined.instance) ? len : JSRuntime.getOffset(toIntegerAsInt(end), len, offsetProfile2);
             if (canReturnEmpty.profile(iend > istart)) {
-                return Boundaries.substring(s, (int) istart, (int) iend);
+                return JSLazyString.substring(s, (int) istart, (int) iend);
             } else {
                 return "";
             }
@@ -65,6 +65,9 @@ import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.util.ModuleResolutionCache;
+import com.oracle.truffle.js.runtime.util.ModuleResolutionCache.Dependencies;
+import com.oracle.truffle.js.runtime.util.ModuleResolutionCache.PackageInfo;
 
 final class CommonJSResolution {
 
@@ -135,6 +138,10 @@ final class CommonJSResolution {
      *       6. THROW "not found"
      *@formatter:on
      *
+     * Resolutions, including failed ones, are memoized per (entryPath, moduleIdentifier) in the
+     * {@link ModuleResolutionCache} of the realm, if it is enabled, together with the
+     * {@link Dependencies} that were probed to find them.
+     *
      * @param context A valid JS Context.
      * @param moduleIdentifier The module identifier to be resolved.
      * @param entryPath The initial directory from which the resolution algorithm is executed.
@@ -146,7 +153,31 @@ final class CommonJSResolution {
         if ("".equals(moduleIdentifier)) {
             return null;
         }
-        TruffleLanguage.Env env = context.getRealm().getEnv();
+        JSRealm realm = context.getRealm();
+        TruffleLanguage.Env env = realm.getEnv();
+        ModuleResolutionCache cache = realm.getModuleResolutionCache();
+        if (cache == null) {
+            return resolveUncached(context, env, null, null, moduleIdentifier, entryPath);
+        }
+        String directory = entryPath.getPath();
+        ModuleResolutionCache.Resolution cached = cache.getResolution(env, false, directory, moduleIdentifier);
+        if (cached != null) {
+            if (cached.getPath() == null) {
+                return null;
+            }
+            TruffleFile module = env.getPublicTruffleFile(cached.getPath());
+            if (fileExists(module)) {
+                return module;
+            }
+            cache.removeResolution(false, directory, moduleIdentifier);
+        }
+        Dependencies dependencies = new Dependencies();
+        TruffleFile module = resolveUncached(context, env, cache, dependencies, moduleIdentifier, entryPath);
+        cache.putResolution(false, directory, moduleIdentifier, module == null ? null : module.getPath(), dependencies);
+        return module;
+    }
+
+    private static TruffleFile resolveUncached(JSContext context, TruffleLanguage.Env env, ModuleResolutionCache cache, Dependencies dependencies, String moduleIdentifier, TruffleFile entryPath) {
         // 2. If X begins with '/'
         TruffleFile currentWorkingPath = entryPath;
         if (moduleIdentifier.charAt(0) == '/') {
@@ -154,7 +185,7 @@ final class CommonJSResolution {
         }
         // 3. If X begins with './' or '/' or '../'
         if (isPathFileName(moduleIdentifier)) {
-            TruffleFile module = loadAsFileOrDirectory(context, env, joinPaths(env, currentWorkingPath, moduleIdentifier));
+            TruffleFile module = loadAsFileOrDirectory(context, env, cache, dependencies, joinPaths(env, currentWorkingPath, moduleIdentifier));
             // XXX(db) The Node.js informal spec says we should throw if module is null here.
             // Node v12.x, however, does not throw and attempts to load as a folder.
             if (module != null) {
@@ -162,10 +193,10 @@ final class CommonJSResolution {
             }
         }
         // 4. 5. 6. Try loading as a folder, or throw if not existing
-        return loadNodeModulesOrSelfReference(context, env, moduleIdentifier, currentWorkingPath);
+        return loadNodeModulesOrSelfReference(context, env, cache, dependencies, moduleIdentifier, currentWorkingPath);
     }
 
-    private static TruffleFile loadNodeModulesOrSelfReference(JSContext cx, TruffleLanguage.Env env, String moduleIdentifier, TruffleFile startFolder) {
+    private static TruffleFile loadNodeModulesOrSelfReference(JSContext cx, TruffleLanguage.Env env, ModuleResolutionCache cache, Dependencies dependencies, String moduleIdentifier, TruffleFile startFolder) {
         /* @formatter:off
          *
          * 1. let DIRS = NODE_MODULES_PATHS(START)
@@ -177,7 +208,8 @@ final class CommonJSResolution {
          */
         List<TruffleFile> nodeModulesPaths = getNodeModulesPaths(startFolder);
         for (TruffleFile s : nodeModulesPaths) {
-            TruffleFile module = loadAsFileOrDirectory(cx, env, joinPaths(env, s, moduleIdentifier));
+            dependsOn(dependencies, s);
+            TruffleFile module = loadAsFileOrDirectory(cx, env, cache, dependencies, joinPaths(env, s, moduleIdentifier));
             if (module != null) {
                 return module;
             }
@@ -185,7 +217,7 @@ final class CommonJSResolution {
         return null;
     }
 
-    public static TruffleFile loadIndex(TruffleLanguage.Env env, TruffleFile modulePath) {
+    public static TruffleFile loadIndex(TruffleLanguage.Env env, Dependencies dependencies, TruffleFile modulePath) {
         /* @formatter:off
          *
          * LOAD_INDEX(X)
@@ -195,6 +227,7 @@ final class CommonJSResolution {
          *
          * @formatter:on
          */
+        dependsOn(dependencies, modulePath);
         TruffleFile indexJs = joinPaths(env, modulePath, INDEX_JS);
         if (fileExists(indexJs)) {
             return indexJs;
@@ -209,7 +242,7 @@ final class CommonJSResolution {
         return null;
     }
 
-    static TruffleFile loadAsFile(TruffleLanguage.Env env, TruffleFile modulePath) {
+    static TruffleFile loadAsFile(TruffleLanguage.Env env, Dependencies dependencies, TruffleFile modulePath) {
         /* @formatter:off
          *
          * LOAD_AS_FILE(X)
@@ -220,6 +253,7 @@ final class CommonJSResolution {
          *
          * @formatter:on
          */
+        dependsOn(dependencies, modulePath.getParent());
         if (fileExists(modulePath)) {
             return modulePath;
         }
@@ -252,10 +286,10 @@ final class CommonJSResolution {
         return list;
     }
 
-    private static TruffleFile loadAsFileOrDirectory(JSContext cx, TruffleLanguage.Env env, TruffleFile modulePath) {
-        TruffleFile maybeFile = loadAsFile(env, modulePath);
+    private static TruffleFile loadAsFileOrDirectory(JSContext cx, TruffleLanguage.Env env, ModuleResolutionCache cache, Dependencies dependencies, TruffleFile modulePath) {
+        TruffleFile maybeFile = loadAsFile(env, dependencies, modulePath);
         if (maybeFile == null) {
-            return loadAsDirectory(cx, env, modulePath);
+            return loadAsDirectory(cx, env, cache, dependencies, modulePath);
         } else {
             return maybeFile;
         }
@@ -271,29 +305,64 @@ final class CommonJSResolution {
         return paths;
     }
 
-    private static TruffleFile loadAsDirectory(JSContext cx, TruffleLanguage.Env env, TruffleFile modulePath) {
+    private static TruffleFile loadAsDirectory(JSContext cx, TruffleLanguage.Env env, ModuleResolutionCache cache, Dependencies dependencies, TruffleFile modulePath) {
         TruffleFile packageJson = joinPaths(env, modulePath, PACKAGE_JSON);
+        dependsOn(dependencies, packageJson);
         if (fileExists(packageJson)) {
-            DynamicObject jsonObj = loadJsonObject(packageJson, cx);
-            if (JSDynamicObject.isJSDynamicObject(jsonObj)) {
-                Object main = JSObject.get(jsonObj, PACKAGE_JSON_MAIN_PROPERTY_NAME);
-                if (!JSRuntime.isString(main)) {
-                    return loadIndex(env, modulePath);
+            PackageInfo packageInfo = loadPackageInfo(cx, cache, packageJson);
+            if (packageInfo != PackageInfo.INVALID) {
+                String main = packageInfo.getMain();
+                if (main == null) {
+                    return loadIndex(env, dependencies, modulePath);
                 }
-                TruffleFile module = joinPaths(env, modulePath, JSRuntime.safeToString(main));
-                TruffleFile asFile = loadAsFile(env, module);
+                TruffleFile module = joinPaths(env, modulePath, main);
+                TruffleFile asFile = loadAsFile(env, dependencies, module);
                 if (asFile != null) {
                     return asFile;
                 } else {
-                    return loadIndex(env, module);
+                    return loadIndex(env, dependencies, module);
                 }
             }
         } else {
-            return loadIndex(env, modulePath);
+            return loadIndex(env, dependencies, modulePath);
         }
         return null;
     }
 
+    /**
+     * Records that the outcome of a resolution depends on {@code file}, which is either a
+     * directory that was searched or a {@code package.json} file that was read.
+     */
+    static void dependsOn(Dependencies dependencies, TruffleFile file) {
+        if (dependencies != null) {
+            dependencies.add(file);
+        }
+    }
+
+    /**
+     * Returns the resolution-relevant fields of a {@code package.json} file, parsing it only if
+     * it is not cached yet or was modified since. Files that do not contain a JSON object are not
+     * cached.
+     */
+    static PackageInfo loadPackageInfo(JSContext cx, ModuleResolutionCache cache, TruffleFile packageJson) {
+        long stamp = cache == null ? 0L : ModuleResolutionCache.getStamp(packageJson);
+        PackageInfo packageInfo = cache == null ? null : cache.getPackageInfo(packageJson.getPath(), stamp);
+        if (packageInfo == null) {
+            DynamicObject jsonObj = loadJsonObject(packageJson, cx);
+            if (JSDynamicObject.isJSDynamicObject(jsonObj)) {
+                Object main = JSObject.get(jsonObj, PACKAGE_JSON_MAIN_PROPERTY_NAME);
+                Object type = JSObject.get(jsonObj, PACKAGE_JSON_TYPE_PROPERTY_NAME);
+                packageInfo = new PackageInfo(JSRuntime.isString(main) ? JSRuntime.safeToString(main) : null, JSRuntime.isString(type) ? JSRuntime.safeToString(type) : null);
+                if (cache != null) {
+                    cache.putPackageInfo(packageJson.getPath(), stamp, packageInfo);
+                }
+            } else {
+                packageInfo = PackageInfo.INVALID;
+            }
+        }
+        return packageInfo;
+    }
+
     public static DynamicObject loadJsonObject(TruffleFile jsonFile, JSContext context) {
         try {
             if (fileExists(jsonFile)) {
@@ -50,7 +50,6 @@ import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSErrorType;
 import com.oracle.truffle.js.runtime.JSException;
 import com.oracle.truffle.js.runtime.JSRealm;
-import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.objects.DefaultESModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
@@ -58,6 +57,9 @@ import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.ModuleResolutionCache;
+import com.oracle.truffle.js.runtime.util.ModuleResolutionCache.Dependencies;
+import com.oracle.truffle.js.runtime.util.ModuleResolutionCache.PackageInfo;
 
 import java.io.IOException;
 import java.net.URI;
@@ -66,15 +68,15 @@ import java.util.List;
 
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSRequireBuiltin.log;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.PACKAGE_JSON;
-import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.PACKAGE_JSON_MAIN_PROPERTY_NAME;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.PACKAGE_JSON_MODULE_VALUE;
-import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.PACKAGE_JSON_TYPE_PROPERTY_NAME;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.getNodeModulesPaths;
+import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.dependsOn;
+import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.fileExists;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.isCoreModule;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.joinPaths;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.loadAsFile;
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.loadIndex;
-import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.loadJsonObject;
+import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.loadPackageInfo;
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.MODULE_SOURCE_NAME_SUFFIX;
 
@@ -157,10 +159,39 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
         return record;
     }
 
+    /**
+     * Resolves the specifier, consulting the {@link ModuleResolutionCache} of the realm keyed by
+     * the directory of the referencing module. Only resolutions to regular files are cached, and
+     * cached resolutions are only used if the file still exists and the {@link Dependencies}
+     * probed to find it are unchanged.
+     */
     private TruffleFile resolveURL(ScriptOrModule referencingModule, String specifier) {
         if (specifier.isEmpty()) {
             throw fail(specifier);
         }
+        ModuleResolutionCache cache = realm.getModuleResolutionCache();
+        if (cache == null) {
+            return resolveURLUncached(referencingModule, specifier, null, null);
+        }
+        TruffleFile parentPath = getParentPath(referencingModule);
+        String directory = parentPath == null ? "" : parentPath.getPath();
+        ModuleResolutionCache.Resolution cached = cache.getResolution(realm.getEnv(), true, directory, specifier);
+        if (cached != null && cached.getPath() != null) {
+            TruffleFile resolved = realm.getEnv().getPublicTruffleFile(cached.getPath());
+            if (fileExists(resolved)) {
+                return resolved;
+            }
+            cache.removeResolution(true, directory, specifier);
+        }
+        Dependencies dependencies = new Dependencies();
+        TruffleFile resolved = resolveURLUncached(referencingModule, specifier, cache, dependencies);
+        if (fileExists(resolved)) {
+            cache.putResolution(true, directory, specifier, resolved.getPath(), dependencies);
+        }
+        return resolved;
+    }
+
+    private TruffleFile resolveURLUncached(ScriptOrModule referencingModule, String specifier, ModuleResolutionCache cache, Dependencies dependencies) {
         TruffleLanguage.Env env = realm.getEnv();
         // 1. Let resolvedURL be undefined.
         TruffleFile resolvedUrl = null;
@@ -187,7 +218,7 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
         } else {
             // 5.1 Note: specifier is now a bare specifier.
             // 5.2 Set resolvedURL the result of PACKAGE_RESOLVE(specifier, parentURL).
-            resolvedUrl = packageResolve(specifier, referencingModule);
+            resolvedUrl = packageResolve(specifier, referencingModule, cache, dependencies);
         }
         assert resolvedUrl != null;
         // 6. If resolvedURL contains any percent encodings of "/" or "\" ("%2f" and "%5C"
@@ -224,7 +255,7 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
     /**
      * PACKAGE_RESOLVE(packageSpecifier, parentURL).
      */
-    private TruffleFile packageResolve(String packageSpecifier, ScriptOrModule referencingModule) {
+    private TruffleFile packageResolve(String packageSpecifier, ScriptOrModule referencingModule, ModuleResolutionCache cache, Dependencies dependencies) {
         // 1. Let packageName be undefined.
         TruffleLanguage.Env env = realm.getEnv();
         String packageName = null;
@@ -252,23 +283,24 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
         for (TruffleFile modulePath : nodeModulesPaths) {
             TruffleFile moduleFolder = joinPaths(env, modulePath, packageSpecifier);
             TruffleFile packageJson = joinPaths(env, moduleFolder, PACKAGE_JSON);
-            if (CommonJSResolution.fileExists(packageJson)) {
-                DynamicObject jsonObj = loadJsonObject(packageJson, realm.getContext());
-                if (JSDynamicObject.isJSDynamicObject(jsonObj)) {
-                    Object main = JSObject.get(jsonObj, PACKAGE_JSON_MAIN_PROPERTY_NAME);
-                    Object type = JSObject.get(jsonObj, PACKAGE_JSON_TYPE_PROPERTY_NAME);
-                    if (type == Undefined.instance || !JSRuntime.isString(type) || !PACKAGE_JSON_MODULE_VALUE.equals(JSRuntime.safeToString(type))) {
+            dependsOn(dependencies, modulePath);
+            dependsOn(dependencies, packageJson);
+            if (fileExists(packageJson)) {
+                PackageInfo packageInfo = loadPackageInfo(realm.getContext(), cache, packageJson);
+                if (packageInfo != PackageInfo.INVALID) {
+                    String main = packageInfo.getMain();
+                    if (!PACKAGE_JSON_MODULE_VALUE.equals(packageInfo.getType())) {
                         throw failMessage("do not use import() to load non-ES modules.");
                     }
-                    if (!JSRuntime.isString(main)) {
-                        return loadIndex(env, moduleFolder);
+                    if (main == null) {
+                        return loadIndex(env, dependencies, moduleFolder);
                     }
-                    TruffleFile mainPackageFile = joinPaths(env, moduleFolder, JSRuntime.safeToString(main));
-                    TruffleFile asFile = loadAsFile(env, mainPackageFile);
+                    TruffleFile mainPackageFile = joinPaths(env, moduleFolder, main);
+                    TruffleFile asFile = loadAsFile(env, dependencies, mainPackageFile);
                     if (asFile != null) {
                         return asFile;
                     } else {
-                        return loadIndex(env, mainPackageFile);
+                        return loadIndex(env, dependencies, mainPackageFile);
                     }
                 }
             }
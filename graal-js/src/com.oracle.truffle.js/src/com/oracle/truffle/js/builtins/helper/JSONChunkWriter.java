@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Destination of a streaming JSON stringify. The serialized text is handed over in chunks of
+ * roughly {@link #CHUNK_SIZE} characters, so that the whole document never has to be held in a
+ * single string.
+ */
+public abstract class JSONChunkWriter {
+
+    /** Number of buffered characters after which a chunk is written. */
+    public static final int CHUNK_SIZE = 16 * 1024;
+
+    protected JSONChunkWriter() {
+    }
+
+    /**
+     * Writes the contents of {@code chunk}. The builder is reused by the caller afterwards.
+     */
+    public abstract void write(StringBuilder chunk);
+
+    /**
+     * Called once after the last chunk has been written.
+     */
+    public void finish() {
+    }
+
+    /**
+     * Creates a writer for a JS function (called with each chunk as a string), a host
+     * {@link Writer}, or a host {@link OutputStream} (written as UTF-8).
+     */
+    @TruffleBoundary
+    public static JSONChunkWriter create(JSRealm realm, Object sink) {
+        if (JSDynamicObject.isJSDynamicObject(sink) && JSRuntime.isCallable(sink)) {
+            return new FunctionChunkWriter((DynamicObject) sink);
+        }
+        Env env = realm.getEnv();
+        if (env.isHostObject(sink)) {
+            Object hostObject = env.asHostObject(sink);
+            if (hostObject instanceof Writer) {
+                return new WriterChunkWriter((Writer) hostObject);
+            } else if (hostObject instanceof OutputStream) {
+                return new WriterChunkWriter(new OutputStreamWriter((OutputStream) hostObject, StandardCharsets.UTF_8));
+            }
+        }
+        throw Errors.createTypeError("function, java.io.Writer or java.io.OutputStream expected");
+    }
+
+    private static final class FunctionChunkWriter extends JSONChunkWriter {
+        private final DynamicObject callback;
+
+        FunctionChunkWriter(DynamicObject callback) {
+            this.callback = callback;
+        }
+
+        @TruffleBoundary
+        @Override
+        public void write(StringBuilder chunk) {
+            JSRuntime.call(callback, Undefined.instance, new Object[]{chunk.toString()});
+        }
+    }
+
+    private static final class WriterChunkWriter extends JSONChunkWriter {
+        private final Writer writer;
+        private char[] buffer;
+
+        WriterChunkWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @TruffleBoundary
+        @Override
+        public void write(StringBuilder chunk) {
+            int length = chunk.length();
+            if (buffer == null || buffer.length < length) {
+                buffer = new char[Math.max(length, CHUNK_SIZE + CHUNK_SIZE / 4)];
+            }
+            chunk.getChars(0, length, buffer, 0);
+            try {
+                writer.write(buffer, 0, length);
+            } catch (IOException e) {
+                throw Errors.createErrorFromException(e);
+            }
+        }
+
+        /**
+         * Flushes, but does not close, the embedder's writer or stream.
+         */
+        @TruffleBoundary
+        @Override
+        public void finish() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw Errors.createErrorFromException(e);
+            }
+        }
+    }
+}
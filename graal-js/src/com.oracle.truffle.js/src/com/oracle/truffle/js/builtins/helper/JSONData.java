@@ -52,13 +52,19 @@ public class JSONData {
     private final String gap;
     private final List<String> propertyList;
     private final DynamicObject replacerFnObj;
+    private final JSONChunkWriter chunkWriter;
 
     private static final int MAX_STACK_SIZE = 1000;
 
     public JSONData(String gap, DynamicObject replacerFnObj, List<String> replacerList) {
+        this(gap, replacerFnObj, replacerList, null);
+    }
+
+    public JSONData(String gap, DynamicObject replacerFnObj, List<String> replacerList, JSONChunkWriter chunkWriter) {
         this.gap = gap;
         this.replacerFnObj = replacerFnObj;
         this.propertyList = replacerList;
+        this.chunkWriter = chunkWriter;
     }
 
     public String getGap() {
@@ -81,6 +87,14 @@ public class JSONData {
         return replacerFnObj;
     }
 
+    /**
+     * The destination of a streaming stringify, or {@code null} if the result is returned as a
+     * single string.
+     */
+    public JSONChunkWriter getChunkWriter() {
+        return chunkWriter;
+    }
+
     public void pushStack(Object value) {
         stack.add(value);
     }
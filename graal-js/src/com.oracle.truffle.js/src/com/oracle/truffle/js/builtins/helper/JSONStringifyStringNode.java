@@ -51,6 +51,8 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.nodes.access.PropertyGetNode;
@@ -60,15 +62,21 @@ import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractDoubleArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractIntArray;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSBigInt;
 import com.oracle.truffle.js.runtime.builtins.JSBoolean;
 import com.oracle.truffle.js.runtime.builtins.JSClass;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.interop.JSInteropUtil;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.StringBuilderProfile;
@@ -80,6 +88,14 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
     @Child private JSFunctionCallNode callToJSONFunction;
     private final StringBuilderProfile stringBuilderProfile;
 
+    private static final int LAYOUT_CACHE_SIZE = 8;
+    /**
+     * Recently serialized object shapes. Entries are immutable, so unsynchronized access from
+     * multiple threads is benign.
+     */
+    private final ObjectLayout[] layoutCache = new ObjectLayout[LAYOUT_CACHE_SIZE];
+    private int nextLayoutIndex;
+
     protected JSONStringifyStringNode(JSContext context) {
         this.context = context;
         this.stringBuilderProfile = StringBuilderProfile.create(context.getStringLengthLimit());
@@ -102,6 +118,10 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             }
             StringBuilder builder = new StringBuilder();
             jsonStrExecute(builder, data, value);
+            if (data.getChunkWriter() != null) {
+                finishChunks(builder, data.getChunkWriter());
+                return Undefined.instance;
+            }
             return stringBuilderProfile.toString(builder);
         } catch (StackOverflowError ex) {
             throwStackError();
@@ -109,6 +129,26 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         }
     }
 
+    @TruffleBoundary
+    private static void finishChunks(StringBuilder builder, JSONChunkWriter chunkWriter) {
+        if (builder.length() > 0) {
+            chunkWriter.write(builder);
+        }
+        chunkWriter.finish();
+    }
+
+    /**
+     * Hands the buffered output over to the chunk writer of a streaming stringify once it has
+     * grown large enough.
+     */
+    private static void flushChunk(StringBuilder builder, JSONData data) {
+        JSONChunkWriter chunkWriter = data.getChunkWriter();
+        if (chunkWriter != null && builder.length() >= JSONChunkWriter.CHUNK_SIZE) {
+            chunkWriter.write(builder);
+            builder.setLength(0);
+        }
+    }
+
     private static boolean isStringifyable(Object value) {
         // values that are not stringifyable are replaced by undefined in jsonStrPrepare()
         return value != Undefined.instance;
@@ -169,7 +209,15 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         } else if (n instanceof Long) {
             stringBuilderProfile.append(builder, ((Long) n).longValue());
         } else {
-            stringBuilderProfile.append(builder, JSRuntime.doubleToString(d));
+            stringBuilderProfile.append(builder, d);
+        }
+    }
+
+    private void appendDouble(StringBuilder builder, double d) {
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            stringBuilderProfile.append(builder, Null.NAME);
+        } else {
+            stringBuilderProfile.append(builder, d);
         }
     }
 
@@ -273,7 +321,15 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         concatStart(builder, '{');
         boolean hasContent;
         if (data.getPropertyList() == null) {
-            if (JSDynamicObject.isJSDynamicObject(value)) {
+            if (JSOrdinary.isJSOrdinaryObject(value)) {
+                DynamicObject object = (DynamicObject) value;
+                ObjectLayout layout = getObjectLayout(object.getShape());
+                if (layout != null) {
+                    hasContent = serializeJSONObjectProperties(builder, data, object, indent, layout);
+                } else {
+                    hasContent = serializeJSONObjectProperties(builder, data, value, indent, JSObject.enumerableOwnNames(object));
+                }
+            } else if (JSDynamicObject.isJSDynamicObject(value)) {
                 hasContent = serializeJSONObjectProperties(builder, data, value, indent, JSObject.enumerableOwnNames((DynamicObject) value));
             } else {
                 hasContent = serializeForeignObjectProperties(builder, data, value, indent);
@@ -304,11 +360,92 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
                 appendColon(builder, data);
                 jsonStrExecute(builder, data, strPPrepared);
                 hasContent = true;
+                flushChunk(builder, data);
+            }
+        }
+        return hasContent;
+    }
+
+    /**
+     * Serializes the properties of an ordinary object using the cached layout of its shape. The
+     * property values are read directly from their locations as long as the object keeps the
+     * shape; toJSON and replacer functions may change the object while it is being serialized, in
+     * which case the remaining properties are read with a regular property lookup.
+     */
+    private boolean serializeJSONObjectProperties(StringBuilder builder, JSONData data, DynamicObject object, int indent, ObjectLayout layout) {
+        boolean isFirst = true;
+        boolean hasContent = false;
+        String[] keys = layout.keys;
+        for (int i = 0; i < keys.length; i++) {
+            String name = keys[i];
+            Object propertyValue;
+            if (object.getShape() == layout.shape) {
+                propertyValue = layout.properties[i].get(object, false);
+            } else {
+                propertyValue = JSObject.get(object, name);
+            }
+            Object strPPrepared = jsonStrPreparePart2(data, name, object, propertyValue);
+            if (isStringifyable(strPPrepared)) {
+                if (isFirst) {
+                    concatFirstStep(builder, data);
+                    isFirst = false;
+                } else {
+                    appendSeparator(builder, data, indent);
+                }
+                stringBuilderProfile.append(builder, layout.quotedKeys[i]);
+                if (data.getGap().length() > 0) {
+                    stringBuilderProfile.append(builder, ' ');
+                }
+                jsonStrExecute(builder, data, strPPrepared);
+                hasContent = true;
+                flushChunk(builder, data);
             }
         }
         return hasContent;
     }
 
+    /**
+     * Returns the cached layout for the given shape of an ordinary object, or {@code null} if
+     * objects of this shape have to be serialized generically.
+     */
+    private ObjectLayout getObjectLayout(Shape shape) {
+        ObjectLayout[] cache = layoutCache;
+        for (int i = 0; i < cache.length; i++) {
+            ObjectLayout layout = cache[i];
+            if (layout != null && layout.shape == shape) {
+                return layout.isCacheable() ? layout : null;
+            }
+        }
+        ObjectLayout layout = createObjectLayout(shape);
+        int index = nextLayoutIndex;
+        cache[index] = layout;
+        nextLayoutIndex = (index + 1) % LAYOUT_CACHE_SIZE;
+        return layout.isCacheable() ? layout : null;
+    }
+
+    private ObjectLayout createObjectLayout(Shape shape) {
+        List<String> names = JSShape.getEnumerablePropertyNames(shape);
+        int size = names.size();
+        String[] keys = new String[size];
+        String[] quotedKeys = new String[size];
+        Property[] properties = new Property[size];
+        for (int i = 0; i < size; i++) {
+            String name = names.get(i);
+            Property property = shape.getProperty(name);
+            if (!JSProperty.isData(property) || JSProperty.isProxy(property)) {
+                // getters could run arbitrary code; always look these objects up generically
+                return new ObjectLayout(shape, null, null, null);
+            }
+            StringBuilder quoted = new StringBuilder(name.length() + 3);
+            jsonQuote(stringBuilderProfile, quoted, name);
+            quoted.append(':');
+            keys[i] = name;
+            quotedKeys[i] = quoted.toString();
+            properties[i] = property;
+        }
+        return new ObjectLayout(shape, keys, quotedKeys, properties);
+    }
+
     private void appendColon(StringBuilder builder, JSONData data) {
         stringBuilderProfile.append(builder, ':');
         if (data.getGap().length() > 0) {
@@ -347,6 +484,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
                     appendColon(builder, data);
                     jsonStrExecute(builder, data, strPPrepared);
                     hasContent = true;
+                    flushChunk(builder, data);
                 }
             }
             return hasContent;
@@ -382,6 +520,8 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             throw Errors.createRangeErrorInvalidStringLength();
         }
         int len = (int) length;
+        // without a replacer function, int and double elements need no preparation
+        boolean numberFastPath = isArray && data.getReplacerFnObj() == null;
         concatStart(builder, '[');
         for (int index = 0; index < len; index++) {
             if (index == 0) {
@@ -389,6 +529,10 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             } else {
                 appendSeparator(builder, data, indent);
             }
+            if (numberFastPath && appendNumberElement(builder, (DynamicObject) value, index)) {
+                flushChunk(builder, data);
+                continue;
+            }
             Object strPPrepared;
             if (isArray) {
                 strPPrepared = jsonStrPrepareArray(data, index, (DynamicObject) value);
@@ -402,6 +546,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             } else {
                 stringBuilderProfile.append(builder, Null.NAME);
             }
+            flushChunk(builder, data);
         }
 
         concatEnd(builder, data, stepback, ']', len > 0);
@@ -410,6 +555,27 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         data.setIndent(stepback);
     }
 
+    /**
+     * Appends the element at {@code index} if the array is backed by an int or double store and
+     * has the element; holes may be inherited from the prototype and take the generic path. The
+     * store is looked up again for every element since a getter on the prototype can change it.
+     */
+    private boolean appendNumberElement(StringBuilder builder, DynamicObject array, int index) {
+        ScriptArray arrayType = JSObject.getArray(array);
+        if (arrayType instanceof AbstractIntArray) {
+            if (arrayType.hasElement(array, index)) {
+                stringBuilderProfile.append(builder, ((AbstractIntArray) arrayType).getInBoundsFastInt(array, index));
+                return true;
+            }
+        } else if (arrayType instanceof AbstractDoubleArray) {
+            if (arrayType.hasElement(array, index)) {
+                appendDouble(builder, ((AbstractDoubleArray) arrayType).getInBoundsFastDouble(array, index));
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static void checkStackDepth(JSONData data) {
         if (data.stackTooDeep()) {
             throwStackError();
@@ -542,4 +708,26 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             throw Errors.createTypeErrorInteropException(obj, e, "readArrayElement", index, this);
         }
     }
+
+    /**
+     * Enumerable keys of an ordinary object shape in serialization order, with their pre-escaped
+     * {@code "key":} fragments and property locations.
+     */
+    private static final class ObjectLayout {
+        final Shape shape;
+        final String[] keys;
+        final String[] quotedKeys;
+        final Property[] properties;
+
+        ObjectLayout(Shape shape, String[] keys, String[] quotedKeys, Property[] properties) {
+            this.shape = shape;
+            this.keys = keys;
+            this.quotedKeys = quotedKeys;
+            this.properties = properties;
+        }
+
+        boolean isCacheable() {
+            return keys != null;
+        }
+    }
 }
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.array.TypedArray;
+import com.oracle.truffle.js.runtime.array.TypedArrayFactory;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractDoubleArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractIntArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractWritableArray;
+import com.oracle.truffle.js.runtime.array.dyn.ConstantByteArray;
+import com.oracle.truffle.js.runtime.array.dyn.ConstantDoubleArray;
+import com.oracle.truffle.js.runtime.array.dyn.ConstantIntArray;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+
+/**
+ * Bulk conversion between Java primitive arrays or {@code java.nio} buffers and JS arrays or typed
+ * arrays, used by {@code Java.from} and {@code Java.to}. Each method returns {@code null} if the
+ * value cannot be converted in bulk with the same result as the element-wise conversion, in which
+ * case the caller has to fall back to the latter.
+ */
+public final class PrimitiveArrayConversion {
+
+    private PrimitiveArrayConversion() {
+    }
+
+    /**
+     * Converts a Java primitive array or {@code java.nio} buffer into a JS array or typed array.
+     */
+    @TruffleBoundary
+    public static DynamicObject fromHostObject(JSContext context, Object hostObject) {
+        if (hostObject instanceof Buffer) {
+            return fromBuffer(context, (Buffer) hostObject);
+        } else {
+            return fromPrimitiveArray(context, hostObject);
+        }
+    }
+
+    /**
+     * Converts a Java {@code int[]}, {@code long[]}, {@code double[]}, {@code float[]},
+     * {@code short[]} or {@code byte[]} into a JS array backed by an {@code int[]} or
+     * {@code double[]} store.
+     */
+    private static DynamicObject fromPrimitiveArray(JSContext context, Object array) {
+        if (array instanceof int[]) {
+            int[] ints = (int[]) array;
+            return createIntArray(context, Arrays.copyOf(ints, ints.length));
+        } else if (array instanceof double[]) {
+            double[] doubles = (double[]) array;
+            return createDoubleArray(context, Arrays.copyOf(doubles, doubles.length));
+        } else if (array instanceof byte[]) {
+            byte[] bytes = (byte[]) array;
+            int[] ints = new int[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                ints[i] = bytes[i];
+            }
+            return createIntArray(context, ints);
+        } else if (array instanceof short[]) {
+            short[] shorts = (short[]) array;
+            int[] ints = new int[shorts.length];
+            for (int i = 0; i < shorts.length; i++) {
+                ints[i] = shorts[i];
+            }
+            return createIntArray(context, ints);
+        } else if (array instanceof float[]) {
+            float[] floats = (float[]) array;
+            double[] doubles = new double[floats.length];
+            for (int i = 0; i < floats.length; i++) {
+                doubles[i] = floats[i];
+            }
+            return createDoubleArray(context, doubles);
+        } else if (array instanceof long[]) {
+            return fromLongs(context, (long[]) array);
+        }
+        return null;
+    }
+
+    /**
+     * Longs are only imported as numbers if they fit into an int, otherwise they stay longs.
+     */
+    private static DynamicObject fromLongs(JSContext context, long[] longs) {
+        int[] ints = new int[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            if (!JSRuntime.longIsRepresentableAsInt(longs[i])) {
+                return null;
+            }
+            ints[i] = (int) longs[i];
+        }
+        return createIntArray(context, ints);
+    }
+
+    /**
+     * Converts the remaining elements of a {@code java.nio} buffer. A {@link ByteBuffer} is exposed
+     * as an {@code Int8Array} sharing the buffer's memory if possible; other buffers are copied
+     * into a JS array.
+     */
+    private static DynamicObject fromBuffer(JSContext context, Buffer buffer) {
+        if (buffer instanceof ByteBuffer) {
+            return fromByteBuffer(context, (ByteBuffer) buffer);
+        } else if (buffer instanceof IntBuffer) {
+            int[] ints = new int[buffer.remaining()];
+            ((IntBuffer) buffer).duplicate().get(ints);
+            return createIntArray(context, ints);
+        } else if (buffer instanceof DoubleBuffer) {
+            double[] doubles = new double[buffer.remaining()];
+            ((DoubleBuffer) buffer).duplicate().get(doubles);
+            return createDoubleArray(context, doubles);
+        } else if (buffer instanceof ShortBuffer) {
+            short[] shorts = new short[buffer.remaining()];
+            ((ShortBuffer) buffer).duplicate().get(shorts);
+            return fromPrimitiveArray(context, shorts);
+        } else if (buffer instanceof FloatBuffer) {
+            float[] floats = new float[buffer.remaining()];
+            ((FloatBuffer) buffer).duplicate().get(floats);
+            return fromPrimitiveArray(context, floats);
+        } else if (buffer instanceof LongBuffer) {
+            long[] longs = new long[buffer.remaining()];
+            ((LongBuffer) buffer).duplicate().get(longs);
+            return fromLongs(context, longs);
+        }
+        return null;
+    }
+
+    /**
+     * Only the bytes between position and limit are exposed: a direct buffer is sliced, a heap
+     * buffer is shared only if that range covers its whole backing array.
+     */
+    private static DynamicObject fromByteBuffer(JSContext context, ByteBuffer buffer) {
+        int length = buffer.remaining();
+        DynamicObject arrayBuffer;
+        boolean direct;
+        if (buffer.isDirect() && !buffer.isReadOnly()) {
+            arrayBuffer = JSArrayBuffer.createDirectArrayBuffer(context, buffer.slice());
+            direct = true;
+        } else if (buffer.hasArray() && buffer.arrayOffset() + buffer.position() == 0 && length == buffer.array().length) {
+            arrayBuffer = JSArrayBuffer.createArrayBuffer(context, buffer.array());
+            direct = false;
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.duplicate().get(bytes);
+            arrayBuffer = JSArrayBuffer.createArrayBuffer(context, bytes);
+            direct = false;
+        }
+        TypedArray arrayType = TypedArrayFactory.Int8Array.createArrayType(direct, false);
+        return JSArrayBufferView.createArrayBufferView(context, arrayBuffer, arrayType, 0, length);
+    }
+
+    private static DynamicObject createIntArray(JSContext context, int[] ints) {
+        return ints.length == 0 ? JSArray.createEmptyZeroLength(context) : JSArray.createZeroBasedIntArray(context, ints);
+    }
+
+    private static DynamicObject createDoubleArray(JSContext context, double[] doubles) {
+        // a NaN could collide with the hole marker of double stores
+        for (int i = 0; i < doubles.length; i++) {
+            if (Double.isNaN(doubles[i])) {
+                doubles[i] = Double.NaN;
+            }
+        }
+        return doubles.length == 0 ? JSArray.createEmptyZeroLength(context) : JSArray.createZeroBasedDoubleArray(context, doubles);
+    }
+
+    /**
+     * Converts a JS array with a dense {@code int[]} or {@code double[]} store, or a non-BigInt
+     * typed array, into a Java array of the given class if its component type is primitive.
+     */
+    @TruffleBoundary
+    public static Object toPrimitiveArray(DynamicObject jsObj, Class<?> arrayClass) {
+        Class<?> componentType = arrayClass.getComponentType();
+        if (!componentType.isPrimitive()) {
+            return null;
+        }
+        Object source = getPrimitiveElements(jsObj);
+        if (source == null) {
+            return null;
+        } else if (source instanceof int[]) {
+            return fromInts((int[]) source, componentType);
+        } else {
+            return fromDoubles((double[]) source, componentType);
+        }
+    }
+
+    /**
+     * Returns a copy of the elements as an {@code int[]} or {@code double[]}, or {@code null}.
+     */
+    private static Object getPrimitiveElements(DynamicObject jsObj) {
+        if (JSArray.isJSFastArray(jsObj)) {
+            ScriptArray scriptArray = JSObject.getArray(jsObj);
+            if (scriptArray instanceof ConstantIntArray) {
+                int[] ints = (int[]) JSAbstractArray.arrayGetArray(jsObj);
+                return ints.length == 0 ? null : ints.clone();
+            } else if (scriptArray instanceof ConstantDoubleArray) {
+                double[] doubles = (double[]) JSAbstractArray.arrayGetArray(jsObj);
+                return doubles.length == 0 ? null : doubles.clone();
+            } else if (scriptArray instanceof ConstantByteArray) {
+                byte[] bytes = (byte[]) JSAbstractArray.arrayGetArray(jsObj);
+                int[] ints = new int[bytes.length];
+                for (int i = 0; i < bytes.length; i++) {
+                    ints[i] = bytes[i];
+                }
+                return ints.length == 0 ? null : ints;
+            } else if (!(scriptArray instanceof AbstractIntArray || scriptArray instanceof AbstractDoubleArray)) {
+                return null;
+            }
+            long length = JSAbstractArray.arrayGetLength(jsObj);
+            if (length == 0 || length > Integer.MAX_VALUE) {
+                return null;
+            }
+            int from = ((AbstractWritableArray) scriptArray).getDenseStoreOffset(jsObj, length);
+            if (from < 0) {
+                return null;
+            }
+            int to = from + (int) length;
+            if (scriptArray instanceof AbstractIntArray) {
+                return Arrays.copyOfRange((int[]) JSAbstractArray.arrayGetArray(jsObj), from, to);
+            } else {
+                return Arrays.copyOfRange((double[]) JSAbstractArray.arrayGetArray(jsObj), from, to);
+            }
+        } else if (JSArrayBufferView.isJSArrayBufferView(jsObj) && !JSArrayBufferView.hasDetachedBuffer(jsObj)) {
+            TypedArray typedArray = JSArrayBufferView.typedArrayGetArrayType(jsObj);
+            int length = JSArrayBufferView.typedArrayGetLength(jsObj);
+            if (typedArray instanceof TypedArray.AbstractUint32Array) {
+                TypedArray.TypedIntArray<?> uint32Array = (TypedArray.TypedIntArray<?>) typedArray;
+                double[] doubles = new double[length];
+                for (int i = 0; i < length; i++) {
+                    doubles[i] = uint32Array.getInt(jsObj, i) & 0xFFFF_FFFFL;
+                }
+                return doubles;
+            } else if (typedArray instanceof TypedArray.TypedIntArray) {
+                TypedArray.TypedIntArray<?> intArray = (TypedArray.TypedIntArray<?>) typedArray;
+                int[] ints = new int[length];
+                for (int i = 0; i < length; i++) {
+                    ints[i] = intArray.getInt(jsObj, i);
+                }
+                return ints;
+            } else if (typedArray instanceof TypedArray.TypedFloatArray) {
+                TypedArray.TypedFloatArray<?> floatArray = (TypedArray.TypedFloatArray<?>) typedArray;
+                double[] doubles = new double[length];
+                for (int i = 0; i < length; i++) {
+                    doubles[i] = floatArray.getDouble(jsObj, i);
+                }
+                return doubles;
+            }
+        }
+        return null;
+    }
+
+    private static Object fromInts(int[] ints, Class<?> componentType) {
+        int length = ints.length;
+        if (componentType == int.class) {
+            return ints;
+        } else if (componentType == double.class) {
+            double[] result = new double[length];
+            for (int i = 0; i < length; i++) {
+                result[i] = ints[i];
+            }
+            return result;
+        } else if (componentType == long.class) {
+            long[] result = new long[length];
+            for (int i = 0; i < length; i++) {
+                result[i] = ints[i];
+            }
+            return result;
+        } else if (componentType == float.class) {
+            float[] result = new float[length];
+            for (int i = 0; i < length; i++) {
+                float f = ints[i];
+                if (f != (double) ints[i]) {
+                    return null;
+                }
+                result[i] = f;
+            }
+            return result;
+        } else if (componentType == short.class) {
+            short[] result = new short[length];
+            for (int i = 0; i < length; i++) {
+                if ((short) ints[i] != ints[i]) {
+                    return null;
+                }
+                result[i] = (short) ints[i];
+            }
+            return result;
+        } else if (componentType == byte.class) {
+            byte[] result = new byte[length];
+            for (int i = 0; i < length; i++) {
+                if ((byte) ints[i] != ints[i]) {
+                    return null;
+                }
+                result[i] = (byte) ints[i];
+            }
+            return result;
+        }
+        return null;
+    }
+
+    private static Object fromDoubles(double[] doubles, Class<?> componentType) {
+        int length = doubles.length;
+        if (componentType == double.class) {
+            return doubles;
+        } else if (componentType == float.class) {
+            float[] result = new float[length];
+            for (int i = 0; i < length; i++) {
+                float f = (float) doubles[i];
+                if (f != doubles[i] && !Double.isNaN(doubles[i])) {
+                    return null;
+                }
+                result[i] = f;
+            }
+            return result;
+        } else if (componentType == long.class) {
+            long[] result = new long[length];
+            for (int i = 0; i < length; i++) {
+                double d = doubles[i];
+                if (!JSRuntime.doubleIsRepresentableAsLong(d) || d >= 0x1p63 || JSRuntime.isNegativeZero(d)) {
+                    return null;
+                }
+                result[i] = (long) d;
+            }
+            return result;
+        } else if (componentType == int.class || componentType == short.class || componentType == byte.class) {
+            int[] ints = new int[length];
+            for (int i = 0; i < length; i++) {
+                if (!JSRuntime.doubleIsRepresentableAsInt(doubles[i])) {
+                    return null;
+                }
+                ints[i] = (int) doubles[i];
+            }
+            return fromInts(ints, componentType);
+        }
+        return null;
+    }
+}
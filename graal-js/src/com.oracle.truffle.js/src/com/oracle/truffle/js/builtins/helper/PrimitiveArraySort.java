@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.js.parser.ErrorManager;
+import com.oracle.js.parser.Parser;
+import com.oracle.js.parser.ParserException;
+import com.oracle.js.parser.ScriptEnvironment;
+import com.oracle.js.parser.Source;
+import com.oracle.js.parser.TokenType;
+import com.oracle.js.parser.ir.BinaryNode;
+import com.oracle.js.parser.ir.Expression;
+import com.oracle.js.parser.ir.ExpressionStatement;
+import com.oracle.js.parser.ir.FunctionNode;
+import com.oracle.js.parser.ir.IdentNode;
+import com.oracle.js.parser.ir.ReturnNode;
+import com.oracle.js.parser.ir.Statement;
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.js.runtime.JSConfig;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.TypedArray;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+
+/**
+ * Sorting of primitive element stores ({@code int[]}, {@code double[]} and typed arrays) without
+ * boxing the elements. Only used when the result is indistinguishable from sorting the boxed
+ * elements with the respective comparison function, i.e., for the default sort order and for
+ * comparison functions of the shape {@code (a, b) => a - b} and {@code (a, b) => b - a}.
+ */
+public final class PrimitiveArraySort {
+
+    /** The comparison function is not supported, the generic sort has to be used. */
+    public static final int GENERIC_ORDER = 0;
+    /** No comparison function has been provided (i.e., {@code undefined}). */
+    public static final int DEFAULT_ORDER = 1;
+    /** The comparison function is of the shape {@code (a, b) => a - b}. */
+    public static final int ASCENDING_ORDER = 2;
+    /** The comparison function is of the shape {@code (a, b) => b - a}. */
+    public static final int DESCENDING_ORDER = 3;
+
+    private static final int MAX_COMPARATOR_SOURCE_LENGTH = 200;
+
+    private static final int MAX_INT_DIGITS = 10;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L};
+    private static final int DIGIT_COUNT_BITS = 4;
+    private static final long NON_NEGATIVE_FLAG = 1L << 40;
+
+    private PrimitiveArraySort() {
+        // should not be constructed
+    }
+
+    /**
+     * Classifies a comparison function by parsing its source code. Only ordinary functions with
+     * two simple parameters whose body consists of a single statement returning the difference of
+     * the two parameters are recognized; everything else (including bound functions, built-ins,
+     * proxies, async functions and generators) yields {@link #GENERIC_ORDER}.
+     */
+    @TruffleBoundary
+    public static int getComparatorOrder(Object compareFn) {
+        if (!JSFunction.isJSFunction(compareFn)) {
+            return GENERIC_ORDER;
+        }
+        DynamicObject function = (DynamicObject) compareFn;
+        if (JSFunction.isBoundFunction(function) || JSFunction.isBuiltin(function) || JSFunction.getFunctionData(function).isGenerator() ||
+                        JSFunction.getFunctionData(function).isAsync()) {
+            return GENERIC_ORDER;
+        }
+        CallTarget callTarget = JSFunction.getCallTarget(function);
+        if (!(callTarget instanceof RootCallTarget)) {
+            return GENERIC_ORDER;
+        }
+        SourceSection sourceSection = ((RootCallTarget) callTarget).getRootNode().getSourceSection();
+        if (sourceSection == null || !sourceSection.isAvailable() || sourceSection.getSource().isInternal() || sourceSection.getCharLength() > MAX_COMPARATOR_SOURCE_LENGTH) {
+            return GENERIC_ORDER;
+        }
+        FunctionNode comparator = parseFunctionExpression(sourceSection.getCharacters());
+        if (comparator == null || comparator.getNumOfParams() != 2 || !comparator.hasSimpleParameterList()) {
+            return GENERIC_ORDER;
+        }
+        List<Statement> statements = comparator.getBody().getStatements();
+        if (statements.size() != 1 || !(statements.get(0) instanceof ReturnNode)) {
+            return GENERIC_ORDER;
+        }
+        Expression result = ((ReturnNode) statements.get(0)).getExpression();
+        if (!(result instanceof BinaryNode) || !result.isTokenType(TokenType.SUB)) {
+            return GENERIC_ORDER;
+        }
+        String lhs = getIdentifierName(((BinaryNode) result).getLhs());
+        String rhs = getIdentifierName(((BinaryNode) result).getRhs());
+        String first = comparator.getParameters().get(0).getName();
+        String second = comparator.getParameters().get(1).getName();
+        if (first.equals(second)) {
+            return GENERIC_ORDER;
+        } else if (first.equals(lhs) && second.equals(rhs)) {
+            return ASCENDING_ORDER;
+        } else if (second.equals(lhs) && first.equals(rhs)) {
+            return DESCENDING_ORDER;
+        } else {
+            return GENERIC_ORDER;
+        }
+    }
+
+    /**
+     * Parses the source code of a function as a function expression, or returns {@code null} if
+     * it is not one (e.g. a method).
+     */
+    private static FunctionNode parseFunctionExpression(CharSequence code) {
+        ScriptEnvironment env = ScriptEnvironment.builder().ecmaScriptVersion(JSConfig.MaxECMAScriptVersion).build();
+        FunctionNode program;
+        try {
+            // the line break ends a trailing line comment
+            program = new Parser(env, Source.sourceFor("comparator", "(" + code + "\n)"), new ErrorManager.ThrowErrorManager()).parse();
+        } catch (ParserException e) {
+            return null;
+        }
+        List<Statement> statements = program.getBody().getStatements();
+        if (statements.size() == 1 && statements.get(0) instanceof ExpressionStatement) {
+            Expression expression = ((ExpressionStatement) statements.get(0)).getExpression();
+            if (expression instanceof FunctionNode) {
+                return (FunctionNode) expression;
+            }
+        }
+        return null;
+    }
+
+    private static String getIdentifierName(Expression expression) {
+        return expression instanceof IdentNode ? ((IdentNode) expression).getName() : null;
+    }
+
+    /**
+     * Sorts the range [from, to) of the {@code int[]} store of a JS array.
+     *
+     * @return {@code false} if the elements could not be sorted with the given order.
+     */
+    @TruffleBoundary
+    public static boolean sortIntArray(int[] array, int from, int to, int order) {
+        switch (order) {
+            case DEFAULT_ORDER:
+                sortIntsAsStrings(array, from, to);
+                return true;
+            case ASCENDING_ORDER:
+                Arrays.sort(array, from, to);
+                return true;
+            case DESCENDING_ORDER:
+                Arrays.sort(array, from, to);
+                reverse(array, from, to);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Sorts the range [from, to) of the {@code double[]} store of a JS array.
+     *
+     * @return {@code false} if the elements could not be sorted with the given order.
+     */
+    @TruffleBoundary
+    public static boolean sortDoubleArray(double[] array, int from, int to, int order) {
+        switch (order) {
+            case DEFAULT_ORDER:
+                return sortIntegralDoublesAsStrings(array, from, to);
+            case ASCENDING_ORDER:
+            case DESCENDING_ORDER:
+                // equal elements must stay distinguishable for the sort to be stable
+                if (containsNaNOrNegativeZero(array, from, to)) {
+                    return false;
+                }
+                Arrays.sort(array, from, to);
+                if (order == DESCENDING_ORDER) {
+                    reverse(array, from, to);
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Sorts the elements of an integer typed array.
+     *
+     * @return {@code false} if the elements could not be sorted with the given order.
+     */
+    @TruffleBoundary
+    public static boolean sortTypedIntArray(DynamicObject typedArrayObj, TypedArray.TypedIntArray<?> typedArray, int length, int order) {
+        if (order == GENERIC_ORDER) {
+            return false;
+        }
+        // flip the sign bit so that unsigned 32-bit values sort correctly as signed ints
+        int bias = typedArray instanceof TypedArray.AbstractUint32Array ? Integer.MIN_VALUE : 0;
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = typedArray.getInt(typedArrayObj, i) ^ bias;
+        }
+        Arrays.sort(values);
+        if (order == DESCENDING_ORDER) {
+            reverse(values, 0, length);
+        }
+        for (int i = 0; i < length; i++) {
+            typedArray.setInt(typedArrayObj, i, values[i] ^ bias);
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the elements of a floating point typed array.
+     *
+     * @return {@code false} if the elements could not be sorted with the given order.
+     */
+    @TruffleBoundary
+    public static boolean sortTypedFloatArray(DynamicObject typedArrayObj, TypedArray.TypedFloatArray<?> typedArray, int length, int order) {
+        if (order == GENERIC_ORDER) {
+            return false;
+        }
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = typedArray.getDouble(typedArrayObj, i);
+        }
+        // Arrays.sort(double[]) orders -0 before +0 and NaN last, as required by the default
+        // TypedArray SortCompare. A user comparison function treats them as equal instead.
+        if (order != DEFAULT_ORDER && containsNaNOrNegativeZero(values, 0, length)) {
+            return false;
+        }
+        Arrays.sort(values);
+        if (order == DESCENDING_ORDER) {
+            reverse(values, 0, length);
+        }
+        for (int i = 0; i < length; i++) {
+            typedArray.setDouble(typedArrayObj, i, values[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Sorts ints in the order of their string representations (the default order of
+     * Array.prototype.sort) by mapping each value to a long key that sorts numerically in the same
+     * order and from which the value can be restored.
+     */
+    private static void sortIntsAsStrings(int[] array, int from, int to) {
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = stringOrderKey(array[i]);
+        }
+        Arrays.sort(keys);
+        for (int i = from; i < to; i++) {
+            array[i] = (int) stringOrderValue(keys[i - from]);
+        }
+    }
+
+    private static boolean sortIntegralDoublesAsStrings(double[] array, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double value = array[i];
+            if ((int) value != value || JSRuntime.isNegativeZero(value)) {
+                return false;
+            }
+        }
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = stringOrderKey((int) array[i]);
+        }
+        Arrays.sort(keys);
+        for (int i = from; i < to; i++) {
+            array[i] = stringOrderValue(keys[i - from]);
+        }
+        return true;
+    }
+
+    /**
+     * Negative values sort first ('-' precedes all digits). Within each group, the digits are
+     * compared lexicographically: we left-align the digits of the absolute value to a common
+     * width and use the digit count as a tie breaker (a prefix sorts before longer strings).
+     */
+    static long stringOrderKey(int value) {
+        long abs = Math.abs((long) value);
+        int digits = 1;
+        while (digits < MAX_INT_DIGITS && abs >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        long key = ((abs * POWERS_OF_TEN[MAX_INT_DIGITS - digits]) << DIGIT_COUNT_BITS) | digits;
+        return value < 0 ? key : (key | NON_NEGATIVE_FLAG);
+    }
+
+    static long stringOrderValue(long key) {
+        int digits = (int) (key & ((1 << DIGIT_COUNT_BITS) - 1));
+        long abs = ((key & ~NON_NEGATIVE_FLAG) >>> DIGIT_COUNT_BITS) / POWERS_OF_TEN[MAX_INT_DIGITS - digits];
+        return (key & NON_NEGATIVE_FLAG) != 0 ? abs : -abs;
+    }
+
+    private static boolean containsNaNOrNegativeZero(double[] array, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double value = array[i];
+            if (Double.isNaN(value) || JSRuntime.isNegativeZero(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void reverse(int[] array, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    private static void reverse(double[] array, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            double tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+}
@@ -42,13 +42,18 @@ package com.oracle.truffle.js.builtins.helper;
 
 import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArrayGetArrayType;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.BigInt;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
+import com.oracle.truffle.js.runtime.JSAgentWaiterList.Waiter;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.ByteBufferAtomics;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
@@ -97,9 +102,65 @@ public final class SharedMemorySync {
         Fences.releaseFence();
     }
 
+    // ##### Lock-free element access
+
+    /**
+     * Returns whether the element of {@code size} bytes at {@code byteIndex} can be updated with
+     * {@link ByteBufferAtomics} (lock-free on the JDK overlays, on the buffer's monitor otherwise).
+     * Sub-word elements are updated through their aligned 32-bit word, which must lie within the
+     * buffer; atomic operations on the trailing bytes of a buffer whose length is not a multiple of
+     * 4 always take the per-buffer lock instead.
+     */
+    private static boolean isLockFree(ByteBuffer buffer, int byteIndex, int size) {
+        return ByteBufferAtomics.isSupported() && (size >= Integer.BYTES || (byteIndex & ~(Integer.BYTES - 1)) + Integer.BYTES <= buffer.capacity());
+    }
+
+    private static int getByteIndex(DynamicObject target, TypedArray array, int index) {
+        return JSArrayBufferView.typedArrayGetOffset(target) + index * array.bytesPerElement();
+    }
+
+    /**
+     * Compare-and-exchange of a 1, 2, or 4 byte element. The expected and replacement values are
+     * truncated to the element size. Returns the previous raw (zero-extended) value.
+     */
+    private static int compareAndExchangeRaw(ByteBuffer buffer, int byteIndex, int size, int expected, int replacement) {
+        if (size == Integer.BYTES) {
+            return ByteBufferAtomics.compareAndExchangeInt32(buffer, byteIndex, expected, replacement);
+        }
+        int wordIndex = byteIndex & ~(Integer.BYTES - 1);
+        int offsetInWord = byteIndex - wordIndex;
+        int shift = (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? offsetInWord : Integer.BYTES - size - offsetInWord) * Byte.SIZE;
+        int mask = (1 << (size * Byte.SIZE)) - 1;
+        int expectedBits = expected & mask;
+        int replacementBits = replacement & mask;
+        while (true) {
+            int word = ByteBufferAtomics.getInt32Volatile(buffer, wordIndex);
+            int current = (word >>> shift) & mask;
+            if (current != expectedBits) {
+                return current;
+            }
+            int newWord = (word & ~(mask << shift)) | (replacementBits << shift);
+            if (ByteBufferAtomics.compareAndExchangeInt32(buffer, wordIndex, word, newWord) == word) {
+                return current;
+            }
+        }
+    }
+
+    private static int elementMask(int size) {
+        return size == Integer.BYTES ? -1 : (1 << (size * Byte.SIZE)) - 1;
+    }
+
     // ##### Atomic CAS primitives
     @TruffleBoundary
     public static boolean compareAndSwapInt(JSContext cx, DynamicObject target, int intArrayOffset, int initial, int result) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        int size = array.bytesPerElement();
+        if (isLockFree(buffer, byteIndex, size)) {
+            int mask = elementMask(size);
+            return (compareAndExchangeRaw(buffer, byteIndex, size, initial, result) & mask) == (initial & mask);
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             int value = doVolatileGet(target, intArrayOffset);
@@ -115,6 +176,12 @@ public final class SharedMemorySync {
 
     @TruffleBoundary
     public static boolean compareAndSwapBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt initial, BigInt result) {
+        if (ByteBufferAtomics.isSupported()) {
+            TypedArray array = typedArrayGetArrayType(target);
+            ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target);
+            long expected = initial.longValue();
+            return ByteBufferAtomics.compareAndExchangeInt64(buffer, getByteIndex(target, array, intArrayOffset), expected, result.longValue()) == expected;
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             BigInt value = doVolatileGetBigInt(target, intArrayOffset);
@@ -131,17 +198,35 @@ public final class SharedMemorySync {
     // ##### Atomic Fetch-or-Get primitives
     @TruffleBoundary
     public static long atomicFetchOrGetUnsigned(JSContext cx, DynamicObject target, int intArrayOffset, Object expected, Object replacement) {
+        if (ByteBufferAtomics.isSupported()) {
+            TypedArray array = typedArrayGetArrayType(target);
+            ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target);
+            int read = ByteBufferAtomics.compareAndExchangeInt32(buffer, getByteIndex(target, array, intArrayOffset), (int) JSRuntime.toUInt32(expected), (int) JSRuntime.toUInt32(replacement));
+            return read & 0xFFFFFFFFL;
+        }
         cx.getJSAgent().atomicSectionEnter(target);
-        long read = JSRuntime.toUInt32(doVolatileGet(target, intArrayOffset));
-        if (read == JSRuntime.toUInt32(expected)) {
-            doVolatilePut(target, intArrayOffset, (int) JSRuntime.toUInt32(replacement));
+        try {
+            long read = JSRuntime.toUInt32(doVolatileGet(target, intArrayOffset));
+            if (read == JSRuntime.toUInt32(expected)) {
+                doVolatilePut(target, intArrayOffset, (int) JSRuntime.toUInt32(replacement));
+            }
+            return read;
+        } finally {
+            cx.getJSAgent().atomicSectionLeave(target);
         }
-        cx.getJSAgent().atomicSectionLeave(target);
-        return read;
     }
 
     @TruffleBoundary
     public static long atomicFetchOrGetLong(JSContext cx, DynamicObject target, int intArrayOffset, long expected, long replacement) {
+        if (ByteBufferAtomics.isSupported()) {
+            if (expected != (int) expected) {
+                // cannot match any int32 element
+                return doVolatileGet(target, intArrayOffset);
+            }
+            TypedArray array = typedArrayGetArrayType(target);
+            ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target);
+            return ByteBufferAtomics.compareAndExchangeInt32(buffer, getByteIndex(target, array, intArrayOffset), (int) expected, (int) replacement);
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             int read = doVolatileGet(target, intArrayOffset);
@@ -156,6 +241,11 @@ public final class SharedMemorySync {
 
     @TruffleBoundary
     public static int atomicFetchOrGetInt(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement) {
+        if (ByteBufferAtomics.isSupported()) {
+            TypedArray array = typedArrayGetArrayType(target);
+            ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target);
+            return ByteBufferAtomics.compareAndExchangeInt32(buffer, getByteIndex(target, array, intArrayOffset), expected, replacement);
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             int read = doVolatileGet(target, intArrayOffset);
@@ -170,20 +260,37 @@ public final class SharedMemorySync {
 
     @TruffleBoundary
     public static int atomicFetchOrGetShort(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement, boolean sign) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        if (isLockFree(buffer, byteIndex, Short.BYTES)) {
+            int read = compareAndExchangeRaw(buffer, byteIndex, Short.BYTES, expected, replacement);
+            return sign ? (short) read : read;
+        }
         cx.getJSAgent().atomicSectionEnter(target);
-        int read = doVolatileGet(target, intArrayOffset);
-        read = sign ? read : read & 0xFFFF;
-        int expectedChopped = sign ? (short) expected : expected & 0xFFFF;
-        if (read == expectedChopped) {
-            int signed = sign ? replacement : replacement & 0xFFFF;
-            SharedMemorySync.doVolatilePut(target, intArrayOffset, (short) signed);
+        try {
+            int read = doVolatileGet(target, intArrayOffset);
+            read = sign ? read : read & 0xFFFF;
+            int expectedChopped = sign ? (short) expected : expected & 0xFFFF;
+            if (read == expectedChopped) {
+                int signed = sign ? replacement : replacement & 0xFFFF;
+                SharedMemorySync.doVolatilePut(target, intArrayOffset, (short) signed);
+            }
+            return read;
+        } finally {
+            cx.getJSAgent().atomicSectionLeave(target);
         }
-        cx.getJSAgent().atomicSectionLeave(target);
-        return read;
     }
 
     @TruffleBoundary
     public static int atomicFetchOrGetByte(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement, boolean sign) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target);
+        int byteIndex = getByteIndex(target, array, intArrayOffset);
+        if (isLockFree(buffer, byteIndex, Byte.BYTES)) {
+            int read = compareAndExchangeRaw(buffer, byteIndex, Byte.BYTES, expected, replacement);
+            return sign ? (byte) read : read;
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             int read = doVolatileGet(target, intArrayOffset);
@@ -201,6 +308,12 @@ public final class SharedMemorySync {
 
     @TruffleBoundary
     public static BigInt atomicFetchOrGetBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt expected, BigInt replacement) {
+        if (ByteBufferAtomics.isSupported()) {
+            TypedArray array = typedArrayGetArrayType(target);
+            ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target);
+            long read = ByteBufferAtomics.compareAndExchangeInt64(buffer, getByteIndex(target, array, intArrayOffset), expected.longValue(), replacement.longValue());
+            return array instanceof TypedArray.DirectBigUint64Array ? BigInt.valueOfUnsigned(read) : BigInt.valueOf(read);
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             BigInt read = doVolatileGetBigInt(target, intArrayOffset);
@@ -215,11 +328,15 @@ public final class SharedMemorySync {
 
     // ##### Thread Wake/Park primitives
 
+    /**
+     * Returns the waiter list of the element at {@code indexPos}. Lists are keyed by byte address
+     * so that views with different offsets or element types share the same list.
+     */
     @SuppressWarnings("unused")
     public static JSAgentWaiterListEntry getWaiterList(JSContext cx, DynamicObject target, int indexPos) {
         DynamicObject arrayBuffer = JSArrayBufferView.getArrayBuffer(target);
         JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
-        return waiterList.getListForIndex(indexPos);
+        return waiterList.getListForIndex(getByteIndex(target, typedArrayGetArrayType(target), indexPos));
     }
 
     @TruffleBoundary
@@ -238,14 +355,15 @@ public final class SharedMemorySync {
     }
 
     @TruffleBoundary
-    public static void addWaiter(JSContext cx, JSAgentWaiterListEntry wl, int id) {
+    public static Waiter addWaiter(JSContext cx, JSAgentWaiterListEntry wl) {
         assert cx.getJSAgent().inCriticalSection();
-        assert !wl.contains(id);
-        wl.add(id);
+        Waiter w = new Waiter(cx.getJSAgent().getSignifier());
+        wl.add(w);
+        return w;
     }
 
     @TruffleBoundary
-    public static void removeWaiter(JSContext cx, JSAgentWaiterListEntry wl, int w) {
+    public static void removeWaiter(JSContext cx, JSAgentWaiterListEntry wl, Waiter w) {
         assert cx.getJSAgent().inCriticalSection();
         assert wl.contains(w);
         wl.remove(w);
@@ -253,37 +371,41 @@ public final class SharedMemorySync {
 
     /* ECMA2017 24.4.1.9 - Suspend returns true if agent was woken by another agent */
     @TruffleBoundary
-    public static boolean suspendAgent(JSContext cx, JSAgentWaiterListEntry wl, int w, int timeout) {
+    public static boolean suspendAgent(JSContext cx, JSAgentWaiterListEntry wl, Waiter w, int timeout) {
         assert cx.getJSAgent().inCriticalSection();
         assert wl.contains(w);
-        assert cx.getJSAgent().getSignifier() == w;
+        assert cx.getJSAgent().getSignifier() == w.getAgentSignifier();
         assert cx.getJSAgent().canBlock();
         cx.getJSAgent().criticalSectionLeave(wl);
-        boolean interrupt = false;
+        boolean cancelled = true;
         try {
-            Thread.sleep(timeout);
-        } catch (InterruptedException e) {
-            interrupt = true;
+            w.await(timeout);
+            cancelled = false;
+        } finally {
+            cx.getJSAgent().criticalSectionEnter(wl);
+            if (cancelled && wl.contains(w)) {
+                // interrupted: do not leave a stale waiter behind for later notifications
+                wl.remove(w);
+            }
         }
-        cx.getJSAgent().criticalSectionEnter(wl);
-        return interrupt;
+        // re-check under the lock: a notification may have raced with the timeout
+        return w.isNotified();
     }
 
-    /* ECMA2017 24.4.1.10 - Wake up another agent */
+    /**
+     * Removes up to {@code count} waiters in FIFO order and marks them as notified. The returned
+     * chain must be passed to {@link #wakeWaiters} after leaving the critical section.
+     */
     @TruffleBoundary
-    public static void wakeWaiter(JSContext cx, int w) {
+    public static Waiter removeWaiters(JSContext cx, JSAgentWaiterListEntry wl, int count) {
         assert cx.getJSAgent().inCriticalSection();
-        cx.getJSAgent().wakeAgent(w);
+        return wl.removeFirst(count);
     }
 
+    /* ECMA2017 24.4.1.10 - Wake up the agents removed by removeWaiters */
     @TruffleBoundary
-    public static int[] removeWaiters(JSContext cx, JSAgentWaiterListEntry wl, int count) {
-        assert cx.getJSAgent().inCriticalSection();
-        int c = Integer.min(wl.size(), count);
-        int[] removed = new int[c];
-        while (c-- > 0) {
-            removed[c] = wl.poll();
-        }
-        return removed;
+    public static int wakeWaiters(JSContext cx, Waiter first) {
+        assert !cx.getJSAgent().inCriticalSection();
+        return Waiter.wakeAll(first);
     }
 }
@@ -0,0 +1,524 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSException;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.Null;
+
+/**
+ * JSON parser that reads UTF-8 encoded bytes from a {@link ByteBuffer} or an {@link InputStream}.
+ * Unlike {@link TruffleJSONParser}, it does not need the whole document as a {@link String}: the
+ * input is decoded on the fly and objects are created as their members are read, so only the
+ * individual string values and keys are ever materialized.
+ *
+ * Error positions are byte offsets into the input.
+ */
+public final class TruffleJSONByteParser {
+
+    private static final int EOF = -1;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final char REPLACEMENT_CHARACTER = '\ufffd';
+    private static final String MALFORMED_NUMBER = "malformed number";
+
+    private final JSContext context;
+    private final StringBuilder charBuffer = new StringBuilder();
+
+    /** Current window of the input. */
+    private ByteBuffer buffer;
+    /** Source of further input, or {@code null} if {@link #buffer} holds the whole input. */
+    private InputStream stream;
+    /** Offset of the first byte of {@link #buffer} in the input. */
+    private long bufferOffset;
+    private int parseDepth;
+
+    public TruffleJSONByteParser(JSContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Parses the remaining bytes of the given buffer. The position of the buffer is not changed.
+     */
+    public Object parse(ByteBuffer input) {
+        this.buffer = input.duplicate();
+        this.stream = null;
+        this.bufferOffset = -input.position();
+        return parseDocument();
+    }
+
+    /**
+     * Parses the given stream up to its end. The stream is read in chunks and is not closed.
+     */
+    public Object parse(InputStream input) {
+        this.buffer = ByteBuffer.wrap(new byte[STREAM_BUFFER_SIZE]);
+        this.buffer.limit(0);
+        this.stream = input;
+        this.bufferOffset = 0;
+        return parseDocument();
+    }
+
+    private Object parseDocument() {
+        this.parseDepth = 0;
+        try {
+            skipByteOrderMark();
+            skipWhitespace();
+            Object result = parseJSONValue();
+            if (peek() != EOF) {
+                throw Errors.createSyntaxError("JSON cannot be fully parsed");
+            }
+            return result;
+        } catch (StackOverflowError ex) {
+            TruffleJSONParser.throwStackError();
+            return null;
+        } finally {
+            buffer = null;
+            stream = null;
+        }
+    }
+
+    private Object parseJSONValue() {
+        int c = peek();
+        switch (c) {
+            case '"':
+                skip();
+                return parseJSONString();
+            case '{':
+                return parseJSONObject();
+            case '[':
+                return parseJSONArray();
+            case 'n':
+                parseLiteral("null");
+                return Null.instance;
+            case 't':
+                parseLiteral("true");
+                return true;
+            case 'f':
+                parseLiteral("false");
+                return false;
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return parseJSONNumber();
+            default:
+                return unexpectedToken(c);
+        }
+    }
+
+    private Object parseJSONObject() {
+        incDepth();
+        skip();
+        skipWhitespace();
+        DynamicObject object = JSOrdinary.create(context);
+        if (peek() != '}') {
+            while (true) {
+                int c = peek();
+                if (c != '"') {
+                    unexpectedToken(c);
+                }
+                skip();
+                String key = parseJSONString();
+                expectChar(':');
+                skipWhitespace();
+                Object value = parseJSONValue();
+                JSRuntime.createDataProperty(object, key, value);
+                c = peek();
+                if (c == ',') {
+                    skip();
+                    skipWhitespace();
+                } else if (c == '}') {
+                    break;
+                } else {
+                    unexpectedToken(c);
+                }
+            }
+        }
+        skip();
+        skipWhitespace();
+        parseDepth--;
+        return object;
+    }
+
+    private Object parseJSONArray() {
+        incDepth();
+        skip();
+        skipWhitespace();
+        DynamicObject array = JSArray.createEmptyZeroLength(context);
+        if (peek() != ']') {
+            ScriptArray scriptArray = JSAbstractArray.arrayGetArrayType(array);
+            long index = 0;
+            while (true) {
+                scriptArray = scriptArray.setElement(array, index++, parseJSONValue(), false);
+                int c = peek();
+                if (c == ',') {
+                    skip();
+                    skipWhitespace();
+                } else if (c == ']') {
+                    break;
+                } else {
+                    unexpectedToken(c);
+                }
+            }
+            JSAbstractArray.arraySetArrayType(array, scriptArray);
+        }
+        skip();
+        skipWhitespace();
+        parseDepth--;
+        return array;
+    }
+
+    private void incDepth() {
+        if (++parseDepth > TruffleJSONParser.MAX_PARSE_DEPTH) {
+            TruffleJSONParser.throwStackError();
+        }
+    }
+
+    /**
+     * Parses the characters of a string, the opening quote has already been consumed.
+     */
+    private String parseJSONString() {
+        StringBuilder sb = charBuffer;
+        sb.setLength(0);
+        while (true) {
+            int b = read();
+            if (b == '"') {
+                break;
+            } else if (b == '\\') {
+                parseEscape(sb);
+            } else if (b < ' ') {
+                if (b == EOF) {
+                    throw unexpectedEndOfInput();
+                }
+                throw Errors.createSyntaxError("invalid string");
+            } else if (b < 0x80) {
+                sb.append((char) b);
+            } else {
+                decodeMultiByte(b, sb);
+            }
+        }
+        skipWhitespace();
+        return sb.toString();
+    }
+
+    private void parseEscape(StringBuilder sb) {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                sb.append((char) c);
+                break;
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = read();
+                    int digitValue = digit == EOF ? -1 : JSRuntime.valueInHex((char) digit);
+                    if (digitValue < 0) {
+                        throw Errors.createSyntaxError("invalid string");
+                    }
+                    value = (value << 4) | digitValue;
+                }
+                sb.append((char) value);
+                break;
+            case EOF:
+                throw unexpectedEndOfInput();
+            default:
+                throw Errors.createSyntaxError("wrong escape sequence");
+        }
+    }
+
+    /**
+     * Decodes a multi-byte UTF-8 sequence starting with the given (already consumed) lead byte.
+     * Malformed sequences are replaced with U+FFFD.
+     */
+    private void decodeMultiByte(int lead, StringBuilder sb) {
+        int codePoint;
+        int continuationBytes;
+        int minCodePoint;
+        if ((lead & 0xE0) == 0xC0) {
+            codePoint = lead & 0x1F;
+            continuationBytes = 1;
+            minCodePoint = 0x80;
+        } else if ((lead & 0xF0) == 0xE0) {
+            codePoint = lead & 0x0F;
+            continuationBytes = 2;
+            minCodePoint = 0x800;
+        } else if ((lead & 0xF8) == 0xF0) {
+            codePoint = lead & 0x07;
+            continuationBytes = 3;
+            minCodePoint = 0x10000;
+        } else {
+            sb.append(REPLACEMENT_CHARACTER);
+            return;
+        }
+        for (int i = 0; i < continuationBytes; i++) {
+            int b = peek();
+            if ((b & 0xC0) != 0x80) {
+                sb.append(REPLACEMENT_CHARACTER);
+                return;
+            }
+            skip();
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+        if (codePoint < minCodePoint || codePoint > Character.MAX_CODE_POINT || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            sb.append(REPLACEMENT_CHARACTER);
+        } else {
+            sb.appendCodePoint(codePoint);
+        }
+    }
+
+    private Number parseJSONNumber() {
+        StringBuilder sb = charBuffer;
+        sb.setLength(0);
+        boolean negative = false;
+        if (peek() == '-') {
+            skip();
+            sb.append('-');
+            negative = true;
+        }
+        int c = peek();
+        if (c == '0') {
+            skip();
+            sb.append('0');
+            c = peek();
+            if (isDigit(c) || c == 'x' || c == 'X') {
+                throw Errors.createSyntaxError("octal and hexadecimal not allowed");
+            }
+        } else if (isDigit(c)) {
+            appendDigits(sb);
+        } else {
+            throw Errors.createSyntaxError(MALFORMED_NUMBER);
+        }
+        boolean integral = true;
+        if (peek() == '.') {
+            integral = false;
+            skip();
+            sb.append('.');
+            if (!isDigit(peek())) {
+                throw Errors.createSyntaxError(MALFORMED_NUMBER);
+            }
+            appendDigits(sb);
+        }
+        c = peek();
+        if (c == 'e' || c == 'E') {
+            integral = false;
+            skip();
+            sb.append('e');
+            c = peek();
+            if (c == '-' || c == '+') {
+                skip();
+                sb.append((char) c);
+            }
+            if (!isDigit(peek())) {
+                throw Errors.createSyntaxError("Expected number but found ident");
+            }
+            appendDigits(sb);
+        }
+        skipWhitespace();
+
+        int start = negative ? 1 : 0;
+        if (integral && sb.length() - start < JSRuntime.MAX_SAFE_INTEGER_DIGITS) {
+            long value = 0;
+            for (int i = start; i < sb.length(); i++) {
+                value = value * 10 + (sb.charAt(i) - '0');
+            }
+            if (negative) {
+                if (value == 0) {
+                    return -0.0;
+                }
+                value = -value;
+            }
+            if (JSRuntime.longIsRepresentableAsInt(value)) {
+                return (int) value;
+            }
+            return (double) value;
+        }
+        return Double.parseDouble(sb.toString());
+    }
+
+    private void appendDigits(StringBuilder sb) {
+        int c = peek();
+        while (isDigit(c)) {
+            skip();
+            sb.append((char) c);
+            c = peek();
+        }
+    }
+
+    private static boolean isDigit(int c) {
+        return '0' <= c && c <= '9';
+    }
+
+    private void parseLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            int c = peek();
+            if (c != literal.charAt(i)) {
+                unexpectedToken(c);
+            }
+            skip();
+        }
+        skipWhitespace();
+    }
+
+    private void expectChar(int expected) {
+        int c = peek();
+        if (c != expected) {
+            if (c == EOF) {
+                throw unexpectedEndOfInput();
+            }
+            throw Errors.createSyntaxError((char) expected + " expected");
+        }
+        skip();
+    }
+
+    private void skipWhitespace() {
+        int c = peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            skip();
+            c = peek();
+        }
+    }
+
+    private void skipByteOrderMark() {
+        if (peek() == 0xEF) {
+            skip();
+            if (read() != 0xBB || read() != 0xBF) {
+                unexpectedToken(0xEF);
+            }
+        }
+    }
+
+    private Object unexpectedToken(int c) {
+        if (c == EOF) {
+            throw unexpectedEndOfInput();
+        }
+        long position = bufferOffset + buffer.position();
+        if (c < 0x80) {
+            throw Errors.createSyntaxError("Unexpected token " + (char) c + " in JSON at position " + position);
+        } else {
+            throw Errors.createSyntaxError("Unexpected token in JSON at position " + position);
+        }
+    }
+
+    private JSException unexpectedEndOfInput() {
+        return Errors.createSyntaxError(context.isOptionNashornCompatibilityMode() ? "Unexpected end of input" : "Unexpected end of JSON input");
+    }
+
+    // ************************* Input ****************************************//
+
+    /**
+     * Returns the next byte (as an unsigned value) without consuming it, or {@link #EOF}.
+     */
+    private int peek() {
+        if (!buffer.hasRemaining() && !fill()) {
+            return EOF;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    /**
+     * Consumes the byte that has just been returned by {@link #peek()}.
+     */
+    private void skip() {
+        assert buffer.hasRemaining();
+        buffer.position(buffer.position() + 1);
+    }
+
+    private int read() {
+        int b = peek();
+        if (b != EOF) {
+            skip();
+        }
+        return b;
+    }
+
+    private boolean fill() {
+        if (stream == null) {
+            return false;
+        }
+        bufferOffset += buffer.limit();
+        byte[] bytes = buffer.array();
+        int count;
+        try {
+            do {
+                count = stream.read(bytes, 0, bytes.length);
+            } while (count == 0);
+        } catch (IOException e) {
+            throw Errors.createErrorFromException(e);
+        }
+        buffer.clear();
+        buffer.limit(Math.max(count, 0));
+        return count > 0;
+    }
+}
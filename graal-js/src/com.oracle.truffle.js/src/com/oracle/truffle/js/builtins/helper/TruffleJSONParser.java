@@ -40,8 +40,12 @@
  */
 package com.oracle.truffle.js.builtins.helper;
 
+import java.util.Arrays;
+
 import com.oracle.js.parser.ParserException;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSException;
@@ -67,6 +71,12 @@ public class TruffleJSONParser {
 
     private static final String MALFORMED_NUMBER = "malformed number";
 
+    /** Maximum nesting depth and number of members per object for which members are cached. */
+    private static final int MAX_CACHED_DEPTH = 32;
+    private static final int MAX_CACHED_MEMBERS = 64;
+
+    private final MemberCacheEntry[][] memberCache = new MemberCacheEntry[MAX_CACHED_DEPTH][];
+
     public TruffleJSONParser(JSContext context) {
         this.context = context;
     }
@@ -156,22 +166,83 @@ public class TruffleJSONParser {
     }
 
     private void parseJSONMemberList(DynamicObject object) {
-        Member member = parseJSONMember();
-        JSRuntime.createDataProperty(object, member.getKey(), member.getValue());
+        int index = 0;
+        parseJSONMember(object, index++);
         while (get() == ',') {
             skipChar(',');
             skipWhitespace();
-            member = parseJSONMember();
-            JSRuntime.createDataProperty(object, member.getKey(), member.getValue());
+            parseJSONMember(object, index++);
         }
     }
 
-    private Member parseJSONMember() {
-        String jsonString = parseJSONString();
+    /**
+     * Parses a member and adds it to the object. Objects at the same nesting level usually have
+     * the same keys in the same order (e.g., the records of an array). Therefore, the key and the
+     * shape transition of each member are remembered per nesting level and member index: if the
+     * key matches and the object still has the remembered shape, the key is not copied out of the
+     * source and the value is stored directly into the remembered slot of the remembered shape.
+     */
+    private void parseJSONMember(DynamicObject object, int index) {
+        MemberCacheEntry entry = getCachedMember(index);
+        String key = entry == null ? parseJSONString() : parseJSONMemberKey(entry);
         expectChar(':');
         skipWhitespace();
-        Object jsonValue = parseJSONValue();
-        return new Member(jsonString, jsonValue);
+        Object value = parseJSONValue();
+        if (entry != null && key == entry.key) {
+            Shape oldShape = object.getShape();
+            if (oldShape == entry.oldShape && entry.newShape.isValid() && entry.property.getLocation().canStore(value)) {
+                entry.property.setSafe(object, value, entry.oldShape, entry.newShape);
+                return;
+            }
+        }
+        Shape oldShape = object.getShape();
+        JSRuntime.createDataProperty(object, key, value);
+        Shape newShape = object.getShape();
+        if (newShape != oldShape && newShape.getPropertyCount() == oldShape.getPropertyCount() + 1) {
+            Property property = newShape.getLastProperty();
+            if (key.equals(property.getKey())) {
+                putCachedMember(index, new MemberCacheEntry(key, oldShape, newShape, property));
+            }
+        }
+    }
+
+    /**
+     * Parses a member key, returning the key of the cache entry if the source contains the same
+     * key (without escapes).
+     */
+    private String parseJSONMemberKey(MemberCacheEntry entry) {
+        if (entry.matchable && isStringQuote(get())) {
+            String cachedKey = entry.key;
+            int keyStart = pos + 1;
+            int keyEnd = keyStart + cachedKey.length();
+            if (keyEnd < len && isStringQuote(get(keyEnd)) && parseStr.regionMatches(keyStart, cachedKey, 0, cachedKey.length())) {
+                pos = keyEnd + 1;
+                skipWhitespace();
+                return cachedKey;
+            }
+        }
+        return parseJSONString();
+    }
+
+    private MemberCacheEntry getCachedMember(int index) {
+        if (parseDepth >= memberCache.length || index >= MAX_CACHED_MEMBERS) {
+            return null;
+        }
+        MemberCacheEntry[] level = memberCache[parseDepth];
+        return level != null && index < level.length ? level[index] : null;
+    }
+
+    private void putCachedMember(int index, MemberCacheEntry entry) {
+        if (parseDepth >= memberCache.length || index >= MAX_CACHED_MEMBERS) {
+            return;
+        }
+        MemberCacheEntry[] level = memberCache[parseDepth];
+        if (level == null) {
+            level = memberCache[parseDepth] = new MemberCacheEntry[Math.max(index + 1, 8)];
+        } else if (index >= level.length) {
+            level = memberCache[parseDepth] = Arrays.copyOf(level, Math.min(Math.max(index + 1, level.length * 2), MAX_CACHED_MEMBERS));
+        }
+        level[index] = entry;
     }
 
     private Object parseJSONArray() {
@@ -179,12 +250,14 @@ public class TruffleJSONParser {
         incDepth();
         skipChar('[');
         skipWhitespace();
-        DynamicObject array = JSArray.createEmptyZeroLength(context);
+        DynamicObject array;
         if (get() != ']') {
-            parseJSONElementList(array);
+            array = parseJSONElementList();
             if (get() != ']') {
                 error("closing quote ] expected");
             }
+        } else {
+            array = JSArray.createEmptyZeroLength(context);
         }
         skipChar(']');
         skipWhitespace();
@@ -211,8 +284,58 @@ public class TruffleJSONParser {
         this.parseDepth--;
     }
 
-    protected ScriptArray parseJSONElementList(DynamicObject arrayObject) {
-        int index = 0;
+    /**
+     * Parses the elements of a non-empty array. Leading numbers are collected in an {@code int[]}
+     * (or {@code double[]}) store, so that arrays of numbers are created with the final store and
+     * without boxing the elements.
+     */
+    protected DynamicObject parseJSONElementList() {
+        int[] ints = null;
+        double[] doubles = null;
+        int count = 0;
+        boolean moreElements = true;
+        while (isNumber(get())) {
+            Number number = parseJSONNumber();
+            if (doubles == null && number instanceof Integer) {
+                if (ints == null) {
+                    ints = new int[8];
+                } else if (count == ints.length) {
+                    ints = Arrays.copyOf(ints, count * 2);
+                }
+                ints[count++] = (int) number;
+            } else {
+                if (doubles == null) {
+                    doubles = new double[ints == null ? 8 : ints.length];
+                    for (int i = 0; i < count; i++) {
+                        doubles[i] = ints[i];
+                    }
+                    ints = null;
+                } else if (count == doubles.length) {
+                    doubles = Arrays.copyOf(doubles, count * 2);
+                }
+                doubles[count++] = number.doubleValue();
+            }
+            if (get() != ',') {
+                moreElements = false;
+                break;
+            }
+            skipChar(',');
+            skipWhitespace();
+        }
+
+        DynamicObject arrayObject;
+        if (doubles != null) {
+            arrayObject = JSArray.createZeroBasedDoubleArray(context, Arrays.copyOf(doubles, count));
+        } else if (ints != null) {
+            arrayObject = JSArray.createZeroBasedIntArray(context, Arrays.copyOf(ints, count));
+        } else {
+            arrayObject = JSArray.createEmptyZeroLength(context);
+        }
+        if (!moreElements) {
+            return arrayObject;
+        }
+
+        long index = count;
         ScriptArray scriptArray = JSAbstractArray.arrayGetArrayType(arrayObject);
         scriptArray = scriptArray.setElement(arrayObject, index, parseJSONValue(), false);
         while (get() == ',') {
@@ -222,7 +345,7 @@ public class TruffleJSONParser {
             scriptArray = scriptArray.setElement(arrayObject, index, parseJSONValue(), false);
         }
         JSAbstractArray.arraySetArrayType(arrayObject, scriptArray);
-        return scriptArray;
+        return arrayObject;
     }
 
     protected String parseJSONString() {
@@ -578,21 +701,30 @@ public class TruffleJSONParser {
         return true;
     }
 
-    protected final class Member {
-        private final String key;
-        private final Object value;
+    private static final class MemberCacheEntry {
+        final String key;
+        final Shape oldShape;
+        final Shape newShape;
+        final Property property;
+        /** Whether the key can be compared with the source directly (i.e., needs no escapes). */
+        final boolean matchable;
 
-        public Member(String key, Object value) {
+        MemberCacheEntry(String key, Shape oldShape, Shape newShape, Property property) {
             this.key = key;
-            this.value = value;
+            this.oldShape = oldShape;
+            this.newShape = newShape;
+            this.property = property;
+            this.matchable = isMatchable(key);
         }
 
-        public String getKey() {
-            return key;
-        }
-
-        public Object getValue() {
-            return value;
+        private static boolean isMatchable(String key) {
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c < ' ' || c == '"' || c == '\\') {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 }
@@ -408,6 +408,7 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
         if (options.isProfileTime() && options.isProfileTimePrintCumulative()) {
             context.getTimeProfiler().printCumulative();
         }
+        realm.saveModuleResolutionCache();
         realm.setGlobalObject(Undefined.instance);
     }
 
@@ -51,7 +51,11 @@ import com.oracle.truffle.api.interop.InvalidArrayIndexException;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.DynamicObjectLibrary;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.builtins.helper.ListGetNode;
 import com.oracle.truffle.js.builtins.helper.ListSizeNode;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
@@ -60,12 +64,17 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
 import com.oracle.truffle.js.runtime.interop.JSInteropUtil;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
+import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
 
-@ImportStatic({JSConfig.class})
+@ImportStatic({JSConfig.class, JSShape.class})
 public abstract class CopyDataPropertiesNode extends JavaScriptBaseNode {
     protected final JSContext context;
 
@@ -93,6 +102,50 @@ public abstract class CopyDataPropertiesNode extends JavaScriptBaseNode {
         return target;
     }
 
+    /**
+     * Ordinary source objects whose enumerable properties are all data properties: the values are
+     * read directly from the property locations of the cached shape, without side effects. New
+     * properties of ordinary targets are added with a cached put per property, so that copies of
+     * objects with the same shape follow the same shape transitions in compiled code.
+     */
+    @Specialization(guards = {"source.getShape() == cachedShape", "isJSOrdinaryObject(source)", "enumerableProperties != null",
+                    "enumerableProperties.size() <= MaxExplodedCopyProperties"}, assumptions = {"cachedShape.getValidAssumption()"}, limit = "PropertyCacheLimit")
+    @ExplodeLoop
+    protected static DynamicObject copyDataPropertiesCachedShape(DynamicObject target, DynamicObject source, Object[] excludedItems, boolean withExcluded,
+                    @Cached("source.getShape()") Shape cachedShape,
+                    @Cached("getEnumerableDataProperties(cachedShape)") UnmodifiableArrayList<Property> enumerableProperties,
+                    @Cached(value = "toArray(enumerableProperties)", dimensions = 1) Property[] properties,
+                    @Cached("createPutLibraries(properties)") DynamicObjectLibrary[] putLibraries) {
+        boolean ordinaryTarget = JSOrdinary.isJSOrdinaryObject(target);
+        for (int i = 0; i < properties.length; i++) {
+            Property property = properties[i];
+            Object nextKey = property.getKey();
+            if (!isExcluded(withExcluded, excludedItems, nextKey)) {
+                Object value = property.get(source, true);
+                DynamicObjectLibrary putLibrary = putLibraries[i];
+                if (ordinaryTarget && JSShape.isExtensible(putLibrary.getShape(target)) && !putLibrary.containsKey(target, nextKey)) {
+                    // the key is already in use by the source, no need to check for __noSuchProperty__
+                    putLibrary.putWithFlags(target, nextKey, value, JSAttributes.getDefault());
+                } else {
+                    JSRuntime.createDataPropertyOrThrow(target, nextKey, value);
+                }
+            }
+        }
+        return target;
+    }
+
+    protected static Property[] toArray(UnmodifiableArrayList<Property> properties) {
+        return properties.toArray(new Property[properties.size()]);
+    }
+
+    protected static DynamicObjectLibrary[] createPutLibraries(Property[] properties) {
+        DynamicObjectLibrary[] libraries = new DynamicObjectLibrary[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            libraries[i] = JSObjectUtil.createDispatched(properties[i].getKey());
+        }
+        return libraries;
+    }
+
     @Specialization(guards = {"isJSObject(source)"})
     protected static DynamicObject copyDataProperties(DynamicObject target, DynamicObject source, Object[] excludedItems, boolean withExcluded,
                     @Cached("create(context)") ReadElementNode getNode,
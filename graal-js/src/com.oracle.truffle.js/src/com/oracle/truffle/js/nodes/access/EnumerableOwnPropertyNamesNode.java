@@ -44,8 +44,11 @@ import java.util.List;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.builtins.helper.ListGetNode;
@@ -65,10 +68,11 @@ import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
 /**
  * EnumerableOwnPropertyNames (O, kind).
  */
+@ImportStatic({JSConfig.class, JSShape.class})
 public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode {
 
     private final boolean keys;
-    private final boolean values;
+    protected final boolean values;
     private final JSContext context;
     @Child private JSGetOwnPropertyNode getOwnPropertyNode;
     private final ConditionProfile hasFastShapesProfile = ConditionProfile.createBinaryProfile();
@@ -94,6 +98,32 @@ public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode
 
     public abstract UnmodifiableArrayList<? extends Object> execute(DynamicObject obj);
 
+    /**
+     * Values and entries of ordinary objects whose enumerable properties are all data properties
+     * can be read directly from the property locations of the cached shape.
+     */
+    @Specialization(guards = {"values", "thisObj.getShape() == cachedShape", "isJSOrdinaryObject(thisObj)", "enumerableProperties != null"}, assumptions = {
+                    "cachedShape.getValidAssumption()"}, limit = "PropertyCacheLimit")
+    protected UnmodifiableArrayList<? extends Object> enumerableOwnPropertyValuesCachedShape(DynamicObject thisObj,
+                    @Cached("thisObj.getShape()") Shape cachedShape,
+                    @Cached("getEnumerableDataProperties(cachedShape)") UnmodifiableArrayList<Property> enumerableProperties) {
+        int size = enumerableProperties.size();
+        SimpleArrayList<Object> properties = new SimpleArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Property property = enumerableProperties.get(i);
+            Object key = property.getKey();
+            if (key instanceof String) {
+                Object value = property.get(thisObj, true);
+                if (keys) {
+                    properties.addUnchecked(JSArray.createConstant(context, new Object[]{key, value}));
+                } else {
+                    properties.addUnchecked(value);
+                }
+            }
+        }
+        return new UnmodifiableArrayList<>(properties.toArray());
+    }
+
     @Specialization
     protected UnmodifiableArrayList<? extends Object> enumerableOwnPropertyNames(DynamicObject thisObj,
                     @Cached JSClassProfile jsclassProfile,
@@ -62,6 +62,7 @@ import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
+import com.oracle.truffle.js.runtime.util.MegamorphicPropertyCache;
 
 /**
  * @see PropertyGetNode
@@ -239,6 +240,13 @@ public class HasPropertyCacheNode extends PropertyCacheNode<HasPropertyCacheNode
         protected boolean hasProperty(Object thisObj, HasPropertyCacheNode root) {
             if (JSDynamicObject.isJSDynamicObject(thisObj)) {
                 Object key = root.getKey();
+                MegamorphicPropertyCache megamorphicCache = root.getContext().getMegamorphicPropertyCache();
+                if (megamorphicCache != null) {
+                    Boolean cached = megamorphicCache.has((DynamicObject) thisObj, key, root.isOwnProperty());
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
                 if (root.isOwnProperty()) {
                     return JSObject.hasOwnProperty((DynamicObject) thisObj, key, jsclassProfile);
                 } else {
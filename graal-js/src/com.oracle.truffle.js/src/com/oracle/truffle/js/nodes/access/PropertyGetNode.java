@@ -114,6 +114,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
+import com.oracle.truffle.js.runtime.util.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TRegexUtil.TRegexMaterializeResultNode;
 import com.oracle.truffle.js.runtime.util.TRegexUtil.TRegexResultAccessor;
@@ -1185,13 +1186,26 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
                 throw Errors.createTypeErrorCannotGetProperty(root.getContext(), key, object, isMethod, this);
             }
 
-            // 1. try to get a JS property
+            // 1. try the context-wide megamorphic property cache
+            MegamorphicPropertyCache megamorphicCache = context.getMegamorphicPropertyCache();
+            if (megamorphicCache != null) {
+                Object value = megamorphicCache.get(object, key, receiver, this);
+                if (value != MegamorphicPropertyCache.NOT_CACHED) {
+                    if (value != null) {
+                        return value;
+                    }
+                    fallbackBranch.enter();
+                    return getNoSuchProperty(object, defaultValue, root);
+                }
+            }
+
+            // 2. try to get a JS property
             Object value = isMethod ? jsclass.getMethodHelper(object, receiver, key, this) : jsclass.getHelper(object, receiver, key, this);
             if (value != null) {
                 return value;
             }
 
-            // 2. try to call fallback handler or return undefined
+            // 3. try to call fallback handler or return undefined
             fallbackBranch.enter();
             return getNoSuchProperty(object, defaultValue, root);
         }
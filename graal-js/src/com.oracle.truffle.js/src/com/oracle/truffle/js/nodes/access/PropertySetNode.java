@@ -99,6 +99,7 @@ import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
+import com.oracle.truffle.js.runtime.util.MegamorphicPropertyCache;
 
 /**
  * @see WritePropertyNode
@@ -1035,6 +1036,10 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
                     JSObject.defineOwnProperty(thisJSObj, key, PropertyDescriptor.createData(value, root.getAttributeFlags()), root.isStrict());
                 }
             } else {
+                MegamorphicPropertyCache megamorphicCache = root.getContext().getMegamorphicPropertyCache();
+                if (megamorphicCache != null && receiver == thisObj && megamorphicCache.set(thisJSObj, key, value)) {
+                    return;
+                }
                 JSObject.setWithReceiver(thisJSObj, key, value, receiver, root.isStrict(), jsclassProfile, root);
             }
         }
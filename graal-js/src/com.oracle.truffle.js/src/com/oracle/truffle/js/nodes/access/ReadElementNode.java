@@ -1377,23 +1377,25 @@ public class ReadElementNode extends JSTargetableNode implements ReadNode {
 
         @Override
         protected Object executeWithTargetAndIndexUnchecked(Object target, Object index, Object receiver, Object defaultValue, ReadElementNode root) {
-            String str = ((JSLazyString) target).toString(isFlatProfile);
+            JSLazyString lazyString = (JSLazyString) target;
             Object convertedIndex = toArrayIndexNode.execute(index);
             if (arrayIndexProfile.profile(convertedIndex instanceof Long)) {
                 int intIndex = ((Long) convertedIndex).intValue();
-                if (stringIndexInBounds.profile(intIndex >= 0 && intIndex < str.length())) {
-                    return String.valueOf(str.charAt(intIndex));
+                if (stringIndexInBounds.profile(intIndex >= 0 && intIndex < lazyString.length())) {
+                    return String.valueOf(lazyString.charAt(intIndex));
                 }
             }
+            String str = lazyString.toString(isFlatProfile);
             return JSObject.getOrDefault(JSString.create(root.context, str), toPropertyKey(index), receiver, defaultValue, jsclassProfile, root);
         }
 
         @Override
         protected Object executeWithTargetAndIndexUnchecked(Object target, int index, Object receiver, Object defaultValue, ReadElementNode root) {
-            String str = ((JSLazyString) target).toString(isFlatProfile);
-            if (stringIndexInBounds.profile(index >= 0 && index < str.length())) {
-                return String.valueOf(str.charAt(index));
+            JSLazyString lazyString = (JSLazyString) target;
+            if (stringIndexInBounds.profile(index >= 0 && index < lazyString.length())) {
+                return String.valueOf(lazyString.charAt(index));
             } else {
+                String str = lazyString.toString(isFlatProfile);
                 return JSObject.getOrDefault(JSString.create(root.context, str), index, receiver, defaultValue, jsclassProfile, root);
             }
         }
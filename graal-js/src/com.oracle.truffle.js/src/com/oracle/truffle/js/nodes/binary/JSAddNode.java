@@ -159,6 +159,11 @@ public abstract class JSAddNode extends JSBinaryNode implements Truncatable {
         return a + b;
     }
 
+    @Specialization(rewriteOn = ArithmeticException.class)
+    protected static BigInt doBigIntLong(BigInt left, BigInt right) {
+        return left.addExact(right);
+    }
+
     @Specialization
     protected BigInt doBigInt(BigInt left, BigInt right) {
         return left.add(right);
@@ -195,7 +200,7 @@ public abstract class JSAddNode extends JSBinaryNode implements Truncatable {
     }
 
     @Specialization(replaces = {"doInt", "doIntOverflow", "doIntTruncate", "doSafeInteger", "doIntSafeInteger", "doSafeIntegerInt",
-                    "doDouble", "doBigInt", "doString", "doStringInt", "doIntString", "doStringNumber", "doNumberString"})
+                    "doDouble", "doBigIntLong", "doBigInt", "doString", "doStringInt", "doIntString", "doStringNumber", "doNumberString"})
     protected Object doPrimitiveConversion(Object a, Object b,
                     @Cached("createHintNone()") JSToPrimitiveNode toPrimitiveA,
                     @Cached("createHintNone()") JSToPrimitiveNode toPrimitiveB,
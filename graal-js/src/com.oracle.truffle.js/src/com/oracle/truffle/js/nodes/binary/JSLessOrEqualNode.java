@@ -130,7 +130,7 @@ public abstract class JSLessOrEqualNode extends JSCompareNode {
 
     @Specialization
     protected boolean doBigIntAndInt(BigInt a, int b) {
-        return a.compareTo(BigInt.valueOf(b)) <= 0;
+        return a.compareValueTo(b) <= 0;
     }
 
     @Specialization
@@ -143,7 +143,7 @@ public abstract class JSLessOrEqualNode extends JSCompareNode {
 
     @Specialization
     protected boolean doIntAndBigInt(int a, BigInt b) {
-        return b.compareTo(BigInt.valueOf(a)) >= 0;
+        return b.compareValueTo(a) >= 0;
     }
 
     @Specialization
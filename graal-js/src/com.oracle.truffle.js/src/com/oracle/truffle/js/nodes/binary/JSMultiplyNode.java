@@ -113,6 +113,11 @@ public abstract class JSMultiplyNode extends JSBinaryNode {
         return a * b;
     }
 
+    @Specialization(rewriteOn = ArithmeticException.class)
+    protected static BigInt doBigIntLong(BigInt a, BigInt b) {
+        return a.multiplyExact(b);
+    }
+
     @Specialization
     @TruffleBoundary
     protected BigInt doBigInts(BigInt a, BigInt b) {
@@ -92,12 +92,17 @@ public abstract class JSSubtractNode extends JSBinaryNode implements Truncatable
         return a - b;
     }
 
+    @Specialization(rewriteOn = ArithmeticException.class)
+    protected static BigInt doBigIntLong(BigInt a, BigInt b) {
+        return a.subtractExact(b);
+    }
+
     @Specialization()
     protected BigInt doBigInt(BigInt a, BigInt b) {
         return a.subtract(b);
     }
 
-    @Specialization(replaces = {"doDouble", "doBigInt"})
+    @Specialization(replaces = {"doDouble", "doBigIntLong", "doBigInt"})
     protected Object doGeneric(Object a, Object b,
                     @Cached("create()") JSToNumericNode toNumericA,
                     @Cached("create()") JSToNumericNode toNumericB,
@@ -44,8 +44,8 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
-import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 
 /**
  * This implements 9.8.1 ToString Applied to the Number Type.
@@ -61,12 +61,12 @@ public abstract class JSDoubleToStringNode extends JavaScriptBaseNode {
 
     @Specialization
     protected static String doInt(int i) {
-        return Boundaries.stringValueOf(i);
+        return NumberStringCache.intToString(i);
     }
 
     @Specialization
     protected static String doLong(long i) {
-        return Boundaries.stringValueOf(i);
+        return NumberStringCache.longToString(i);
     }
 
     @Specialization
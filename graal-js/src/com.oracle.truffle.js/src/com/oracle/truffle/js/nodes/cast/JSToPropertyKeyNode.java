@@ -50,6 +50,7 @@ import com.oracle.truffle.js.nodes.JavaScriptNode;
 import com.oracle.truffle.js.nodes.cast.JSToPropertyKeyNodeGen.JSToPropertyKeyWrapperNodeGen;
 import com.oracle.truffle.js.nodes.unary.JSUnaryNode;
 import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 
 import java.util.Set;
 
@@ -73,6 +74,11 @@ public abstract class JSToPropertyKeyNode extends JavaScriptBaseNode {
         return value;
     }
 
+    @Specialization
+    protected String doInt(int value) {
+        return NumberStringCache.intToString(value);
+    }
+
     // !isString intentionally omitted
     @Specialization(guards = {"!isSymbol(value)"})
     protected Object doOther(Object value,
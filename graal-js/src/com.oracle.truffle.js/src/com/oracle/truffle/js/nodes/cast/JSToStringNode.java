@@ -61,6 +61,7 @@ import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.objects.JSLazyString;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 
 /**
  * This implements ECMA 9.8. ToString.
@@ -127,7 +128,7 @@ public abstract class JSToStringNode extends JavaScriptBaseNode {
 
     @Specialization
     protected String doInteger(int value) {
-        return Boundaries.stringValueOf(value);
+        return NumberStringCache.intToString(value);
     }
 
     @Specialization
@@ -137,7 +138,7 @@ public abstract class JSToStringNode extends JavaScriptBaseNode {
 
     @Specialization
     protected String doLong(long value) {
-        return Boundaries.stringValueOf(value);
+        return NumberStringCache.longToString(value);
     }
 
     @Specialization
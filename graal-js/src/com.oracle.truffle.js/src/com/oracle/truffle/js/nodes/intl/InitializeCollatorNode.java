@@ -49,6 +49,7 @@ import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.builtins.intl.JSCollator;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.util.IntlUtil;
 
 /*
@@ -57,6 +58,8 @@ import com.oracle.truffle.js.runtime.util.IntlUtil;
 public abstract class InitializeCollatorNode extends JavaScriptBaseNode {
 
     private final JSContext context;
+    /** Kind of the implicitly created collators to cache, or {@code null}. */
+    private final IntlFormatterCache.Kind cacheKind;
 
     @Child JSToCanonicalizedLocaleListNode toCanonicalizedLocaleListNode;
     @Child CreateOptionsObjectNode createOptionsNode;
@@ -69,8 +72,9 @@ public abstract class InitializeCollatorNode extends JavaScriptBaseNode {
     @Child GetBooleanOptionNode getIgnorePunctuationOption;
     private final BranchProfile errorBranch = BranchProfile.create();
 
-    protected InitializeCollatorNode(JSContext context) {
+    protected InitializeCollatorNode(JSContext context, IntlFormatterCache.Kind cacheKind) {
         this.context = context;
+        this.cacheKind = cacheKind;
         this.toCanonicalizedLocaleListNode = JSToCanonicalizedLocaleListNode.create(context);
         this.createOptionsNode = CreateOptionsObjectNodeGen.create(context);
         this.getUsageOption = GetStringOptionNode.create(context, IntlUtil.USAGE, new String[]{IntlUtil.SORT, IntlUtil.SEARCH}, IntlUtil.SORT);
@@ -81,10 +85,22 @@ public abstract class InitializeCollatorNode extends JavaScriptBaseNode {
         this.getIgnorePunctuationOption = GetBooleanOptionNode.create(context, IntlUtil.IGNORE_PUNCTUATION, false);
     }
 
+    /**
+     * Initializes the given collator object. If the node caches collators, the result may be a
+     * cached collator object instead.
+     */
     public abstract DynamicObject executeInit(DynamicObject collator, Object locales, Object options);
 
     public static InitializeCollatorNode createInitalizeCollatorNode(JSContext context) {
-        return InitializeCollatorNodeGen.create(context);
+        return InitializeCollatorNodeGen.create(context, null);
+    }
+
+    /**
+     * Creates a node that looks up the initialized collator in the per-realm
+     * {@link IntlFormatterCache} once all options have been read.
+     */
+    public static InitializeCollatorNode createCachingInitalizeCollatorNode(JSContext context) {
+        return InitializeCollatorNodeGen.create(context, IntlFormatterCache.Kind.COLLATOR);
     }
 
     @Specialization
@@ -102,7 +118,19 @@ public abstract class InitializeCollatorNode extends JavaScriptBaseNode {
             String sensitivity = getSensitivityOption.executeValue(options);
             Boolean ignorePunctuation = getIgnorePunctuationOption.executeValue(options);
 
+            IntlFormatterCache.Key cacheKey = null;
+            if (cacheKind != null) {
+                cacheKey = new IntlFormatterCache.Key(cacheKind, locales, usage, optLocaleMatcher, optkn, optkf, sensitivity, ignorePunctuation);
+                DynamicObject cached = context.getRealm().getIntlFormatterCache().get(cacheKey);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+
             JSCollator.initializeCollator(context, state, locales, usage, optLocaleMatcher, optkn, optkf, sensitivity, ignorePunctuation);
+            if (cacheKey != null) {
+                context.getRealm().getIntlFormatterCache().put(cacheKey, collatorObj);
+            }
 
         } catch (MissingResourceException e) {
             errorBranch.enter();
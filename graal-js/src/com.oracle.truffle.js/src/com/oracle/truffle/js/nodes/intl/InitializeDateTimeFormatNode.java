@@ -55,6 +55,7 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.builtins.intl.JSDateTimeFormat;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.util.IntlUtil;
 
 /*
@@ -93,10 +94,13 @@ public abstract class InitializeDateTimeFormatNode extends JavaScriptBaseNode {
     private final BranchProfile errorBranch = BranchProfile.create();
 
     private final JSContext context;
+    /** Kind of the implicitly created formatters to cache, or {@code null}. */
+    private final IntlFormatterCache.Kind cacheKind;
 
-    protected InitializeDateTimeFormatNode(JSContext context, String required, String defaults) {
+    protected InitializeDateTimeFormatNode(JSContext context, String required, String defaults, IntlFormatterCache.Kind cacheKind) {
 
         this.context = context;
+        this.cacheKind = cacheKind;
 
         this.required = required;
         this.defaults = defaults;
@@ -127,10 +131,23 @@ public abstract class InitializeDateTimeFormatNode extends JavaScriptBaseNode {
         this.toStringNode = JSToStringNode.create();
     }
 
-    public abstract DynamicObject executeInit(DynamicObject collator, Object locales, Object options);
+    /**
+     * Initializes the given date time format object. If the node caches formatters, the result may
+     * be a cached date time format object instead.
+     */
+    public abstract DynamicObject executeInit(DynamicObject dateTimeFormatObj, Object locales, Object options);
 
     public static InitializeDateTimeFormatNode createInitalizeDateTimeFormatNode(JSContext context, String required, String defaults) {
-        return InitializeDateTimeFormatNodeGen.create(context, required, defaults);
+        return InitializeDateTimeFormatNodeGen.create(context, required, defaults, null);
+    }
+
+    /**
+     * Creates a node that looks up the initialized date time format in the per-realm
+     * {@link IntlFormatterCache} once all options have been read. The kind identifies the
+     * {@code required} and {@code defaults} arguments.
+     */
+    public static InitializeDateTimeFormatNode createCachingInitalizeDateTimeFormatNode(JSContext context, String required, String defaults, IntlFormatterCache.Kind cacheKind) {
+        return InitializeDateTimeFormatNodeGen.create(context, required, defaults, cacheKind);
     }
 
     @Specialization
@@ -161,7 +178,7 @@ public abstract class InitializeDateTimeFormatNode extends JavaScriptBaseNode {
             String hcOpt = getHourCycleOption.executeValue(options);
 
             Object timeZoneValue = getTimeZoneNode.getValue(options);
-            TimeZone timeZone = toTimeZone(timeZoneValue);
+            String timeZoneId = toTimeZoneId(timeZoneValue);
 
             String weekdayOpt = getWeekdayOption.executeValue(options);
             String eraOpt = getEraOption.executeValue(options);
@@ -184,8 +201,21 @@ public abstract class InitializeDateTimeFormatNode extends JavaScriptBaseNode {
                 throw Errors.createTypeError("dateStyle and timeStyle options cannot be mixed with other date/time options");
             }
 
+            IntlFormatterCache.Key cacheKey = null;
+            if (cacheKind != null) {
+                cacheKey = new IntlFormatterCache.Key(cacheKind, locales, weekdayOpt, eraOpt, yearOpt, monthOpt, dayOpt, hourOpt, hcOpt, hour12Opt, minuteOpt, secondOpt, tzNameOpt,
+                                timeZoneId, calendarOpt, numberingSystemOpt, dateStyleOpt, timeStyleOpt);
+                DynamicObject cached = context.getRealm().getIntlFormatterCache().get(cacheKey);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+
             JSDateTimeFormat.setupInternalDateTimeFormat(context, state, locales, weekdayOpt, eraOpt, yearOpt, monthOpt, dayOpt, hourOpt, hcOpt, hour12Opt, minuteOpt, secondOpt, tzNameOpt,
-                            timeZone, calendarOpt, numberingSystemOpt, dateStyleOpt, timeStyleOpt);
+                            getICUTimeZone(timeZoneId), calendarOpt, numberingSystemOpt, dateStyleOpt, timeStyleOpt);
+            if (cacheKey != null) {
+                context.getRealm().getIntlFormatterCache().put(cacheKey, dateTimeFormatObj);
+            }
 
         } catch (MissingResourceException e) {
             errorBranch.enter();
@@ -195,7 +225,7 @@ public abstract class InitializeDateTimeFormatNode extends JavaScriptBaseNode {
         return dateTimeFormatObj;
     }
 
-    private TimeZone toTimeZone(Object timeZoneValue) {
+    private String toTimeZoneId(Object timeZoneValue) {
         String tzId;
         if (timeZoneValue != Undefined.instance) {
             String name = toStringNode.executeString(timeZoneValue);
@@ -207,7 +237,7 @@ public abstract class InitializeDateTimeFormatNode extends JavaScriptBaseNode {
         } else {
             tzId = toICUTimeZoneId(context.getRealm().getLocalTimeZoneId());
         }
-        return getICUTimeZone(tzId);
+        return tzId;
     }
 
     @TruffleBoundary
@@ -49,6 +49,7 @@ import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.builtins.intl.JSNumberFormat;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.util.IntlUtil;
 
 /*
@@ -57,6 +58,8 @@ import com.oracle.truffle.js.runtime.util.IntlUtil;
 public abstract class InitializeNumberFormatNode extends JavaScriptBaseNode {
 
     private final JSContext context;
+    /** Kind of the implicitly created formatters to cache, or {@code null}. */
+    private final IntlFormatterCache.Kind cacheKind;
 
     @Child JSToCanonicalizedLocaleListNode toCanonicalizedLocaleListNode;
     @Child CreateOptionsObjectNode createOptionsNode;
@@ -81,8 +84,9 @@ public abstract class InitializeNumberFormatNode extends JavaScriptBaseNode {
     @Child GetStringOptionNode getSignDisplayOption;
     private final BranchProfile errorBranch = BranchProfile.create();
 
-    protected InitializeNumberFormatNode(JSContext context) {
+    protected InitializeNumberFormatNode(JSContext context, IntlFormatterCache.Kind cacheKind) {
         this.context = context;
+        this.cacheKind = cacheKind;
         this.toCanonicalizedLocaleListNode = JSToCanonicalizedLocaleListNode.create(context);
         this.createOptionsNode = CreateOptionsObjectNodeGen.create(context);
         this.getLocaleMatcherOption = GetStringOptionNode.create(context, IntlUtil.LOCALE_MATCHER,
@@ -103,10 +107,22 @@ public abstract class InitializeNumberFormatNode extends JavaScriptBaseNode {
         this.setNumberFormatDigitOptions = SetNumberFormatDigitOptionsNode.create(context);
     }
 
-    public abstract DynamicObject executeInit(DynamicObject collator, Object locales, Object options);
+    /**
+     * Initializes the given number format object. If the node caches formatters, the result may
+     * be a cached number format object instead.
+     */
+    public abstract DynamicObject executeInit(DynamicObject numberFormatObj, Object locales, Object options);
 
     public static InitializeNumberFormatNode createInitalizeNumberFormatNode(JSContext context) {
-        return InitializeNumberFormatNodeGen.create(context);
+        return InitializeNumberFormatNodeGen.create(context, null);
+    }
+
+    /**
+     * Creates a node that looks up the initialized number format in the per-realm
+     * {@link IntlFormatterCache} once all options have been read.
+     */
+    public static InitializeNumberFormatNode createCachingInitalizeNumberFormatNode(JSContext context) {
+        return InitializeNumberFormatNodeGen.create(context, IntlFormatterCache.Kind.NUMBER_FORMAT);
     }
 
     @Specialization
@@ -123,7 +139,6 @@ public abstract class InitializeNumberFormatNode extends JavaScriptBaseNode {
                 IntlUtil.validateUnicodeLocaleIdentifierType(numberingSystem, errorBranch);
                 numberingSystem = IntlUtil.normalizeUnicodeLocaleIdentifierType(numberingSystem);
             }
-            state.resolveLocaleAndNumberingSystem(context, locales, numberingSystem);
 
             setNumberFormatUnitOptions(state, options);
 
@@ -156,7 +171,22 @@ public abstract class InitializeNumberFormatNode extends JavaScriptBaseNode {
             String signDisplay = getSignDisplayOption.executeValue(options);
             state.setSignDisplay(signDisplay);
 
+            IntlFormatterCache.Key cacheKey = null;
+            if (cacheKind != null) {
+                cacheKey = new IntlFormatterCache.Key(cacheKind, locales, numberingSystem, style, state.getCurrency(), state.getCurrencyDisplay(), state.getCurrencySign(), state.getUnit(),
+                                state.getUnitDisplay(), notation, state.getMinimumIntegerDigits(), state.getMinimumFractionDigits(), state.getMaximumFractionDigits(),
+                                state.getMinimumSignificantDigits(), state.getMaximumSignificantDigits(), state.getCompactDisplay(), useGrouping, signDisplay);
+                DynamicObject cached = context.getRealm().getIntlFormatterCache().get(cacheKey);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+
+            state.resolveLocaleAndNumberingSystem(context, locales, numberingSystem);
             state.initializeNumberFormatter();
+            if (cacheKey != null) {
+                context.getRealm().getIntlFormatterCache().put(cacheKey, numberFormatObj);
+            }
         } catch (MissingResourceException e) {
             errorBranch.enter();
             throw Errors.createICU4JDataError(e);
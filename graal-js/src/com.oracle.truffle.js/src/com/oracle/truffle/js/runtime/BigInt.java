@@ -54,62 +54,94 @@ import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.runtime.interop.JSMetaType;
 
+/**
+ * BigInt value. Values that fit into a {@code long} are stored inline in {@link #longValue}; only
+ * larger values are backed by a {@link BigInteger}. The representation is canonical: a BigInt has a
+ * {@link BigInteger} if and only if its value does not fit into a {@code long}.
+ *
+ * The {@code *Exact} operations only handle the inline representation and throw an
+ * {@link ArithmeticException} if an operand or the result does not fit into a {@code long}, for use
+ * in {@code rewriteOn} specializations.
+ */
 @ExportLibrary(InteropLibrary.class)
 @ValueType
 public final class BigInt implements Comparable<BigInt>, TruffleObject {
 
     static final long serialVersionUID = 6019523258212492110L;
 
+    /** The value if {@link #value} is {@code null}. */
+    private final long longValue;
+    /** The value if it does not fit into a {@code long}, otherwise {@code null}. */
     private final BigInteger value;
 
-    public static final BigInt ZERO = new BigInt(BigInteger.ZERO);
-    public static final BigInt ONE = new BigInt(BigInteger.ONE);
-    public static final BigInt NEGATIVE_ONE = new BigInt(BigInteger.valueOf(-1));
-    public static final BigInt TWO = new BigInt(BigInteger.valueOf(2));
+    public static final BigInt ZERO = new BigInt(0L);
+    public static final BigInt ONE = new BigInt(1L);
+    public static final BigInt NEGATIVE_ONE = new BigInt(-1L);
+    public static final BigInt TWO = new BigInt(2L);
 
-    public static final BigInt MAX_INT = new BigInt(BigInteger.valueOf(Integer.MAX_VALUE));
-    public static final BigInt MIN_INT = new BigInt(BigInteger.valueOf(Integer.MIN_VALUE));
+    public static final BigInt MAX_INT = new BigInt(Integer.MAX_VALUE);
+    public static final BigInt MIN_INT = new BigInt(Integer.MIN_VALUE);
 
     private static final BigInteger TWO64 = BigInteger.ONE.shiftLeft(64);
 
+    @TruffleBoundary
     public BigInt(String s, int r) {
-        this.value = new BigInteger(s, r);
+        this(new BigInteger(s, r));
     }
 
+    @TruffleBoundary
     public BigInt(BigInteger v) {
-        this.value = v;
+        if (v.bitLength() < Long.SIZE) {
+            this.longValue = v.longValue();
+            this.value = null;
+        } else {
+            this.longValue = 0L;
+            this.value = v;
+        }
+    }
+
+    private BigInt(long v) {
+        this.longValue = v;
+        this.value = null;
     }
 
     @TruffleBoundary
     public static BigInt fromBigInteger(BigInteger value) {
-        if (value.equals(BigInteger.ZERO)) {
-            return ZERO;
-        } else if (value.equals(BigInteger.ONE)) {
-            return ONE;
-        } else {
-            return new BigInt(value);
-        }
+        return new BigInt(value);
     }
 
     @TruffleBoundary
     public static BigInt valueOf(String s) {
-        return new BigInt(parseBigInteger(s));
+        String trimmedString = s.trim();
+        if (trimmedString.length() <= 18 && (trimmedString.length() <= 1 || trimmedString.charAt(0) != '0')) {
+            // at most 18 decimal digits always fit into a long
+            return valueOf(Long.parseLong(trimmedString.isEmpty() ? "0" : trimmedString));
+        }
+        return new BigInt(parseBigInteger(trimmedString));
     }
 
-    @TruffleBoundary
     public static BigInt valueOf(long i) {
-        return new BigInt(BigInteger.valueOf(i));
+        if (i == 0L) {
+            return ZERO;
+        } else if (i == 1L) {
+            return ONE;
+        }
+        return new BigInt(i);
     }
 
-    @TruffleBoundary
     public static BigInt valueOfUnsigned(long i) {
         if (i >= 0) {
-            return new BigInt(BigInteger.valueOf(i));
+            return valueOf(i);
         } else {
-            return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+            return valueOfUnsignedSlow(i);
         }
     }
 
+    @TruffleBoundary
+    private static BigInt valueOfUnsignedSlow(long i) {
+        return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+    }
+
     @TruffleBoundary
     private static BigInteger parseBigInteger(final String valueString) {
 
@@ -141,49 +173,90 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         return new BigInteger(trimmedString, 10);
     }
 
-    @TruffleBoundary
+    /**
+     * Whether the value is stored inline, i.e., fits into a {@code long}.
+     */
+    public boolean isLong() {
+        return value == null;
+    }
+
     public int intValue() {
-        return value.intValue();
+        if (value == null) {
+            return (int) longValue;
+        }
+        return intValueSlow();
     }
 
     @TruffleBoundary
+    private int intValueSlow() {
+        return value.intValue();
+    }
+
     public double doubleValue() {
+        if (value == null) {
+            return longValue;
+        }
+        return doubleValueSlow();
+    }
+
+    @TruffleBoundary
+    private double doubleValueSlow() {
         return value.doubleValue();
     }
 
+    @TruffleBoundary
     public BigInteger bigIntegerValue() {
-        return value;
+        return value == null ? BigInteger.valueOf(longValue) : value;
     }
 
-    @TruffleBoundary
     public BigInt toBigInt64() {
-        return valueOf(value.longValue());
+        if (value == null) {
+            return this;
+        }
+        return valueOf(longValueSlow());
     }
 
-    @TruffleBoundary
     public BigInt toBigUint64() {
-        return new BigInt(value.mod(TWO64));
+        if (value == null && longValue >= 0) {
+            return this;
+        }
+        return toBigUint64Slow();
+    }
+
+    @TruffleBoundary
+    private BigInt toBigUint64Slow() {
+        return new BigInt(bigIntegerValue().mod(TWO64));
     }
 
     @TruffleBoundary
     public BigInt pow(int e) {
-        return new BigInt(value.pow(e));
+        return new BigInt(bigIntegerValue().pow(e));
     }
 
     @TruffleBoundary
     public BigInt mod(BigInt m) {
-        return new BigInt(value.mod(m.value));
+        return new BigInt(bigIntegerValue().mod(m.bigIntegerValue()));
     }
 
     @Override
-    @TruffleBoundary
     public int compareTo(BigInt b) {
-        return value.compareTo(b.value);
+        if (value == null && b.value == null) {
+            return Long.compare(longValue, b.longValue);
+        }
+        return compareToSlow(b);
     }
 
     @TruffleBoundary
+    private int compareToSlow(BigInt b) {
+        return bigIntegerValue().compareTo(b.bigIntegerValue());
+    }
+
     public int compareValueTo(long b) {
-        return value.compareTo(BigInteger.valueOf(b));
+        if (value == null) {
+            return Long.compare(longValue, b);
+        }
+        // a BigInteger-backed value is out of long range
+        return value.signum();
     }
 
     @TruffleBoundary
@@ -196,133 +269,292 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         } else if (b == Double.NEGATIVE_INFINITY) {
             return 1;
         } else {
-            BigDecimal thisValue = new BigDecimal(value);
+            BigDecimal thisValue = new BigDecimal(bigIntegerValue());
             BigDecimal theOtherValue = new BigDecimal(b);
             return thisValue.compareTo(theOtherValue);
         }
     }
 
-    @TruffleBoundary
+    public BigInt addExact(BigInt b) {
+        if (value != null || b.value != null) {
+            throw new ArithmeticException();
+        }
+        return valueOf(Math.addExact(longValue, b.longValue));
+    }
+
+    public BigInt subtractExact(BigInt b) {
+        if (value != null || b.value != null) {
+            throw new ArithmeticException();
+        }
+        return valueOf(Math.subtractExact(longValue, b.longValue));
+    }
+
+    public BigInt multiplyExact(BigInt b) {
+        if (value != null || b.value != null) {
+            throw new ArithmeticException();
+        }
+        return valueOf(Math.multiplyExact(longValue, b.longValue));
+    }
+
     public BigInt subtract(BigInt b) {
-        return new BigInt(value.subtract(b.value));
+        if (value == null && b.value == null) {
+            long r = longValue - b.longValue;
+            if (((longValue ^ b.longValue) & (longValue ^ r)) >= 0) {
+                return valueOf(r);
+            }
+        }
+        return subtractSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt subtractSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().subtract(b.bigIntegerValue()));
+    }
+
     public BigInt add(BigInt b) {
-        return new BigInt(value.add(b.value));
+        if (value == null && b.value == null) {
+            long r = longValue + b.longValue;
+            if (((longValue ^ r) & (b.longValue ^ r)) >= 0) {
+                return valueOf(r);
+            }
+        }
+        return addSlow(b);
+    }
+
+    @TruffleBoundary
+    private BigInt addSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().add(b.bigIntegerValue()));
     }
 
     @TruffleBoundary
     public String toString(int radix) {
+        if (value == null) {
+            return Long.toString(longValue, radix);
+        }
         return value.toString(radix);
     }
 
-    @TruffleBoundary
     public boolean testBit(int n) {
+        if (value == null) {
+            return ((n < Long.SIZE ? longValue >> n : longValue >> (Long.SIZE - 1)) & 1L) != 0;
+        }
+        return testBitSlow(n);
+    }
+
+    @TruffleBoundary
+    private boolean testBitSlow(int n) {
         return value.testBit(n);
     }
 
-    @TruffleBoundary(allowInlining = true)
     public int signum() {
-        return value.signum();
+        if (value == null) {
+            return Long.signum(longValue);
+        }
+        return signumSlow();
     }
 
     @TruffleBoundary
+    private int signumSlow() {
+        return value.signum();
+    }
+
     public BigInt negate() {
-        return new BigInt(value.negate());
+        if (value == null && longValue != Long.MIN_VALUE) {
+            return valueOf(-longValue);
+        }
+        return negateSlow();
     }
 
     @TruffleBoundary
+    private BigInt negateSlow() {
+        return new BigInt(bigIntegerValue().negate());
+    }
+
     public BigInt not() {
+        if (value == null) {
+            return valueOf(~longValue);
+        }
+        return notSlow();
+    }
+
+    @TruffleBoundary
+    private BigInt notSlow() {
         return new BigInt(value.not());
     }
 
     @Override
-    @TruffleBoundary
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((value == null) ? 0 : value.hashCode());
-        return result;
+        if (value == null) {
+            return Long.hashCode(longValue);
+        }
+        return hashCodeSlow();
     }
 
-    @Override
     @TruffleBoundary
+    private int hashCodeSlow() {
+        return value.hashCode();
+    }
+
+    @Override
     public boolean equals(Object obj) {
         if (this == obj) {
             return true;
         }
-        if (obj == null) {
-            return false;
-        }
-        if (getClass() != obj.getClass()) {
+        if (!(obj instanceof BigInt)) {
             return false;
         }
         BigInt other = (BigInt) obj;
-        if (value == null) {
-            if (other.value != null) {
-                return false;
-            }
-        } else if (!value.equals(other.value)) {
-            return false;
+        if (value == null || other.value == null) {
+            // the representation is canonical
+            return value == other.value && longValue == other.longValue;
         }
-        return true;
+        return equalsSlow(other);
     }
 
     @TruffleBoundary
+    private boolean equalsSlow(BigInt other) {
+        return value.equals(other.value);
+    }
+
     public BigInt and(BigInt b) {
-        return new BigInt(value.and(b.value));
+        if (value == null && b.value == null) {
+            return valueOf(longValue & b.longValue);
+        }
+        return andSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt andSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().and(b.bigIntegerValue()));
+    }
+
     public BigInt or(BigInt b) {
-        return new BigInt(value.or(b.value));
+        if (value == null && b.value == null) {
+            return valueOf(longValue | b.longValue);
+        }
+        return orSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt orSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().or(b.bigIntegerValue()));
+    }
+
     public BigInt xor(BigInt b) {
-        return new BigInt(value.xor(b.value));
+        if (value == null && b.value == null) {
+            return valueOf(longValue ^ b.longValue);
+        }
+        return xorSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt xorSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().xor(b.bigIntegerValue()));
+    }
+
     public BigInt multiply(BigInt b) {
-        return new BigInt(value.multiply(b.value));
+        if (value == null && b.value == null) {
+            long x = longValue;
+            long y = b.longValue;
+            long r = x * y;
+            // same overflow check as Math.multiplyExact
+            if (((Math.abs(x) | Math.abs(y)) >>> 31 == 0) || ((y == 0 || r / y == x) && !(x == Long.MIN_VALUE && y == -1))) {
+                return valueOf(r);
+            }
+        }
+        return multiplySlow(b);
     }
 
     @TruffleBoundary
+    private BigInt multiplySlow(BigInt b) {
+        return new BigInt(bigIntegerValue().multiply(b.bigIntegerValue()));
+    }
+
+    /**
+     * Truncating division. The divisor must not be zero.
+     */
     public BigInt divide(BigInt b) {
-        return new BigInt(value.divide(b.value));
+        if (value == null && b.value == null && !(longValue == Long.MIN_VALUE && b.longValue == -1L)) {
+            return valueOf(longValue / b.longValue);
+        }
+        return divideSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt divideSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().divide(b.bigIntegerValue()));
+    }
+
+    /**
+     * Truncating remainder. The divisor must not be zero.
+     */
     public BigInt remainder(BigInt b) {
-        return new BigInt(value.remainder(b.value));
+        if (value == null && b.value == null) {
+            // Long.MIN_VALUE % -1 is 0 in Java
+            return valueOf(longValue % b.longValue);
+        }
+        return remainderSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt remainderSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().remainder(b.bigIntegerValue()));
+    }
+
     public BigInt shiftLeft(int b) {
-        return new BigInt(value.shiftLeft(b));
+        if (value == null) {
+            if (b <= 0) {
+                return valueOf(b > -Long.SIZE ? longValue >> -b : longValue >> (Long.SIZE - 1));
+            } else if (b < Long.SIZE - 1) {
+                long r = longValue << b;
+                if ((r >> b) == longValue) {
+                    return valueOf(r);
+                }
+            }
+        }
+        return shiftLeftSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt shiftLeftSlow(int b) {
+        return new BigInt(bigIntegerValue().shiftLeft(b));
+    }
+
     public BigInt shiftRight(int b) {
-        return new BigInt(value.shiftRight(b));
+        if (value == null && b >= 0) {
+            return valueOf(b < Long.SIZE ? longValue >> b : longValue >> (Long.SIZE - 1));
+        }
+        return shiftRightSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt shiftRightSlow(int b) {
+        return new BigInt(bigIntegerValue().shiftRight(b));
+    }
+
     public long longValueExact() {
-        return value.longValueExact();
+        if (value == null) {
+            return longValue;
+        }
+        throw new ArithmeticException("BigInteger out of long range");
     }
 
-    @TruffleBoundary
     public long longValue() {
+        if (value == null) {
+            return longValue;
+        }
+        return longValueSlow();
+    }
+
+    @TruffleBoundary
+    private long longValueSlow() {
         return value.longValue();
     }
 
     @Override
     @TruffleBoundary
     public String toString() {
-        return value.toString(10);
+        return toString(10);
     }
 
     @ExportMessage
@@ -331,102 +563,90 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInByte() {
-        return value.bitLength() < Byte.SIZE;
+        return value == null && (byte) longValue == longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInShort() {
-        return value.bitLength() < Short.SIZE;
+        return value == null && (short) longValue == longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInInt() {
-        return value.bitLength() < Integer.SIZE;
+        return value == null && (int) longValue == longValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     public boolean fitsInLong() {
-        return value.bitLength() < Long.SIZE;
+        return value == null;
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInDouble() {
-        if (value.bitLength() <= 53) { // 53 = size of double mantissa + 1
-            return true;
-        } else {
-            double doubleValue = value.doubleValue();
-            if (!Double.isFinite(doubleValue)) {
-                return false;
-            }
-            return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
+        if (value == null) {
+            return longValue == (long) (double) longValue && longValue != Long.MAX_VALUE;
         }
+        double doubleValue = value.doubleValue();
+        if (!Double.isFinite(doubleValue)) {
+            return false;
+        }
+        return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInFloat() {
-        if (value.bitLength() <= 24) { // 24 = size of float mantissa + 1
+        BigInteger bigValue = bigIntegerValue();
+        if (bigValue.bitLength() <= 24) { // 24 = size of float mantissa + 1
             return true;
         } else {
-            float floatValue = value.floatValue();
+            float floatValue = bigValue.floatValue();
             if (!Float.isFinite(floatValue)) {
                 return false;
             }
-            return new BigDecimal(floatValue).toBigIntegerExact().equals(value);
+            return new BigDecimal(floatValue).toBigIntegerExact().equals(bigValue);
         }
     }
 
     @ExportMessage
-    @TruffleBoundary
     byte asByte() throws UnsupportedMessageException {
-        try {
-            return value.byteValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInByte()) {
+            return (byte) longValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     short asShort() throws UnsupportedMessageException {
-        try {
-            return value.shortValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInShort()) {
+            return (short) longValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     int asInt() throws UnsupportedMessageException {
-        try {
-            return value.intValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInInt()) {
+            return (int) longValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     long asLong() throws UnsupportedMessageException {
-        try {
-            return longValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInLong()) {
+            return longValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
     @TruffleBoundary
     float asFloat() throws UnsupportedMessageException {
         if (fitsInFloat()) {
-            return value.floatValue();
+            return bigIntegerValue().floatValue();
         } else {
             throw UnsupportedMessageException.create();
         }
@@ -436,7 +656,7 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     @TruffleBoundary
     double asDouble() throws UnsupportedMessageException {
         if (fitsInDouble()) {
-            return value.doubleValue();
+            return doubleValue();
         } else {
             throw UnsupportedMessageException.create();
         }
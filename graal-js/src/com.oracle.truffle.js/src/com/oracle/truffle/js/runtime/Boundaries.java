@@ -151,6 +151,11 @@ public final class Boundaries {
         sb.append(str, start, end);
     }
 
+    @TruffleBoundary(allowInlining = true)
+    public static void builderSetLength(StringBuilder sb, int length) {
+        sb.setLength(length);
+    }
+
     @TruffleBoundary
     public static char charAt(CharSequence cs, int idx) {
         return cs.charAt(idx);
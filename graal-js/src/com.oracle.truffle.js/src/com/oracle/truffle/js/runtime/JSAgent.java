@@ -49,7 +49,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.graalvm.collections.EconomicSet;
 import org.graalvm.collections.Equivalence;
 
+import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleContext;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
@@ -57,7 +59,6 @@ import com.oracle.truffle.js.runtime.builtins.JSFinalizationRegistry;
 import com.oracle.truffle.js.runtime.builtins.JSFinalizationRegistryObject;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
-import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
  * Base class for ECMA2017 8.7 Agents.
@@ -87,6 +88,11 @@ public abstract class JSAgent implements EcmaAgent {
      */
     private int interopCallStackDepth;
 
+    /* Promise jobs queue statistics. */
+    private int maxPromiseJobsQueueDepth;
+    private long promiseJobsProcessed;
+    private long promiseJobsDrainTime;
+
     /**
      * Used to keep alive objects from weak references in the current job. Made for specification
      * compliance.
@@ -149,24 +155,39 @@ public abstract class JSAgent implements EcmaAgent {
     @TruffleBoundary
     public final void enqueuePromiseJob(DynamicObject job) {
         promiseJobsQueue.push(job);
+        int depth = promiseJobsQueue.size();
+        if (depth > maxPromiseJobsQueueDepth) {
+            maxPromiseJobsQueueDepth = depth;
+        }
     }
 
+    /**
+     * Runs all pending promise jobs. Consecutive jobs of the same realm are run under a single
+     * context enter by the {@link JSContext#getPromiseJobsRunnerCallTarget() promise jobs
+     * runner}.
+     */
     @TruffleBoundary
     public final void processAllPromises(boolean processWeakRefs) {
+        long startTime = System.nanoTime();
         try {
             while (!promiseJobsQueue.isEmpty()) {
-                DynamicObject nextJob = promiseJobsQueue.pollLast();
-                if (JSFunction.isJSFunction(nextJob)) {
-                    JSRealm functionRealm = JSFunction.getRealm(nextJob);
-                    Object prev = functionRealm.getTruffleContext().enter(null);
-                    try {
-                        JSFunction.call(nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
-                    } finally {
-                        functionRealm.getTruffleContext().leave(null, prev);
-                    }
+                DynamicObject nextJob = promiseJobsQueue.peekLast();
+                if (!JSFunction.isJSFunction(nextJob)) {
+                    promiseJobsQueue.pollLast();
+                    continue;
+                }
+                JSRealm functionRealm = JSFunction.getRealm(nextJob);
+                TruffleContext truffleContext = functionRealm.getTruffleContext();
+                Object prev = truffleContext.enter(null);
+                try {
+                    CallTarget runner = functionRealm.getContext().getPromiseJobsRunnerCallTarget();
+                    promiseJobsProcessed += (int) runner.call(this, functionRealm);
+                } finally {
+                    truffleContext.leave(null, prev);
                 }
             }
         } finally {
+            promiseJobsDrainTime += System.nanoTime() - startTime;
             // Ensure that there are no leftovers when the processing
             // is terminated by an exception (like ExitException).
             promiseJobsQueue.clear();
@@ -179,6 +200,45 @@ public abstract class JSAgent implements EcmaAgent {
         }
     }
 
+    /**
+     * Removes and returns the next pending promise job if it belongs to the given realm, otherwise
+     * returns {@code null}.
+     */
+    @TruffleBoundary
+    public final DynamicObject pollPromiseJob(JSRealm realm) {
+        while (!promiseJobsQueue.isEmpty()) {
+            DynamicObject nextJob = promiseJobsQueue.peekLast();
+            if (!JSFunction.isJSFunction(nextJob)) {
+                promiseJobsQueue.pollLast();
+            } else if (JSFunction.getRealm(nextJob) == realm) {
+                return promiseJobsQueue.pollLast();
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /** Number of promise jobs currently pending. */
+    public final int getPromiseJobsQueueDepth() {
+        return promiseJobsQueue.size();
+    }
+
+    /** Largest number of promise jobs that were pending at the same time. */
+    public final int getMaxPromiseJobsQueueDepth() {
+        return maxPromiseJobsQueueDepth;
+    }
+
+    /** Total number of promise jobs run. */
+    public final long getPromiseJobsProcessed() {
+        return promiseJobsProcessed;
+    }
+
+    /** Total time (in nanoseconds) spent draining the promise jobs queue. */
+    public final long getPromiseJobsDrainTime() {
+        return promiseJobsDrainTime;
+    }
+
     /**
      * Cleanup the finalizationRegistries that are unreferenced; cleanup referenced ones according
      * to 4.1.3 Execution and 4.1.4.1 HostCleanupFinalizatioRegistry.
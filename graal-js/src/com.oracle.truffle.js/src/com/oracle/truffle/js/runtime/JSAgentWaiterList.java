@@ -40,35 +40,85 @@
  */
 package com.oracle.truffle.js.runtime;
 
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
 /**
  * Java-based implementation of ECMA2017 WaiterList (24.4.1.2).
+ *
+ * Waiter lists are keyed by the byte address of the waited-on element within the shared buffer.
+ * Lookups go through a lock-free chained hash table on primitive keys; entries are only ever added,
+ * so readers never observe a removed bucket. Each entry keeps an intrusive FIFO list of
+ * {@link Waiter} nodes, and waiting agents are suspended with {@link LockSupport#park} rather than
+ * through thread interrupts.
  */
 public class JSAgentWaiterList {
 
-    private final Map<Integer, JSAgentWaiterListEntry> waiters;
+    private static final int INITIAL_CAPACITY = 16;
 
     private final Lock globalMonitor;
 
+    private volatile Bucket[] table;
+    /** Number of entries in {@link #table}, guarded by {@code this}. */
+    private int size;
+
     @TruffleBoundary
     public JSAgentWaiterList() {
-        this.waiters = new ConcurrentHashMap<>();
+        this.table = new Bucket[INITIAL_CAPACITY];
         this.globalMonitor = new ReentrantLock();
     }
 
-    public JSAgentWaiterListEntry getListForIndex(int indexPos) {
-        JSAgentWaiterListEntry list = Boundaries.mapPutIfAbsent(waiters, indexPos, new JSAgentWaiterListEntry());
-        if (list == null) {
-            return Boundaries.mapGet(waiters, indexPos);
-        } else {
-            return list;
+    public JSAgentWaiterListEntry getListForIndex(int address) {
+        Bucket[] t = table;
+        for (Bucket b = t[hash(address) & (t.length - 1)]; b != null; b = b.next) {
+            if (b.address == address) {
+                return b.entry;
+            }
+        }
+        return addListForIndex(address);
+    }
+
+    @TruffleBoundary
+    private synchronized JSAgentWaiterListEntry addListForIndex(int address) {
+        Bucket[] t = table;
+        int slot = hash(address) & (t.length - 1);
+        for (Bucket b = t[slot]; b != null; b = b.next) {
+            if (b.address == address) {
+                return b.entry;
+            }
+        }
+        JSAgentWaiterListEntry entry = new JSAgentWaiterListEntry();
+        if (++size > (t.length >> 1) + (t.length >> 2)) {
+            t = rehash(t);
+            slot = hash(address) & (t.length - 1);
+        }
+        t[slot] = new Bucket(address, entry, t[slot]);
+        table = t;
+        return entry;
+    }
+
+    private static Bucket[] rehash(Bucket[] oldTable) {
+        Bucket[] newTable = new Bucket[oldTable.length << 1];
+        int mask = newTable.length - 1;
+        for (Bucket head : oldTable) {
+            for (Bucket b = head; b != null; b = b.next) {
+                int slot = hash(b.address) & mask;
+                newTable[slot] = new Bucket(b.address, b.entry, newTable[slot]);
+            }
         }
+        return newTable;
+    }
+
+    /**
+     * Addresses are multiples of the element size, so spread them over the low bits.
+     */
+    private static int hash(int address) {
+        int h = address * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 
     public void lock() {
@@ -79,15 +129,32 @@ public class JSAgentWaiterList {
         globalMonitor.unlock();
     }
 
-    public static final class JSAgentWaiterListEntry extends ConcurrentLinkedQueue<Integer> {
+    private static final class Bucket {
+        final int address;
+        final JSAgentWaiterListEntry entry;
+        final Bucket next;
 
-        private static final long serialVersionUID = 2655886588267252886L;
+        Bucket(int address, JSAgentWaiterListEntry entry, Bucket next) {
+            this.address = address;
+            this.entry = entry;
+            this.next = next;
+        }
+    }
+
+    /**
+     * The waiters of a single address, in FIFO order. All methods except {@link #lock()} must only
+     * be called while holding the entry's lock (i.e., inside the agent's critical section).
+     */
+    public static final class JSAgentWaiterListEntry {
 
         private final Lock indexMonitor;
 
+        private Waiter head;
+        private Waiter tail;
+        private int size;
+
         @TruffleBoundary
         public JSAgentWaiterListEntry() {
-            super();
             this.indexMonitor = new ReentrantLock();
         }
 
@@ -99,6 +166,159 @@ public class JSAgentWaiterList {
             indexMonitor.unlock();
         }
 
+        public int size() {
+            return size;
+        }
+
+        public boolean contains(Waiter w) {
+            return w.linked;
+        }
+
+        public void add(Waiter w) {
+            assert !w.linked && !w.notified;
+            w.prev = tail;
+            w.next = null;
+            if (tail == null) {
+                head = w;
+            } else {
+                tail.next = w;
+            }
+            tail = w;
+            w.linked = true;
+            size++;
+        }
+
+        public void remove(Waiter w) {
+            assert w.linked;
+            if (w.prev == null) {
+                head = w.next;
+            } else {
+                w.prev.next = w.next;
+            }
+            if (w.next == null) {
+                tail = w.prev;
+            } else {
+                w.next.prev = w.prev;
+            }
+            w.prev = null;
+            w.next = null;
+            w.linked = false;
+            size--;
+        }
+
+        /**
+         * Detaches up to {@code count} waiters from the front of the list and marks them as
+         * notified. The detached waiters stay chained through their {@code next} links so that they
+         * can be woken in one batch with {@link Waiter#wakeAll} after the critical section has been
+         * left.
+         *
+         * @return the first detached waiter, or {@code null} if there was none
+         */
+        public Waiter removeFirst(int count) {
+            Waiter first = head;
+            if (first == null || count <= 0) {
+                return null;
+            }
+            Waiter last = first;
+            int n = 1;
+            last.prev = null;
+            last.linked = false;
+            last.notified = true;
+            while (n < count && last.next != null) {
+                last = last.next;
+                last.prev = null;
+                last.linked = false;
+                last.notified = true;
+                n++;
+            }
+            head = last.next;
+            if (head == null) {
+                tail = null;
+            } else {
+                head.prev = null;
+            }
+            last.next = null;
+            size -= n;
+            return first;
+        }
     }
 
+    /**
+     * Intrusive waiter list node representing a single suspended agent.
+     */
+    public static final class Waiter {
+
+        private final Thread thread;
+        private final int agentSignifier;
+
+        /* List links, guarded by the owning entry's lock. */
+        private Waiter prev;
+        private Waiter next;
+        private boolean linked;
+
+        private volatile boolean notified;
+
+        public Waiter(int agentSignifier) {
+            this.thread = Thread.currentThread();
+            this.agentSignifier = agentSignifier;
+        }
+
+        public int getAgentSignifier() {
+            return agentSignifier;
+        }
+
+        public boolean isNotified() {
+            return notified;
+        }
+
+        /**
+         * Parks the current thread until this waiter is notified or the timeout elapses. Must be
+         * called outside of the critical section. An interrupt cancels the execution, like an
+         * interrupt of a running loop does.
+         *
+         * @param timeoutMillis the timeout, {@link Integer#MAX_VALUE} meaning no timeout
+         * @return whether the waiter has been notified
+         * @throws JSCancelledExecutionException if the thread was interrupted while waiting
+         */
+        @TruffleBoundary
+        public boolean await(int timeoutMillis) {
+            assert thread == Thread.currentThread();
+            boolean timed = timeoutMillis != Integer.MAX_VALUE;
+            long deadline = timed ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0L;
+            while (!notified) {
+                if (Thread.interrupted()) {
+                    throw new JSCancelledExecutionException("Thread was interrupted.", null);
+                }
+                if (timed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            return notified;
+        }
+
+        /**
+         * Unparks a chain of waiters returned by {@link JSAgentWaiterListEntry#removeFirst}.
+         *
+         * @return the number of woken waiters
+         */
+        @TruffleBoundary
+        public static int wakeAll(Waiter first) {
+            int n = 0;
+            Waiter w = first;
+            while (w != null) {
+                Waiter next = w.next;
+                w.next = null;
+                LockSupport.unpark(w.thread);
+                w = next;
+                n++;
+            }
+            return n;
+        }
+    }
 }
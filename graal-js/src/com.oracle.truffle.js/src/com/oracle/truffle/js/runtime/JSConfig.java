@@ -84,6 +84,8 @@ public final class JSConfig {
     public static final int InteropLibraryLimit = 5;
     public static final int PropertyCacheLimit = 5;
     public static final int FunctionCacheLimit = 4;
+    /** Copy the properties of objects with up to this many properties with one cache per property. */
+    public static final int MaxExplodedCopyProperties = 32;
     public static final boolean AssertFinalPropertySpecialization = false;
     /** Try to cache by function object instead of call target. */
     public static final boolean FunctionCacheOnInstance = true;
@@ -97,6 +99,19 @@ public final class JSConfig {
     public static final boolean LazyStrings = true;
     public static final int MinLazyStringLength = 20;
     public static final int ConcatToLeafLimit = MinLazyStringLength / 2;
+    /** Substrings shorter than this are always copied instead of sharing the parent's chars. */
+    public static final int MinSlicedStringLength = 64;
+    /** A sliced string must cover at least 1/n of its parent, otherwise it is copied. */
+    public static final int SlicedStringMaxRetainFactor = 4;
+    /** Maximum number of rope levels walked by index access and substring before flattening. */
+    public static final int LazyStringMaxWalkDepth = 16;
+    /** Number of index accesses that walk a rope before it is flattened. */
+    public static final int LazyStringMaxIndexWalks = 8;
+    /**
+     * Flatten ropes into a Latin-1 buffer, inflated on the first wide char, instead of a char
+     * buffer. Off until JMHLazyStringBenchmark shows a benefit for both cases.
+     */
+    public static final boolean LazyStringLatin1Flattening = false;
 
     // Parser options
     public static final boolean ReturnOptimizer = true;
@@ -73,6 +73,7 @@ import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
+import com.oracle.truffle.js.nodes.promise.PromiseJobsRunnerRootNode;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.array.TypedArrayFactory;
 import com.oracle.truffle.js.runtime.builtins.Builtin;
@@ -132,7 +133,9 @@ import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.CompilableBiFunction;
+import com.oracle.truffle.js.runtime.util.CompiledRegexCache;
 import com.oracle.truffle.js.runtime.util.DebugJSAgent;
+import com.oracle.truffle.js.runtime.util.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TimeProfiler;
 
@@ -213,6 +216,10 @@ public class JSContext {
     private volatile CallTarget boundFunctionCallTargetCache;
     private volatile CallTarget boundFunctionConstructTargetCache;
     private volatile CallTarget boundFunctionConstructNewTargetCache;
+    private volatile CallTarget promiseJobsRunnerCallTargetCache;
+
+    private volatile MegamorphicPropertyCache megamorphicPropertyCache;
+    private volatile CompiledRegexCache compiledRegexCache;
 
     public enum BuiltinFunctionKey {
         ArrayFlattenIntoArray,
@@ -1101,6 +1108,70 @@ public class JSContext {
         });
     }
 
+    @TruffleBoundary
+    public CallTarget getPromiseJobsRunnerCallTarget() {
+        CallTarget result = promiseJobsRunnerCallTargetCache;
+        if (result == null) {
+            synchronized (this) {
+                result = promiseJobsRunnerCallTargetCache;
+                if (result == null) {
+                    result = promiseJobsRunnerCallTargetCache = Truffle.getRuntime().createCallTarget(new PromiseJobsRunnerRootNode(this));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the (shape, key) cache consulted by megamorphic property accesses, or {@code null}
+     * if it is disabled.
+     */
+    public MegamorphicPropertyCache getMegamorphicPropertyCache() {
+        if (!contextOptions.isMegamorphicPropertyCache()) {
+            return null;
+        }
+        MegamorphicPropertyCache result = megamorphicPropertyCache;
+        if (result == null) {
+            result = createMegamorphicPropertyCache();
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    private synchronized MegamorphicPropertyCache createMegamorphicPropertyCache() {
+        MegamorphicPropertyCache result = megamorphicPropertyCache;
+        if (result == null) {
+            result = new MegamorphicPropertyCache(this);
+            megamorphicPropertyCache = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the context-wide cache of compiled regular expressions, or {@code null} if it is
+     * disabled.
+     */
+    public CompiledRegexCache getCompiledRegexCache() {
+        if (contextOptions.getRegexCacheSize() <= 0) {
+            return null;
+        }
+        CompiledRegexCache result = compiledRegexCache;
+        if (result == null) {
+            result = createCompiledRegexCache();
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    private synchronized CompiledRegexCache createCompiledRegexCache() {
+        CompiledRegexCache result = compiledRegexCache;
+        if (result == null) {
+            result = new CompiledRegexCache(contextOptions.getRegexCacheSize(), contextOptions.getRegexCacheMaxPatternLength());
+            compiledRegexCache = result;
+        }
+        return result;
+    }
+
     @TruffleBoundary
     public CallTarget getBoundFunctionCallTarget() {
         CallTarget result = boundFunctionCallTargetCache;
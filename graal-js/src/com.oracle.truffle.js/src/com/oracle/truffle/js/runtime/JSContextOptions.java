@@ -311,6 +311,14 @@ public final class JSContextOptions {
     @Option(name = COMMONJS_REQUIRE_GLOBAL_PROPERTIES_NAME, category = OptionCategory.USER, help = "Npm package used to populate Node.js global object.") //
     public static final OptionKey<String> COMMONJS_REQUIRE_GLOBAL_PROPERTIES = new OptionKey<>("");
 
+    public static final String COMMONJS_RESOLUTION_CACHE_NAME = JS_OPTION_PREFIX + "commonjs-resolution-cache";
+    @Option(name = COMMONJS_RESOLUTION_CACHE_NAME, category = OptionCategory.EXPERT, help = "Cache module resolutions of CommonJS require and npm-compatible ES module loading, revalidated by the modification time of the probed folders and package.json files.") //
+    public static final OptionKey<Boolean> COMMONJS_RESOLUTION_CACHE = new OptionKey<>(true);
+
+    public static final String COMMONJS_RESOLUTION_MANIFEST_NAME = JS_OPTION_PREFIX + "commonjs-resolution-manifest";
+    @Option(name = COMMONJS_RESOLUTION_MANIFEST_NAME, category = OptionCategory.EXPERT, help = "File used to persist module resolutions across runs. Intended for deployments with immutable node_modules folders.") //
+    public static final OptionKey<String> COMMONJS_RESOLUTION_MANIFEST = new OptionKey<>("");
+
     public static final String GRAAL_BUILTIN_NAME = JS_OPTION_PREFIX + "graal-builtin";
     @Option(name = GRAAL_BUILTIN_NAME, category = OptionCategory.USER, help = "Provide 'Graal' global property.") //
     public static final OptionKey<Boolean> GRAAL_BUILTIN = new OptionKey<>(true);
@@ -451,6 +459,20 @@ public final class JSContextOptions {
     public static final OptionKey<Boolean> LAZY_TRANSLATION = new OptionKey<>(false);
     @CompilationFinal private boolean lazyTranslation;
 
+    public static final String LAZY_PARSING_NAME = JS_OPTION_PREFIX + "lazy-parsing";
+    @Option(name = LAZY_PARSING_NAME, category = OptionCategory.INTERNAL, help = "Drop parsed function bodies and parse them again on first call, scanning nested function bodies (requires lazy-translation).") //
+    public static final OptionKey<Boolean> LAZY_PARSING = new OptionKey<>(false);
+    @CompilationFinal private boolean lazyParsing;
+
+    public static final String LAZY_INTRINSICS_NAME = JS_OPTION_PREFIX + "lazy-intrinsics";
+    @Option(name = LAZY_INTRINSICS_NAME, category = OptionCategory.INTERNAL, help = "Create less frequently used built-in constructors and namespace objects on first access.") //
+    public static final OptionKey<Boolean> LAZY_INTRINSICS = new OptionKey<>(true);
+    @CompilationFinal private boolean lazyIntrinsics;
+
+    public static final String CODE_CACHE_DIR_NAME = JS_OPTION_PREFIX + "code-cache-dir";
+    @Option(name = CODE_CACHE_DIR_NAME, category = OptionCategory.EXPERT, help = "Directory used to cache the translated code of scripts across contexts and processes.") //
+    public static final OptionKey<String> CODE_CACHE_DIR = new OptionKey<>("");
+
     public static final String MAX_TYPED_ARRAY_LENGTH_NAME = JS_OPTION_PREFIX + "max-typed-array-length";
     @Option(name = MAX_TYPED_ARRAY_LENGTH_NAME, category = OptionCategory.EXPERT, help = "Maximum allowed length for TypedArrays.") //
     public static final OptionKey<Integer> MAX_TYPED_ARRAY_LENGTH = new OptionKey<>(JSConfig.MaxTypedArrayLength);
@@ -481,6 +503,21 @@ public final class JSContextOptions {
     public static final OptionKey<Integer> FUNCTION_CACHE_LIMIT = new OptionKey<>(JSConfig.FunctionCacheLimit);
     @CompilationFinal private int functionCacheLimit;
 
+    public static final String MEGAMORPHIC_PROPERTY_CACHE_NAME = JS_OPTION_PREFIX + "megamorphic-property-cache";
+    @Option(name = MEGAMORPHIC_PROPERTY_CACHE_NAME, category = OptionCategory.EXPERT, help = "Use a context-wide (shape, key) cache for property accesses that exceeded the property cache limit.") //
+    public static final OptionKey<Boolean> MEGAMORPHIC_PROPERTY_CACHE = new OptionKey<>(true);
+    @CompilationFinal private boolean megamorphicPropertyCache;
+
+    public static final String REGEX_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "regex-cache-size";
+    @Option(name = REGEX_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum number of compiled regular expressions kept in the context-wide regex cache (0 disables the cache).") //
+    public static final OptionKey<Integer> REGEX_CACHE_SIZE = new OptionKey<>(256);
+    @CompilationFinal private int regexCacheSize;
+
+    public static final String REGEX_CACHE_MAX_PATTERN_LENGTH_NAME = JS_OPTION_PREFIX + "regex-cache-max-pattern-length";
+    @Option(name = REGEX_CACHE_MAX_PATTERN_LENGTH_NAME, category = OptionCategory.EXPERT, help = "Patterns longer than this are not admitted to the context-wide regex cache.") //
+    public static final OptionKey<Integer> REGEX_CACHE_MAX_PATTERN_LENGTH = new OptionKey<>(4096);
+    @CompilationFinal private int regexCacheMaxPatternLength;
+
     public static final String TOP_LEVEL_AWAIT_NAME = JS_OPTION_PREFIX + "top-level-await";
     @Option(name = TOP_LEVEL_AWAIT_NAME, category = OptionCategory.EXPERT, help = "Enable top-level-await.")
     // defaulting to ecmascript-version>=2022
@@ -565,6 +602,8 @@ public final class JSContextOptions {
         this.interopCompletePromises = readBooleanOption(INTEROP_COMPLETE_PROMISES);
         this.testCloneUninitialized = readBooleanOption(TEST_CLONE_UNINITIALIZED);
         this.lazyTranslation = readBooleanOption(LAZY_TRANSLATION);
+        this.lazyParsing = readBooleanOption(LAZY_PARSING);
+        this.lazyIntrinsics = readBooleanOption(LAZY_INTRINSICS);
         this.stackTraceLimit = readIntegerOption(STACK_TRACE_LIMIT);
         this.maxTypedArrayLength = readIntegerOption(MAX_TYPED_ARRAY_LENGTH);
         this.maxApplyArgumentLength = readIntegerOption(MAX_APPLY_ARGUMENT_LENGTH);
@@ -574,6 +613,9 @@ public final class JSContextOptions {
 
         this.propertyCacheLimit = readIntegerOption(PROPERTY_CACHE_LIMIT);
         this.functionCacheLimit = readIntegerOption(FUNCTION_CACHE_LIMIT);
+        this.megamorphicPropertyCache = readBooleanOption(MEGAMORPHIC_PROPERTY_CACHE);
+        this.regexCacheSize = readIntegerOption(REGEX_CACHE_SIZE);
+        this.regexCacheMaxPatternLength = readIntegerOption(REGEX_CACHE_MAX_PATTERN_LENGTH);
     }
 
     private boolean patchBooleanOption(OptionKey<Boolean> key, String name, boolean oldValue, Consumer<String> invalidate) {
@@ -797,6 +839,14 @@ public final class JSContextOptions {
         return COMMONJS_REQUIRE_CWD.getValue(optionValues);
     }
 
+    public boolean isCommonJSResolutionCache() {
+        return COMMONJS_RESOLUTION_CACHE.getValue(optionValues);
+    }
+
+    public String getCommonJSResolutionManifest() {
+        return COMMONJS_RESOLUTION_MANIFEST.getValue(optionValues);
+    }
+
     public boolean isPerformance() {
         CompilerAsserts.neverPartOfCompilation("Context patchable option performance was assumed not to be accessed in compiled code.");
         return PERFORMANCE.getValue(optionValues) || (!PERFORMANCE.hasBeenSet(optionValues) && isShell());
@@ -854,6 +904,10 @@ public final class JSContextOptions {
         return LOCALE.getValue(optionValues);
     }
 
+    public String getCodeCacheDir() {
+        return CODE_CACHE_DIR.getValue(optionValues);
+    }
+
     public int getFunctionConstructorCacheSize() {
         return functionConstructorCacheSize;
     }
@@ -892,6 +946,14 @@ public final class JSContextOptions {
         return lazyTranslation;
     }
 
+    public boolean isLazyParsing() {
+        return lazyParsing && lazyTranslation;
+    }
+
+    public boolean isLazyIntrinsics() {
+        return lazyIntrinsics;
+    }
+
     public boolean isProfileTimePrintCumulative() {
         CompilerAsserts.neverPartOfCompilation("Context patchable option profile-time-print-cumulative was assumed not to be accessed in compiled code.");
         return PROFILE_TIME_PRINT_CUMULATIVE.getValue(optionValues);
@@ -921,6 +983,18 @@ public final class JSContextOptions {
         return functionCacheLimit;
     }
 
+    public boolean isMegamorphicPropertyCache() {
+        return megamorphicPropertyCache;
+    }
+
+    public int getRegexCacheSize() {
+        return regexCacheSize;
+    }
+
+    public int getRegexCacheMaxPatternLength() {
+        return regexCacheMaxPatternLength;
+    }
+
     public boolean isAsyncStackTraces() {
         return asyncStackTraces;
     }
@@ -965,6 +1039,8 @@ public final class JSContextOptions {
         hash = 53 * hash + (this.interopCompletePromises ? 1 : 0);
         hash = 53 * hash + (this.testCloneUninitialized ? 1 : 0);
         hash = 53 * hash + (this.lazyTranslation ? 1 : 0);
+        hash = 53 * hash + (this.lazyParsing ? 1 : 0);
+        hash = 53 * hash + (this.lazyIntrinsics ? 1 : 0);
         hash = 53 * hash + this.stackTraceLimit;
         hash = 53 * hash + (this.asyncStackTraces ? 1 : 0);
         hash = 53 * hash + this.maxTypedArrayLength;
@@ -972,6 +1048,9 @@ public final class JSContextOptions {
         hash = 53 * hash + this.maxPrototypeChainLength;
         hash = 53 * hash + this.propertyCacheLimit;
         hash = 53 * hash + this.functionCacheLimit;
+        hash = 53 * hash + (this.megamorphicPropertyCache ? 1 : 0);
+        hash = 53 * hash + this.regexCacheSize;
+        hash = 53 * hash + this.regexCacheMaxPatternLength;
         hash = 53 * hash + (this.topLevelAwait ? 1 : 0);
         return hash;
     }
@@ -1096,6 +1175,12 @@ public final class JSContextOptions {
         if (this.lazyTranslation != other.lazyTranslation) {
             return false;
         }
+        if (this.lazyParsing != other.lazyParsing) {
+            return false;
+        }
+        if (this.lazyIntrinsics != other.lazyIntrinsics) {
+            return false;
+        }
         if (this.stackTraceLimit != other.stackTraceLimit) {
             return false;
         }
@@ -1117,6 +1202,15 @@ public final class JSContextOptions {
         if (this.functionCacheLimit != other.functionCacheLimit) {
             return false;
         }
+        if (this.megamorphicPropertyCache != other.megamorphicPropertyCache) {
+            return false;
+        }
+        if (this.regexCacheSize != other.regexCacheSize) {
+            return false;
+        }
+        if (this.regexCacheMaxPatternLength != other.regexCacheMaxPatternLength) {
+            return false;
+        }
         if (this.topLevelAwait != other.topLevelAwait) {
             return false;
         }
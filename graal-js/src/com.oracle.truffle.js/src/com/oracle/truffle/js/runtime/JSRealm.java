@@ -54,6 +54,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.SplittableRandom;
 import java.util.WeakHashMap;
+import java.util.function.Function;
 
 import org.graalvm.home.HomeFinder;
 import org.graalvm.options.OptionValues;
@@ -69,6 +70,7 @@ import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.DynamicObjectLibrary;
+import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.builtins.ArrayIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.AtomicsBuiltins;
@@ -76,6 +78,7 @@ import com.oracle.truffle.js.builtins.ConsoleBuiltins;
 import com.oracle.truffle.js.builtins.ConstructorBuiltins;
 import com.oracle.truffle.js.builtins.DebugBuiltins;
 import com.oracle.truffle.js.builtins.GlobalBuiltins;
+import com.oracle.truffle.js.builtins.GraalBuiltins;
 import com.oracle.truffle.js.builtins.JSBuiltinsContainer;
 import com.oracle.truffle.js.builtins.JavaBuiltins;
 import com.oracle.truffle.js.builtins.MapIteratorPrototypeBuiltins;
@@ -111,6 +114,7 @@ import com.oracle.truffle.js.runtime.builtins.JSFinalizationRegistry;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSGlobal;
+import com.oracle.truffle.js.runtime.builtins.JSGlobalObject;
 import com.oracle.truffle.js.runtime.builtins.JSMap;
 import com.oracle.truffle.js.runtime.builtins.JSMath;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
@@ -151,9 +155,13 @@ import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.DateCache;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
+import com.oracle.truffle.js.runtime.util.ModuleResolutionCache;
 import com.oracle.truffle.js.runtime.util.PrintWriterWrapper;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 
@@ -174,6 +182,7 @@ public class JSRealm {
     public static final String PERFORMANCE_CLASS_NAME = "performance";
     public static final String DEBUG_CLASS_NAME = "Debug";
     public static final String CONSOLE_CLASS_NAME = "Console";
+    public static final String GRAAL_CLASS_NAME = "Graal";
 
     private static final String GRAALVM_VERSION = HomeFinder.getInstance().getVersion();
 
@@ -198,28 +207,11 @@ public class JSRealm {
     private final DynamicObject stringPrototype;
     private final DynamicObject regExpConstructor;
     private final DynamicObject regExpPrototype;
-    private final DynamicObject collatorConstructor;
-    private final DynamicObject collatorPrototype;
-    private final DynamicObject numberFormatConstructor;
-    private final DynamicObject numberFormatPrototype;
-    private final DynamicObject pluralRulesConstructor;
-    private final DynamicObject pluralRulesPrototype;
-    private final DynamicObject listFormatConstructor;
-    private final DynamicObject listFormatPrototype;
-    private final DynamicObject dateTimeFormatConstructor;
-    private final DynamicObject dateTimeFormatPrototype;
-    private final DynamicObject relativeTimeFormatConstructor;
-    private final DynamicObject relativeTimeFormatPrototype;
-    private final DynamicObject segmenterConstructor;
-    private final DynamicObject segmenterPrototype;
-    private final DynamicObject displayNamesConstructor;
-    private final DynamicObject displayNamesPrototype;
-    private final DynamicObject localeConstructor;
-    private final DynamicObject localePrototype;
-    private final DynamicObject dateConstructor;
-    private final DynamicObject datePrototype;
     @CompilationFinal(dimensions = 1) private final DynamicObject[] errorConstructors;
     @CompilationFinal(dimensions = 1) private final DynamicObject[] errorPrototypes;
+    /** Created on first use, indexed by {@link LazyIntrinsic}. */
+    @CompilationFinal(dimensions = 1) private final DynamicObject[] lazyConstructors;
+    @CompilationFinal(dimensions = 1) private final DynamicObject[] lazyPrototypes;
     private final DynamicObject callSiteConstructor;
     private final DynamicObject callSitePrototype;
 
@@ -229,22 +221,13 @@ public class JSRealm {
     // ES6:
     private final DynamicObject symbolConstructor;
     private final DynamicObject symbolPrototype;
-    private final DynamicObject mapConstructor;
-    private final DynamicObject mapPrototype;
-    private final DynamicObject setConstructor;
-    private final DynamicObject setPrototype;
-    private final DynamicObject weakRefConstructor;
-    private final DynamicObject weakRefPrototype;
-    private final DynamicObject weakMapConstructor;
-    private final DynamicObject weakMapPrototype;
-    private final DynamicObject weakSetConstructor;
-    private final DynamicObject weakSetPrototype;
 
     private final DynamicObject mathObject;
     private DynamicObject realmBuiltinObject;
     private Object evalFunctionObject;
     private final Object applyFunctionObject;
     private final Object callFunctionObject;
+    private DynamicObject reflectObject;
     private Object reflectApplyFunctionObject;
     private Object reflectConstructFunctionObject;
     private Object commonJSRequireFunctionObject;
@@ -253,27 +236,20 @@ public class JSRealm {
 
     private final DynamicObject arrayBufferConstructor;
     private final DynamicObject arrayBufferPrototype;
-    private final DynamicObject sharedArrayBufferConstructor;
-    private final DynamicObject sharedArrayBufferPrototype;
 
+    /** Created on first use, together with {@link #typedArrayConstructor}. */
     @CompilationFinal(dimensions = 1) private final DynamicObject[] typedArrayConstructors;
     @CompilationFinal(dimensions = 1) private final DynamicObject[] typedArrayPrototypes;
-    private final DynamicObject dataViewConstructor;
-    private final DynamicObject dataViewPrototype;
     private final DynamicObject jsAdapterConstructor;
     private final DynamicObject jsAdapterPrototype;
     private final DynamicObject javaImporterConstructor;
     private final DynamicObject javaImporterPrototype;
-    private final DynamicObject proxyConstructor;
-    private final DynamicObject proxyPrototype;
-    private final DynamicObject finalizationRegistryConstructor;
-    private final DynamicObject finalizationRegistryPrototype;
 
     private final DynamicObject iteratorPrototype;
     private final DynamicObject arrayIteratorPrototype;
     private final DynamicObject setIteratorPrototype;
     private final DynamicObject mapIteratorPrototype;
-    private final DynamicObject segmentIteratorPrototype;
+    @CompilationFinal private DynamicObject segmentIteratorPrototype;
     private final DynamicObject stringIteratorPrototype;
     private final DynamicObject regExpStringIteratorPrototype;
     private final DynamicObject enumerateIteratorPrototype;
@@ -295,9 +271,8 @@ public class JSRealm {
     private final DynamicObject throwerFunction;
     private final Accessor throwerAccessor;
 
-    private final DynamicObject promiseConstructor;
-    private final DynamicObject promisePrototype;
     private DynamicObject promiseAllFunctionObject;
+    private DynamicObject atomicsObject;
 
     @CompilationFinal private DynamicObject javaPackageToPrimitiveFunction;
 
@@ -305,7 +280,7 @@ public class JSRealm {
     @CompilationFinal private DynamicObject typedArrayConstructor;
     @CompilationFinal private DynamicObject typedArrayPrototype;
 
-    private DynamicObject preinitIntlObject;
+    private DynamicObject intlObject;
     private DynamicObject preinitConsoleBuiltinObject;
     private DynamicObject preinitPerformanceObject;
 
@@ -341,6 +316,14 @@ public class JSRealm {
      * Local time zone ID. Initialized lazily.
      */
     @CompilationFinal private ZoneId localTimeZoneId;
+    /**
+     * Time zone offset and date field cache for {@link #localTimeZoneId}. Initialized lazily.
+     */
+    private DateCache dateCache;
+    /**
+     * Implicitly created Intl formatters. Initialized lazily.
+     */
+    private IntlFormatterCache intlFormatterCache;
 
     public static final long NANOSECONDS_PER_MILLISECOND = 1000000;
     private SplittableRandom random;
@@ -355,6 +338,7 @@ public class JSRealm {
 
     private final JSConsoleUtil consoleUtil;
     private JSModuleLoader moduleLoader;
+    private ModuleResolutionCache moduleResolutionCache;
 
     /**
      * ECMA2017 8.7 Agent object.
@@ -395,6 +379,11 @@ public class JSRealm {
         this.context = context;
         this.truffleLanguageEnv = env; // can be null
 
+        this.lazyConstructors = new DynamicObject[LazyIntrinsic.VALUES.length];
+        this.lazyPrototypes = new DynamicObject[LazyIntrinsic.VALUES.length];
+        this.typedArrayConstructors = new DynamicObject[TypedArray.factories(context).length];
+        this.typedArrayPrototypes = new DynamicObject[TypedArray.factories(context).length];
+
         // need to build Function and Function.proto in a weird order to avoid circular dependencies
         this.objectPrototype = JSObjectPrototype.create(context);
 
@@ -443,48 +432,15 @@ public class JSRealm {
         ctor = JSRegExp.createConstructor(this);
         this.regExpConstructor = ctor.getFunctionObject();
         this.regExpPrototype = ctor.getPrototype();
-        ctor = JSDate.createConstructor(this);
-        this.dateConstructor = ctor.getFunctionObject();
-        this.datePrototype = ctor.getPrototype();
         this.initialRegExpPrototypeShape = this.regExpPrototype.getShape();
         boolean es6 = context.getContextOptions().getEcmaScriptVersion() >= JSConfig.ECMAScript2015;
         if (es6) {
             ctor = JSSymbol.createConstructor(this);
             this.symbolConstructor = ctor.getFunctionObject();
             this.symbolPrototype = ctor.getPrototype();
-            ctor = JSMap.createConstructor(this);
-            this.mapConstructor = ctor.getFunctionObject();
-            this.mapPrototype = ctor.getPrototype();
-            ctor = JSSet.createConstructor(this);
-            this.setConstructor = ctor.getFunctionObject();
-            this.setPrototype = ctor.getPrototype();
-            ctor = JSWeakMap.createConstructor(this);
-            this.weakMapConstructor = ctor.getFunctionObject();
-            this.weakMapPrototype = ctor.getPrototype();
-            ctor = JSWeakSet.createConstructor(this);
-            this.weakSetConstructor = ctor.getFunctionObject();
-            this.weakSetPrototype = ctor.getPrototype();
-            ctor = JSProxy.createConstructor(this);
-            this.proxyConstructor = ctor.getFunctionObject();
-            this.proxyPrototype = ctor.getPrototype();
-            ctor = JSPromise.createConstructor(this);
-            this.promiseConstructor = ctor.getFunctionObject();
-            this.promisePrototype = ctor.getPrototype();
         } else {
             this.symbolConstructor = null;
             this.symbolPrototype = null;
-            this.mapConstructor = null;
-            this.mapPrototype = null;
-            this.setConstructor = null;
-            this.setPrototype = null;
-            this.weakMapConstructor = null;
-            this.weakMapPrototype = null;
-            this.weakSetConstructor = null;
-            this.weakSetPrototype = null;
-            this.proxyConstructor = null;
-            this.proxyPrototype = null;
-            this.promiseConstructor = null;
-            this.promisePrototype = null;
         }
 
         this.errorConstructors = new DynamicObject[JSErrorType.errorTypes().length];
@@ -497,12 +453,6 @@ public class JSRealm {
         ctor = JSArrayBuffer.createConstructor(this);
         this.arrayBufferConstructor = ctor.getFunctionObject();
         this.arrayBufferPrototype = ctor.getPrototype();
-        this.typedArrayConstructors = new DynamicObject[TypedArray.factories(context).length];
-        this.typedArrayPrototypes = new DynamicObject[TypedArray.factories(context).length];
-        initializeTypedArrayConstructors();
-        ctor = JSDataView.createConstructor(this);
-        this.dataViewConstructor = ctor.getFunctionObject();
-        this.dataViewPrototype = ctor.getPrototype();
 
         if (context.getContextOptions().isBigInt()) {
             ctor = JSBigInt.createConstructor(this);
@@ -520,35 +470,6 @@ public class JSRealm {
         this.stringIteratorPrototype = es6 ? createStringIteratorPrototype() : null;
         this.regExpStringIteratorPrototype = context.getContextOptions().getEcmaScriptVersion() >= JSConfig.ECMAScript2019 ? createRegExpStringIteratorPrototype() : null;
 
-        ctor = JSCollator.createConstructor(this);
-        this.collatorConstructor = ctor.getFunctionObject();
-        this.collatorPrototype = ctor.getPrototype();
-        ctor = JSNumberFormat.createConstructor(this);
-        this.numberFormatConstructor = ctor.getFunctionObject();
-        this.numberFormatPrototype = ctor.getPrototype();
-        ctor = JSDateTimeFormat.createConstructor(this);
-        this.dateTimeFormatConstructor = ctor.getFunctionObject();
-        this.dateTimeFormatPrototype = ctor.getPrototype();
-        ctor = JSPluralRules.createConstructor(this);
-        this.pluralRulesConstructor = ctor.getFunctionObject();
-        this.pluralRulesPrototype = ctor.getPrototype();
-        ctor = JSListFormat.createConstructor(this);
-        this.listFormatConstructor = ctor.getFunctionObject();
-        this.listFormatPrototype = ctor.getPrototype();
-        ctor = JSRelativeTimeFormat.createConstructor(this);
-        this.relativeTimeFormatConstructor = ctor.getFunctionObject();
-        this.relativeTimeFormatPrototype = ctor.getPrototype();
-        ctor = JSSegmenter.createConstructor(this);
-        this.segmenterConstructor = ctor.getFunctionObject();
-        this.segmenterPrototype = ctor.getPrototype();
-        this.segmentIteratorPrototype = JSSegmenter.createSegmentIteratorPrototype(context, this);
-        ctor = JSDisplayNames.createConstructor(this);
-        this.displayNamesConstructor = ctor.getFunctionObject();
-        this.displayNamesPrototype = ctor.getPrototype();
-        ctor = JSLocale.createConstructor(this);
-        this.localeConstructor = ctor.getFunctionObject();
-        this.localePrototype = ctor.getPrototype();
-
         if (es6) {
             ctor = JSFunction.createGeneratorFunctionConstructor(this);
             this.generatorFunctionConstructor = ctor.getFunctionObject();
@@ -563,15 +484,6 @@ public class JSRealm {
         this.forInIteratorPrototype = JSFunction.createForInIteratorPrototype(this);
         this.arrayProtoValuesIterator = (DynamicObject) JSDynamicObject.getOrDefault(getArrayPrototype(), Symbol.SYMBOL_ITERATOR, Undefined.instance);
 
-        if (context.isOptionSharedArrayBuffer()) {
-            ctor = JSSharedArrayBuffer.createConstructor(this);
-            this.sharedArrayBufferConstructor = ctor.getFunctionObject();
-            this.sharedArrayBufferPrototype = ctor.getPrototype();
-        } else {
-            this.sharedArrayBufferConstructor = null;
-            this.sharedArrayBufferPrototype = null;
-        }
-
         this.mathObject = JSMath.create(this);
 
         boolean es8 = context.getContextOptions().getEcmaScriptVersion() >= JSConfig.ECMAScript2017;
@@ -600,22 +512,6 @@ public class JSRealm {
             this.asyncGeneratorObjectPrototype = null;
         }
 
-        boolean es12 = context.getContextOptions().getEcmaScriptVersion() >= JSConfig.ECMAScript2021;
-        if (es12) {
-            ctor = JSWeakRef.createConstructor(this);
-            this.weakRefConstructor = ctor.getFunctionObject();
-            this.weakRefPrototype = ctor.getPrototype();
-
-            ctor = JSFinalizationRegistry.createConstructor(this);
-            this.finalizationRegistryConstructor = ctor.getFunctionObject();
-            this.finalizationRegistryPrototype = ctor.getPrototype();
-        } else {
-            this.weakRefConstructor = null;
-            this.weakRefPrototype = null;
-            this.finalizationRegistryConstructor = null;
-            this.finalizationRegistryPrototype = null;
-        }
-
         boolean nashornCompat = context.isOptionNashornCompatibilityMode();
         if (nashornCompat) {
             ctor = JSAdapter.createConstructor(this);
@@ -644,16 +540,63 @@ public class JSRealm {
         }
     }
 
+    @TruffleBoundary
     private void initializeTypedArrayConstructors() {
         JSConstructor taConst = JSArrayBufferView.createTypedArrayConstructor(this);
-        typedArrayConstructor = taConst.getFunctionObject();
-        typedArrayPrototype = taConst.getPrototype();
-
         for (TypedArrayFactory factory : TypedArray.factories(context)) {
             JSConstructor constructor = JSArrayBufferView.createConstructor(this, factory, taConst);
             typedArrayConstructors[factory.getFactoryIndex()] = constructor.getFunctionObject();
             typedArrayPrototypes[factory.getFactoryIndex()] = constructor.getPrototype();
         }
+        if (context.isOptionNashornCompatibilityMode()) {
+            // Nashorn has no join method on TypedArrays
+            JSObject.delete(taConst.getPrototype(), "join");
+        }
+        typedArrayPrototype = taConst.getPrototype();
+        typedArrayConstructor = taConst.getFunctionObject();
+    }
+
+    private void ensureTypedArrayConstructorsInitialized() {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, typedArrayConstructor == null)) {
+            if (CompilerDirectives.isPartialEvaluationConstant(typedArrayConstructor)) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+            }
+            initializeTypedArrayConstructors();
+        }
+    }
+
+    private DynamicObject getLazyConstructor(LazyIntrinsic intrinsic) {
+        DynamicObject constructor = lazyConstructors[intrinsic.ordinal()];
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, constructor == null)) {
+            if (CompilerDirectives.isPartialEvaluationConstant(constructor)) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+            }
+            initializeLazyIntrinsic(intrinsic);
+            constructor = lazyConstructors[intrinsic.ordinal()];
+        }
+        return constructor;
+    }
+
+    private DynamicObject getLazyPrototype(LazyIntrinsic intrinsic) {
+        DynamicObject prototype = lazyPrototypes[intrinsic.ordinal()];
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, prototype == null)) {
+            if (CompilerDirectives.isPartialEvaluationConstant(prototype)) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+            }
+            initializeLazyIntrinsic(intrinsic);
+            prototype = lazyPrototypes[intrinsic.ordinal()];
+        }
+        return prototype;
+    }
+
+    @TruffleBoundary
+    private void initializeLazyIntrinsic(LazyIntrinsic intrinsic) {
+        JSConstructor ctor = intrinsic.factory.apply(this);
+        if (intrinsic == LazyIntrinsic.Promise) {
+            this.promiseAllFunctionObject = (DynamicObject) JSDynamicObject.getOrNull(ctor.getFunctionObject(), "all");
+        }
+        lazyPrototypes[intrinsic.ordinal()] = ctor.getPrototype();
+        lazyConstructors[intrinsic.ordinal()] = ctor.getFunctionObject();
     }
 
     private void initializeErrorConstructors() {
@@ -771,83 +714,83 @@ public class JSRealm {
     }
 
     public final DynamicObject getCollatorConstructor() {
-        return collatorConstructor;
+        return getLazyConstructor(LazyIntrinsic.Collator);
     }
 
     public final DynamicObject getCollatorPrototype() {
-        return collatorPrototype;
+        return getLazyPrototype(LazyIntrinsic.Collator);
     }
 
     public final DynamicObject getNumberFormatConstructor() {
-        return numberFormatConstructor;
+        return getLazyConstructor(LazyIntrinsic.NumberFormat);
     }
 
     public final DynamicObject getNumberFormatPrototype() {
-        return numberFormatPrototype;
+        return getLazyPrototype(LazyIntrinsic.NumberFormat);
     }
 
     public final DynamicObject getPluralRulesConstructor() {
-        return pluralRulesConstructor;
+        return getLazyConstructor(LazyIntrinsic.PluralRules);
     }
 
     public final DynamicObject getPluralRulesPrototype() {
-        return pluralRulesPrototype;
+        return getLazyPrototype(LazyIntrinsic.PluralRules);
     }
 
     public final DynamicObject getListFormatConstructor() {
-        return listFormatConstructor;
+        return getLazyConstructor(LazyIntrinsic.ListFormat);
     }
 
     public final DynamicObject getListFormatPrototype() {
-        return listFormatPrototype;
+        return getLazyPrototype(LazyIntrinsic.ListFormat);
     }
 
     public final DynamicObject getRelativeTimeFormatConstructor() {
-        return relativeTimeFormatConstructor;
+        return getLazyConstructor(LazyIntrinsic.RelativeTimeFormat);
     }
 
     public final DynamicObject getRelativeTimeFormatPrototype() {
-        return relativeTimeFormatPrototype;
+        return getLazyPrototype(LazyIntrinsic.RelativeTimeFormat);
     }
 
     public final DynamicObject getDateTimeFormatConstructor() {
-        return dateTimeFormatConstructor;
+        return getLazyConstructor(LazyIntrinsic.DateTimeFormat);
     }
 
     public final DynamicObject getDateTimeFormatPrototype() {
-        return dateTimeFormatPrototype;
+        return getLazyPrototype(LazyIntrinsic.DateTimeFormat);
     }
 
     public final DynamicObject getDateConstructor() {
-        return dateConstructor;
+        return getLazyConstructor(LazyIntrinsic.Date);
     }
 
     public final DynamicObject getDatePrototype() {
-        return datePrototype;
+        return getLazyPrototype(LazyIntrinsic.Date);
     }
 
     public final DynamicObject getSegmenterConstructor() {
-        return segmenterConstructor;
+        return getLazyConstructor(LazyIntrinsic.Segmenter);
     }
 
     public final DynamicObject getSegmenterPrototype() {
-        return segmenterPrototype;
+        return getLazyPrototype(LazyIntrinsic.Segmenter);
     }
 
     public final DynamicObject getDisplayNamesConstructor() {
-        return displayNamesConstructor;
+        return getLazyConstructor(LazyIntrinsic.DisplayNames);
     }
 
     public final DynamicObject getDisplayNamesPrototype() {
-        return displayNamesPrototype;
+        return getLazyPrototype(LazyIntrinsic.DisplayNames);
     }
 
     public final DynamicObject getLocaleConstructor() {
-        return localeConstructor;
+        return getLazyConstructor(LazyIntrinsic.Locale);
     }
 
     public final DynamicObject getLocalePrototype() {
-        return localePrototype;
+        return getLazyPrototype(LazyIntrinsic.Locale);
     }
 
     public final DynamicObject getSymbolConstructor() {
@@ -859,51 +802,51 @@ public class JSRealm {
     }
 
     public final DynamicObject getMapConstructor() {
-        return mapConstructor;
+        return getLazyConstructor(LazyIntrinsic.Map);
     }
 
     public final DynamicObject getMapPrototype() {
-        return mapPrototype;
+        return getLazyPrototype(LazyIntrinsic.Map);
     }
 
     public final DynamicObject getSetConstructor() {
-        return setConstructor;
+        return getLazyConstructor(LazyIntrinsic.Set);
     }
 
     public final DynamicObject getSetPrototype() {
-        return setPrototype;
+        return getLazyPrototype(LazyIntrinsic.Set);
     }
 
     public final DynamicObject getWeakRefConstructor() {
-        return weakRefConstructor;
+        return getLazyConstructor(LazyIntrinsic.WeakRef);
     }
 
     public final DynamicObject getWeakRefPrototype() {
-        return weakRefPrototype;
+        return getLazyPrototype(LazyIntrinsic.WeakRef);
     }
 
     public final DynamicObject getFinalizationRegistryConstructor() {
-        return finalizationRegistryConstructor;
+        return getLazyConstructor(LazyIntrinsic.FinalizationRegistry);
     }
 
     public final DynamicObject getFinalizationRegistryPrototype() {
-        return finalizationRegistryPrototype;
+        return getLazyPrototype(LazyIntrinsic.FinalizationRegistry);
     }
 
     public final DynamicObject getWeakMapConstructor() {
-        return weakMapConstructor;
+        return getLazyConstructor(LazyIntrinsic.WeakMap);
     }
 
     public final DynamicObject getWeakMapPrototype() {
-        return weakMapPrototype;
+        return getLazyPrototype(LazyIntrinsic.WeakMap);
     }
 
     public final DynamicObject getWeakSetConstructor() {
-        return weakSetConstructor;
+        return getLazyConstructor(LazyIntrinsic.WeakSet);
     }
 
     public final DynamicObject getWeakSetPrototype() {
-        return weakSetPrototype;
+        return getLazyPrototype(LazyIntrinsic.WeakSet);
     }
 
     public final Shape getInitialRegExpPrototypeShape() {
@@ -920,35 +863,39 @@ public class JSRealm {
 
     public final DynamicObject getSharedArrayBufferConstructor() {
         assert context.isOptionSharedArrayBuffer();
-        return sharedArrayBufferConstructor;
+        return getLazyConstructor(LazyIntrinsic.SharedArrayBuffer);
     }
 
     public final DynamicObject getSharedArrayBufferPrototype() {
         assert context.isOptionSharedArrayBuffer();
-        return sharedArrayBufferPrototype;
+        return getLazyPrototype(LazyIntrinsic.SharedArrayBuffer);
     }
 
     public final DynamicObject getArrayBufferViewConstructor(TypedArrayFactory factory) {
+        ensureTypedArrayConstructorsInitialized();
         return typedArrayConstructors[factory.getFactoryIndex()];
     }
 
     public final DynamicObject getArrayBufferViewPrototype(TypedArrayFactory factory) {
+        ensureTypedArrayConstructorsInitialized();
         return typedArrayPrototypes[factory.getFactoryIndex()];
     }
 
     public final DynamicObject getDataViewConstructor() {
-        return dataViewConstructor;
+        return getLazyConstructor(LazyIntrinsic.DataView);
     }
 
     public final DynamicObject getDataViewPrototype() {
-        return dataViewPrototype;
+        return getLazyPrototype(LazyIntrinsic.DataView);
     }
 
     public final DynamicObject getTypedArrayConstructor() {
+        ensureTypedArrayConstructorsInitialized();
         return typedArrayConstructor;
     }
 
     public final DynamicObject getTypedArrayPrototype() {
+        ensureTypedArrayConstructorsInitialized();
         return typedArrayPrototype;
     }
 
@@ -957,11 +904,11 @@ public class JSRealm {
     }
 
     public final DynamicObject getProxyConstructor() {
-        return proxyConstructor;
+        return getLazyConstructor(LazyIntrinsic.Proxy);
     }
 
     public final DynamicObject getProxyPrototype() {
-        return proxyPrototype;
+        return getLazyPrototype(LazyIntrinsic.Proxy);
     }
 
     public final DynamicObject getGeneratorFunctionConstructor() {
@@ -1060,6 +1007,7 @@ public class JSRealm {
     }
 
     public final DynamicObject getPromiseAllFunctionObject() {
+        getLazyConstructor(LazyIntrinsic.Promise);
         return promiseAllFunctionObject;
     }
 
@@ -1115,7 +1063,20 @@ public class JSRealm {
     }
 
     public DynamicObject getSegmentIteratorPrototype() {
-        return segmentIteratorPrototype;
+        DynamicObject prototype = segmentIteratorPrototype;
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, prototype == null)) {
+            if (CompilerDirectives.isPartialEvaluationConstant(prototype)) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+            }
+            prototype = createSegmentIteratorPrototype();
+            segmentIteratorPrototype = prototype;
+        }
+        return prototype;
+    }
+
+    @TruffleBoundary
+    private DynamicObject createSegmentIteratorPrototype() {
+        return JSSegmenter.createSegmentIteratorPrototype(context, this);
     }
 
     /**
@@ -1134,11 +1095,11 @@ public class JSRealm {
     }
 
     public DynamicObject getPromiseConstructor() {
-        return promiseConstructor;
+        return getLazyConstructor(LazyIntrinsic.Promise);
     }
 
     public DynamicObject getPromisePrototype() {
-        return promisePrototype;
+        return getLazyPrototype(LazyIntrinsic.Promise);
     }
 
     public final JSObjectFactory.RealmData getObjectFactories() {
@@ -1154,7 +1115,7 @@ public class JSRealm {
         putGlobalProperty(JSFunction.CLASS_NAME, getFunctionConstructor());
         putGlobalProperty(JSArray.CLASS_NAME, getArrayConstructor());
         putGlobalProperty(JSString.CLASS_NAME, getStringConstructor());
-        putGlobalProperty(JSDate.CLASS_NAME, getDateConstructor());
+        putLazyGlobalProperty(LazyGlobalProperty.DATE);
         putGlobalProperty(JSNumber.CLASS_NAME, getNumberConstructor());
         putGlobalProperty(JSBoolean.CLASS_NAME, getBooleanConstructor());
         putGlobalProperty(JSRegExp.CLASS_NAME, getRegExpConstructor());
@@ -1179,9 +1140,9 @@ public class JSRealm {
 
         putGlobalProperty(JSArrayBuffer.CLASS_NAME, getArrayBufferConstructor());
         for (TypedArrayFactory factory : TypedArray.factories(context)) {
-            putGlobalProperty(factory.getName(), getArrayBufferViewConstructor(factory));
+            putLazyGlobalProperty(LazyGlobalProperty.TYPED_ARRAYS[factory.getFactoryIndex()]);
         }
-        putGlobalProperty(JSDataView.CLASS_NAME, getDataViewConstructor());
+        putLazyGlobalProperty(LazyGlobalProperty.DATA_VIEW);
 
         if (context.getContextOptions().isBigInt()) {
             putGlobalProperty(JSBigInt.CLASS_NAME, getBigIntConstructor());
@@ -1189,12 +1150,12 @@ public class JSRealm {
 
         if (context.isOptionNashornCompatibilityMode()) {
             initGlobalNashornExtensions();
-            removeNashornIncompatibleBuiltins();
         }
         if (context.getContextOptions().isScriptEngineGlobalScopeImport()) {
-            String builtin = "importScriptEngineGlobalBindings";
-            JSObjectUtil.putDataProperty(context, getScriptEngineImportScope(), builtin,
-                            lookupFunction(GlobalBuiltins.GLOBAL_NASHORN_EXTENSIONS, builtin), JSAttributes.notConfigurableNotEnumerableNotWritable());
+            for (String builtin : new String[]{"importScriptEngineGlobalBindings", "parseScriptEngineScript"}) {
+                JSObjectUtil.putDataProperty(context, getScriptEngineImportScope(), builtin,
+                                lookupFunction(GlobalBuiltins.GLOBAL_NASHORN_EXTENSIONS, builtin), JSAttributes.notConfigurableNotEnumerableNotWritable());
+            }
         }
         if (context.getContextOptions().isPolyglotBuiltin() && (getEnv().isPolyglotEvalAllowed() || getEnv().isPolyglotBindingsAccessAllowed())) {
             setupPolyglot();
@@ -1217,35 +1178,30 @@ public class JSRealm {
             putProperty(getNumberConstructor(), "parseInt", parseInt);
             putProperty(getNumberConstructor(), "parseFloat", parseFloat);
 
-            putGlobalProperty(JSMap.CLASS_NAME, getMapConstructor());
-            putGlobalProperty(JSSet.CLASS_NAME, getSetConstructor());
-            putGlobalProperty(JSWeakMap.CLASS_NAME, getWeakMapConstructor());
-            putGlobalProperty(JSWeakSet.CLASS_NAME, getWeakSetConstructor());
+            putLazyGlobalProperty(LazyGlobalProperty.MAP);
+            putLazyGlobalProperty(LazyGlobalProperty.SET);
+            putLazyGlobalProperty(LazyGlobalProperty.WEAK_MAP);
+            putLazyGlobalProperty(LazyGlobalProperty.WEAK_SET);
             putGlobalProperty(JSSymbol.CLASS_NAME, getSymbolConstructor());
             setupPredefinedSymbols(getSymbolConstructor());
 
-            DynamicObject reflectObject = createReflect();
-            putGlobalProperty(REFLECT_CLASS_NAME, reflectObject);
-            this.reflectApplyFunctionObject = JSObject.get(reflectObject, "apply");
-            this.reflectConstructFunctionObject = JSObject.get(reflectObject, "construct");
-
-            putGlobalProperty(JSProxy.CLASS_NAME, getProxyConstructor());
-            putGlobalProperty(JSPromise.CLASS_NAME, getPromiseConstructor());
-            this.promiseAllFunctionObject = (DynamicObject) JSObject.get(getPromiseConstructor(), "all");
+            putLazyGlobalProperty(LazyGlobalProperty.REFLECT);
+            putLazyGlobalProperty(LazyGlobalProperty.PROXY);
+            putLazyGlobalProperty(LazyGlobalProperty.PROMISE);
         }
 
         if (context.isOptionSharedArrayBuffer()) {
-            putGlobalProperty(SHARED_ARRAY_BUFFER_CLASS_NAME, getSharedArrayBufferConstructor());
+            putLazyGlobalProperty(LazyGlobalProperty.SHARED_ARRAY_BUFFER);
         }
         if (context.isOptionAtomics()) {
-            putGlobalProperty(ATOMICS_CLASS_NAME, createAtomics());
+            putLazyGlobalProperty(LazyGlobalProperty.ATOMICS);
         }
         if (context.getEcmaScriptVersion() >= JSConfig.ECMAScript2019) {
             putGlobalProperty("globalThis", global);
         }
         if (context.getEcmaScriptVersion() >= JSConfig.ECMAScript2021) {
-            putGlobalProperty(JSWeakRef.CLASS_NAME, getWeakRefConstructor());
-            putGlobalProperty(JSFinalizationRegistry.CLASS_NAME, getFinalizationRegistryConstructor());
+            putLazyGlobalProperty(LazyGlobalProperty.WEAK_REF);
+            putLazyGlobalProperty(LazyGlobalProperty.FINALIZATION_REGISTRY);
         }
         if (context.getContextOptions().isGraalBuiltin()) {
             putGraalObject();
@@ -1264,13 +1220,6 @@ public class JSRealm {
         putGlobalProperty("parseToJSON", parseToJSON);
     }
 
-    private void removeNashornIncompatibleBuiltins() {
-        assert getContext().isOptionNashornCompatibilityMode();
-
-        // Nashorn has no join method on TypedArrays
-        JSObject.delete(typedArrayPrototype, "join");
-    }
-
     private void addPrintGlobals() {
         if (context.getContextOptions().isPrint()) {
             putGlobalProperty("print", lookupFunction(GlobalBuiltins.GLOBAL_PRINT, "print"));
@@ -1379,12 +1328,19 @@ public class JSRealm {
 
     private void addIntlGlobal() {
         if (context.isOptionIntl402()) {
-            putGlobalProperty(JSIntl.CLASS_NAME, preinitIntlObject != null ? preinitIntlObject : createIntlObject());
+            putLazyGlobalProperty(LazyGlobalProperty.INTL);
         }
     }
 
+    private DynamicObject getIntlObject() {
+        if (intlObject == null) {
+            intlObject = createIntlObject();
+        }
+        return intlObject;
+    }
+
     private DynamicObject createIntlObject() {
-        DynamicObject intlObject = JSIntl.create(this);
+        DynamicObject intl = JSIntl.create(this);
         DynamicObject collatorFn = getCollatorConstructor();
         DynamicObject numberFormatFn = getNumberFormatConstructor();
         DynamicObject dateTimeFormatFn = getDateTimeFormatConstructor();
@@ -1394,16 +1350,16 @@ public class JSRealm {
         DynamicObject segmenterFn = getSegmenterConstructor();
         DynamicObject displayNamesFn = getDisplayNamesConstructor();
         DynamicObject localeFn = getLocaleConstructor();
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(collatorFn), collatorFn, JSAttributes.getDefaultNotEnumerable());
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(numberFormatFn), numberFormatFn, JSAttributes.getDefaultNotEnumerable());
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(dateTimeFormatFn), dateTimeFormatFn, JSAttributes.getDefaultNotEnumerable());
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(pluralRulesFn), pluralRulesFn, JSAttributes.getDefaultNotEnumerable());
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(listFormatFn), listFormatFn, JSAttributes.getDefaultNotEnumerable());
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(relativeTimeFormatFn), relativeTimeFormatFn, JSAttributes.getDefaultNotEnumerable());
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(segmenterFn), segmenterFn, JSAttributes.getDefaultNotEnumerable());
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(displayNamesFn), displayNamesFn, JSAttributes.getDefaultNotEnumerable());
-        JSObjectUtil.putDataProperty(context, intlObject, JSFunction.getName(localeFn), localeFn, JSAttributes.getDefaultNotEnumerable());
-        return intlObject;
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(collatorFn), collatorFn, JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(numberFormatFn), numberFormatFn, JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(dateTimeFormatFn), dateTimeFormatFn, JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(pluralRulesFn), pluralRulesFn, JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(listFormatFn), listFormatFn, JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(relativeTimeFormatFn), relativeTimeFormatFn, JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(segmenterFn), segmenterFn, JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(displayNamesFn), displayNamesFn, JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(context, intl, JSFunction.getName(localeFn), localeFn, JSAttributes.getDefaultNotEnumerable());
+        return intl;
     }
 
     private void putGraalObject() {
@@ -1416,7 +1372,8 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(context, graalObject, "versionGraalVM", GRAALVM_VERSION, flags);
         JSObjectUtil.putDataProperty(context, graalObject, "versionECMAScript", esVersion, flags);
         JSObjectUtil.putDataProperty(context, graalObject, "isGraalRuntime", JSFunction.create(this, isGraalRuntimeFunction(context)), flags);
-        putGlobalProperty("Graal", graalObject);
+        JSObjectUtil.putFunctionsFromContainer(this, graalObject, GraalBuiltins.BUILTINS);
+        putGlobalProperty(GRAAL_CLASS_NAME, graalObject);
     }
 
     private static JSFunctionData isGraalRuntimeFunction(JSContext context) {
@@ -1446,6 +1403,18 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(getContext(), getGlobalObject(), key, value, attributes);
     }
 
+    /**
+     * Defines a global data property with default attributes whose value is only created when the
+     * property is first accessed (unless lazy intrinsics are disabled).
+     */
+    private void putLazyGlobalProperty(LazyGlobalProperty property) {
+        if (context.getContextOptions().isLazyIntrinsics()) {
+            JSObjectUtil.putProxyProperty(getGlobalObject(), property.key, property, JSAttributes.getDefaultNotEnumerable());
+        } else {
+            putGlobalProperty(property.key, property.valueSupplier.apply(this));
+        }
+    }
+
     private void putProperty(DynamicObject receiver, Object key, Object value) {
         JSObjectUtil.putDataProperty(getContext(), receiver, key, value, JSAttributes.getDefaultNotEnumerable());
     }
@@ -1604,6 +1573,22 @@ public class JSRealm {
         return arrayProtoValuesIterator;
     }
 
+    private DynamicObject getReflectObject() {
+        if (reflectObject == null) {
+            reflectObject = createReflect();
+            reflectApplyFunctionObject = JSDynamicObject.getOrNull(reflectObject, "apply");
+            reflectConstructFunctionObject = JSDynamicObject.getOrNull(reflectObject, "construct");
+        }
+        return reflectObject;
+    }
+
+    private DynamicObject getAtomicsObject() {
+        if (atomicsObject == null) {
+            atomicsObject = createAtomics();
+        }
+        return atomicsObject;
+    }
+
     private DynamicObject createReflect() {
         DynamicObject obj = JSObjectUtil.createOrdinaryPrototypeObject(this, this.getObjectPrototype());
         JSObjectUtil.putToStringTag(obj, REFLECT_CLASS_NAME);
@@ -1815,6 +1800,8 @@ public class JSRealm {
         if (localTimeZoneId != null) {
             localTimeZoneId = getTimeZoneFromEnv();
         }
+        // Cached formatters depend on the default locale and time zone.
+        intlFormatterCache = null;
         initTimeOffsetAndRandom();
 
         // Patch the RegExp constructor's static result properties
@@ -1840,7 +1827,7 @@ public class JSRealm {
     }
 
     private void preinitializeObjects() {
-        preinitIntlObject = createIntlObject();
+        getIntlObject();
         preinitConsoleBuiltinObject = createConsoleObject();
         preinitPerformanceObject = createPerformanceObject();
     }
@@ -2050,6 +2037,46 @@ public class JSRealm {
         return consoleUtil;
     }
 
+    /**
+     * Returns the cache of CommonJS and npm-compatible ES module resolutions, or {@code null} if
+     * resolution caching is disabled. The cache is not shared with other realms since they may use
+     * a different file system. The persisted manifest, if any, is loaded on first use.
+     */
+    @TruffleBoundary
+    public synchronized ModuleResolutionCache getModuleResolutionCache() {
+        if (!context.getContextOptions().isCommonJSResolutionCache()) {
+            return null;
+        }
+        if (moduleResolutionCache == null) {
+            moduleResolutionCache = new ModuleResolutionCache();
+            String manifest = context.getContextOptions().getCommonJSResolutionManifest();
+            if (!manifest.isEmpty()) {
+                try {
+                    moduleResolutionCache.load(getEnv().getPublicTruffleFile(manifest));
+                } catch (SecurityException e) {
+                    // the manifest is only an optimization
+                }
+            }
+        }
+        return moduleResolutionCache;
+    }
+
+    /**
+     * Writes the module resolution manifest if one is configured and new resolutions were
+     * recorded.
+     */
+    @TruffleBoundary
+    public synchronized void saveModuleResolutionCache() {
+        String manifest = context.getContextOptions().getCommonJSResolutionManifest();
+        if (moduleResolutionCache != null && moduleResolutionCache.isModified() && !manifest.isEmpty()) {
+            try {
+                moduleResolutionCache.save(getEnv(), getEnv().getPublicTruffleFile(manifest));
+            } catch (SecurityException e) {
+                // the manifest is only an optimization
+            }
+        }
+    }
+
     public JSModuleLoader getModuleLoader() {
         if (moduleLoader == null) {
             createModuleLoader();
@@ -2091,6 +2118,37 @@ public class JSRealm {
         return id;
     }
 
+    public DateCache getDateCache() {
+        ZoneId id = getLocalTimeZoneId();
+        DateCache cache = dateCache;
+        if (cache == null || cache.getZoneId() != id) {
+            cache = createDateCache(id);
+        }
+        return cache;
+    }
+
+    @TruffleBoundary
+    private DateCache createDateCache(ZoneId id) {
+        DateCache cache = new DateCache(id);
+        dateCache = cache;
+        return cache;
+    }
+
+    public IntlFormatterCache getIntlFormatterCache() {
+        IntlFormatterCache cache = intlFormatterCache;
+        if (cache == null) {
+            cache = createIntlFormatterCache();
+        }
+        return cache;
+    }
+
+    @TruffleBoundary
+    private IntlFormatterCache createIntlFormatterCache() {
+        IntlFormatterCache cache = new IntlFormatterCache();
+        intlFormatterCache = cache;
+        return cache;
+    }
+
     @TruffleBoundary
     private ZoneId getTimeZoneFromEnv() {
         OptionValues options = getEnv().getOptions();
@@ -2164,6 +2222,102 @@ public class JSRealm {
         v8RealmCurrent = realm;
     }
 
+    /**
+     * Built-in constructors that are only created when they are first needed, either through their
+     * global binding or internally (e.g. when a promise is created by an async function).
+     */
+    private enum LazyIntrinsic {
+        Date(JSDate::createConstructor),
+        Map(JSMap::createConstructor),
+        Set(JSSet::createConstructor),
+        WeakMap(JSWeakMap::createConstructor),
+        WeakSet(JSWeakSet::createConstructor),
+        WeakRef(JSWeakRef::createConstructor),
+        FinalizationRegistry(JSFinalizationRegistry::createConstructor),
+        Proxy(JSProxy::createConstructor),
+        Promise(JSPromise::createConstructor),
+        DataView(JSDataView::createConstructor),
+        SharedArrayBuffer(JSSharedArrayBuffer::createConstructor),
+        Collator(JSCollator::createConstructor),
+        NumberFormat(JSNumberFormat::createConstructor),
+        DateTimeFormat(JSDateTimeFormat::createConstructor),
+        PluralRules(JSPluralRules::createConstructor),
+        ListFormat(JSListFormat::createConstructor),
+        RelativeTimeFormat(JSRelativeTimeFormat::createConstructor),
+        Segmenter(JSSegmenter::createConstructor),
+        DisplayNames(JSDisplayNames::createConstructor),
+        Locale(JSLocale::createConstructor);
+
+        static final LazyIntrinsic[] VALUES = values();
+
+        final Function<JSRealm, JSConstructor> factory;
+
+        LazyIntrinsic(Function<JSRealm, JSConstructor> factory) {
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * Placeholder for a global property whose value is created on first access. It is then replaced
+     * by an ordinary data property with the same attributes, so the deferred creation cannot be
+     * observed. The instances are shared by all realms so that global object shapes stay shared.
+     */
+    private static final class LazyGlobalProperty implements PropertyProxy {
+        static final LazyGlobalProperty DATE = new LazyGlobalProperty(JSDate.CLASS_NAME, JSRealm::getDateConstructor);
+        static final LazyGlobalProperty MAP = new LazyGlobalProperty(JSMap.CLASS_NAME, JSRealm::getMapConstructor);
+        static final LazyGlobalProperty SET = new LazyGlobalProperty(JSSet.CLASS_NAME, JSRealm::getSetConstructor);
+        static final LazyGlobalProperty WEAK_MAP = new LazyGlobalProperty(JSWeakMap.CLASS_NAME, JSRealm::getWeakMapConstructor);
+        static final LazyGlobalProperty WEAK_SET = new LazyGlobalProperty(JSWeakSet.CLASS_NAME, JSRealm::getWeakSetConstructor);
+        static final LazyGlobalProperty WEAK_REF = new LazyGlobalProperty(JSWeakRef.CLASS_NAME, JSRealm::getWeakRefConstructor);
+        static final LazyGlobalProperty FINALIZATION_REGISTRY = new LazyGlobalProperty(JSFinalizationRegistry.CLASS_NAME, JSRealm::getFinalizationRegistryConstructor);
+        static final LazyGlobalProperty PROXY = new LazyGlobalProperty(JSProxy.CLASS_NAME, JSRealm::getProxyConstructor);
+        static final LazyGlobalProperty PROMISE = new LazyGlobalProperty(JSPromise.CLASS_NAME, JSRealm::getPromiseConstructor);
+        static final LazyGlobalProperty DATA_VIEW = new LazyGlobalProperty(JSDataView.CLASS_NAME, JSRealm::getDataViewConstructor);
+        static final LazyGlobalProperty SHARED_ARRAY_BUFFER = new LazyGlobalProperty(SHARED_ARRAY_BUFFER_CLASS_NAME, JSRealm::getSharedArrayBufferConstructor);
+        static final LazyGlobalProperty REFLECT = new LazyGlobalProperty(REFLECT_CLASS_NAME, JSRealm::getReflectObject);
+        static final LazyGlobalProperty ATOMICS = new LazyGlobalProperty(ATOMICS_CLASS_NAME, JSRealm::getAtomicsObject);
+        static final LazyGlobalProperty INTL = new LazyGlobalProperty(JSIntl.CLASS_NAME, JSRealm::getIntlObject);
+        static final LazyGlobalProperty[] TYPED_ARRAYS = createTypedArrayProperties();
+
+        final Object key;
+        final Function<JSRealm, Object> valueSupplier;
+
+        private LazyGlobalProperty(Object key, Function<JSRealm, Object> valueSupplier) {
+            this.key = key;
+            this.valueSupplier = valueSupplier;
+        }
+
+        private static LazyGlobalProperty[] createTypedArrayProperties() {
+            TypedArrayFactory[] factories = TypedArrayFactory.values();
+            LazyGlobalProperty[] properties = new LazyGlobalProperty[factories.length];
+            for (TypedArrayFactory factory : factories) {
+                properties[factory.getFactoryIndex()] = new LazyGlobalProperty(factory.getName(), realm -> realm.getArrayBufferViewConstructor(factory));
+            }
+            return properties;
+        }
+
+        @TruffleBoundary
+        @Override
+        public Object get(DynamicObject store) {
+            Object value = valueSupplier.apply(((JSGlobalObject) store).getRealm());
+            replaceWithDataProperty(store, value);
+            return value;
+        }
+
+        @TruffleBoundary
+        @Override
+        public boolean set(DynamicObject store, Object value) {
+            replaceWithDataProperty(store, value);
+            return true;
+        }
+
+        private void replaceWithDataProperty(DynamicObject store, Object value) {
+            Property property = store.getShape().getProperty(key);
+            assert property != null && JSProperty.isProxy(property) && JSProperty.getConstantProxy(property) == this;
+            JSObjectUtil.defineDataProperty(store, key, value, property.getFlags() & ~JSProperty.PROXY);
+        }
+    }
+
     private static final String REALM_SHARED_NAME = "shared";
     private static final PropertyProxy REALM_SHARED_PROXY = new RealmSharedPropertyProxy();
 
@@ -90,6 +90,7 @@ import com.oracle.truffle.js.runtime.objects.Nullish;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.JSHashMap;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 
 public final class JSRuntime {
     private static final long NEGATIVE_ZERO_DOUBLE_BITS = Double.doubleToRawLongBits(-0.0);
@@ -1330,13 +1331,13 @@ public final class JSRuntime {
 
     public static String numberToString(Number number) {
         if (number instanceof Integer) {
-            return Boundaries.stringValueOf(((Integer) number).intValue());
+            return NumberStringCache.intToString(((Integer) number).intValue());
         } else if (number instanceof SafeInteger) {
             return doubleToString(((SafeInteger) number).doubleValue());
         } else if (number instanceof Double) {
             return doubleToString((Double) number);
         } else if (number instanceof Long) {
-            return Boundaries.stringValueOf(number.longValue());
+            return NumberStringCache.longToString(number.longValue());
         }
         CompilerDirectives.transferToInterpreter();
         throw new UnsupportedOperationException("unknown number value: " + number.toString() + " " + number.getClass().getSimpleName());
@@ -1439,15 +1440,14 @@ public final class JSRuntime {
         }
 
         if (doubleIsRepresentableAsInt(d)) {
-            return Boundaries.stringValueOf((int) d);
+            return NumberStringCache.intToString((int) d);
         }
 
         return formatDtoA(d);
     }
 
-    @TruffleBoundary
     public static String formatDtoA(double value) {
-        return DoubleConversion.toShortest(value);
+        return NumberStringCache.formatShortest(value);
     }
 
     @TruffleBoundary
@@ -45,6 +45,7 @@ import com.oracle.truffle.api.exception.AbstractTruffleException;
 import com.oracle.truffle.api.interop.ExceptionType;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.js.runtime.util.CompiledRegexCache;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 
 public final class RegexCompilerInterface {
@@ -56,14 +57,26 @@ public final class RegexCompilerInterface {
     }
 
     public static Object compile(String pattern, String flags, JSContext context, TRegexUtil.CompileRegexNode compileRegexNode) {
+        CompiledRegexCache cache = context.getCompiledRegexCache();
+        if (cache != null) {
+            Object cached = cache.get(pattern, flags);
+            if (cached != null) {
+                return cached;
+            }
+        }
         // RegexLanguage does its own validation of the flags. This call to validateFlags only
         // serves the purpose of mimicking the error messages of Nashorn and V8.
         validateFlags(flags, context.getEcmaScriptVersion(), context.isOptionNashornCompatibilityMode());
+        Object compiledRegex;
         try {
-            return compileRegexNode.execute(context.getRegexEngine(), pattern, flags);
+            compiledRegex = compileRegexNode.execute(context.getRegexEngine(), pattern, flags);
         } catch (AbstractTruffleException e) {
             throw rethrowAsSyntaxError(e);
         }
+        if (cache != null) {
+            cache.put(pattern, flags, compiledRegex);
+        }
+        return compiledRegex;
     }
 
     @TruffleBoundary
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.array;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Atomic access to native-order elements of direct byte buffers, used to implement
+ * {@code Atomics} on {@code SharedArrayBuffer}s. This is the portable fallback, which serializes
+ * all accesses on the buffer's monitor; the JDK-specific overlays provide a lock-free
+ * implementation. The only atomic accesses that do not go through this class (sub-word elements
+ * at the end of a buffer whose length is not a multiple of 4) are never part of an aligned word
+ * updated here, so the two locks never guard the same bytes.
+ */
+public final class ByteBufferAtomics {
+    private ByteBufferAtomics() {
+    }
+
+    public static boolean isSupported() {
+        return true;
+    }
+
+    public static int getInt32Volatile(ByteBuffer buffer, int byteIndex) {
+        synchronized (buffer) {
+            return ByteBufferSupport.nativeOrder().getInt32(buffer, byteIndex);
+        }
+    }
+
+    public static int compareAndExchangeInt32(ByteBuffer buffer, int byteIndex, int expected, int value) {
+        ByteBufferAccess access = ByteBufferSupport.nativeOrder();
+        synchronized (buffer) {
+            int witness = access.getInt32(buffer, byteIndex);
+            if (witness == expected) {
+                access.putInt32(buffer, byteIndex, value);
+            }
+            return witness;
+        }
+    }
+
+    public static long compareAndExchangeInt64(ByteBuffer buffer, int byteIndex, long expected, long value) {
+        ByteBufferAccess access = ByteBufferSupport.nativeOrder();
+        synchronized (buffer) {
+            long witness = access.getInt64(buffer, byteIndex);
+            if (witness == expected) {
+                access.putInt64(buffer, byteIndex, value);
+            }
+            return witness;
+        }
+    }
+}
@@ -111,6 +111,17 @@ public abstract class AbstractWritableArray extends DynamicArray {
 
     protected abstract int prepareInBoundsFast(DynamicObject object, long index);
 
+    /**
+     * Returns the position of the element at index 0 in the backing store if all elements in the
+     * range [0, length) are present and stored contiguously, or -1 otherwise.
+     */
+    public final int getDenseStoreOffset(DynamicObject object, long length) {
+        if (isHolesType() || firstElementIndex(object) != 0 || lastElementIndex(object) != length - 1) {
+            return -1;
+        }
+        return prepareInBoundsFast(object, 0);
+    }
+
     public final boolean isInBounds(DynamicObject object, int index) {
         return isSupported(object, index) && rangeCheck(object, index);
     }
@@ -259,6 +259,10 @@ public final class JSDate extends JSNonProxy implements JSConstructorFactory.Def
         return monthFromTimeIntl(leapYear, day);
     }
 
+    public static int monthFromDayInYear(int year, int day) {
+        return monthFromTimeIntl(isLeapYear(year), day);
+    }
+
     private static int monthFromTimeIntl(boolean leapYear, int day) {
         assert (0 <= day) && (day < (365 + (leapYear ? 1 : 0))) : "should not reach here";
 
@@ -397,7 +401,7 @@ public final class JSDate extends JSNonProxy implements JSConstructorFactory.Def
     }
 
     public static long localTZA(double t, boolean isUTC, JSContext context) {
-        return localTZA(t, isUTC, context.getRealm().getLocalTimeZoneId());
+        return context.getRealm().getDateCache().getLocalTZA(t, isUTC);
     }
 
     @TruffleBoundary
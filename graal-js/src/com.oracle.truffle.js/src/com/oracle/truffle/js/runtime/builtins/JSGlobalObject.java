@@ -41,11 +41,22 @@
 package com.oracle.truffle.js.runtime.builtins;
 
 import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.JSRealm;
 import com.oracle.truffle.js.runtime.objects.JSNonProxyObject;
 
 public final class JSGlobalObject extends JSNonProxyObject {
-    protected JSGlobalObject(Shape shape) {
+    private final JSRealm realm;
+
+    protected JSGlobalObject(Shape shape, JSRealm realm) {
         super(shape);
+        this.realm = realm;
+    }
+
+    /**
+     * The realm this object is the global object of, or {@code null} for the global scope object.
+     */
+    public JSRealm getRealm() {
+        return realm;
     }
 
     @Override
@@ -731,34 +731,66 @@ public final class JSNumberFormat extends JSNonProxy implements JSConstructorFac
             this.currency = currency;
         }
 
+        public String getCurrencyDisplay() {
+            return currencyDisplay;
+        }
+
         public void setCurrencyDisplay(String currencyDisplay) {
             this.currencyDisplay = currencyDisplay;
         }
 
+        public String getCurrencySign() {
+            return currencySign;
+        }
+
         public void setCurrencySign(String currencySign) {
             this.currencySign = currencySign;
         }
 
+        public String getUnit() {
+            return unit;
+        }
+
         public void setUnit(String unit) {
             this.unit = unit;
         }
 
+        public String getUnitDisplay() {
+            return unitDisplay;
+        }
+
         public void setUnitDisplay(String unitDisplay) {
             this.unitDisplay = unitDisplay;
         }
 
+        public boolean isGroupingUsed() {
+            return useGrouping;
+        }
+
         public void setGroupingUsed(boolean useGrouping) {
             this.useGrouping = useGrouping;
         }
 
+        public String getNotation() {
+            return notation;
+        }
+
         public void setNotation(String notation) {
             this.notation = notation;
         }
 
+        public String getCompactDisplay() {
+            return compactDisplay;
+        }
+
         public void setCompactDisplay(String compactDisplay) {
             this.compactDisplay = compactDisplay;
         }
 
+        public String getSignDisplay() {
+            return signDisplay;
+        }
+
         public void setSignDisplay(String signDisplay) {
             this.signDisplay = signDisplay;
         }
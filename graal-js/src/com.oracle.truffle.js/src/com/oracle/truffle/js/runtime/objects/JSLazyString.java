@@ -40,6 +40,8 @@
  */
 package com.oracle.truffle.js.runtime.objects;
 
+import java.nio.charset.StandardCharsets;
+
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage;
@@ -52,6 +54,7 @@ import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 
 @ExportLibrary(InteropLibrary.class)
 public final class JSLazyString implements CharSequence, TruffleObject, JSLazyStringFlattened, JSLazyStringRaw {
@@ -170,9 +173,73 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
         return result;
     }
 
+    /**
+     * Creates a substring of a JS string, which may be a plain {@link String}. Long substrings
+     * share the chars of their flat parent instead of copying them, unless the substring would keep
+     * a much larger parent alive. Ropes
+     * are only flattened if the requested range spans more than one of their leaves.
+     */
+    @TruffleBoundary
+    public static CharSequence substring(CharSequence str, int begin, int end) {
+        assert JSRuntime.isString(str);
+        assert 0 <= begin && begin <= end && end <= str.length();
+        int sliceLength = end - begin;
+        if (sliceLength == str.length()) {
+            return str;
+        } else if (!JSConfig.LazyStrings || sliceLength < JSConfig.MinSlicedStringLength) {
+            return substringCopy(str, begin, end);
+        }
+        CharSequence base = str;
+        int offset = begin;
+        int depth = 0;
+        while (base instanceof JSLazyString && depth++ < JSConfig.LazyStringMaxWalkDepth) {
+            JSLazyString lazyString = (JSLazyString) base;
+            CharSequence left = lazyString.left;
+            CharSequence right = lazyString.right;
+            if (right == null) {
+                base = left;
+            } else if (offset + sliceLength <= left.length()) {
+                base = left;
+            } else if (offset >= left.length()) {
+                offset -= left.length();
+                base = right;
+            } else {
+                break;
+            }
+        }
+        String parent;
+        if (base instanceof Slice) {
+            Slice slice = (Slice) base;
+            parent = slice.parent;
+            offset += slice.offset;
+        } else {
+            parent = base.toString();
+        }
+        if (sliceLength == parent.length()) {
+            return parent;
+        } else if ((long) sliceLength * JSConfig.SlicedStringMaxRetainFactor < parent.length()) {
+            return parent.substring(offset, offset + sliceLength);
+        }
+        return new JSLazyString(new Slice(parent, offset, sliceLength));
+    }
+
+    private static String substringCopy(CharSequence str, int begin, int end) {
+        if (str instanceof JSLazyString && ((JSLazyString) str).left instanceof Slice) {
+            Slice slice = (Slice) ((JSLazyString) str).left;
+            return slice.parent.substring(slice.offset + begin, slice.offset + end);
+        }
+        return str.toString().substring(begin, end);
+    }
+
+    /**
+     * Either the left and right child of a rope, the flattened string (right == null), or a
+     * {@link Slice} of another string (right == null).
+     */
     private CharSequence left;
     private CharSequence right;
     private final int length;
+    /** Number of index accesses that walked the rope instead of flattening it. */
+    private int indexWalks;
 
     private JSLazyString(CharSequence left, CharSequence right, int length) {
         assert left.length() > 0 && right.length() > 0 && length == left.length() + right.length();
@@ -185,6 +252,12 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
         this(left, right, left.length() + right.length());
     }
 
+    private JSLazyString(Slice slice) {
+        this.left = slice;
+        this.right = null;
+        this.length = slice.length();
+    }
+
     @Override
     public int length() {
         return length;
@@ -206,18 +279,23 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
     }
 
     public boolean isFlat() {
-        return right == null;
+        return right == null && left instanceof String;
     }
 
     @TruffleBoundary
     private void flatten() {
-        char[] dst = new char[length];
+        if (right == null) {
+            // copy the chars of a slice, releasing its parent
+            left = left.toString();
+            return;
+        }
+        FlattenBuffer dst = new FlattenBuffer(length, JSConfig.LazyStringLatin1Flattening);
         flatten(this, 0, length, dst, 0);
-        left = new String(dst);
+        left = dst.toString();
         right = null;
     }
 
-    private static void flatten(CharSequence src, int srcBegin, int srcEnd, char[] dst, int dstBegin) {
+    private static void flatten(CharSequence src, int srcBegin, int srcEnd, FlattenBuffer dst, int dstBegin) {
         CompilerAsserts.neverPartOfCompilation();
         CharSequence str = src;
         int from = srcBegin;
@@ -229,16 +307,17 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
                 JSLazyString lazyString = (JSLazyString) str;
                 CharSequence left = lazyString.left;
                 CharSequence right = lazyString.right;
+                if (right == null) {
+                    // flat string or slice
+                    str = left;
+                    continue;
+                }
                 int mid = left.length();
 
                 if (to - mid >= mid - from) {
                     // right is longer, recurse left
                     if (from < mid) {
-                        if (left instanceof String) {
-                            ((String) left).getChars(from, mid, dst, dstFrom);
-                        } else {
-                            flatten(left, from, mid, dst, dstFrom);
-                        }
+                        flatten(left, from, mid, dst, dstFrom);
                         dstFrom += mid - from;
                         from = 0;
                     } else {
@@ -249,40 +328,190 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
                 } else {
                     // left is longer, recurse right
                     if (to > mid) {
-                        if (right instanceof String) {
-                            ((String) right).getChars(0, to - mid, dst, dstFrom + mid - from);
-                        } else {
-                            flatten(right, 0, to - mid, dst, dstFrom + mid - from);
-                        }
+                        flatten(right, 0, to - mid, dst, dstFrom + mid - from);
                         to = mid;
                     }
                     str = left;
                 }
-            } else if (str instanceof String) {
-                ((String) str).getChars(from, to, dst, dstFrom);
+            } else {
+                dst.put(str, from, to, dstFrom);
                 return;
+            }
+        }
+    }
+
+    /**
+     * Destination of {@link #flatten}. Starts out as a Latin-1 buffer if enabled, and is inflated
+     * to a {@code char[]} when the first char outside of the Latin-1 range is copied. The leaves of
+     * the rope are not copied in order, but each index is written exactly once, so the bytes
+     * written before inflating remain valid.
+     */
+    private static final class FlattenBuffer {
+        private static final int CHUNK_SIZE = 1024;
+
+        private byte[] latin1;
+        private char[] chars;
+        private char[] chunk;
+
+        FlattenBuffer(int length, boolean tryLatin1) {
+            if (tryLatin1) {
+                latin1 = new byte[length];
             } else {
-                assert JSRuntime.isString(str) || str instanceof JSLazyIntWrapper;
-                str.toString().getChars(from, to, dst, dstFrom);
+                chars = new char[length];
+            }
+        }
+
+        void put(CharSequence str, int from, int to, int dstFrom) {
+            if (chars != null) {
+                putChars(str, from, to, dstFrom);
                 return;
             }
+            String s;
+            int begin = from;
+            if (str instanceof Slice) {
+                Slice slice = (Slice) str;
+                s = slice.parent;
+                begin += slice.offset;
+            } else {
+                assert JSRuntime.isString(str) || str instanceof JSLazyIntWrapper;
+                s = str.toString();
+            }
+            if (chunk == null) {
+                chunk = new char[CHUNK_SIZE];
+            }
+            for (int pos = 0; pos < to - from; pos += CHUNK_SIZE) {
+                int len = Math.min(CHUNK_SIZE, to - from - pos);
+                s.getChars(begin + pos, begin + pos + len, chunk, 0);
+                for (int i = 0; i < len; i++) {
+                    char c = chunk[i];
+                    if (c > 0xFF) {
+                        inflate();
+                        System.arraycopy(chunk, 0, chars, dstFrom + pos, len);
+                        s.getChars(begin + pos + len, begin + (to - from), chars, dstFrom + pos + len);
+                        return;
+                    }
+                    latin1[dstFrom + pos + i] = (byte) c;
+                }
+            }
+        }
+
+        private void putChars(CharSequence str, int from, int to, int dstFrom) {
+            if (str instanceof String) {
+                ((String) str).getChars(from, to, chars, dstFrom);
+            } else if (str instanceof Slice) {
+                Slice slice = (Slice) str;
+                slice.parent.getChars(slice.offset + from, slice.offset + to, chars, dstFrom);
+            } else if (str instanceof JSLazyIntWrapper) {
+                ((JSLazyIntWrapper) str).getChars(from, to, chars, dstFrom);
+            } else {
+                assert JSRuntime.isString(str);
+                str.toString().getChars(from, to, chars, dstFrom);
+            }
+        }
+
+        private void inflate() {
+            chars = new char[latin1.length];
+            for (int i = 0; i < latin1.length; i++) {
+                chars[i] = (char) (latin1[i] & 0xFF);
+            }
+            latin1 = null;
+        }
+
+        @Override
+        public String toString() {
+            return latin1 != null ? new String(latin1, StandardCharsets.ISO_8859_1) : new String(chars);
         }
     }
 
+    /**
+     * Index access without flattening: flat strings and slices are read in place. A rope is walked
+     * for up to {@link JSConfig#LazyStringMaxIndexWalks} accesses, e.g. a single char read from a
+     * string that is still being built, and flattened after that, or if it is too deep.
+     */
     @Override
     public char charAt(int index) {
+        if (right == null) {
+            CharSequence l = left;
+            if (l instanceof String) {
+                return ((String) l).charAt(index);
+            } else if (l instanceof Slice) {
+                return ((Slice) l).charAt(index);
+            }
+        }
+        return charAtSlow(index);
+    }
+
+    @TruffleBoundary
+    private char charAtSlow(int index) {
+        if (right != null && indexWalks < JSConfig.LazyStringMaxIndexWalks) {
+            indexWalks++;
+            CharSequence str = this;
+            int i = index;
+            for (int depth = 0; depth < JSConfig.LazyStringMaxWalkDepth; depth++) {
+                if (!(str instanceof JSLazyString)) {
+                    return str.charAt(i);
+                }
+                JSLazyString lazyString = (JSLazyString) str;
+                CharSequence l = lazyString.left;
+                CharSequence r = lazyString.right;
+                if (r == null || i < l.length()) {
+                    str = l;
+                } else {
+                    i -= l.length();
+                    str = r;
+                }
+            }
+        }
         return toString().charAt(index);
     }
 
     @Override
     public CharSequence subSequence(int start, int end) {
-        return toString().subSequence(start, end);
+        return substring(this, start, end);
     }
 
     public boolean isEmpty() {
         return length == 0;
     }
 
+    /**
+     * A substring that shares the chars of its parent. Only ever used as the child of a
+     * {@link JSLazyString}, never as a JS value on its own.
+     */
+    private static final class Slice implements CharSequence {
+
+        private final String parent;
+        private final int offset;
+        private final int length;
+
+        Slice(String parent, int offset, int length) {
+            assert offset >= 0 && length > 0 && offset + length <= parent.length();
+            this.parent = parent;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return parent.charAt(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return parent.substring(offset + start, offset + end);
+        }
+
+        @Override
+        public String toString() {
+            return parent.substring(offset, offset + length);
+        }
+    }
+
     private static class JSLazyIntWrapper implements CharSequence {
 
         private final int value;
@@ -318,11 +547,22 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
         @Override
         public String toString() {
             if (str == null) {
-                str = String.valueOf(value);
+                str = NumberStringCache.intToString(value);
             }
             return str;
         }
 
+        /**
+         * Writes the digits directly into the destination unless only a part is requested.
+         */
+        void getChars(int from, int to, char[] dst, int dstFrom) {
+            if (str == null && from == 0 && to == length()) {
+                NumberStringCache.getChars(value, dst, dstFrom + to);
+            } else {
+                toString().getChars(from, to, dst, dstFrom);
+            }
+        }
+
     }
 
     public static boolean isInstance(TruffleObject object) {
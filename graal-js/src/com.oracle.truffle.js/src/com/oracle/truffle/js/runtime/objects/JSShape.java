@@ -169,6 +169,15 @@ public final class JSShape {
         return JSShapeData.getPropertiesIfHasEnumerablePropertyNames(shape);
     }
 
+    /**
+     * Returns the enumerable own properties in property key order, or {@code null} if any of them
+     * is an accessor or proxy property, i.e. if reading their values may have side effects.
+     */
+    public static UnmodifiableArrayList<Property> getEnumerableDataProperties(Shape shape) {
+        assert JSConfig.FastOwnKeys;
+        return JSShapeData.getEnumerableDataProperties(shape);
+    }
+
     /**
      * Internal constructor for null and undefined shapes.
      */
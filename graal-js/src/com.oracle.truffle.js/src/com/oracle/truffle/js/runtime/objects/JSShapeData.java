@@ -65,6 +65,8 @@ public final class JSShapeData {
     private static final Property[] EMPTY_PROPERTY_ARRAY = new Property[0];
     private static final String[] EMPTY_STRING_ARRAY = new String[0];
     private static final int UNKNOWN = -1;
+    /** Marker for shapes with enumerable accessor or proxy properties. */
+    private static final Property[] NOT_ONLY_DATA_PROPERTIES = new Property[0];
 
     /** The position in the property array where strings end and symbols start. */
     private int symbolsStartPos = UNKNOWN;
@@ -72,6 +74,8 @@ public final class JSShapeData {
     private Property[] propertyArray;
     /** Only enumerable properties with string keys (no symbols). */
     private String[] enumerablePropertyNames;
+    /** Enumerable properties (strings and symbols) if they are all plain data properties. */
+    private Property[] enumerableDataProperties;
 
     private JSShapeData() {
     }
@@ -97,6 +101,21 @@ public final class JSShapeData {
         return ownProperties.toArray(EMPTY_STRING_ARRAY);
     }
 
+    private static Property[] createEnumerableDataPropertiesArray(Property[] propertyArray) {
+        CompilerAsserts.neverPartOfCompilation();
+        enumerableDataPropertyListAllocCount.inc();
+        List<Property> enumerableProperties = new ArrayList<>();
+        for (Property property : propertyArray) {
+            if (JSProperty.isEnumerable(property)) {
+                if (JSProperty.isAccessor(property) || JSProperty.isProxy(property)) {
+                    return NOT_ONLY_DATA_PROPERTIES;
+                }
+                enumerableProperties.add(property);
+            }
+        }
+        return enumerableProperties.toArray(EMPTY_PROPERTY_ARRAY);
+    }
+
     private static void sortProperties(List<Property> ownProperties) {
         CompilerAsserts.neverPartOfCompilation();
         Collections.sort(ownProperties, (o1, o2) -> JSRuntime.comparePropertyKeys(o1.getKey(), o2.getKey()));
@@ -194,6 +213,23 @@ public final class JSShapeData {
         return asUnmodifiableList(shape.getPropertyCount() == 0 ? EMPTY_PROPERTY_ARRAY : getPropertiesArrayIfHasEnumerablePropertyNames(shape));
     }
 
+    @TruffleBoundary
+    private static Property[] getEnumerableDataPropertiesArray(Shape shape) {
+        assert shape.getPropertyCount() != 0;
+        JSShapeData shapeData = getShapeData(shape);
+        Property[] enumerableDataProperties = shapeData.enumerableDataProperties;
+        if (enumerableDataProperties == null) {
+            enumerableDataProperties = createEnumerableDataPropertiesArray(getPropertiesArray(shapeData, shape));
+            shapeData.enumerableDataProperties = enumerableDataProperties;
+        }
+        return enumerableDataProperties;
+    }
+
+    static UnmodifiableArrayList<Property> getEnumerableDataProperties(Shape shape) {
+        Property[] enumerableDataProperties = shape.getPropertyCount() == 0 ? EMPTY_PROPERTY_ARRAY : getEnumerableDataPropertiesArray(shape);
+        return enumerableDataProperties == NOT_ONLY_DATA_PROPERTIES ? null : asUnmodifiableList(enumerableDataProperties);
+    }
+
     static <T> UnmodifiablePropertyKeyList<T> getPropertyKeyList(Shape shape, boolean strings, boolean symbols) {
         CompilerAsserts.neverPartOfCompilation();
         Property[] propertyArray;
@@ -225,6 +261,7 @@ public final class JSShapeData {
         return new UnmodifiableArrayList<>(array);
     }
 
+    private static final DebugCounter enumerableDataPropertyListAllocCount = DebugCounter.create("Enumerable data property lists allocated");
     private static final DebugCounter enumerablePropertyListAllocCount = DebugCounter.create("Enumerable property lists allocated");
     private static final DebugCounter propertyListAllocCount = DebugCounter.create("Property lists allocated");
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.builtins.JSDate;
+
+/**
+ * Per-realm cache of local time zone offsets and year/month/day splits.
+ *
+ * Time zone offsets only change at transitions (DST, changes of the standard offset), so the cache
+ * remembers the interval between two transitions around the most recently queried times together
+ * with the offset that is valid within it. Queries that fall into a remembered interval are
+ * answered without consulting the {@link ZoneRules}. The cache is bound to the {@link ZoneId} it
+ * has been created for and must be replaced when the realm's time zone changes.
+ */
+public final class DateCache {
+
+    private final ZoneId zoneId;
+    private final ZoneRules rules;
+
+    /** Most recently used interval. */
+    private Interval current;
+    /** Previously used interval, to avoid thrashing when alternating around a transition. */
+    private Interval previous;
+
+    /* Year/month/day split of the most recently queried day. */
+    private long ymdDay = Long.MIN_VALUE;
+    private int ymdYear;
+    private int ymdMonth;
+    private int ymdDate;
+
+    @TruffleBoundary
+    public DateCache(ZoneId zoneId) {
+        this.zoneId = zoneId;
+        this.rules = zoneId.getRules();
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Equivalent to {@link JSDate#localTZA(double, boolean, ZoneId)} for this cache's time zone.
+     */
+    @TruffleBoundary
+    public long getLocalTZA(double t, boolean isUTC) {
+        if (!(Math.abs(t) < JSDate.MAX_DATE + JSDate.MS_PER_DAY)) {
+            return JSDate.localTZA(t, isUTC, zoneId);
+        }
+        if (isUTC) {
+            long utc = (long) t;
+            Interval interval = findUTC(utc);
+            if (interval == null) {
+                interval = computeInterval(utc);
+                push(interval);
+            }
+            return interval.offsetMillis;
+        } else {
+            long local = (long) t;
+            Interval interval = findLocal(local);
+            if (interval != null) {
+                return interval.offsetMillis;
+            }
+            // Ambiguous or skipped local times are resolved by the zone rules. The interval is
+            // remembered nevertheless since it typically covers the following queries.
+            long offset = JSDate.localTZA(t, false, zoneId);
+            push(computeInterval(local - offset));
+            return offset;
+        }
+    }
+
+    private Interval findUTC(long utc) {
+        Interval interval = current;
+        if (interval != null && interval.containsUTC(utc)) {
+            return interval;
+        }
+        interval = previous;
+        if (interval != null && interval.containsUTC(utc)) {
+            previous = current;
+            current = interval;
+            return interval;
+        }
+        return null;
+    }
+
+    private Interval findLocal(long local) {
+        Interval interval = current;
+        if (interval != null && interval.containsLocal(local)) {
+            return interval;
+        }
+        interval = previous;
+        if (interval != null && interval.containsLocal(local)) {
+            previous = current;
+            current = interval;
+            return interval;
+        }
+        return null;
+    }
+
+    private void push(Interval interval) {
+        previous = current;
+        current = interval;
+    }
+
+    private Interval computeInterval(long utc) {
+        if (rules.isFixedOffset()) {
+            long offset = rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L;
+            return new Interval(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, offset);
+        }
+        Instant instant = Instant.ofEpochMilli(utc);
+        long offset = rules.getOffset(instant).getTotalSeconds() * 1000L;
+        // previousTransition is exclusive, include a transition at exactly utc
+        ZoneOffsetTransition prev = rules.previousTransition(Instant.ofEpochMilli(utc + 1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+
+        long utcStart;
+        long localStart;
+        if (prev == null) {
+            utcStart = Long.MIN_VALUE;
+            localStart = Long.MIN_VALUE;
+        } else {
+            utcStart = prev.getInstant().toEpochMilli();
+            // local times in a gap or overlap are left to the zone rules
+            localStart = utcStart + Math.max(offset, prev.getOffsetBefore().getTotalSeconds() * 1000L);
+        }
+        long utcEnd;
+        long localEnd;
+        if (next == null) {
+            utcEnd = Long.MAX_VALUE;
+            localEnd = Long.MAX_VALUE;
+        } else {
+            utcEnd = next.getInstant().toEpochMilli();
+            localEnd = utcEnd + Math.min(offset, next.getOffsetAfter().getTotalSeconds() * 1000L);
+        }
+        return new Interval(utcStart, utcEnd, localStart, localEnd, offset);
+    }
+
+    @TruffleBoundary
+    public int yearFromTime(long t) {
+        updateYMD(t);
+        return ymdYear;
+    }
+
+    @TruffleBoundary
+    public int monthFromTime(long t) {
+        updateYMD(t);
+        return ymdMonth;
+    }
+
+    @TruffleBoundary
+    public int dateFromTime(long t) {
+        updateYMD(t);
+        return ymdDate;
+    }
+
+    private void updateYMD(long t) {
+        long day = Math.floorDiv(t, JSDate.MS_PER_DAY);
+        if (day != ymdDay) {
+            int year = JSDate.yearFromDays((int) day);
+            int dayInYear = (int) day - JSDate.dayFromYear(year);
+            ymdYear = year;
+            ymdMonth = JSDate.monthFromDayInYear(year, dayInYear);
+            ymdDate = JSDate.dateFromDayInYear(year, dayInYear);
+            ymdDay = day;
+        }
+    }
+
+    /**
+     * Time span between two offset transitions. {@code [localStart, localEnd)} excludes the local
+     * times that are skipped or repeated at either transition.
+     */
+    private static final class Interval {
+        final long utcStart;
+        final long utcEnd;
+        final long localStart;
+        final long localEnd;
+        final long offsetMillis;
+
+        Interval(long utcStart, long utcEnd, long localStart, long localEnd, long offsetMillis) {
+            this.utcStart = utcStart;
+            this.utcEnd = utcEnd;
+            this.localStart = localStart;
+            this.localEnd = localEnd;
+            this.offsetMillis = offsetMillis;
+        }
+
+        boolean containsUTC(long utc) {
+            return utcStart <= utc && utc < utcEnd;
+        }
+
+        boolean containsLocal(long local) {
+            return localStart <= local && local < localEnd;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+
+/**
+ * Per-realm cache of the Intl formatters that are created implicitly by
+ * {@code Date.prototype.toLocale(Date|Time)String}, {@code Number.prototype.toLocaleString},
+ * {@code BigInt.prototype.toLocaleString} and {@code String.prototype.localeCompare}.
+ *
+ * The initialize nodes still canonicalize the {@code locales} argument and read all options in
+ * spec order, so every call observes its arguments as before. The canonicalized locale list and
+ * the option values read are the key; only the construction of the ICU formatter is skipped on a
+ * hit. The formatters are internal objects that never escape to user code and can be shared
+ * safely.
+ */
+public final class IntlFormatterCache {
+
+    private static final int MAX_SIZE = 32;
+
+    public enum Kind {
+        DATE_TIME_FORMAT,
+        DATE_FORMAT,
+        TIME_FORMAT,
+        NUMBER_FORMAT,
+        COLLATOR
+    }
+
+    private final LRUCache<Key, DynamicObject> cache = new LRUCache<>(MAX_SIZE);
+    private long hits;
+    private long misses;
+
+    /**
+     * Returns the cached formatter for the given key or {@code null}.
+     */
+    @TruffleBoundary
+    public DynamicObject get(Key key) {
+        DynamicObject formatter = cache.get(key);
+        if (formatter == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return formatter;
+    }
+
+    @TruffleBoundary
+    public void put(Key key, DynamicObject formatter) {
+        cache.put(key, formatter);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    @TruffleBoundary
+    public int size() {
+        return cache.size();
+    }
+
+    public static final class Key {
+        private final Kind kind;
+        private final String[] locales;
+        /** The option values read by the initialize node, {@code null} for absent options. */
+        private final Object[] options;
+
+        @TruffleBoundary
+        public Key(Kind kind, String[] locales, Object... options) {
+            this.kind = kind;
+            this.locales = locales.clone();
+            this.options = options;
+        }
+
+        @Override
+        public int hashCode() {
+            return (kind.hashCode() * 31 + Arrays.hashCode(locales)) * 31 + Arrays.hashCode(options);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return kind == other.kind && Arrays.equals(locales, other.locales) && Arrays.equals(options, other.options);
+        }
+    }
+}
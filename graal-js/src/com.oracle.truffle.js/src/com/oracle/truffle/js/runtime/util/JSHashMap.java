@@ -40,12 +40,19 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 /**
  * ES6-compliant hash map implementation.
+ *
+ * Deterministic (insertion-ordered) hash table in the style of V8's OrderedHashMap. Entries are
+ * stored in parallel key/value/hash/chain arrays in insertion order, with a separate bucket array
+ * holding the index of the first entry of each hash chain. Removed entries leave a tombstone
+ * ({@code null} key) that is dropped when the table is rehashed. Since rehashing moves entries,
+ * every rehash allocates a new table and leaves a forwarding record in the old one, so that live
+ * cursors can translate their position to the new table.
  */
 public final class JSHashMap {
     public interface Cursor {
@@ -72,21 +79,18 @@ public final class JSHashMap {
         Cursor copy();
     }
 
-    private final HashMap<Object, Node> map;
-    private final Node head;
-    private Node tail;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Table table;
 
     @TruffleBoundary(allowInlining = true)
     public JSHashMap() {
-        this.map = new HashMap<>();
-        Node dummy = new Node(null, null, null, null);
-        this.head = dummy;
-        this.tail = dummy;
+        this.table = new Table(INITIAL_CAPACITY);
     }
 
     @TruffleBoundary(allowInlining = true)
     public int size() {
-        return map.size();
+        return table.size;
     }
 
     /**
@@ -94,172 +98,274 @@ public final class JSHashMap {
      */
     @TruffleBoundary
     public void put(Object key, Object value) {
-        Node newNode = new Node(key, value, null, null);
-        Node oldNode = map.putIfAbsent(key, newNode);
-        if (oldNode == null) {
-            newNode.setPrev(tail);
-            tail.setNext(newNode);
-            tail = newNode;
-        } else {
-            oldNode.setValue(value);
+        assert key != null && value != null;
+        int hash = hash(key);
+        Table t = table;
+        int index = t.find(key, hash);
+        if (index >= 0) {
+            t.values[index] = value;
+            return;
         }
+        if (t.usedEntries == t.capacity()) {
+            // compact if at least half of the entries are tombstones, otherwise grow
+            int newCapacity = t.deletedEntries >= (t.capacity() >> 1) ? t.capacity() : t.capacity() << 1;
+            t = rehash(newCapacity);
+        }
+        t.append(key, value, hash);
     }
 
     @TruffleBoundary
     public Object get(Object key) {
-        Node node = map.get(key);
-        return node == null ? null : node.getValue();
+        Table t = table;
+        int index = t.find(key, hash(key));
+        return index < 0 ? null : t.values[index];
     }
 
     @TruffleBoundary
     public boolean has(Object key) {
-        return map.containsKey(key);
+        return table.find(key, hash(key)) >= 0;
     }
 
     @TruffleBoundary
     public boolean remove(Object key) {
-        Node node = map.remove(key);
-        if (node == null) {
+        Table t = table;
+        int index = t.find(key, hash(key));
+        if (index < 0) {
             return false;
-        } else {
-            unlink(node);
-            return true;
         }
-    }
-
-    private void unlink(Node node) {
-        Node next = node.getNext();
-        Node prev = node.getPrev();
-        prev.setNext(next);
-        if (next != null) {
-            next.setPrev(prev);
-        } else {
-            tail = prev;
+        t.keys[index] = null;
+        t.values[index] = null;
+        t.size--;
+        t.deletedEntries++;
+        if (t.capacity() > INITIAL_CAPACITY && t.size < (t.capacity() >> 2)) {
+            rehash(t.capacity() >> 1);
         }
-        node.setEmpty();
+        return true;
     }
 
     @TruffleBoundary
     public void clear() {
-        map.clear();
-        for (Node current = head.getNext(); current != null; current = current.getNext()) {
-            current.setEmpty();
-        }
-        head.setNext(null);
-        tail = head;
+        Table oldTable = table;
+        Table newTable = new Table(INITIAL_CAPACITY);
+        oldTable.makeObsolete(newTable, null);
+        table = newTable;
     }
 
     @TruffleBoundary
     @Override
     public String toString() {
-        return map.toString();
+        StringBuilder sb = new StringBuilder("{");
+        Table t = table;
+        boolean first = true;
+        for (int i = 0; i < t.usedEntries; i++) {
+            if (t.keys[i] != null) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append(t.keys[i]).append('=').append(t.values[i]);
+            }
+        }
+        return sb.append('}').toString();
     }
 
     public Cursor getEntries() {
-        return new CursorImpl(head);
+        return new CursorImpl(table, -1);
     }
 
-    private static final class CursorImpl implements Cursor {
-        private Node current;
-
-        CursorImpl(Node head) {
-            this.current = head;
-        }
-
-        @Override
-        public boolean advance() {
-            if (current == null) {
-                return false;
+    private Table rehash(int newCapacity) {
+        Table oldTable = table;
+        Table newTable = new Table(newCapacity);
+        int[] removedIndices = new int[oldTable.deletedEntries];
+        int removedCount = 0;
+        for (int i = 0; i < oldTable.usedEntries; i++) {
+            Object key = oldTable.keys[i];
+            if (key == null) {
+                removedIndices[removedCount++] = i;
             } else {
-                // if current is no longer in the map, back up to a previous node still in the map
-                while (current.isEmpty() && current.getPrev() != null) {
-                    current = current.getPrev();
-                }
-                Node next = current.getNext();
-                assert next == null || next.getKey() != null;
-                current = next;
-                return next != null;
+                newTable.append(key, oldTable.values[i], oldTable.hashes[i]);
             }
         }
+        assert removedCount == removedIndices.length;
+        oldTable.makeObsolete(newTable, removedIndices);
+        table = newTable;
+        return newTable;
+    }
 
-        @Override
-        public Object getKey() {
-            Object key = current.getKey();
-            assert key != null;
-            return key;
+    /**
+     * Keys are normalized (see {@code JSCollectionsNormalizeNode}), so int-valued numbers are
+     * always Integer and other numbers are Double; both get a cheap specialized hash.
+     */
+    private static int hash(Object key) {
+        int h;
+        if (key instanceof Integer) {
+            h = (int) key * 0x9E3779B9;
+        } else if (key instanceof Double) {
+            long bits = Double.doubleToLongBits((double) key);
+            h = (int) (bits ^ (bits >>> 32)) * 0x9E3779B9;
+        } else {
+            h = key.hashCode();
         }
+        return h ^ (h >>> 16);
+    }
 
-        @Override
-        public Object getValue() {
-            Object value = current.getValue();
-            assert value != null;
-            return value;
+    private static boolean keyEquals(Object key, Object other) {
+        if (key == other) {
+            return true;
+        } else if (key instanceof Integer) {
+            return other instanceof Integer && (int) key == (int) other;
+        } else {
+            return key.equals(other);
         }
+    }
 
-        @Override
-        public String toString() {
-            return "Cursor [current=" + current + "]";
+    private static final class Table {
+        /** Index of the first entry of each hash chain, or -1. */
+        int[] buckets;
+        /** Entry storage, in insertion order; a {@code null} key denotes a removed entry. */
+        Object[] keys;
+        Object[] values;
+        int[] hashes;
+        /** Index of the next entry in the same hash chain, or -1. */
+        int[] chain;
+
+        int usedEntries;
+        int size;
+        int deletedEntries;
+
+        /** Set when this table has been replaced by a rehash or clear. */
+        Table nextTable;
+        /**
+         * Sorted indices of the entries that were removed before the rehash, or {@code null} if
+         * the table was cleared.
+         */
+        int[] removedIndices;
+
+        Table(int capacity) {
+            assert Integer.bitCount(capacity) == 1;
+            this.buckets = new int[capacity];
+            Arrays.fill(buckets, -1);
+            this.keys = new Object[capacity];
+            this.values = new Object[capacity];
+            this.hashes = new int[capacity];
+            this.chain = new int[capacity];
         }
 
-        @Override
-        public Cursor copy() {
-            return new CursorImpl(current);
+        int capacity() {
+            return keys.length;
         }
-    }
 
-    private static final class Node {
-        private Object key;
-        private Object value;
-        private Node prev;
-        private Node next;
-
-        Node(Object key, Object value, Node prev, Node next) {
-            this.key = key;
-            this.value = value;
-            this.prev = prev;
-            this.next = next;
+        int find(Object key, int hash) {
+            for (int index = buckets[hash & (buckets.length - 1)]; index >= 0; index = chain[index]) {
+                if (hashes[index] == hash) {
+                    Object k = keys[index];
+                    if (k != null && keyEquals(k, key)) {
+                        return index;
+                    }
+                }
+            }
+            return -1;
         }
 
-        Object getKey() {
-            return key;
+        void append(Object key, Object value, int hash) {
+            int index = usedEntries++;
+            int bucket = hash & (buckets.length - 1);
+            keys[index] = key;
+            values[index] = value;
+            hashes[index] = hash;
+            chain[index] = buckets[bucket];
+            buckets[bucket] = index;
+            size++;
         }
 
-        Object getValue() {
-            return value;
+        boolean isObsolete() {
+            return nextTable != null;
         }
 
-        void setValue(Object value) {
-            this.value = value;
+        void makeObsolete(Table newTable, int[] removed) {
+            this.nextTable = newTable;
+            this.removedIndices = removed;
+            // only the forwarding information is needed by cursors; release the entries
+            this.buckets = null;
+            this.keys = null;
+            this.values = null;
+            this.hashes = null;
+            this.chain = null;
         }
 
-        Node getPrev() {
-            return prev;
+        /**
+         * Translates an entry position in this (obsolete) table to the corresponding position in
+         * the next table, i.e. the number of surviving entries before {@code position}.
+         */
+        int translatePosition(int position) {
+            if (removedIndices == null) {
+                return 0;
+            }
+            int removedBefore = Arrays.binarySearch(removedIndices, position);
+            if (removedBefore < 0) {
+                removedBefore = -(removedBefore + 1);
+            }
+            return position - removedBefore;
         }
+    }
 
-        void setPrev(Node prev) {
-            this.prev = prev;
+    private static final class CursorImpl implements Cursor {
+        /** The table the index refers to, or {@code null} if the cursor is exhausted. */
+        private Table table;
+        /** Index of the current entry; -1 before the first call to {@link #advance()}. */
+        private int index;
+
+        CursorImpl(Table table, int index) {
+            this.table = table;
+            this.index = index;
         }
 
-        Node getNext() {
-            return next;
+        @Override
+        public boolean advance() {
+            Table t = table;
+            if (t == null) {
+                return false;
+            }
+            int next = index + 1;
+            while (t.isObsolete()) {
+                next = t.translatePosition(next);
+                t = t.nextTable;
+            }
+            while (next < t.usedEntries && t.keys[next] == null) {
+                next++;
+            }
+            if (next < t.usedEntries) {
+                table = t;
+                index = next;
+                return true;
+            } else {
+                table = null;
+                return false;
+            }
         }
 
-        void setNext(Node next) {
-            this.next = next;
+        @Override
+        public Object getKey() {
+            Object key = table.keys[index];
+            assert key != null;
+            return key;
         }
 
-        void setEmpty() {
-            this.key = null;
-            this.value = null;
+        @Override
+        public Object getValue() {
+            Object value = table.values[index];
+            assert value != null;
+            return value;
         }
 
-        boolean isEmpty() {
-            return this.key == null;
+        @Override
+        public String toString() {
+            return "Cursor [index=" + index + "]";
         }
 
         @Override
-        public String toString() {
-            return "Node [key=" + key + ", value=" + value + "]";
+        public Cursor copy() {
+            return new CursorImpl(table, index);
         }
     }
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.FinalLocationException;
+import com.oracle.truffle.api.object.IncompatibleLocationException;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+import com.oracle.truffle.js.runtime.builtins.JSObjectPrototype;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.Null;
+
+/**
+ * Context-wide (shape, key) lookup cache shared by all property access nodes that have gone
+ * megamorphic, similar to V8's megamorphic stub cache. Each entry records where a property was
+ * found (the receiver itself or an object on its prototype chain), or that it is absent.
+ *
+ * Entries are only created for ordinary objects whose prototypes are part of their shape. They are
+ * guarded by the same assumptions that the inline property caches use for prototype chain checks:
+ * shape validity, the stable prototype assumptions, and the property assumptions of the prototype
+ * shapes. An entry whose assumptions have been invalidated is treated as a miss and replaced.
+ *
+ * The table is direct-mapped and entries are immutable, so concurrent readers and writers can race
+ * on a slot without synchronization; the worst case is a lost entry.
+ */
+public final class MegamorphicPropertyCache {
+
+    private static final int SIZE = 4096;
+
+    /** Marker returned by {@link #get} if the access cannot be answered from the cache. */
+    public static final Object NOT_CACHED = new Object();
+
+    private static final Assumption[] NO_ASSUMPTIONS = new Assumption[0];
+
+    private static final class Entry {
+        final Shape shape;
+        final Object key;
+        /** The property, or {@code null} if the property is known to be absent. */
+        final Property property;
+        /** The object holding the property, or {@code null} for an own property. */
+        final DynamicObject holder;
+        final Assumption[] assumptions;
+
+        Entry(Shape shape, Object key, Property property, DynamicObject holder, Assumption[] assumptions) {
+            this.shape = shape;
+            this.key = key;
+            this.property = property;
+            this.holder = holder;
+            this.assumptions = assumptions;
+        }
+
+        boolean matches(Shape s, Object k) {
+            return shape == s && (key == k || key.equals(k));
+        }
+
+        boolean isValid() {
+            if (!shape.isValid()) {
+                return false;
+            }
+            for (Assumption assumption : assumptions) {
+                if (!assumption.isValid()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final JSContext context;
+    private final Entry[] entries = new Entry[SIZE];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MegamorphicPropertyCache(JSContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Looks up {@code key} in {@code thisObj} and its prototype chain.
+     *
+     * @return the value of the property, {@code null} if the property is absent, or
+     *         {@link #NOT_CACHED} if the lookup has to take the generic path
+     */
+    @TruffleBoundary
+    public Object get(DynamicObject thisObj, Object key, Object receiver, Node encapsulatingNode) {
+        Entry entry = lookup(thisObj, key);
+        if (entry == null) {
+            return NOT_CACHED;
+        } else if (entry.property == null) {
+            return null;
+        }
+        DynamicObject store = entry.holder == null ? thisObj : entry.holder;
+        return JSProperty.getValue(entry.property, store, receiver, encapsulatingNode);
+    }
+
+    /**
+     * Checks if {@code key} is present in {@code thisObj} (or its prototype chain, unless
+     * {@code own} is set).
+     *
+     * @return the result, or {@code null} if the check has to take the generic path
+     */
+    @TruffleBoundary
+    public Boolean has(DynamicObject thisObj, Object key, boolean own) {
+        Entry entry = lookup(thisObj, key);
+        if (entry == null) {
+            return null;
+        }
+        return entry.property != null && (!own || entry.holder == null);
+    }
+
+    /**
+     * Updates an existing, writable own data property of {@code thisObj}.
+     *
+     * @return whether the value has been stored; if not, the assignment has to take the generic
+     *         path
+     */
+    @TruffleBoundary
+    public boolean set(DynamicObject thisObj, Object key, Object value) {
+        Entry entry = lookup(thisObj, key);
+        if (entry == null || entry.holder != null || entry.property == null) {
+            return false;
+        }
+        Property property = entry.property;
+        if (!JSProperty.isData(property) || !JSProperty.isWritable(property) || JSProperty.isProxy(property) || property.getLocation().isFinal() ||
+                        !property.getLocation().canSet(value)) {
+            return false;
+        }
+        try {
+            property.set(thisObj, value, entry.shape);
+        } catch (IncompatibleLocationException | FinalLocationException e) {
+            return false;
+        }
+        return true;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private Entry lookup(DynamicObject thisObj, Object key) {
+        Shape shape = thisObj.getShape();
+        int index = index(shape, key);
+        Entry entry = entries[index];
+        if (entry != null && entry.matches(shape, key) && entry.isValid()) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        entry = createEntry(thisObj, shape, key);
+        if (entry != null) {
+            entries[index] = entry;
+        }
+        return entry;
+    }
+
+    private static int index(Shape shape, Object key) {
+        int h = System.identityHashCode(shape) * 31 + key.hashCode();
+        return (h ^ (h >>> 16)) & (SIZE - 1);
+    }
+
+    private Entry createEntry(DynamicObject thisObj, Shape shape, Object key) {
+        if (!isCacheableKey(key) || !isCacheableShape(shape) || !shape.isValid()) {
+            return null;
+        }
+        Property property = shape.getProperty(key);
+        if (property != null) {
+            return new Entry(shape, key, property, null, NO_ASSUMPTIONS);
+        }
+        if (!context.isSingleRealm()) {
+            // prototype objects are only guarded by assumptions in single-realm contexts
+            return null;
+        }
+        List<Assumption> assumptions = new ArrayList<>();
+        DynamicObject current = thisObj;
+        Shape currentShape = shape;
+        while (property == null) {
+            if (!JSShape.isPrototypeInShape(currentShape)) {
+                return null;
+            }
+            Assumption stablePrototype = JSShape.getPrototypeAssumption(currentShape);
+            if (!stablePrototype.isValid()) {
+                return null;
+            }
+            assumptions.add(stablePrototype);
+            DynamicObject prototype = JSObject.getPrototype(current);
+            if (prototype == Null.instance) {
+                return new Entry(shape, key, null, null, assumptions.toArray(NO_ASSUMPTIONS));
+            }
+            Shape prototypeShape = prototype.getShape();
+            if (!isCacheableShape(prototypeShape)) {
+                return null;
+            }
+            Assumption unchanged = JSShape.getPropertyAssumption(prototypeShape, key, true);
+            if (!unchanged.isValid() || !prototypeShape.isValid()) {
+                return null;
+            }
+            assumptions.add(prototypeShape.getValidAssumption());
+            assumptions.add(unchanged);
+            current = prototype;
+            currentShape = prototypeShape;
+            property = prototypeShape.getProperty(key);
+        }
+        return new Entry(shape, key, property, current, assumptions.toArray(NO_ASSUMPTIONS));
+    }
+
+    private static boolean isCacheableKey(Object key) {
+        if (key instanceof Symbol) {
+            return true;
+        }
+        return key instanceof String && !JSRuntime.isArrayIndex((String) key);
+    }
+
+    /**
+     * Only classes whose named properties are exactly the properties of their shape.
+     */
+    private static boolean isCacheableShape(Shape shape) {
+        if (JSShape.hasExternalProperties(shape.getFlags())) {
+            return false;
+        }
+        JSClass jsclass = JSShape.getJSClass(shape);
+        return jsclass instanceof JSOrdinary || jsclass == JSFunction.INSTANCE || jsclass == JSObjectPrototype.INSTANCE;
+    }
+}
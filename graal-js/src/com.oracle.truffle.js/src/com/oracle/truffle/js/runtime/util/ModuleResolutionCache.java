@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+
+/**
+ * Per-realm cache used by the CommonJS {@code require} emulation and the npm-compatible ES module
+ * loader to avoid repeating file system probes. It caches:
+ * <ul>
+ * <li>the outcome of resolving a module specifier, keyed by (directory, specifier), including
+ * failed resolutions;</li>
+ * <li>the {@code main} and {@code type} fields of parsed {@code package.json} files.</li>
+ * </ul>
+ * Every resolution records the modification time of the directories it probed and of the
+ * {@code package.json} files it read (see {@link Dependencies}). A cached resolution, whether
+ * recorded in this run or loaded from a manifest, is only used while all of them are unchanged,
+ * so that a changed {@code main} field, an installed or hoisted package, or a module created after
+ * a failed lookup are picked up. Likewise, a cached {@code package.json} is only used while its
+ * modification time is unchanged. The cache belongs to a single realm since contexts of the same
+ * engine may use different file systems.
+ */
+public final class ModuleResolutionCache {
+
+    private static final String MANIFEST_HEADER = "# graal-js module resolution manifest v2";
+    private static final String COMMONJS_ENTRY = "C";
+    private static final String ES_MODULE_ENTRY = "E";
+
+    /** Stamp of a file that does not exist. */
+    private static final long MISSING = -1L;
+    /** Stamp of a file whose modification time cannot be determined. */
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    /**
+     * The fields of a {@code package.json} file that are relevant to module resolution.
+     */
+    public static final class PackageInfo {
+        /** Marker for {@code package.json} files that do not contain a JSON object. */
+        public static final PackageInfo INVALID = new PackageInfo(null, null);
+
+        private final String main;
+        private final String type;
+
+        public PackageInfo(String main, String type) {
+            this.main = main;
+            this.type = type;
+        }
+
+        /** The {@code main} field, or {@code null} if it is absent or not a string. */
+        public String getMain() {
+            return main;
+        }
+
+        /** The {@code type} field, or {@code null} if it is absent or not a string. */
+        public String getType() {
+            return type;
+        }
+    }
+
+    /**
+     * The files and directories whose contents determined the outcome of a resolution, together
+     * with their modification time when they were probed. A directory changes when an entry is
+     * added to, removed from, or renamed within it, which covers modules that are created,
+     * installed or hoisted after the resolution; a {@code package.json} file changes when it is
+     * edited.
+     */
+    public static final class Dependencies {
+        private final Map<String, Long> stamps = new LinkedHashMap<>();
+        private boolean unknown;
+
+        public Dependencies() {
+        }
+
+        @TruffleBoundary
+        public void add(TruffleFile file) {
+            if (file == null) {
+                return;
+            }
+            String path = file.getPath();
+            if (!stamps.containsKey(path)) {
+                long stamp = getStamp(file);
+                unknown |= stamp == UNKNOWN;
+                stamps.put(path, stamp);
+            }
+        }
+    }
+
+    /**
+     * A cached resolution: the resolved path, or {@code null} if the specifier could not be
+     * resolved, and the stamps of its dependencies.
+     */
+    public static final class Resolution {
+        private final String path;
+        private final String[] dependencies;
+        private final long[] stamps;
+
+        Resolution(String path, String[] dependencies, long[] stamps) {
+            this.path = path;
+            this.dependencies = dependencies;
+            this.stamps = stamps;
+        }
+
+        /** The resolved path, or {@code null} if the specifier could not be resolved. */
+        public String getPath() {
+            return path;
+        }
+
+        boolean isUpToDate(Env env) {
+            for (int i = 0; i < dependencies.length; i++) {
+                long stamp;
+                try {
+                    stamp = getStamp(env.getPublicTruffleFile(dependencies[i]));
+                } catch (SecurityException | UnsupportedOperationException | IllegalArgumentException e) {
+                    return false;
+                }
+                if (stamp == UNKNOWN || stamp != stamps[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isSame(Resolution other) {
+            return other != null && Objects.equals(path, other.path) && Arrays.equals(dependencies, other.dependencies) && Arrays.equals(stamps, other.stamps);
+        }
+    }
+
+    private final Map<Pair<String, String>, Resolution> commonJSResolutions = new ConcurrentHashMap<>();
+    private final Map<Pair<String, String>, Resolution> esModuleResolutions = new ConcurrentHashMap<>();
+    private final Map<String, Pair<Long, PackageInfo>> packages = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile boolean modified;
+
+    public ModuleResolutionCache() {
+    }
+
+    /**
+     * Returns the modification time of {@code file} in nanoseconds, {@code -1} if it does not
+     * exist, or {@link Long#MIN_VALUE} if it cannot be determined.
+     */
+    @TruffleBoundary
+    public static long getStamp(TruffleFile file) {
+        try {
+            return file.getLastModifiedTime().to(TimeUnit.NANOSECONDS);
+        } catch (NoSuchFileException e) {
+            return MISSING;
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Returns the cached resolution of {@code specifier} relative to {@code directory}, or
+     * {@code null} if nothing is cached or one of its dependencies has changed since.
+     */
+    @TruffleBoundary
+    public Resolution getResolution(Env env, boolean esModule, String directory, String specifier) {
+        Pair<String, String> key = new Pair<>(directory, specifier);
+        Resolution resolution = resolutions(esModule).get(key);
+        if (resolution != null && !resolution.isUpToDate(env)) {
+            if (resolutions(esModule).remove(key, resolution)) {
+                modified = true;
+            }
+            resolution = null;
+        }
+        if (resolution == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return resolution;
+    }
+
+    /**
+     * Records the resolution of {@code specifier} relative to {@code directory} to {@code path}, or
+     * that it could not be resolved if {@code path} is {@code null}. Nothing is recorded if the
+     * modification time of one of the {@code dependencies} is unknown.
+     */
+    @TruffleBoundary
+    public void putResolution(boolean esModule, String directory, String specifier, String path, Dependencies dependencies) {
+        assert path == null || !path.isEmpty();
+        if (dependencies.unknown) {
+            return;
+        }
+        String[] paths = new String[dependencies.stamps.size()];
+        long[] stamps = new long[paths.length];
+        int i = 0;
+        for (Map.Entry<String, Long> entry : dependencies.stamps.entrySet()) {
+            paths[i] = entry.getKey();
+            stamps[i] = entry.getValue();
+            i++;
+        }
+        Resolution resolution = new Resolution(path, paths, stamps);
+        Resolution previous = resolutions(esModule).put(new Pair<>(directory, specifier), resolution);
+        if (!resolution.isSame(previous)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Drops a (stale) resolution, e.g. when the cached file no longer exists.
+     */
+    @TruffleBoundary
+    public void removeResolution(boolean esModule, String directory, String specifier) {
+        if (resolutions(esModule).remove(new Pair<>(directory, specifier)) != null) {
+            modified = true;
+        }
+    }
+
+    private Map<Pair<String, String>, Resolution> resolutions(boolean esModule) {
+        return esModule ? esModuleResolutions : commonJSResolutions;
+    }
+
+    /**
+     * Returns the cached contents of the {@code package.json} file at {@code packageJsonPath}, or
+     * {@code null} if it is not cached or was cached with a different {@code stamp}.
+     */
+    @TruffleBoundary
+    public PackageInfo getPackageInfo(String packageJsonPath, long stamp) {
+        Pair<Long, PackageInfo> entry = packages.get(packageJsonPath);
+        if (entry == null || stamp == UNKNOWN || entry.getFirst() != stamp) {
+            return null;
+        }
+        return entry.getSecond();
+    }
+
+    @TruffleBoundary
+    public void putPackageInfo(String packageJsonPath, long stamp, PackageInfo info) {
+        assert info != PackageInfo.INVALID;
+        if (stamp != UNKNOWN && stamp != MISSING) {
+            packages.put(packageJsonPath, new Pair<>(stamp, info));
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Adds the resolutions recorded in {@code manifest} to this cache. A missing or malformed
+     * manifest is ignored. The entries are validated against the file system when they are used.
+     */
+    @TruffleBoundary
+    public void load(TruffleFile manifest) {
+        try {
+            if (!manifest.isRegularFile()) {
+                return;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(manifest.newInputStream(), StandardCharsets.UTF_8))) {
+                if (!MANIFEST_HEADER.equals(reader.readLine())) {
+                    return;
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t", -1);
+                    Resolution resolution = parseResolution(fields);
+                    if (resolution == null) {
+                        continue;
+                    }
+                    if (COMMONJS_ENTRY.equals(fields[0])) {
+                        commonJSResolutions.putIfAbsent(new Pair<>(fields[1], fields[2]), resolution);
+                    } else if (ES_MODULE_ENTRY.equals(fields[0])) {
+                        esModuleResolutions.putIfAbsent(new Pair<>(fields[1], fields[2]), resolution);
+                    }
+                }
+            }
+        } catch (IOException | SecurityException e) {
+            // the manifest is only an optimization
+        }
+    }
+
+    /**
+     * Parses the fields {@code kind, directory, specifier, path, (dependency, stamp)*} of a
+     * manifest line. An empty path denotes a failed resolution.
+     */
+    private static Resolution parseResolution(String[] fields) {
+        if (fields.length < 4 || fields.length % 2 != 0) {
+            return null;
+        }
+        int count = (fields.length - 4) / 2;
+        String[] dependencies = new String[count];
+        long[] stamps = new long[count];
+        for (int i = 0; i < count; i++) {
+            dependencies[i] = fields[4 + 2 * i];
+            try {
+                stamps[i] = Long.parseLong(fields[5 + 2 * i]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (dependencies[i].isEmpty()) {
+                return null;
+            }
+        }
+        return new Resolution(fields[3].isEmpty() ? null : fields[3], dependencies, stamps);
+    }
+
+    /**
+     * Writes the resolutions of this cache to {@code manifest}. The file is replaced
+     * atomically so that concurrent readers never observe a partially written manifest.
+     */
+    @TruffleBoundary
+    public void save(Env env, TruffleFile manifest) {
+        try {
+            TruffleFile parent = manifest.getAbsoluteFile().getParent();
+            if (parent == null) {
+                return;
+            }
+            TruffleFile temp = env.createTempFile(parent, manifest.getName(), ".tmp");
+            try {
+                try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(temp.newOutputStream(), StandardCharsets.UTF_8))) {
+                    writer.write(MANIFEST_HEADER);
+                    writer.newLine();
+                    writeEntries(writer, COMMONJS_ENTRY, commonJSResolutions);
+                    writeEntries(writer, ES_MODULE_ENTRY, esModuleResolutions);
+                }
+                temp.move(manifest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                modified = false;
+            } finally {
+                if (temp.exists()) {
+                    temp.delete();
+                }
+            }
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            // the manifest is only an optimization
+        }
+    }
+
+    private static void writeEntries(BufferedWriter writer, String kind, Map<Pair<String, String>, Resolution> entries) throws IOException {
+        for (Map.Entry<Pair<String, String>, Resolution> entry : entries.entrySet()) {
+            String directory = entry.getKey().getFirst();
+            String specifier = entry.getKey().getSecond();
+            Resolution resolution = entry.getValue();
+            String path = resolution.path == null ? "" : resolution.path;
+            if (!isWritable(directory) || !isWritable(specifier) || !isWritable(path) || !areWritable(resolution.dependencies)) {
+                continue;
+            }
+            writer.write(kind);
+            writer.write('\t');
+            writer.write(directory);
+            writer.write('\t');
+            writer.write(specifier);
+            writer.write('\t');
+            writer.write(path);
+            for (int i = 0; i < resolution.dependencies.length; i++) {
+                writer.write('\t');
+                writer.write(resolution.dependencies[i]);
+                writer.write('\t');
+                writer.write(Long.toString(resolution.stamps[i]));
+            }
+            writer.newLine();
+        }
+    }
+
+    private static boolean areWritable(String[] fields) {
+        for (String field : fields) {
+            if (!isWritable(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWritable(String field) {
+        return field.indexOf('\t') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0;
+    }
+}
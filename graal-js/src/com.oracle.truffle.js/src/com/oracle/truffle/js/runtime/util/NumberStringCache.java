@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.Boundaries;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.doubleconv.DoubleConversion;
+
+/**
+ * Number to string conversion cache, similar to V8's NumberStringCache. Small non-negative integers
+ * map to preallocated strings; other doubles are looked up in a direct-mapped cache of recently
+ * converted values. Strings are immutable and context-independent, so both tables are shared.
+ *
+ * Also provides helpers that format numbers directly into a {@link StringBuilder} or {@code char[]}
+ * without materializing an intermediate string.
+ */
+public final class NumberStringCache {
+
+    private static final int SMALL_INT_CACHE_SIZE = 1024;
+    private static final int DOUBLE_CACHE_SIZE = 512;
+
+    @CompilationFinal(dimensions = 1) private static final String[] SMALL_INTS = createSmallInts();
+
+    /** Direct-mapped cache; entries are immutable, so racy access is benign. */
+    private static final DoubleEntry[] DOUBLE_CACHE = new DoubleEntry[DOUBLE_CACHE_SIZE];
+
+    private NumberStringCache() {
+    }
+
+    private static String[] createSmallInts() {
+        String[] smallInts = new String[SMALL_INT_CACHE_SIZE];
+        for (int i = 0; i < smallInts.length; i++) {
+            smallInts[i] = String.valueOf(i);
+        }
+        return smallInts;
+    }
+
+    public static String intToString(int i) {
+        if (i >= 0 && i < SMALL_INT_CACHE_SIZE) {
+            return SMALL_INTS[i];
+        }
+        return Boundaries.stringValueOf(i);
+    }
+
+    public static String longToString(long l) {
+        if (l >= 0 && l < SMALL_INT_CACHE_SIZE) {
+            return SMALL_INTS[(int) l];
+        }
+        return Boundaries.stringValueOf(l);
+    }
+
+    /**
+     * Shortest round-trip representation of a finite double, see
+     * {@link DoubleConversion#toShortest(double)}. Does not special-case integers.
+     */
+    @TruffleBoundary
+    public static String formatShortest(double d) {
+        long bits = Double.doubleToRawLongBits(d);
+        int slot = hash(bits) & (DOUBLE_CACHE_SIZE - 1);
+        DoubleEntry entry = DOUBLE_CACHE[slot];
+        if (entry != null && entry.bits == bits) {
+            return entry.string;
+        }
+        String string = DoubleConversion.toShortest(d);
+        DOUBLE_CACHE[slot] = new DoubleEntry(bits, string);
+        return string;
+    }
+
+    private static int hash(long bits) {
+        long h = bits * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+
+    /**
+     * Appends ToString(d) to the builder without creating an intermediate string. The caller is
+     * responsible for the string length check.
+     */
+    @TruffleBoundary
+    public static void appendNumber(StringBuilder sb, double d) {
+        if (Double.isNaN(d)) {
+            sb.append(JSRuntime.NAN_STRING);
+        } else if (d == Double.POSITIVE_INFINITY) {
+            sb.append(JSRuntime.INFINITY_STRING);
+        } else if (d == Double.NEGATIVE_INFINITY) {
+            sb.append(JSRuntime.NEGATIVE_INFINITY_STRING);
+        } else if (d == 0) {
+            sb.append('0');
+        } else if (JSRuntime.doubleIsRepresentableAsInt(d)) {
+            sb.append((int) d);
+        } else {
+            DoubleConversion.toShortest(d, sb);
+        }
+    }
+
+    /**
+     * Writes the decimal digits of {@code value} into {@code dst} so that the last digit ends up at
+     * index {@code end - 1}.
+     */
+    public static void getChars(int value, char[] dst, int end) {
+        long v = value;
+        boolean negative = v < 0;
+        if (negative) {
+            v = -v;
+        }
+        int pos = end;
+        do {
+            dst[--pos] = (char) ('0' + (int) (v % 10));
+            v /= 10;
+        } while (v != 0);
+        if (negative) {
+            dst[--pos] = '-';
+        }
+    }
+
+    private static final class DoubleEntry {
+        final long bits;
+        final String string;
+
+        DoubleEntry(long bits, String string) {
+            this.bits = bits;
+            this.string = string;
+        }
+    }
+}
@@ -111,6 +111,16 @@ public final class StringBuilderProfile extends NodeCloneable {
         Boundaries.builderAppend(builder, longValue);
     }
 
+    public void append(StringBuilder builder, double doubleValue) {
+        int length = builder.length();
+        NumberStringCache.appendNumber(builder, doubleValue);
+        if (builder.length() > stringLengthLimit) {
+            errorBranch.enter();
+            Boundaries.builderSetLength(builder, length);
+            throw Errors.createRangeErrorInvalidStringLength();
+        }
+    }
+
     public void append(StringBuilder builder, String charSequence, int start, int end) {
         assert start <= end;
         if (builder.length() + (end - start) > stringLengthLimit) {